@@ -0,0 +1,80 @@
+package com.amazon.ata.mocking.rackmonitor.benchmarks;
+
+import com.amazon.ata.mocking.rackmonitor.HealthSource;
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.simulation.TestServers;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds synthetic fleets of Racks for benchmarks.
+ *
+ * Production servers report a uniformly random health between 0.0 and
+ * 1.0 on every sweep, so the share of the fleet that needs attention is
+ * set by the thresholds rather than by the servers themselves: use
+ * inspectHealthFor() and replaceHealthFor() to get thresholds that flag
+ * the requested ratio of servers on each sweep.
+ */
+public final class FleetGenerator {
+
+    private FleetGenerator() {
+    }
+
+    /**
+     * Builds a fleet of production (randomly healthy) servers.
+     * @param racks How many Racks to build.
+     * @param serversPerRack How many Servers to install in each Rack,
+     *                       one per unit slot.
+     * @return the Racks.
+     */
+    public static Set<Rack> generate(int racks, int serversPerRack) {
+        return generate(racks, serversPerRack, "SRV", null);
+    }
+
+    /**
+     * Builds a fleet of test servers, whose health is the same on
+     * every sweep.
+     * @param racks How many Racks to build.
+     * @param serversPerRack How many Servers to install in each Rack.
+     * @return the Racks.
+     */
+    public static Set<Rack> generateTestFleet(int racks, int serversPerRack) {
+        return generate(racks, serversPerRack, "TEST", new TestServers());
+    }
+
+    /**
+     * Returns the inspect threshold that flags about the given share of
+     * production servers on each sweep.
+     * @param unhealthyRatio The share of servers that should need attention.
+     * @return the inspectHealth to construct a RackMonitor with.
+     */
+    public static double inspectHealthFor(double unhealthyRatio) {
+        return unhealthyRatio;
+    }
+
+    /**
+     * Returns the replace threshold to pair with inspectHealthFor(): half
+     * of the flagged servers are replaced, the other half inspected.
+     * @param unhealthyRatio The share of servers that should need attention.
+     * @return the replaceHealth to construct a RackMonitor with.
+     */
+    public static double replaceHealthFor(double unhealthyRatio) {
+        return unhealthyRatio / 2;
+    }
+
+    private static Set<Rack> generate(int racks, int serversPerRack, String prefix, HealthSource healthSource) {
+        Set<Rack> fleet = new HashSet<>();
+        for (int r = 0; r < racks; r++) {
+            Map<Server, Integer> unitMap = new HashMap<>();
+            for (int unit = 0; unit < serversPerRack; unit++) {
+                unitMap.put(new Server(String.format("%s%08d", prefix, r * serversPerRack + unit)), unit);
+            }
+            fleet.add(new Rack(String.format("RACK%06d", r), unitMap, healthSource));
+        }
+        return fleet;
+    }
+}
@@ -0,0 +1,108 @@
+package com.amazon.ata.mocking.rackmonitor.benchmarks;
+
+import com.amazon.ata.mocking.rackmonitor.HealthIncident;
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.incidents.IncidentCodec;
+import com.amazon.ata.mocking.rackmonitor.incidents.PackedIncidentStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures hashing and deduping HealthIncidents.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=HealthIncidentBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HealthIncidentBenchmark {
+    @Param({"100000"})
+    public int knownIncidents;
+
+    private Set<HealthIncident> incidents;
+    private IncidentCodec codec;
+    private PackedIncidentStore packedIncidents;
+    private HealthIncident incident;
+    private Rack rack;
+    private Server server;
+
+    /**
+     * Fills a Set and a PackedIncidentStore with incidents from a
+     * synthetic fleet.
+     */
+    @Setup
+    public void setUp() {
+        incidents = new HashSet<>();
+        codec = new IncidentCodec();
+        packedIncidents = new PackedIncidentStore(codec);
+        int serversPerRack = 30;
+        for (Rack fleetRack : FleetGenerator.generate(knownIncidents / serversPerRack, serversPerRack)) {
+            for (int unit = 0; unit < fleetRack.getNumUnits(); unit++) {
+                HealthIncident known = new HealthIncident(fleetRack.getServerForUnit(unit), fleetRack, unit,
+                    RequestAction.REPLACE);
+                incidents.add(known);
+                packedIncidents.record(known);
+            }
+            rack = fleetRack;
+        }
+        server = rack.getServerForUnit(0);
+        incident = new HealthIncident(server, rack, 0, RequestAction.REPLACE);
+    }
+
+    /**
+     * Hashes one HealthIncident.
+     * @return the hash code, so it isn't optimized away.
+     */
+    @Benchmark
+    public int hashCodeOnly() {
+        return incident.hashCode();
+    }
+
+    /**
+     * Builds a HealthIncident and checks whether it was already reported,
+     * the way RackMonitor does for every unhealthy server.
+     * @return whether it was found, so it isn't optimized away.
+     */
+    @Benchmark
+    public boolean dedupeLookup() {
+        return incidents.contains(new HealthIncident(server, rack, 0, RequestAction.REPLACE));
+    }
+
+    /**
+     * Packs one HealthIncident into a long.
+     * @return the code, so it isn't optimized away.
+     */
+    @Benchmark
+    public long encode() {
+        return codec.encode(incident);
+    }
+
+    /**
+     * Checks whether an incident was already reported, against the
+     * PackedIncidentStore.
+     * @return whether it was found, so it isn't optimized away.
+     */
+    @Benchmark
+    public boolean packedDedupeLookup() {
+        return packedIncidents.contains(new HealthIncident(server, rack, 0, RequestAction.REPLACE));
+    }
+}
@@ -0,0 +1,77 @@
+package com.amazon.ata.mocking.rackmonitor.benchmarks;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RackMonitor;
+import com.amazon.ata.mocking.rackmonitor.ingest.GeneratedHealthPublisher;
+import com.amazon.ata.mocking.rackmonitor.ingest.HealthRingBuffer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many health samples per second the streaming path can
+ * publish and consume, one batch at a time on a single thread.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=HealthIngestBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HealthIngestBenchmark {
+    private static final int BATCH = 4096;
+
+    @Param({"1000"})
+    public int racks;
+
+    @Param({"30"})
+    public int serversPerRack;
+
+    @Param({"0.0", "0.01"})
+    public double unhealthyRatio;
+
+    private RackMonitor rackMonitor;
+    private GeneratedHealthPublisher publisher;
+    private HealthRingBuffer buffer;
+
+    /**
+     * Builds a fresh fleet and RackMonitor for each iteration, so the
+     * incidents from one iteration don't dedupe the next.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Set<Rack> fleet = FleetGenerator.generate(racks, serversPerRack);
+        rackMonitor = new RackMonitor(fleet, new StubWingnutClient(0), new StubWarrantyClient(0),
+            FleetGenerator.inspectHealthFor(unhealthyRatio),
+            FleetGenerator.replaceHealthFor(unhealthyRatio));
+        publisher = new GeneratedHealthPublisher(fleet, 20L);
+        buffer = new HealthRingBuffer(BATCH);
+    }
+
+    /**
+     * Publishes a batch of samples and consumes it.
+     * @return the number of failures, so the work isn't optimized away.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int publishAndConsume() {
+        publisher.publish(buffer, BATCH);
+        return rackMonitor.consumeHealth(buffer, BATCH).size();
+    }
+}
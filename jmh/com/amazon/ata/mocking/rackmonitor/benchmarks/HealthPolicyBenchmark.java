@@ -0,0 +1,79 @@
+package com.amazon.ata.mocking.rackmonitor.benchmarks;
+
+import com.amazon.ata.mocking.rackmonitor.policy.HealthPolicy;
+import com.amazon.ata.mocking.rackmonitor.policy.HealthPolicyLoader;
+import com.amazon.ata.mocking.rackmonitor.policy.HealthRule;
+import com.amazon.ata.mocking.rackmonitor.smoothing.HealthSmoother;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long a HealthPolicy takes to find the rule for one
+ * reading, cycling through a fleet of Racks and Servers.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=HealthPolicyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HealthPolicyBenchmark {
+    private static final int RACKS = 1000;
+    private static final int SERVERS = 30;
+
+    private final String[] rackIds = new String[RACKS];
+    private final String[] serverIds = new String[SERVERS];
+    private final HealthSmoother smoother = new HealthSmoother(0.9, 0.8);
+    private HealthPolicy thresholdsOnly;
+    private HealthPolicy rulesByRackAndServer;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        for (int r = 0; r < RACKS; r++) {
+            rackIds[r] = String.format("ROW%d-RACK%06d", r % 10, r);
+        }
+        for (int s = 0; s < SERVERS; s++) {
+            serverIds[s] = String.format("%s%08d", s % 3 == 0 ? "GPU" : "SRV", s);
+        }
+        thresholdsOnly = HealthPolicy.compile(Collections.emptyList(), 0.9, 0.8);
+        rulesByRackAndServer = HealthPolicyLoader.parse(Arrays.asList(
+            "rack=ROW7 server=GPU hours=22-6 inspect=0.99 replace=0.95",
+            "rack=ROW7 server=GPU inspect=0.97 replace=0.93",
+            "server=GPU inspect=0.95 replace=0.9",
+            "rack=ROW3 inspect=0.92 replace=0.85"), 0.9, 0.8);
+        // Warm the per-rack rules, as the first sweep would
+        for (String rackId : rackIds) {
+            rulesByRackAndServer.ruleFor(rackId, serverIds[0], 0.5, smoother);
+        }
+    }
+
+    @Benchmark
+    public HealthRule thresholdsOnly() {
+        int reading = next++;
+        return thresholdsOnly.ruleFor(rackIds[(reading / SERVERS) % RACKS], serverIds[reading % SERVERS],
+            0.5, smoother);
+    }
+
+    @Benchmark
+    public HealthRule rulesByRackAndServer() {
+        int reading = next++;
+        return rulesByRackAndServer.ruleFor(rackIds[(reading / SERVERS) % RACKS], serverIds[reading % SERVERS],
+            0.5, smoother);
+    }
+}
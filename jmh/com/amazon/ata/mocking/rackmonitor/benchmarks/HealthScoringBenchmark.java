@@ -0,0 +1,72 @@
+package com.amazon.ata.mocking.rackmonitor.benchmarks;
+
+import com.amazon.ata.mocking.rackmonitor.HealthReport;
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.telemetry.SyntheticTelemetry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures computing a Rack's health from telemetry: scoring every
+ * Server in one pass, and recording the samples that feed it.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=HealthScoringBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HealthScoringBenchmark {
+    @Param({"30", "256"})
+    public int serversPerRack;
+
+    private Rack rack;
+    private SyntheticTelemetry telemetry;
+    private HealthReport healthReport;
+
+    /**
+     * Builds the Rack to measure, with its telemetry windows full.
+     */
+    @Setup
+    public void setUp() {
+        rack = FleetGenerator.generate(1, serversPerRack).iterator().next();
+        telemetry = new SyntheticTelemetry(Collections.singleton(rack), 0.1, 7L);
+        telemetry.tick(Rack.TELEMETRY_WINDOW);
+        healthReport = new HealthReport();
+    }
+
+    /**
+     * Scores every Server in the Rack into a reused HealthReport.
+     * @return the HealthReport, so it isn't optimized away.
+     */
+    @Benchmark
+    public HealthReport scoreRack() {
+        rack.fillHealth(healthReport);
+        return healthReport;
+    }
+
+    /**
+     * Records one sample for every Server in the Rack.
+     * @return the Rack's telemetry, so it isn't optimized away.
+     */
+    @Benchmark
+    public Object recordSamples() {
+        telemetry.tick();
+        return rack.getTelemetry();
+    }
+}
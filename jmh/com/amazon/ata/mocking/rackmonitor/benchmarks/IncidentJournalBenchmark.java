@@ -0,0 +1,93 @@
+package com.amazon.ata.mocking.rackmonitor.benchmarks;
+
+import com.amazon.ata.mocking.rackmonitor.HealthIncident;
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.incidents.IncidentJournal;
+import com.amazon.ata.mocking.rackmonitor.incidents.JournaledIncidentStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long a restarted RackMonitor takes to replay its
+ * incident journal. The journal's size for each fleet is printed
+ * during setup.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=IncidentJournalBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class IncidentJournalBenchmark {
+    @Param({"100000", "1000000"})
+    public int incidents;
+
+    private Set<Rack> racks;
+    private Path journalPath;
+
+    /**
+     * Writes a journal with one incident per server.
+     * @throws IOException if the journal can't be written.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        int serversPerRack = 30;
+        racks = FleetGenerator.generate(incidents / serversPerRack, serversPerRack);
+        journalPath = Files.createTempFile("incidents", ".journal");
+        Files.delete(journalPath);
+
+        try (IncidentJournal journal = new IncidentJournal(journalPath)) {
+            journal.replay(code -> { }, code -> { });
+            for (Rack rack : racks) {
+                for (int unit = 0; unit < rack.getNumUnits(); unit++) {
+                    journal.append(journal.getCodec().encode(new HealthIncident(rack.getServerForUnit(unit), rack,
+                        unit, RequestAction.INSPECT)));
+                }
+            }
+            System.out.printf("%nJournal of %d incidents: %d bytes used, %d bytes on disk%n",
+                journal.getRecordCount(), journal.getUsedBytes(), Files.size(journalPath));
+        }
+    }
+
+    /**
+     * Deletes the journal.
+     * @throws IOException if the journal can't be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(journalPath);
+    }
+
+    /**
+     * Replays the whole journal into a new store, as on startup.
+     * @return the number of incidents restored, so it isn't optimized away.
+     * @throws IOException if the journal can't be read.
+     */
+    @Benchmark
+    public int replay() throws IOException {
+        try (JournaledIncidentStore store = new JournaledIncidentStore(new IncidentJournal(journalPath), racks)) {
+            return store.getIncidents().size();
+        }
+    }
+}
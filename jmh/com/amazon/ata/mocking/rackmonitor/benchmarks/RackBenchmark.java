@@ -0,0 +1,72 @@
+package com.amazon.ata.mocking.rackmonitor.benchmarks;
+
+import com.amazon.ata.mocking.rackmonitor.HealthReport;
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.Server;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading the health of a single Rack.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=RackBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RackBenchmark {
+    @Param({"30"})
+    public int serversPerRack;
+
+    @Param({"false", "true"})
+    public boolean testServers;
+
+    private Rack rack;
+    private HealthReport healthReport;
+
+    /**
+     * Builds the Rack to measure.
+     */
+    @Setup
+    public void setUp() {
+        rack = (testServers ?
+            FleetGenerator.generateTestFleet(1, serversPerRack) :
+            FleetGenerator.generate(1, serversPerRack)).iterator().next();
+        healthReport = new HealthReport();
+    }
+
+    /**
+     * Reads health into a fresh Map of boxed Doubles.
+     * @return the health Map, so it isn't optimized away.
+     */
+    @Benchmark
+    public Map<Server, Double> getHealth() {
+        return rack.getHealth();
+    }
+
+    /**
+     * Reads health into a reused primitive HealthReport.
+     * @return the HealthReport, so it isn't optimized away.
+     */
+    @Benchmark
+    public HealthReport fillHealth() {
+        rack.fillHealth(healthReport);
+        return healthReport;
+    }
+}
@@ -0,0 +1,94 @@
+package com.amazon.ata.mocking.rackmonitor.benchmarks;
+
+import com.amazon.ata.mocking.rackmonitor.HealthReport;
+import com.amazon.ata.mocking.rackmonitor.RackMonitor;
+import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorDependencyException;
+import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full sweep of a synthetic fleet through each of the
+ * RackMonitor sweep paths.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=RackMonitorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RackMonitorBenchmark {
+    @Param({"100", "1000"})
+    public int racks;
+
+    @Param({"30"})
+    public int serversPerRack;
+
+    @Param({"0.0", "0.01", "0.1"})
+    public double unhealthyRatio;
+
+    @Param({"0"})
+    public long dependencyLatencyMicros;
+
+    private RackMonitor rackMonitor;
+    private HealthReport healthReport;
+
+    /**
+     * Builds a fresh fleet and RackMonitor for each iteration, so the
+     * incidents from one iteration don't dedupe the next.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        rackMonitor = new RackMonitor(FleetGenerator.generate(racks, serversPerRack),
+            new StubWingnutClient(dependencyLatencyMicros),
+            new StubWarrantyClient(dependencyLatencyMicros),
+            FleetGenerator.inspectHealthFor(unhealthyRatio),
+            FleetGenerator.replaceHealthFor(unhealthyRatio));
+        healthReport = new HealthReport();
+    }
+
+    /**
+     * Sweeps the fleet through the original Map-based path.
+     * @throws RackMonitorException never, with the stub clients.
+     * @throws RackMonitorDependencyException never, with the stub clients.
+     */
+    @Benchmark
+    public void monitorRacks() throws RackMonitorException, RackMonitorDependencyException {
+        rackMonitor.monitorRacks();
+    }
+
+    /**
+     * Sweeps the fleet through the primitive HealthReport path.
+     * @throws RackMonitorException never, with the stub clients.
+     * @throws RackMonitorDependencyException never, with the stub clients.
+     */
+    @Benchmark
+    public void monitorRacksWithHealthReport() throws RackMonitorException, RackMonitorDependencyException {
+        rackMonitor.monitorRacks(healthReport);
+    }
+
+    /**
+     * Sweeps only the servers whose health changed.
+     * @throws RackMonitorException never, with the stub clients.
+     * @throws RackMonitorDependencyException never, with the stub clients.
+     */
+    @Benchmark
+    public void monitorRackChanges() throws RackMonitorException, RackMonitorDependencyException {
+        rackMonitor.monitorRackChanges();
+    }
+}
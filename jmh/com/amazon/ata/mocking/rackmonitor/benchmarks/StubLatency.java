@@ -0,0 +1,22 @@
+package com.amazon.ata.mocking.rackmonitor.benchmarks;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulates the latency of a remote call.
+ */
+final class StubLatency {
+
+    private StubLatency() {
+    }
+
+    /**
+     * Parks the calling thread, like a blocking network call would.
+     * @param nanos How long to wait; 0 returns immediately.
+     */
+    static void pause(long nanos) {
+        if (nanos > 0) {
+            LockSupport.parkNanos(nanos);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.amazon.ata.mocking.rackmonitor.benchmarks;
+
+import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A WarrantyClient that returns the same Warranty for every Server
+ * after a configurable latency, like a round trip to the real service.
+ */
+public class StubWarrantyClient extends WarrantyClient {
+    private final long latencyNanos;
+    private final Warranty warranty = new Warranty("benchmark warranty");
+
+    /**
+     * Constructs a StubWarrantyClient.
+     * @param latencyMicros How long each lookup should take.
+     */
+    public StubWarrantyClient(long latencyMicros) {
+        this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+    }
+
+    @Override
+    public Warranty getWarrantyForServer(Server server) {
+        StubLatency.pause(latencyNanos);
+        return warranty;
+    }
+}
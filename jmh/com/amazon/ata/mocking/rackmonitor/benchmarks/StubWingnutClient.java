@@ -0,0 +1,38 @@
+package com.amazon.ata.mocking.rackmonitor.benchmarks;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutClient;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A WingnutClient that files nothing and prints nothing; it just waits
+ * for a configurable latency, like a round trip to the real service.
+ */
+public class StubWingnutClient extends WingnutClient {
+    private final long latencyNanos;
+
+    /**
+     * Constructs a StubWingnutClient.
+     * @param latencyMicros How long each request should take.
+     */
+    public StubWingnutClient(long latencyMicros) {
+        this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+    }
+
+    @Override
+    public void requestReplacement(Rack rack, int unit, Warranty warranty) {
+        StubLatency.pause(latencyNanos);
+    }
+
+    @Override
+    public void requestInspection(Rack rack, int unit) {
+        StubLatency.pause(latencyNanos);
+    }
+
+    @Override
+    public void cancelInspection(Rack rack, int unit) {
+        StubLatency.pause(latencyNanos);
+    }
+}
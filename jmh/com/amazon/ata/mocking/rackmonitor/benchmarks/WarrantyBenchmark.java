@@ -0,0 +1,102 @@
+package com.amazon.ata.mocking.rackmonitor.benchmarks;
+
+import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.CachingWarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyNotFoundException;
+import com.amazon.ata.mocking.rackmonitor.simulation.TestServers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Warranty expiry checks and lookups.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=WarrantyBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WarrantyBenchmark {
+    private Warranty warranty;
+    private WarrantyClient warrantyClient;
+    private WarrantyClient cachingWarrantyClient;
+    private WarrantyClient testWarrantyClient;
+    private Server server;
+    private Server testServer;
+
+    /**
+     * Builds the Warranty and clients to measure.
+     */
+    @Setup
+    public void setUp() {
+        warranty = new Warranty("for SRV00000001");
+        warrantyClient = new WarrantyClient();
+        cachingWarrantyClient = new CachingWarrantyClient(warrantyClient, 60_000L, 10_000L);
+        testWarrantyClient = new WarrantyClient(new TestServers());
+        server = new Server("SRV00000001");
+        testServer = new Server("TEST0001");
+    }
+
+    /**
+     * Checks expiry on a new Warranty, which has to compute its digest.
+     * @return whether it expired, so it isn't optimized away.
+     */
+    @Benchmark
+    public boolean hasExpiredFirstCall() {
+        return new Warranty("for SRV00000001").hasExpired();
+    }
+
+    /**
+     * Checks expiry on a Warranty that has already been checked.
+     * @return whether it expired, so it isn't optimized away.
+     */
+    @Benchmark
+    public boolean hasExpiredRepeated() {
+        return warranty.hasExpired();
+    }
+
+    /**
+     * Looks up a production server's Warranty.
+     * @return the Warranty, so it isn't optimized away.
+     * @throws WarrantyNotFoundException never, for this server.
+     */
+    @Benchmark
+    public Warranty getWarrantyForServer() throws WarrantyNotFoundException {
+        return warrantyClient.getWarrantyForServer(server);
+    }
+
+    /**
+     * Looks up a test server's Warranty, which computes a digest.
+     * @return the Warranty, so it isn't optimized away.
+     * @throws WarrantyNotFoundException never, for this server.
+     */
+    @Benchmark
+    public Warranty getWarrantyForTestServer() throws WarrantyNotFoundException {
+        return testWarrantyClient.getWarrantyForServer(testServer);
+    }
+
+    /**
+     * Looks up the same Warranty through the cache.
+     * @return the Warranty, so it isn't optimized away.
+     * @throws WarrantyNotFoundException never, for this server.
+     */
+    @Benchmark
+    public Warranty getWarrantyForServerCached() throws WarrantyNotFoundException {
+        return cachingWarrantyClient.getWarrantyForServer(server);
+    }
+}
@@ -0,0 +1,41 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The Servers in a Rack whose health changed since a given epoch,
+ * along with the epoch to ask from next time.
+ */
+public class HealthDelta {
+    private final long epoch;
+    private final Map<Server, Double> changes;
+
+    /**
+     * Constructs a HealthDelta.
+     * @param epoch The Rack's epoch when this delta was taken.
+     * @param changes The current health of each Server that changed.
+     */
+    public HealthDelta(long epoch, Map<Server, Double> changes) {
+        this.epoch = epoch;
+        this.changes = Collections.unmodifiableMap(changes);
+    }
+
+    /**
+     * Returns the epoch this delta was taken at. Pass it to the next
+     * call to Rack.getHealthChanges() to get only newer changes.
+     * @return the epoch this delta was taken at.
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public Map<Server, Double> getChanges() {
+        return changes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{epoch %d: %d changes}", epoch, changes.size());
+    }
+}
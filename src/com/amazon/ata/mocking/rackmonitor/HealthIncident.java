@@ -19,6 +19,18 @@ public class HealthIncident {
         this.action = action;
     }
 
+    /**
+     * Returns the incident for a whole Rack that has failed. A Rack has
+     * no Server of its own, so the incident stands in one named after
+     * the Rack, in unit 0; INSPECT_RACK keeps it apart from any real
+     * Server's incidents.
+     * @param rack The failed Rack.
+     * @return an INSPECT_RACK HealthIncident for the Rack.
+     */
+    public static HealthIncident forRack(Rack rack) {
+        return new HealthIncident(new Server(rack.getRackId()), rack, 0, RequestAction.INSPECT_RACK);
+    }
+
     public Server getServer() {
         return server;
     }
@@ -35,6 +47,16 @@ public class HealthIncident {
         return action;
     }
 
+    /**
+     * Returns the incident for a different action on the same Server,
+     * such as the INSPECT a REPLACE supersedes.
+     * @param otherAction The action of the other incident.
+     * @return a HealthIncident for the same Server, Rack and unit.
+     */
+    public HealthIncident withAction(RequestAction otherAction) {
+        return otherAction == action ? this : new HealthIncident(server, rack, unit, otherAction);
+    }
+
     @Override
     public String toString() {
         return String.format("{%s %s in %s unit %d}",
@@ -58,6 +80,11 @@ public class HealthIncident {
 
     @Override
     public int hashCode() {
-        return Objects.hash(server, rack, unit, action);
+        // Same value as Objects.hash(server, rack, unit, action), without
+        // allocating a varargs array or boxing the unit
+        int result = 31 + Objects.hashCode(server);
+        result = 31 * result + Objects.hashCode(rack);
+        result = 31 * result + Integer.hashCode(unit);
+        return 31 * result + Objects.hashCode(action);
     }
 }
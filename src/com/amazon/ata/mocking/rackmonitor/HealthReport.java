@@ -0,0 +1,81 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+import java.util.Arrays;
+
+/**
+ * A reusable, primitive report of the health of each unit slot in a
+ * Rack. The caller owns the report and passes it to Rack.fillHealth()
+ * on every sweep; once its arrays have grown to fit the largest Rack,
+ * filling it allocates nothing and boxes nothing.
+ *
+ * Empty unit slots have no Server and a health of NaN, which fails
+ * every threshold comparison. So does a Server that hasn't reported
+ * any telemetry yet.
+ */
+public class HealthReport {
+    private double[] health = new double[0];
+    private Server[] servers = new Server[0];
+    private int unitCount;
+
+    /**
+     * Returns how many unit slots the last Rack reported on.
+     * @return one more than the highest unit slot in the last Rack.
+     */
+    public int getUnitCount() {
+        return unitCount;
+    }
+
+    /**
+     * Returns the health of the Server in a unit slot.
+     * @param unit The unit slot to look at.
+     * @return The Server's health, or NaN if the slot is empty or its
+     *         Server hasn't reported yet.
+     */
+    public double getHealth(int unit) {
+        return health[unit];
+    }
+
+    /**
+     * Returns the Server in a unit slot.
+     * @param unit The unit slot to look at.
+     * @return The Server, or null if the slot is empty.
+     */
+    public Server getServer(int unit) {
+        return servers[unit];
+    }
+
+    /**
+     * Clears the report so it can hold a Rack with the given number of
+     * unit slots, growing its arrays only if they are too small.
+     * @param units How many unit slots the next Rack has.
+     */
+    void reset(int units) {
+        if (health.length < units) {
+            health = new double[units];
+            servers = new Server[units];
+        }
+        Arrays.fill(health, 0, units, Double.NaN);
+        Arrays.fill(servers, 0, units, null);
+        unitCount = units;
+    }
+
+    /**
+     * Returns the array behind the report's health values, so a whole
+     * Rack can be scored straight into it.
+     * @return the health array; at least as long as the unit count.
+     */
+    double[] healthValues() {
+        return health;
+    }
+
+    /**
+     * Records the health of the Server in a unit slot.
+     * @param unit The unit slot the Server occupies.
+     * @param server The Server.
+     * @param serverHealth The Server's health.
+     */
+    void set(int unit, Server server, double serverHealth) {
+        servers[unit] = server;
+        health[unit] = serverHealth;
+    }
+}
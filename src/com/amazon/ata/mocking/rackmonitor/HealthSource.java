@@ -0,0 +1,20 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+/**
+ * Supplies the health of Servers from somewhere other than their
+ * telemetry: fixed health for test fixtures, or a simulated fleet for
+ * load tests.
+ *
+ * A Rack built without a HealthSource computes every Server's health
+ * from telemetry, and never calls one.
+ */
+@FunctionalInterface
+public interface HealthSource {
+    /**
+     * Returns the health of a Server. Called on every health read, so
+     * it should be quick, and safe to call from several threads.
+     * @param server The Server to look up.
+     * @return The Server's health, or NaN to fall back to its telemetry.
+     */
+    double getHealth(Server server);
+}
@@ -1,18 +1,42 @@
 package com.amazon.ata.mocking.rackmonitor;
 
 import com.amazon.ata.mocking.rackmonitor.exceptions.NoSuchServerException;
+import com.amazon.ata.mocking.rackmonitor.telemetry.HealthScorer;
+import com.amazon.ata.mocking.rackmonitor.telemetry.RackTelemetry;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
 
 /**
  * Represents a Rack in a data center.
  */
 public class Rack {
+    /** How many recent telemetry samples are kept for each Server. */
+    public static final int TELEMETRY_WINDOW = 60;
+
     private final Map<Server, Integer> unitMap;
     private final String rackId;
 
+    // The Server in each unit slot, so fillHealth() doesn't have to allocate
+    private final Server[] serversByUnit;
+    // Null for production Racks, whose health comes only from telemetry
+    private final HealthSource healthSource;
+
+    // Bookkeeping for getHealthChanges(), per unit slot and independent
+    // of any watch level: the health at the last call, the health before
+    // its last change, and the epoch of that change
+    private final double[] currentHealth;
+    private final double[] lastHealth;
+    private final double[] healthBeforeChange;
+    private final long[] changedAtEpoch;
+    private long epoch;
+
+    // Created when the first telemetry arrives; until then, health is NaN
+    private volatile RackTelemetry telemetry;
+    private volatile HealthScorer healthScorer = HealthScorer.defaults();
+
     /**
      * Constructs a Rack with its ID and a map of
      * the Servers in its unit slots.
@@ -20,8 +44,40 @@ public class Rack {
      * @param unitMap A map of which unit slot each Server uses.
      */
     public Rack(String rackId, Map<Server, Integer> unitMap) {
+        this(rackId, unitMap, null);
+    }
+
+    /**
+     * Constructs a Rack whose Servers' health comes from a HealthSource,
+     * falling back to telemetry for any Server it has no health for.
+     * @param rackId The ID of this Rack.
+     * @param unitMap A map of which unit slot each Server uses.
+     * @param healthSource Supplies the Servers' health; null to use
+     *                     only telemetry.
+     */
+    public Rack(String rackId, Map<Server, Integer> unitMap, HealthSource healthSource) {
         this.rackId = rackId;
         this.unitMap = unitMap;
+        this.healthSource = healthSource;
+
+        int units = 0;
+        for (int unit : unitMap.values()) {
+            if (unit < 0) {
+                throw new IllegalArgumentException(String.format("Rack %s has a negative unit slot!", rackId));
+            }
+            units = Math.max(units, unit + 1);
+        }
+        this.serversByUnit = new Server[units];
+        for (Map.Entry<Server, Integer> serverUnit : unitMap.entrySet()) {
+            serversByUnit[serverUnit.getValue()] = serverUnit.getKey();
+        }
+
+        this.currentHealth = new double[units];
+        this.lastHealth = new double[units];
+        this.healthBeforeChange = new double[units];
+        this.changedAtEpoch = new long[units];
+        Arrays.fill(lastHealth, Double.NaN);
+        Arrays.fill(healthBeforeChange, Double.NaN);
     }
 
     /**
@@ -32,11 +88,33 @@ public class Rack {
      *         actually in this Rack.
      */
     public int getUnitForServer(Server server) throws NoSuchServerException {
-        // Is the Server even in this Rack?
-        if (!unitMap.containsKey(server)) {
+        // Is the Server even in this Rack? One lookup answers both questions.
+        Integer unit = unitMap.get(server);
+        if (unit == null) {
             throw new NoSuchServerException();
         }
-        return unitMap.get(server);
+        return unit;
+    }
+
+    /**
+     * Returns how many unit slots this Rack has.
+     * @return one more than the highest occupied unit slot.
+     */
+    public int getNumUnits() {
+        return serversByUnit.length;
+    }
+
+    /**
+     * Returns the Server in a unit slot.
+     * @param unit The unit slot to look at.
+     * @return The Server in the unit slot, or null if the slot is
+     *         empty or isn't in this Rack.
+     */
+    public Server getServerForUnit(int unit) {
+        if (unit < 0 || unit >= serversByUnit.length) {
+            return null;
+        }
+        return serversByUnit[unit];
     }
 
     /**
@@ -47,45 +125,152 @@ public class Rack {
         return this.rackId;
     }
 
+    /**
+     * Returns the recent telemetry of this Rack's Servers, for telemetry
+     * collectors to record into. Health is computed from it for every
+     * Server that has reported telemetry.
+     * @return this Rack's RackTelemetry.
+     */
+    public RackTelemetry getTelemetry() {
+        RackTelemetry current = telemetry;
+        if (current == null) {
+            synchronized (this) {
+                current = telemetry;
+                if (current == null) {
+                    current = new RackTelemetry(serversByUnit.length, TELEMETRY_WINDOW);
+                    telemetry = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Changes how this Rack turns telemetry into health.
+     * @param scorer The HealthScorer to use.
+     */
+    public void setHealthScorer(HealthScorer scorer) {
+        this.healthScorer = scorer;
+    }
+
     /**
      * Returns a Map of the health of each Server in this Rack,
      * based on our continuous monitoring of temperature, power
-     * usage, time since installation, and other metrics.
+     * usage, time since installation, and other metrics. A Server
+     * that hasn't reported any telemetry has a health of NaN, which
+     * fails every threshold comparison.
      * @return A Map of the estimated health of each Server.
      */
     public Map<Server, Double> getHealth() {
 
         Map<Server, Double> serverHealthMap = new HashMap<>();
         for (Server server : unitMap.keySet()) {
-            Double health = calculateTestHealth(server);
-            if (health == null) {
-                // A *real* Rack would calculate health based on
-                // temperature, power usage, and so on.
-                health = new Random().nextDouble();
-            }
-            serverHealthMap.put(server, health);
+            serverHealthMap.put(server, calculateHealth(server));
         }
         return serverHealthMap;
     }
 
     /**
-     * Calculates a consistent health for a "test" server.
-     * Ugh, why do I have to mix test data into my regular data?
-     * Isn't there a better way to test?
+     * Fills a caller-owned HealthReport with the health of the Server
+     * in each unit slot of this Rack. Unlike getHealth(), this doesn't
+     * allocate a Map or box any values, so a sweep can reuse one
+     * HealthReport for every Rack.
+     * @param report The HealthReport to fill; its previous contents
+     *               are discarded.
+     */
+    public void fillHealth(HealthReport report) {
+        report.reset(serversByUnit.length);
+        double[] scores = report.healthValues();
+        // Straight into the report
+        scoreUnits(scores);
+        for (int unit = 0; unit < serversByUnit.length; unit++) {
+            Server server = serversByUnit[unit];
+            if (server != null) {
+                report.set(unit, server, scores[unit]);
+            }
+        }
+    }
+
+    /**
+     * Returns only the Servers whose health changed in a way that
+     * matters since the given epoch: Servers below the watch level
+     * whose health moved, and Servers that crossed the watch level in
+     * either direction. A healthy Server that stays healthy is never
+     * included, so a healthy Rack returns an empty delta.
      *
-     * @param server A test Server to generate a fake health for.
-     * @return The fake health; null if not a test server or
-     *         the server ID isn't long enough.
+     * Each call starts a new epoch. Changes are tracked whatever the
+     * watch level, and the watch level is only applied to the result,
+     * so callers with different watch levels don't hide changes from
+     * each other. A Server that changed more than once since the
+     * caller's epoch is judged by its last change alone.
+     *
+     * @param sinceEpoch The epoch of the caller's last delta, or 0 for
+     *                   every change since this Rack started.
+     * @param watchHealth Servers below this health are worth reporting.
+     * @return A HealthDelta with the changed Servers and the new epoch.
      */
-    private Double calculateTestHealth(Server server) {
-        String serverId = server.getServerId();
-        if (!serverId.startsWith("TEST") || serverId.length() < 8) {
-            return null;
+    public synchronized HealthDelta getHealthChanges(long sinceEpoch, double watchHealth) {
+        epoch++;
+        scoreUnits(currentHealth);
+
+        Map<Server, Double> changes = null;
+        for (int unit = 0; unit < serversByUnit.length; unit++) {
+            Server server = serversByUnit[unit];
+            if (server == null) {
+                continue;
+            }
+            double health = currentHealth[unit];
+            double previous = lastHealth[unit];
+            // A Server that still hasn't reported stays NaN, which never equals itself
+            if (health != previous && !(Double.isNaN(health) && Double.isNaN(previous))) {
+                healthBeforeChange[unit] = previous;
+                lastHealth[unit] = health;
+                changedAtEpoch[unit] = epoch;
+            }
+            if (changedAtEpoch[unit] > sinceEpoch &&
+                (health < watchHealth || healthBeforeChange[unit] < watchHealth)) {
+                if (changes == null) {
+                    changes = new HashMap<>();
+                }
+                changes.put(server, health);
+            }
+        }
+        return new HealthDelta(epoch, changes != null ? changes : Collections.emptyMap());
+    }
+
+    /**
+     * Calculates the current health of every unit slot in one pass.
+     * @param scores Receives each unit's health: NaN for an empty slot,
+     *               or a Server that hasn't reported any telemetry yet.
+     */
+    private void scoreUnits(double[] scores) {
+        RackTelemetry current = telemetry;
+        if (current != null) {
+            current.score(healthScorer, scores);
+        }
+        for (int unit = 0; unit < serversByUnit.length; unit++) {
+            Server server = serversByUnit[unit];
+            double health = server != null && healthSource != null ? healthSource.getHealth(server) : Double.NaN;
+            if (Double.isNaN(health) && server != null && current != null) {
+                health = scores[unit];
+            }
+            scores[unit] = health;
         }
+    }
 
-        byte[] seedBytes = serverId.substring(4).getBytes();
-        long seed = seedBytes[3] << 24 | seedBytes[2] << 16 |  seedBytes[1] << 8 | seedBytes[0];
-        return new Random(seed).nextDouble();
+    /**
+     * Calculates the current health of a single Server.
+     * @param server The Server to check.
+     * @return The estimated health of the Server, or NaN if it hasn't
+     *         reported any telemetry yet.
+     */
+    private double calculateHealth(Server server) {
+        double health = healthSource != null ? healthSource.getHealth(server) : Double.NaN;
+        if (Double.isNaN(health)) {
+            RackTelemetry current = telemetry;
+            health = current != null ? current.score(healthScorer, unitMap.get(server)) : Double.NaN;
+        }
+        return health;
     }
 
     @Override
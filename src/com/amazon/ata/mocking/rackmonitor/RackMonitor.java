@@ -1,21 +1,49 @@
 package com.amazon.ata.mocking.rackmonitor;
 
+import com.amazon.ata.mocking.rackmonitor.batch.WorkOrderBatcher;
 import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
 import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
 import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyNotFoundException;
 import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutClient;
 import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutClientException;
 import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutServiceException;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WorkOrder;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WorkOrderResult;
+import com.amazon.ata.mocking.rackmonitor.correlation.RackFailureDetector;
 import com.amazon.ata.mocking.rackmonitor.exceptions.NoSuchServerException;
 import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorDependencyException;
 import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorException;
+import com.amazon.ata.mocking.rackmonitor.incidents.ConcurrentIncidentStore;
+import com.amazon.ata.mocking.rackmonitor.incidents.IncidentStore;
+import com.amazon.ata.mocking.rackmonitor.ingest.HealthRingBuffer;
+import com.amazon.ata.mocking.rackmonitor.metrics.LatencyHistogram;
+import com.amazon.ata.mocking.rackmonitor.metrics.MetricsRegistry;
+import com.amazon.ata.mocking.rackmonitor.metrics.MetricsSnapshot;
+import com.amazon.ata.mocking.rackmonitor.policy.HealthPolicy;
+import com.amazon.ata.mocking.rackmonitor.policy.HealthRule;
+import com.amazon.ata.mocking.rackmonitor.resilience.Bulkhead;
+import com.amazon.ata.mocking.rackmonitor.resilience.TokenBucket;
+import com.amazon.ata.mocking.rackmonitor.smoothing.HealthSmoother;
+import com.amazon.ata.mocking.rackmonitor.sweep.SweepFailure;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static com.amazon.ata.mocking.rackmonitor.RequestAction.INSPECT;
 import static com.amazon.ata.mocking.rackmonitor.RequestAction.REPLACE;
@@ -26,13 +54,82 @@ import static com.amazon.ata.mocking.rackmonitor.RequestAction.REPLACE;
  * request as soon as a server fails or needs inspections.
  */
 public class RackMonitor {
+    /** Histogram of how long each sweep of all the Racks takes. */
+    public static final String SWEEP_LATENCY = "sweep.latency";
+    /** Histogram of how long each Warranty lookup takes. */
+    public static final String WARRANTY_LATENCY = "warranty.latency";
+    /** Histogram of how long each Wingnut INSPECT request takes. */
+    public static final String WINGNUT_INSPECT_LATENCY = "wingnut.inspect.latency";
+    /** Histogram of how long each Wingnut REPLACE request takes. */
+    public static final String WINGNUT_REPLACE_LATENCY = "wingnut.replace.latency";
+    /** Histogram of how long Warranty lookups wait on the limiter and bulkhead. */
+    public static final String WARRANTY_QUEUE_DELAY = "warranty.queue.delay";
+    /** Histogram of how long Wingnut INSPECT requests wait on the limiter and bulkhead. */
+    public static final String WINGNUT_INSPECT_QUEUE_DELAY = "wingnut.inspect.queue.delay";
+    /** Histogram of how long Wingnut REPLACE requests wait on the limiter and bulkhead. */
+    public static final String WINGNUT_REPLACE_QUEUE_DELAY = "wingnut.replace.queue.delay";
+    /** Counter of requests skipped because they were already made. */
+    public static final String DEDUPLICATED = "incidents.deduplicated";
+    /** Counter of INSPECT incidents superseded by a REPLACE. */
+    public static final String ESCALATED = "incidents.escalated";
+    /** Counter of expired Warranties replaced with the nullWarranty. */
+    public static final String EXPIRED_WARRANTIES = "warranty.expired";
+    /** Counter of rack-level incidents filed for a failed Rack. */
+    public static final String RACK_INCIDENTS = "incidents.rack";
+    /** Counter of Servers covered by a rack-level incident, counted when it's filed. */
+    public static final String CORRELATED = "incidents.correlated";
+    /** Counter of health samples consumed from a HealthRingBuffer. */
+    public static final String INGESTED_SAMPLES = "ingest.samples";
+    /** Counter of health samples for Racks or Servers we don't monitor. */
+    public static final String UNKNOWN_SAMPLES = "ingest.unknown";
+    /** Counter of health readings skipped because the Server hasn't reported any telemetry. */
+    public static final String UNREPORTED = "health.unreported";
+
     private Logger logger = LogManager.getLogger(RackMonitor.class);
     private final double inspectHealth;
     private final double replaceHealth;
     private final Set<Rack> racks;
     private final WingnutClient wingnutClient;
     private final WarrantyClient warrantyClient;
-    private final Set<HealthIncident> incidents = new HashSet<>();
+    private final IncidentStore incidents;
+    // The epoch of the last HealthDelta fully handled for each Rack
+    private final Map<Rack, Long> rackEpochs = new ConcurrentHashMap<>();
+
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    // Looked up once, so recording never touches the registry's maps
+    private final LatencyHistogram sweepLatency = metrics.histogram(SWEEP_LATENCY);
+    private final LatencyHistogram warrantyLatency = metrics.histogram(WARRANTY_LATENCY);
+    private final LatencyHistogram inspectLatency = metrics.histogram(WINGNUT_INSPECT_LATENCY);
+    private final LatencyHistogram replaceLatency = metrics.histogram(WINGNUT_REPLACE_LATENCY);
+    private final LatencyHistogram warrantyQueueDelay = metrics.histogram(WARRANTY_QUEUE_DELAY);
+    private final LatencyHistogram inspectQueueDelay = metrics.histogram(WINGNUT_INSPECT_QUEUE_DELAY);
+    private final LatencyHistogram replaceQueueDelay = metrics.histogram(WINGNUT_REPLACE_QUEUE_DELAY);
+    private final LongAdder deduplicated = metrics.counter(DEDUPLICATED);
+    private final LongAdder escalated = metrics.counter(ESCALATED);
+    private final LongAdder expiredWarranties = metrics.counter(EXPIRED_WARRANTIES);
+    private final LongAdder rackIncidents = metrics.counter(RACK_INCIDENTS);
+    private final LongAdder correlated = metrics.counter(CORRELATED);
+    private final LongAdder ingestedSamples = metrics.counter(INGESTED_SAMPLES);
+    private final LongAdder unknownSamples = metrics.counter(UNKNOWN_SAMPLES);
+    private final LongAdder unreported = metrics.counter(UNREPORTED);
+    // Built on the first ingested sample that needs attention, and
+    // again after racksChanged()
+    private volatile Map<String, Rack> racksById;
+
+    // Outbound limits; unlimited until configured. Wingnut's rate limit
+    // is shared, with REPLACE requests going first when it's saturated.
+    private final TokenBucket warrantyLimiter = TokenBucket.unlimited();
+    private final TokenBucket wingnutLimiter = TokenBucket.unlimited();
+    private final Bulkhead warrantyBulkhead = Bulkhead.unbounded();
+    private final Bulkhead inspectBulkhead = Bulkhead.unbounded();
+    private final Bulkhead replaceBulkhead = Bulkhead.unbounded();
+
+    // Rack-wide failures are handled per-server until the detector is configured
+    private final RackFailureDetector rackFailureDetector = RackFailureDetector.disabled();
+    // Each reading is acted on as-is until smoothing is configured
+    private final HealthSmoother healthSmoother;
+    // Null until a policy is installed; the constructor's thresholds apply to every Server
+    private volatile HealthPolicy healthPolicy;
 
     public RackMonitor(Set<Rack> racks,                 // Racks that should be monitored
                        WingnutClient wingnutClient,     // WingnutClient to use if needed
@@ -40,11 +137,24 @@ public class RackMonitor {
                        double inspectHealth,            // Inspect (shaky) threshold
                        double replaceHealth) {          // Replace (unhealthy) threshold value
 
+        this(racks, wingnutClient, warrantyClient, inspectHealth, replaceHealth,
+            new ConcurrentIncidentStore());
+    }
+
+    public RackMonitor(Set<Rack> racks,                 // Racks that should be monitored
+                       WingnutClient wingnutClient,     // WingnutClient to use if needed
+                       WarrantyClient warrantyClient,   // WarrantyClient to use, if needed
+                       double inspectHealth,            // Inspect (shaky) threshold
+                       double replaceHealth,            // Replace (unhealthy) threshold value
+                       IncidentStore incidents) {       // Where to remember reported incidents
+
         this.racks = racks;
         this.wingnutClient = wingnutClient;
         this.warrantyClient = warrantyClient;
         this.inspectHealth = inspectHealth;
         this.replaceHealth = replaceHealth;
+        this.incidents = incidents;
+        this.healthSmoother = new HealthSmoother(inspectHealth, replaceHealth);
     }
 
     /**
@@ -52,39 +162,710 @@ public class RackMonitor {
      * Wingnut if any of them aren't healthy. Does not file repeat
      * requests; keeps track of successful requests.
      *
+     * Once the RackFailureDetector is configured, a Rack whose servers
+     * have failed all at once gets a single rack-level request instead
+     * of one per server; see checkRackFailure().
+     *
      * @throws RackMonitorDependencyException If Wingnut or Warranty fail.
      * @throws RackMonitorException If something goes wrong with our logic.
      */
     public void monitorRacks() throws RackMonitorDependencyException, RackMonitorException {
-        logger.info("monitorRacks(): checking all servers in {} racks", racks.size());
+        logger.debug("monitorRacks(): checking all servers in {} racks", racks.size());
+        long start = System.nanoTime();
         // Monitor all servers in all racks
         for (Rack rack : racks) {
             // Get the health of servers in this rack
             Map<Server, Double> healthReport = rack.getHealth();
+            if (checkRackFailure(rack, healthReport)) {
+                continue;
+            }
             for (Map.Entry<Server, Double> serverHealth : healthReport.entrySet()) {
-                Double health = serverHealth.getValue();
-                Server server = serverHealth.getKey();
-                if (health < replaceHealth) {
-                    // Server should be replaced!
-                    arrangeReplacement(rack, server);
-                } else if (health < inspectHealth) {
-                    // Server should be inspected soon
-                    arrangeInspection(rack, server);
+                checkServer(rack, serverHealth.getKey(), serverHealth.getValue());
+            }
+        }
+        sweepLatency.recordSince(start);
+    }
+
+    /**
+     * Checks all the servers in all the racks like monitorRacks(), but
+     * reads each Rack's health into a caller-owned HealthReport instead
+     * of a Map. Reusing the same report every sweep keeps the healthy
+     * path free of allocation and boxing.
+     *
+     * @param report The HealthReport to reuse for every Rack.
+     * @throws RackMonitorDependencyException If Wingnut or Warranty fail.
+     * @throws RackMonitorException If something goes wrong with our logic.
+     */
+    public void monitorRacks(HealthReport report) throws RackMonitorDependencyException, RackMonitorException {
+        monitorRacks(report, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Checks all the servers in all the racks like
+     * monitorRacks(HealthReport), while counting how many servers are
+     * below a watch threshold. A watch threshold a little above the
+     * inspect threshold counts the servers that are shaky or close to it.
+     *
+     * @param report The HealthReport to reuse for every Rack.
+     * @param watchHealth Count servers whose health is below this.
+     * @return the number of servers whose health is below watchHealth.
+     * @throws RackMonitorDependencyException If Wingnut or Warranty fail.
+     * @throws RackMonitorException If something goes wrong with our logic.
+     */
+    public int monitorRacks(HealthReport report, double watchHealth)
+        throws RackMonitorDependencyException, RackMonitorException {
+
+        return sweepReport(report, watchHealth, null);
+    }
+
+    /**
+     * Checks all the servers in all the racks like
+     * monitorRacks(HealthReport, double), but a failure for one Server
+     * or Rack doesn't abort the sweep. Every Server is checked, and the
+     * failures are collected for the caller.
+     *
+     * @param report The HealthReport to reuse for every Rack.
+     * @param watchHealth Count servers whose health is below this.
+     * @param failures Where to add a SweepFailure for every Server or
+     *                 Rack that couldn't be handled.
+     * @return the number of servers whose health is below watchHealth.
+     */
+    public int monitorRacks(HealthReport report, double watchHealth, List<SweepFailure> failures) {
+        try {
+            return sweepReport(report, watchHealth, Objects.requireNonNull(failures));
+        } catch (RackMonitorException | RackMonitorDependencyException e) {
+            throw new AssertionError("A collecting sweep threw instead of collecting", e);
+        }
+    }
+
+    /**
+     * Sweeps every Rack through the HealthReport.
+     * @param report The HealthReport to reuse for every Rack.
+     * @param watchHealth Count servers whose health is below this.
+     * @param failures Where to collect failures, or null to throw the
+     *                 first one.
+     * @return the number of servers whose health is below watchHealth.
+     * @throws RackMonitorDependencyException If Wingnut or Warranty fail
+     *         and failures is null.
+     * @throws RackMonitorException If something goes wrong with our logic
+     *         and failures is null.
+     */
+    private int sweepReport(HealthReport report, double watchHealth, List<SweepFailure> failures)
+        throws RackMonitorDependencyException, RackMonitorException {
+
+        long start = System.nanoTime();
+        int watched = 0;
+        for (Rack rack : racks) {
+            rack.fillHealth(report);
+            boolean rackFailed;
+            try {
+                rackFailed = rackFailureDetector.isEnabled() && checkRackFailure(rack, report);
+            } catch (RackMonitorException | RackMonitorDependencyException e) {
+                if (failures == null) {
+                    throw e;
+                }
+                failures.add(new SweepFailure(rack, null, e));
+                rackFailed = true;
+            }
+            for (int unit = 0; unit < report.getUnitCount(); unit++) {
+                double health = report.getHealth(unit);
+                // Empty slots and unreported Servers are NaN, so they're never counted or acted on
+                if (health < watchHealth) {
+                    watched++;
+                }
+                Server server = report.getServer(unit);
+                if (server != null && Double.isNaN(health)) {
+                    unreported.increment();
+                    continue;
                 }
-                // else server needs no attention
+                if (!rackFailed && server != null && worthChecking(health)) {
+                    try {
+                        // The report already knows the unit; no need to look it up
+                        checkServer(rack, server, unit, health);
+                    } catch (RackMonitorException | RackMonitorDependencyException e) {
+                        if (failures == null) {
+                            throw e;
+                        }
+                        failures.add(new SweepFailure(rack, server, e));
+                    }
+                }
+            }
+        }
+        sweepLatency.recordSince(start);
+        return watched;
+    }
+
+    /**
+     * Checks only the servers whose health changed since the last call,
+     * filing requests with Wingnut if any of them aren't healthy. On a
+     * mostly healthy fleet, this does almost no work per sweep.
+     *
+     * A Rack's changes are only marked as handled once every one of
+     * them was handled, so a failed request is retried next time.
+     *
+     * A delta can't show whether a whole Rack has failed, so when a
+     * Rack's delta has a Server due for replacement, or the Rack has
+     * already failed, its full health is read and checked by the
+     * RackFailureDetector first. That read is only made when the delta
+     * already needs Wingnut.
+     *
+     * @throws RackMonitorDependencyException If Wingnut or Warranty fail.
+     * @throws RackMonitorException If something goes wrong with our logic.
+     */
+    public void monitorRackChanges() throws RackMonitorDependencyException, RackMonitorException {
+        long start = System.nanoTime();
+        for (Rack rack : racks) {
+            HealthDelta delta = rack.getHealthChanges(rackEpochs.getOrDefault(rack, 0L), inspectHealth);
+            Map<Server, Double> changes = delta.getChanges();
+            boolean wasFailed = isFailed(rack);
+            if (rackFailureDetector.isEnabled() && (wasFailed || anyDueForReplacement(changes))) {
+                Map<Server, Double> health = rack.getHealth();
+                if (checkRackFailure(rack, health)) {
+                    rackEpochs.put(rack, delta.getEpoch());
+                    continue;
+                }
+                if (wasFailed) {
+                    // Servers that stayed unhealthy while the Rack was failed aren't in the delta
+                    changes = health;
+                }
+            }
+            for (Map.Entry<Server, Double> serverHealth : changes.entrySet()) {
+                checkServer(rack, serverHealth.getKey(), serverHealth.getValue());
+            }
+            rackEpochs.put(rack, delta.getEpoch());
+        }
+        sweepLatency.recordSince(start);
+    }
+
+    /**
+     * Checks all the servers in all the racks like monitorRacks(), but
+     * queues the Wingnut requests on a WorkOrderBatcher instead of
+     * filing them one at a time. A partial batch that has waited out
+     * the batcher's delay is submitted before each Rack is checked, and
+     * whatever is still pending at the end of the sweep is flushed
+     * before returning. Use newWorkOrderBatcher(), so batches are held
+     * to the same rate limit and bulkheads as single requests.
+     *
+     * A failure for one Server doesn't abort the sweep. Only the
+     * incidents Wingnut accepted are remembered; the rest are returned
+     * so they can be retried by a later sweep.
+     *
+     * @param batcher The WorkOrderBatcher to submit requests through.
+     * @return A SweepFailure for every Server that couldn't be handled.
+     */
+    public List<SweepFailure> monitorRacks(WorkOrderBatcher batcher) {
+        logger.debug("monitorRacks(): batching requests for all servers in {} racks", racks.size());
+        long start = System.nanoTime();
+        List<SweepFailure> failures = new ArrayList<>();
+        try {
+            for (Rack rack : racks) {
+                // Healthy Racks add nothing, so the delay is checked here too
+                settleBatch(batcher.flushIfDue(), failures);
+                Map<Server, Double> healthReport = rack.getHealth();
+                try {
+                    if (checkRackFailure(rack, healthReport)) {
+                        continue;
+                    }
+                } catch (RackMonitorException | RackMonitorDependencyException e) {
+                    failures.add(new SweepFailure(rack, null, e));
+                    continue;
+                }
+                for (Map.Entry<Server, Double> serverHealth : healthReport.entrySet()) {
+                    Server server = serverHealth.getKey();
+                    try {
+                        settleBatch(queueServer(rack, server, serverHealth.getValue(), batcher), failures);
+                    } catch (RackMonitorException e) {
+                        failures.add(new SweepFailure(rack, server, e));
+                    }
+                }
+            }
+        } finally {
+            // Settles every claim still pending, even if the sweep was cut short
+            settleBatch(batcher.flush(), failures);
+        }
+        sweepLatency.recordSince(start);
+        return failures;
+    }
+
+    /**
+     * Creates a WorkOrderBatcher for monitorRacks(WorkOrderBatcher).
+     * Each batch is one call to Wingnut: it waits on Wingnut's rate
+     * limit and bulkheads, as urgently as a replacement if it holds
+     * any REPLACE, and its latency is recorded with that kind of
+     * request.
+     * @param maxBatchSize Submit once this many WorkOrders are pending.
+     * @param maxDelayMillis Submit once the oldest pending WorkOrder
+     *                       has waited this long.
+     * @return a new WorkOrderBatcher.
+     */
+    public WorkOrderBatcher newWorkOrderBatcher(int maxBatchSize, long maxDelayMillis) {
+        return new WorkOrderBatcher(this::submitWorkOrders, maxBatchSize, maxDelayMillis);
+    }
+
+    /**
+     * Checks all the servers in all the racks like monitorRacks(), but
+     * without waiting for one dependency call before making the next.
+     * Warranty lookups for some servers overlap with Wingnut requests
+     * for others, so a single RackMonitor can keep up with many more
+     * servers.
+     *
+     * A failure for one Server doesn't affect the others. Only the
+     * incidents Wingnut accepted are remembered; the rest are reported
+     * so they can be retried by a later sweep.
+     *
+     * @param executor The executor to make dependency calls on.
+     * @return A future that completes once every request has finished,
+     *         with a SweepFailure for every Server that couldn't be handled.
+     */
+    public CompletableFuture<List<SweepFailure>> monitorRacksAsync(Executor executor) {
+        logger.debug("monitorRacksAsync(): checking all servers in {} racks", racks.size());
+        long start = System.nanoTime();
+        List<CompletableFuture<SweepFailure>> requests = new ArrayList<>();
+        for (Rack rack : racks) {
+            Map<Server, Double> healthReport = rack.getHealth();
+            try {
+                // Rare and cheap next to the per-server requests it replaces, so made on this thread
+                if (checkRackFailure(rack, healthReport)) {
+                    continue;
+                }
+            } catch (RackMonitorException | RackMonitorDependencyException e) {
+                requests.add(CompletableFuture.completedFuture(new SweepFailure(rack, null, e)));
+                continue;
+            }
+            for (Map.Entry<Server, Double> serverHealth : healthReport.entrySet()) {
+                requests.add(requestAsync(rack, serverHealth.getKey(), serverHealth.getValue(), executor));
+            }
+        }
+
+        return CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0]))
+            .thenApply(ignored -> {
+                sweepLatency.recordSince(start);
+                return requests.stream()
+                    .map(CompletableFuture::join)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            });
+    }
+
+    /**
+     * Consumes health samples pushed into a HealthRingBuffer by a
+     * telemetry stream, filing requests with Wingnut for any Server
+     * whose sample isn't healthy. Unlike monitorRacks(), nothing polls
+     * the Racks: a sample is checked against our thresholds as soon as
+     * it's consumed, and a healthy sample costs a comparison.
+     *
+     * Samples for Racks or Servers this RackMonitor doesn't monitor are
+     * counted and skipped before they reach the HealthSmoother or the
+     * HealthPolicy, and samples for a Rack with an open rack-level
+     * incident are skipped too. Single samples can't show a rack-wide
+     * failure; that takes a sweep of the whole Rack. A failure for one
+     * sample doesn't stop the others; like any sweep, a Server whose
+     * request failed is tried again on its next unhealthy sample.
+     *
+     * Samples are matched to Racks through an index by Rack ID; call
+     * racksChanged() after adding Racks to the monitored Set.
+     *
+     * @param buffer The buffer to consume samples from.
+     * @param maxSamples The most samples to consume.
+     * @return A SweepFailure for every sample that couldn't be handled.
+     */
+    public List<SweepFailure> consumeHealth(HealthRingBuffer buffer, int maxSamples) {
+        List<SweepFailure> failures = new ArrayList<>();
+        int consumed = buffer.drain((rackId, serverId, health) -> {
+            if (Double.isNaN(health)) {
+                unreported.increment();
+                return;
+            }
+            if (worthChecking(health)) {
+                checkSample(rackId, serverId, health, failures);
+            }
+        }, maxSamples);
+        ingestedSamples.add(consumed);
+        return failures;
+    }
+
+    /**
+     * Checks whether a whole Rack has failed, by the RackFailureDetector,
+     * filing a single rack-level request with Wingnut the first time it
+     * has. The caller should skip checking the Rack's Servers while this
+     * returns true; once the Rack recovers, its Servers are checked one
+     * at a time again. Servers that haven't reported any telemetry
+     * don't count either way.
+     *
+     * @param rack The Rack to check.
+     * @param healthReport The health of every Server in the Rack.
+     * @return true if the Rack has failed, and its Servers need no
+     *         requests of their own.
+     * @throws RackMonitorDependencyException If Wingnut fails.
+     * @throws RackMonitorException If something goes wrong with our logic.
+     */
+    public boolean checkRackFailure(Rack rack, Map<Server, Double> healthReport)
+        throws RackMonitorDependencyException, RackMonitorException {
+
+        if (!rackFailureDetector.isEnabled()) {
+            return false;
+        }
+        int failed = 0;
+        int reported = 0;
+        for (double health : healthReport.values()) {
+            // A Server that hasn't reported can't show whether the Rack has failed
+            if (!Double.isNaN(health)) {
+                reported++;
+            }
+            if (health < replaceHealth) {
+                failed++;
             }
         }
+        return settleRackFailure(rack, failed, reported);
+    }
+
+    /**
+     * Compares the health of a single Server against our thresholds,
+     * filing a request with Wingnut if it isn't healthy.
+     *
+     * @param rack The Rack the Server is installed in.
+     * @param server The Server to check.
+     * @param health The Server's health, as reported by the Rack.
+     * @throws RackMonitorDependencyException If Wingnut or Warranty fail.
+     * @throws RackMonitorException If something goes wrong with our logic.
+     */
+    public void checkServer(Rack rack, Server server, double health)
+        throws RackMonitorDependencyException, RackMonitorException {
+
+        RequestAction action = actionFor(rack, server, health);
+        if (action == REPLACE) {
+            // Server should be replaced!
+            arrangeReplacement(rack, server);
+        } else if (action == INSPECT) {
+            // Server should be inspected soon
+            arrangeInspection(rack, server);
+        }
+        // else server needs no attention
+    }
+
+    /**
+     * Compares the health of a Server in a known unit slot against our
+     * thresholds, filing a request with Wingnut if it isn't healthy.
+     * @param rack The Rack the Server is installed in.
+     * @param server The Server to check.
+     * @param unit The unit slot the Server occupies.
+     * @param health The Server's health, as reported by the Rack.
+     * @throws RackMonitorDependencyException If Wingnut or Warranty fail.
+     * @throws RackMonitorException If something goes wrong with our logic.
+     */
+    private void checkServer(Rack rack, Server server, int unit, double health)
+        throws RackMonitorDependencyException, RackMonitorException {
+
+        arrange(rack, server, unit, actionFor(rack, server, health));
+    }
+
+    /**
+     * Files the request a Server in a known unit slot needs, if any.
+     * @param rack The Rack the Server is installed in.
+     * @param server The Server.
+     * @param unit The unit slot the Server occupies.
+     * @param action What the Server needs, or null for nothing.
+     * @throws RackMonitorDependencyException If Wingnut or Warranty fail.
+     * @throws RackMonitorException If something goes wrong with our logic.
+     */
+    private void arrange(Rack rack, Server server, int unit, RequestAction action)
+        throws RackMonitorDependencyException, RackMonitorException {
+
+        if (action == REPLACE) {
+            arrangeReplacement(rack, server, unit);
+        } else if (action == INSPECT) {
+            arrangeInspection(rack, server, unit);
+        }
+    }
+
+    private boolean anyDueForReplacement(Map<Server, Double> healthReport) {
+        for (double health : healthReport.values()) {
+            if (health < replaceHealth) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean checkRackFailure(Rack rack, HealthReport report)
+        throws RackMonitorDependencyException, RackMonitorException {
+
+        int failed = 0;
+        int servers = 0;
+        for (int unit = 0; unit < report.getUnitCount(); unit++) {
+            if (report.getServer(unit) != null && !Double.isNaN(report.getHealth(unit))) {
+                servers++;
+                if (report.getHealth(unit) < replaceHealth) {
+                    failed++;
+                }
+            }
+        }
+        return settleRackFailure(rack, failed, servers);
+    }
+
+    /**
+     * Files a rack-level request for a Rack that has just failed, or
+     * forgets one that has recovered. The request is remembered as the
+     * Rack's INSPECT_RACK incident in the IncidentStore, so it's shared,
+     * journaled and expired like any Server's incident.
+     * @param rack The Rack.
+     * @param failed How many of its Servers are due for replacement.
+     * @param servers How many of its Servers have reported health.
+     * @return true if the Rack has failed.
+     * @throws RackMonitorDependencyException If Wingnut fails.
+     * @throws RackMonitorException If something goes wrong with our logic.
+     */
+    private boolean settleRackFailure(Rack rack, int failed, int servers)
+        throws RackMonitorDependencyException, RackMonitorException {
+
+        HealthIncident incident = HealthIncident.forRack(rack);
+        if (!rackFailureDetector.isRackFailure(failed, servers)) {
+            if (incidents.remove(incident)) {
+                logger.info("{} recovered; checking its servers individually again", rack);
+            }
+            return false;
+        }
+        if (!incidents.claim(incident)) {
+            // Already filed, here or by whoever monitored the Rack before
+            return true;
+        }
+
+        boolean requested = false;
+        try {
+            requestRackInspection(rack, failed, servers);
+            requested = true;
+        } finally {
+            if (requested) {
+                incidents.record(incident);
+            } else {
+                // Let a later sweep try again
+                incidents.release(incident);
+            }
+        }
+        rackIncidents.increment();
+        correlated.add(failed);
+        return true;
+    }
+
+    /**
+     * Asks Wingnut to inspect a failed Rack.
+     * @param rack The failed Rack.
+     * @param failed How many of its Servers are due for replacement.
+     * @param servers How many Servers it has.
+     * @throws RackMonitorException when out logic is incorrect.
+     * @throws RackMonitorDependencyException When Wingnut fails.
+     */
+    private void requestRackInspection(Rack rack, int failed, int servers)
+        throws RackMonitorException, RackMonitorDependencyException {
+
+        logger.warn("{} has failed: {} of {} servers due for replacement", rack, failed, servers);
+        // As urgent as a replacement, and in place of many
+        enter(wingnutLimiter, true, replaceBulkhead, replaceQueueDelay);
+        try {
+            wingnutClient.requestRackInspection(rack);
+        } catch (WingnutClientException e) {
+            metrics.countException(e);
+            logger.warn("Bad request to inspect failed {}", rack, e);
+            throw new RackMonitorException(e);
+        } catch (WingnutServiceException e) {
+            metrics.countException(e);
+            logger.warn("Wingnut failed request to inspect failed {}", rack, e);
+            throw new RackMonitorDependencyException(e);
+        } finally {
+            replaceBulkhead.release();
+        }
+    }
+
+    private void checkSample(String rackId, String serverId, double health, List<SweepFailure> failures) {
+        // Resolved before decide(), so unknown IDs never reach the smoother or the policy
+        Rack rack = rackById(rackId);
+        if (rack == null) {
+            unknownSamples.increment();
+            logger.debug("Skipping sample for unmonitored rack {}", rackId);
+            return;
+        }
+        Server server = new Server(serverId);
+        int unit;
+        try {
+            unit = rack.getUnitForServer(server);
+        } catch (NoSuchServerException e) {
+            unknownSamples.increment();
+            logger.debug("Skipping sample for server {} not in {}", serverId, rack);
+            return;
+        }
+        RequestAction action = decide(rackId, serverId, health);
+        if (action == null || isFailed(rack)) {
+            // Healthy, or already covered by the rack-level incident
+            return;
+        }
+        try {
+            arrange(rack, server, unit, action);
+        } catch (RackMonitorException | RackMonitorDependencyException e) {
+            failures.add(new SweepFailure(rack, server, e));
+        }
+    }
+
+    private Rack rackById(String rackId) {
+        Map<String, Rack> index = racksById;
+        if (index == null) {
+            index = new HashMap<>();
+            for (Rack rack : racks) {
+                index.put(rack.getRackId(), rack);
+            }
+            racksById = index;
+        }
+        Rack rack = index.get(rackId);
+        // A Rack removed since the index was built is no longer ours
+        return rack != null && racks.contains(rack) ? rack : null;
+    }
+
+    /**
+     * Tells this RackMonitor that Racks were added to or removed from
+     * the Set it was constructed with, so ingested samples are matched
+     * against the current Racks. Sweeps always see the current Racks.
+     */
+    public void racksChanged() {
+        racksById = null;
+    }
+
+    /**
+     * Returns the Racks this RackMonitor is responsible for.
+     * @return an unmodifiable view of the monitored Racks.
+     */
+    public Set<Rack> getRacks() {
+        return Collections.unmodifiableSet(racks);
     }
 
     /**
      * Returns all the HealthIncidents reported to Wingnut since
      * this RackMonitor started.
-     * @return all the HealthIncidents reported to Wingnut since
-     * this RackMonitor started.
+     * @return an unmodifiable, live view of all the HealthIncidents
+     * reported to Wingnut since this RackMonitor started.
      */
     public Set<HealthIncident> getIncidents() {
-        logger.info("getIncidents(): {} incidents reported since startup", incidents.size());
-        return new HashSet<>(this.incidents);
+        Set<HealthIncident> reported = incidents.getIncidents();
+        logger.debug("getIncidents(): {} incidents reported since startup", reported.size());
+        return reported;
+    }
+
+    /**
+     * Returns the registry this RackMonitor records its metrics in:
+     * sweep and dependency latencies, deduplicated requests, expired
+     * warranties, and a counter per type of exception.
+     * @return the live MetricsRegistry.
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Copies the current value of every metric, for dumping or
+     * comparing against a later snapshot.
+     * @return a MetricsSnapshot of this RackMonitor's metrics.
+     */
+    public MetricsSnapshot getMetricsSnapshot() {
+        return metrics.snapshot();
+    }
+
+    /**
+     * Returns the rate limiter for Warranty lookups. Unlimited until
+     * its rate is set; it can be changed while sweeps are running.
+     * @return the live TokenBucket.
+     */
+    public TokenBucket getWarrantyRateLimiter() {
+        return warrantyLimiter;
+    }
+
+    /**
+     * Returns the rate limiter shared by every Wingnut request. When
+     * it's saturated, REPLACE requests are sent before INSPECT ones.
+     * Unlimited until its rate is set; it can be changed while sweeps
+     * are running.
+     * @return the live TokenBucket.
+     */
+    public TokenBucket getWingnutRateLimiter() {
+        return wingnutLimiter;
+    }
+
+    /**
+     * Returns the bulkhead capping concurrent Warranty lookups.
+     * @return the live Bulkhead; unbounded until its cap is set.
+     */
+    public Bulkhead getWarrantyBulkhead() {
+        return warrantyBulkhead;
+    }
+
+    /**
+     * Returns the bulkhead capping concurrent Wingnut INSPECT requests.
+     * @return the live Bulkhead; unbounded until its cap is set.
+     */
+    public Bulkhead getInspectBulkhead() {
+        return inspectBulkhead;
+    }
+
+    /**
+     * Returns the bulkhead capping concurrent Wingnut REPLACE requests.
+     * @return the live Bulkhead; unbounded until its cap is set.
+     */
+    public Bulkhead getReplaceBulkhead() {
+        return replaceBulkhead;
+    }
+
+    /**
+     * Returns the detector that decides when a whole Rack has failed.
+     * It's disabled until its thresholds are set, and every Server is
+     * checked on its own.
+     * @return the RackFailureDetector.
+     */
+    public RackFailureDetector getRackFailureDetector() {
+        return rackFailureDetector;
+    }
+
+    /**
+     * Returns the smoother that decides when a Server has crossed a
+     * threshold for long enough to act on. It's disabled until it's
+     * configured, and each reading is acted on as-is.
+     * @return the HealthSmoother.
+     */
+    public HealthSmoother getHealthSmoother() {
+        return healthSmoother;
+    }
+
+    /**
+     * Installs the rules that give each Server's thresholds, replacing
+     * any policy already installed. Takes effect from the next reading,
+     * even partway through a sweep.
+     *
+     * The RackFailureDetector and monitorRackChanges() still go by the
+     * thresholds this RackMonitor was constructed with.
+     * @param policy The policy, or null to go back to the constructor's
+     *               thresholds for every Server.
+     */
+    public void setHealthPolicy(HealthPolicy policy) {
+        healthPolicy = policy;
+        logger.info("Installed {}", policy);
+    }
+
+    public HealthPolicy getHealthPolicy() {
+        return healthPolicy;
+    }
+
+    /**
+     * Returns the monitored Racks with an open rack-level incident.
+     * @return an unmodifiable set of the failed Racks.
+     */
+    public Set<Rack> getFailedRacks() {
+        Set<Rack> failed = new HashSet<>();
+        for (Rack rack : racks) {
+            if (isFailed(rack)) {
+                failed.add(rack);
+            }
+        }
+        return Collections.unmodifiableSet(failed);
+    }
+
+    private boolean isFailed(Rack rack) {
+        return incidents.contains(HealthIncident.forRack(rack));
     }
 
     /**
@@ -102,51 +883,74 @@ public class RackMonitor {
         throws RackMonitorException, RackMonitorDependencyException {
 
         // Get the unit slot of the Server, or throw NoSuchServerException
-        int unit = getUnit(rack, server);
+        arrangeReplacement(rack, server, getUnit(rack, server));
+    }
+
+    /**
+     * Request a replacement for the server in a known unit slot. If a
+     * request to replace the server has already been made, does not
+     * repeat the request.
+     * @param rack The Rack the server is in.
+     * @param server The Server that needs to be replaced.
+     * @param unit The unit slot the Server occupies.
+     * @throws RackMonitorException if the Server has no warranty.
+     * @throws RackMonitorDependencyException if either Wingnut or the
+     *         warranty service fails.
+     */
+    private void arrangeReplacement(Rack rack, Server server, int unit)
+        throws RackMonitorException, RackMonitorDependencyException {
 
-        // Check for duplicate requests.
+        // Check for duplicate requests, claiming the incident if it's new.
         HealthIncident incident = new HealthIncident(server, rack, unit, REPLACE);
-        if (incidents.contains(incident)) {
-            logger.info("Already requested REPLACE for {} in {} unit: {}", server, rack, unit);
+        if (!incidents.claim(incident)) {
+            deduplicated.increment();
             return;
         }
 
-        // Get the Warranty for this Server. Use the nullWarranty
-        // instead if the actual Warranty has expired.
-        Warranty warranty;
+        boolean requested = false;
         try {
-            logger.info("Retrieving warranty for {}", server);
-            warranty = warrantyClient.getWarrantyForServer(server);
-        } catch (WarrantyNotFoundException e) {
-            String msg = String.format(
-                "Rack %s unit %d manages server %s with no warranty!",
-                rack, unit, server);
-            logger.fatal(msg, e);
-            throw new RackMonitorException(msg, e);
+            requestReplacement(rack, server, unit);
+            requested = true;
+        } finally {
+            // Remember that we requested a replacement, or let a
+            // later sweep try again if we couldn't
+            settle(incident, requested);
         }
+    }
 
-        if (warranty.hasExpired()) {
-            logger.info("Replacing expired warranty for {} with nullWarranty", server);
-            warranty = Warranty.nullWarranty();
-        }
+    /**
+     * Looks up the Warranty for a Server and asks Wingnut to replace it.
+     * @param rack The Rack the server is in.
+     * @param server The Server that needs to be replaced.
+     * @param unit The unit slot the Server occupies.
+     * @throws RackMonitorException if the Server has no warranty.
+     * @throws RackMonitorDependencyException if either Wingnut or the
+     *         warranty service fails.
+     */
+    private void requestReplacement(Rack rack, Server server, int unit)
+        throws RackMonitorException, RackMonitorDependencyException {
+
+        Warranty warranty = lookUpWarranty(rack, server, unit);
 
         // Actually request the replacement
+        enter(wingnutLimiter, true, replaceBulkhead, replaceQueueDelay);
+        long start = System.nanoTime();
         try {
-            logger.info("Requesting REPLACE for {} in {} unit: {} under {}",
-                server, rack, unit, warranty);
             wingnutClient.requestReplacement(rack, unit, warranty);
         } catch (WingnutClientException e) {
+            metrics.countException(e);
             logger.warn("Bad request to REPLACE for {} in {} unit: {} under {}",
                 server, rack, unit, warranty, e);
             throw new RackMonitorException(e);
         } catch (WingnutServiceException e) {
+            metrics.countException(e);
             logger.warn("Wingnut failed request to REPLACE for {} in {} unit: {} under {}",
                 server, rack, unit, warranty, e);
             throw new RackMonitorDependencyException(e);
+        } finally {
+            replaceLatency.recordSince(start);
+            replaceBulkhead.release();
         }
-
-        // Remember that we requested a replacement
-        incidents.add(incident);
     }
 
     /**
@@ -165,31 +969,504 @@ public class RackMonitor {
         throws RackMonitorException, RackMonitorDependencyException {
 
         // Get the unit slot of the Server, or throw NoSuchServerException
-        int unit = getUnit(rack, server);
+        arrangeInspection(rack, server, getUnit(rack, server));
+    }
+
+    /**
+     * Request an inspection of the Server in a known unit slot. If a
+     * request to inspect the server has already been made, does not
+     * repeat the request.
+     * @param rack The Rack the unhealthy Server is installed in.
+     * @param server The unhealthy Server.
+     * @param unit The unit slot the Server occupies.
+     * @throws RackMonitorException when out logic is incorrect.
+     * @throws RackMonitorDependencyException When Wingnut fails.
+     */
+    private void arrangeInspection(Rack rack, Server server, int unit)
+        throws RackMonitorException, RackMonitorDependencyException {
 
-        // Check for duplicate requests.
+        // Check for duplicate requests, claiming the incident if it's new.
         HealthIncident incident = new HealthIncident(server, rack, unit, INSPECT);
-        if (incidents.contains(incident)) {
-            logger.info("Already requested INSPECT for {} in {} unit: {}", server, rack, unit);
+        if (!incidents.claim(incident)) {
+            deduplicated.increment();
             return;
         }
 
+        boolean requested = false;
+        try {
+            requestInspection(rack, server, unit);
+            requested = true;
+        } finally {
+            // Remember the request, or let a later sweep try again
+            settle(incident, requested);
+        }
+    }
+
+    /**
+     * Gets the Warranty for a Server. Uses the nullWarranty instead
+     * if the actual Warranty has expired.
+     * @param rack The Rack the server is in.
+     * @param server The Server to look up.
+     * @param unit The unit slot the Server occupies.
+     * @return the Warranty to file a replacement under.
+     * @throws RackMonitorException if the Server has no warranty.
+     */
+    private Warranty lookUpWarranty(Rack rack, Server server, int unit) throws RackMonitorException {
+        Warranty warranty;
+        enter(warrantyLimiter, false, warrantyBulkhead, warrantyQueueDelay);
+        long start = System.nanoTime();
+        try {
+            warranty = warrantyClient.getWarrantyForServer(server);
+        } catch (WarrantyNotFoundException e) {
+            metrics.countException(e);
+            String msg = String.format(
+                "Rack %s unit %d manages server %s with no warranty!",
+                rack, unit, server);
+            logger.fatal(msg, e);
+            throw new RackMonitorException(msg, e);
+        } finally {
+            warrantyLatency.recordSince(start);
+            warrantyBulkhead.release();
+        }
+
+        return currentWarranty(warranty);
+    }
+
+    /**
+     * Asks Wingnut to inspect a Server.
+     * @param rack The Rack the unhealthy Server is installed in.
+     * @param server The unhealthy Server.
+     * @param unit The unit slot the Server occupies.
+     * @throws RackMonitorException when out logic is incorrect.
+     * @throws RackMonitorDependencyException When Wingnut fails.
+     */
+    private void requestInspection(Rack rack, Server server, int unit)
+        throws RackMonitorException, RackMonitorDependencyException {
+
         // Actually make the request
+        enter(wingnutLimiter, false, inspectBulkhead, inspectQueueDelay);
+        long start = System.nanoTime();
         try {
-            logger.info("Requesting INSPECT for {} in {} unit: {}", server, rack, unit);
             wingnutClient.requestInspection(rack, unit);
         } catch (WingnutClientException e) {
             // Some problem in our logic; we passed a bad Rack or Unit
+            metrics.countException(e);
             logger.warn("Bad inputs for INSPECT {} in {} unit: {}", server, rack, unit, e);
             throw new RackMonitorException(e);
         } catch (WingnutServiceException e) {
             // Some problem with Wingnut
+            metrics.countException(e);
             logger.warn("Wingnut failed to INSPECT {} in {} unit: {}", server, rack, unit, e);
             throw new RackMonitorDependencyException(e);
+        } finally {
+            inspectLatency.recordSince(start);
+            inspectBulkhead.release();
+        }
+    }
+
+    /**
+     * Finishes the claim on an incident: records it if the request
+     * succeeded, or releases it so a later sweep can retry. A REPLACE
+     * for a Server that was already being inspected escalates it: the
+     * REPLACE supersedes the INSPECT in the IncidentStore, and the
+     * inspection is cancelled with Wingnut.
+     * @param incident The claimed incident.
+     * @param requested Whether Wingnut accepted the request.
+     */
+    private void settle(HealthIncident incident, boolean requested) {
+        HealthIncident inspection = record(incident, requested);
+        if (inspection != null) {
+            enter(wingnutLimiter, false, inspectBulkhead, inspectQueueDelay);
+            cancelInspection(inspection);
+        }
+    }
+
+    /**
+     * Finishes the claim on an incident like settle(), on an executor
+     * thread. Nothing here waits for a permit: executor threads must
+     * never block on a permit that only they can release. The sweep's
+     * thread takes the permit to cancel a superseded inspection ahead
+     * of time, when it can see the escalation coming.
+     * @param incident The claimed incident.
+     * @param requested Whether Wingnut accepted the request.
+     * @param holdsCancelPermit Whether the caller took an inspect
+     *                          permit for the cancellation, which this
+     *                          spends or releases.
+     */
+    private void settleAsync(HealthIncident incident, boolean requested, boolean holdsCancelPermit) {
+        HealthIncident inspection;
+        try {
+            inspection = record(incident, requested);
+        } catch (RuntimeException e) {
+            if (holdsCancelPermit) {
+                inspectBulkhead.release();
+            }
+            throw e;
+        }
+        if (inspection == null) {
+            if (holdsCancelPermit) {
+                inspectBulkhead.release();
+            }
+            return;
+        }
+        if (!holdsCancelPermit && !(wingnutLimiter.tryAcquire(false) && inspectBulkhead.tryAcquire())) {
+            // The INSPECT was filed after this sweep claimed the REPLACE
+            logger.warn("No Wingnut permit free to cancel superseded {}; leaving it open", inspection);
+            return;
+        }
+        cancelInspection(inspection);
+    }
+
+    /**
+     * Records an incident Wingnut accepted, or releases one it didn't.
+     * @param incident The claimed incident.
+     * @param requested Whether Wingnut accepted the request.
+     * @return the INSPECT incident a recorded REPLACE superseded, which
+     *         should be cancelled with Wingnut; otherwise null.
+     */
+    private HealthIncident record(HealthIncident incident, boolean requested) {
+        if (!requested) {
+            incidents.release(incident);
+            return null;
+        }
+        // Our claim keeps the INSPECT from changing until we record
+        HealthIncident inspection = incident.getAction() == REPLACE ? incident.withAction(INSPECT) : null;
+        boolean escalating = inspection != null && incidents.contains(inspection);
+        incidents.record(incident);
+        if (!escalating) {
+            return null;
+        }
+        escalated.increment();
+        return inspection;
+    }
+
+    /**
+     * Asks Wingnut to cancel an inspection that a replacement made
+     * redundant. The replacement was already filed, so a failure is
+     * logged rather than thrown; at worst Maintenance inspects a server
+     * it's about to replace.
+     * @param inspection The superseded INSPECT incident. The caller
+     *                   must hold an inspect permit, which is released.
+     */
+    private void cancelInspection(HealthIncident inspection) {
+        try {
+            wingnutClient.cancelInspection(inspection.getRack(), inspection.getUnit());
+        } catch (WingnutClientException | WingnutServiceException e) {
+            metrics.countException(e);
+            logger.warn("Could not cancel superseded {}", inspection, e);
+        } finally {
+            inspectBulkhead.release();
+        }
+    }
+
+    /**
+     * Claims the incident for an unhealthy Server and queues its
+     * WorkOrder on the batcher. Healthy Servers are ignored.
+     * @param rack The Rack the Server is installed in.
+     * @param server The Server to check.
+     * @param health The Server's health, as reported by the Rack.
+     * @param batcher The WorkOrderBatcher to queue the WorkOrder on.
+     * @return The results of any batch the batcher submitted.
+     * @throws RackMonitorException if the Server can't be found or has
+     *         no warranty.
+     */
+    private Map<HealthIncident, WorkOrderResult> queueServer(Rack rack, Server server, double health,
+                                                             WorkOrderBatcher batcher)
+        throws RackMonitorException {
+
+        RequestAction action = actionFor(rack, server, health);
+        if (action == null) {
+            return Collections.emptyMap();
+        }
+
+        int unit = getUnit(rack, server);
+        HealthIncident incident = new HealthIncident(server, rack, unit, action);
+        if (!incidents.claim(incident)) {
+            deduplicated.increment();
+            return Collections.emptyMap();
+        }
+
+        WorkOrder workOrder = null;
+        try {
+            workOrder = action == REPLACE ?
+                WorkOrder.replacement(rack, unit, lookUpWarranty(rack, server, unit)) :
+                WorkOrder.inspection(rack, unit);
+        } finally {
+            if (workOrder == null) {
+                incidents.release(incident);
+            }
+        }
+        return batcher.add(incident, workOrder);
+    }
+
+    /**
+     * Submits one batch of WorkOrders under the same limits as single
+     * requests. Only called by batchers from newWorkOrderBatcher().
+     * @param workOrders The WorkOrders in the batch.
+     * @return a WorkOrderResult for each WorkOrder, in the same order.
+     * @throws WingnutServiceException if the whole batch fails.
+     */
+    private List<WorkOrderResult> submitWorkOrders(List<WorkOrder> workOrders) throws WingnutServiceException {
+        boolean urgent = false;
+        for (WorkOrder workOrder : workOrders) {
+            if (workOrder.getAction() == REPLACE) {
+                urgent = true;
+                break;
+            }
+        }
+        Bulkhead bulkhead = urgent ? replaceBulkhead : inspectBulkhead;
+        LatencyHistogram latency = urgent ? replaceLatency : inspectLatency;
+        enter(wingnutLimiter, urgent, bulkhead, urgent ? replaceQueueDelay : inspectQueueDelay);
+        long start = System.nanoTime();
+        try {
+            return wingnutClient.submitWorkOrders(workOrders);
+        } finally {
+            latency.recordSince(start);
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Remembers the incidents Wingnut accepted in a batch, and releases
+     * the rest so a later sweep can retry them.
+     * @param results The result for each HealthIncident in the batch.
+     * @param failures Where to report the incidents Wingnut rejected.
+     */
+    private void settleBatch(Map<HealthIncident, WorkOrderResult> results, List<SweepFailure> failures) {
+        for (Map.Entry<HealthIncident, WorkOrderResult> result : results.entrySet()) {
+            HealthIncident incident = result.getKey();
+            Exception exception = result.getValue().getException();
+            settle(incident, exception == null);
+            if (exception != null) {
+                failures.add(toSweepFailure(incident, exception));
+            }
+        }
+    }
+
+    /**
+     * Claims the incident for an unhealthy Server and starts its
+     * requests: a Warranty lookup followed by a REPLACE, or just an
+     * INSPECT. Healthy Servers are ignored.
+     * @param rack The Rack the Server is installed in.
+     * @param server The Server to check.
+     * @param health The Server's health, as reported by the Rack.
+     * @param executor The executor to make dependency calls on.
+     * @return A future SweepFailure if the Server couldn't be handled,
+     *         or a future null if it was.
+     */
+    private CompletableFuture<SweepFailure> requestAsync(Rack rack, Server server, double health,
+                                                         Executor executor) {
+        RequestAction action = actionFor(rack, server, health);
+        if (action == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        int unit;
+        try {
+            unit = getUnit(rack, server);
+        } catch (RackMonitorException e) {
+            return CompletableFuture.completedFuture(new SweepFailure(rack, server, e));
+        }
+
+        HealthIncident incident = new HealthIncident(server, rack, unit, action);
+        if (!incidents.claim(incident)) {
+            deduplicated.increment();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // Wait for limits here, on the sweep's thread, so the executor's
+        // threads never block on a permit that only they can release
+        CompletableFuture<Void> request;
+        boolean holdsCancelPermit = false;
+        if (action == REPLACE) {
+            enter(wingnutLimiter, true, replaceBulkhead, replaceQueueDelay);
+            enter(warrantyLimiter, false, warrantyBulkhead, warrantyQueueDelay);
+            // Escalating an INSPECT cancels it once the REPLACE is filed
+            holdsCancelPermit = incidents.contains(incident.withAction(INSPECT));
+            if (holdsCancelPermit) {
+                enter(wingnutLimiter, false, inspectBulkhead, inspectQueueDelay);
+            }
+            try {
+                request = releasing(replaceBulkhead, () -> releasing(warrantyBulkhead,
+                    () -> timed(warrantyLatency, () -> warrantyClient.getWarrantyForServerAsync(server, executor)))
+                    .thenCompose(warranty -> timed(replaceLatency, () -> wingnutClient.requestReplacementAsync(rack,
+                        unit, currentWarranty(warranty), executor))));
+            } catch (RuntimeException e) {
+                if (holdsCancelPermit) {
+                    inspectBulkhead.release();
+                }
+                throw e;
+            }
+        } else {
+            enter(wingnutLimiter, false, inspectBulkhead, inspectQueueDelay);
+            request = releasing(inspectBulkhead,
+                () -> timed(inspectLatency, () -> wingnutClient.requestInspectionAsync(rack, unit, executor)));
+        }
+
+        boolean cancelPermit = holdsCancelPermit;
+        return request.handle((ignored, throwable) -> {
+            settleAsync(incident, throwable == null, cancelPermit);
+            if (throwable == null) {
+                return null;
+            }
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ?
+                throwable.getCause() : throwable;
+            return toSweepFailure(incident, cause);
+        });
+    }
+
+    /**
+     * Starts an asynchronous dependency call, recording how long it
+     * takes to complete in a histogram.
+     * @param histogram The histogram to record the latency in.
+     * @param call Starts the call.
+     * @param <T> The type of the call's result.
+     * @return the call's future.
+     */
+    private <T> CompletableFuture<T> timed(LatencyHistogram histogram, Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        return call.get().whenComplete((ignored, throwable) -> histogram.recordSince(start));
+    }
+
+    /**
+     * Waits for a dependency's rate limiter and bulkhead, recording how
+     * long that took. The caller must release the bulkhead once its
+     * call finishes.
+     * @param limiter The dependency's rate limiter.
+     * @param urgent Whether the call should go ahead of ordinary ones.
+     * @param bulkhead The dependency's bulkhead.
+     * @param queueDelay The histogram to record the wait in.
+     */
+    private void enter(TokenBucket limiter, boolean urgent, Bulkhead bulkhead, LatencyHistogram queueDelay) {
+        long start = System.nanoTime();
+        limiter.acquire(urgent);
+        bulkhead.acquire();
+        queueDelay.recordSince(start);
+    }
+
+    /**
+     * Starts an asynchronous dependency call that holds a bulkhead
+     * permit, releasing the permit once the call completes.
+     * @param bulkhead The bulkhead the caller acquired.
+     * @param call Starts the call.
+     * @param <T> The type of the call's result.
+     * @return the call's future.
+     */
+    private <T> CompletableFuture<T> releasing(Bulkhead bulkhead, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            throw e;
         }
+        return future.whenComplete((ignored, throwable) -> bulkhead.release());
+    }
 
-        // Remember the request
-        incidents.add(incident);
+    /**
+     * Swaps an expired Warranty for the nullWarranty.
+     * @param warranty The Warranty that was looked up.
+     * @return the Warranty to file a replacement under.
+     */
+    private Warranty currentWarranty(Warranty warranty) {
+        if (warranty.hasExpired()) {
+            expiredWarranties.increment();
+            return Warranty.nullWarranty();
+        }
+        return warranty;
+    }
+
+    /**
+     * Decides what to ask Wingnut to do about a Server's latest health
+     * reading. Once a HealthPolicy is installed, its rules give the
+     * Server's thresholds. Once smoothing is configured, the decision
+     * rests on the Server's smoothed health, and every call adds the
+     * reading to its history; call once per reading.
+     *
+     * A NaN reading means the Server hasn't reported any telemetry. It
+     * needs nothing, and isn't added to its smoothed history.
+     * @param rack The Rack the Server is installed in.
+     * @param server The Server.
+     * @param health The Server's health, as reported by the Rack.
+     * @return REPLACE or INSPECT, or null if the Server is healthy or
+     *         hasn't reported.
+     */
+    public RequestAction actionFor(Rack rack, Server server, double health) {
+        if (Double.isNaN(health)) {
+            unreported.increment();
+            return null;
+        }
+        if (healthPolicy == null && !healthSmoother.isEnabled()) {
+            return actionFor(health);
+        }
+        return decide(rack.getRackId(), server.getServerId(), health);
+    }
+
+    private RequestAction decide(String rackId, String serverId, double health) {
+        HealthPolicy policy = healthPolicy;
+        if (policy == null) {
+            return healthSmoother.isEnabled() ? healthSmoother.update(serverId, health) : actionFor(health);
+        }
+        HealthRule rule = policy.ruleFor(rackId, serverId, health, healthSmoother);
+        return healthSmoother.isEnabled() ?
+            healthSmoother.update(serverId, health, rule.getInspectHealth(), rule.getReplaceHealth()) :
+            rule.actionFor(health);
+    }
+
+    /**
+     * Decides whether a reading needs a closer look. A healthy reading
+     * can be skipped, unless it's needed to smooth the Server's health.
+     * @param health The Server's health, as reported by the Rack.
+     * @return true if the reading should go through checkServer().
+     */
+    private boolean worthChecking(double health) {
+        if (healthSmoother.isEnabled()) {
+            return true;
+        }
+        HealthPolicy policy = healthPolicy;
+        return policy != null ? health < policy.getMaxInspectHealth() : actionFor(health) != null;
+    }
+
+    /**
+     * Decides what to ask Wingnut to do about a single health reading,
+     * compared directly against the thresholds.
+     * @param health The Server's health, as reported by the Rack.
+     * @return REPLACE or INSPECT, or null if the Server is healthy.
+     */
+    public RequestAction actionFor(double health) {
+        if (health < replaceHealth) {
+            return REPLACE;
+        } else if (health < inspectHealth) {
+            return INSPECT;
+        }
+        return null;
+    }
+
+    /**
+     * Translates a dependency failure for an incident into the same
+     * exception monitorRacks() would have thrown.
+     * @param incident The incident that couldn't be reported.
+     * @param cause What went wrong.
+     * @return a SweepFailure for the incident's Server.
+     */
+    private SweepFailure toSweepFailure(HealthIncident incident, Throwable cause) {
+        metrics.countException(cause);
+        Exception exception;
+        if (cause instanceof WarrantyNotFoundException) {
+            String msg = String.format(
+                "Rack %s unit %d manages server %s with no warranty!",
+                incident.getRack(), incident.getUnit(), incident.getServer());
+            logger.fatal(msg, cause);
+            exception = new RackMonitorException(msg, cause);
+        } else if (cause instanceof WingnutServiceException) {
+            logger.warn("Wingnut failed request for {}", incident, cause);
+            exception = new RackMonitorDependencyException(cause);
+        } else {
+            // Some problem in our logic; we passed a bad Rack or Unit
+            logger.warn("Bad request for {}", incident, cause);
+            exception = new RackMonitorException(cause);
+        }
+        return new SweepFailure(incident.getRack(), incident.getServer(), exception);
     }
 
     /**
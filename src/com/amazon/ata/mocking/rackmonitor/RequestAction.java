@@ -7,5 +7,7 @@ package com.amazon.ata.mocking.rackmonitor;
  */
 public enum RequestAction {
     INSPECT,
-    REPLACE
+    REPLACE,
+    // Inspect a whole Rack that has failed; see HealthIncident.forRack()
+    INSPECT_RACK
 }
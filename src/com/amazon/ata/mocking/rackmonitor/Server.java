@@ -37,6 +37,7 @@ public class Server {
 
     @Override
     public int hashCode() {
-        return Objects.hash(serverId);
+        // Same value as Objects.hash(serverId), without allocating a varargs array
+        return 31 + Objects.hashCode(serverId);
     }
 }
@@ -0,0 +1,186 @@
+package com.amazon.ata.mocking.rackmonitor.batch;
+
+import com.amazon.ata.mocking.rackmonitor.HealthIncident;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutServiceException;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WorkOrder;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WorkOrderResult;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces the WorkOrders for many HealthIncidents into batches, so
+ * a sweep that finds thousands of unhealthy servers makes a handful
+ * of calls to Wingnut instead of one per server.
+ *
+ * A batch is submitted once it reaches the maximum batch size, or
+ * once its oldest WorkOrder has waited longer than the maximum delay.
+ * The delay is only checked when the batcher is called, so callers
+ * should call flushIfDue() as they go, to submit a partial batch that
+ * would otherwise wait out a quiet stretch of the sweep, and flush()
+ * at the end of a sweep to submit whatever is left. The outcome of
+ * each submission is reported per HealthIncident so the caller can
+ * remember only the incidents Wingnut accepted.
+ */
+public class WorkOrderBatcher {
+    private Logger logger = LogManager.getLogger(WorkOrderBatcher.class);
+    private final WorkOrderSubmitter submitter;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+
+    private List<HealthIncident> pendingIncidents = new ArrayList<>();
+    private List<WorkOrder> pendingOrders = new ArrayList<>();
+    private long oldestPendingNanos;
+
+    /**
+     * Constructs a WorkOrderBatcher that submits straight to Wingnut.
+     * @param wingnutClient The WingnutClient to submit batches to.
+     * @param maxBatchSize Submit once this many WorkOrders are pending.
+     * @param maxDelayMillis Submit once the oldest pending WorkOrder
+     *                       has waited this long.
+     */
+    public WorkOrderBatcher(WingnutClient wingnutClient, int maxBatchSize, long maxDelayMillis) {
+        this(wingnutClient::submitWorkOrders, maxBatchSize, maxDelayMillis);
+    }
+
+    /**
+     * Constructs a WorkOrderBatcher that submits through a WorkOrderSubmitter,
+     * such as one that applies rate limits.
+     * @param submitter Submits each batch to Wingnut.
+     * @param maxBatchSize Submit once this many WorkOrders are pending.
+     * @param maxDelayMillis Submit once the oldest pending WorkOrder
+     *                       has waited this long.
+     */
+    public WorkOrderBatcher(WorkOrderSubmitter submitter, int maxBatchSize, long maxDelayMillis) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive!");
+        }
+        this.submitter = submitter;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    }
+
+    /**
+     * Queues the WorkOrder for a HealthIncident, submitting the pending
+     * batch if it is full or has waited too long.
+     * @param incident The incident the WorkOrder is for.
+     * @param workOrder The WorkOrder to submit.
+     * @return The result for each HealthIncident that was submitted;
+     *         empty if nothing was submitted yet.
+     */
+    public Map<HealthIncident, WorkOrderResult> add(HealthIncident incident, WorkOrder workOrder) {
+        List<HealthIncident> incidents;
+        List<WorkOrder> orders;
+        synchronized (this) {
+            if (pendingOrders.isEmpty()) {
+                oldestPendingNanos = System.nanoTime();
+            }
+            pendingIncidents.add(incident);
+            pendingOrders.add(workOrder);
+
+            boolean full = pendingOrders.size() >= maxBatchSize;
+            boolean due = System.nanoTime() - oldestPendingNanos >= maxDelayNanos;
+            if (!full && !due) {
+                return Collections.emptyMap();
+            }
+            incidents = pendingIncidents;
+            orders = pendingOrders;
+            pendingIncidents = new ArrayList<>();
+            pendingOrders = new ArrayList<>();
+        }
+        return submit(incidents, orders);
+    }
+
+    /**
+     * Submits every pending WorkOrder, regardless of batch size or age.
+     * @return The result for each HealthIncident that was submitted.
+     */
+    public Map<HealthIncident, WorkOrderResult> flush() {
+        List<HealthIncident> incidents;
+        List<WorkOrder> orders;
+        synchronized (this) {
+            if (pendingOrders.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            incidents = pendingIncidents;
+            orders = pendingOrders;
+            pendingIncidents = new ArrayList<>();
+            pendingOrders = new ArrayList<>();
+        }
+        return submit(incidents, orders);
+    }
+
+    /**
+     * Submits every pending WorkOrder if the oldest has waited longer
+     * than the maximum delay, without adding another.
+     * @return The result for each HealthIncident that was submitted;
+     *         empty if the pending batch isn't due yet.
+     */
+    public Map<HealthIncident, WorkOrderResult> flushIfDue() {
+        List<HealthIncident> incidents;
+        List<WorkOrder> orders;
+        synchronized (this) {
+            if (pendingOrders.isEmpty() || System.nanoTime() - oldestPendingNanos < maxDelayNanos) {
+                return Collections.emptyMap();
+            }
+            incidents = pendingIncidents;
+            orders = pendingOrders;
+            pendingIncidents = new ArrayList<>();
+            pendingOrders = new ArrayList<>();
+        }
+        return submit(incidents, orders);
+    }
+
+    /**
+     * Returns how many WorkOrders are waiting to be submitted.
+     * @return the number of pending WorkOrders.
+     */
+    public synchronized int getPendingCount() {
+        return pendingOrders.size();
+    }
+
+    /**
+     * Submits one batch to Wingnut and matches each result to its
+     * HealthIncident. Every incident gets a result, so the caller can
+     * settle every claim: if the whole batch fails, every incident
+     * fails with the same exception, and an incident Wingnut returned
+     * no result for fails as though Wingnut had rejected it.
+     * @param incidents The incidents being submitted.
+     * @param orders The WorkOrder for each incident, in the same order.
+     * @return The result for each HealthIncident.
+     */
+    private Map<HealthIncident, WorkOrderResult> submit(List<HealthIncident> incidents, List<WorkOrder> orders) {
+        Map<HealthIncident, WorkOrderResult> resultsByIncident = new LinkedHashMap<>();
+        Exception failure = null;
+        int matched = 0;
+        try {
+            logger.info("Submitting batch of {} work orders", orders.size());
+            List<WorkOrderResult> results = submitter.submit(orders);
+            int returned = results == null ? 0 : results.size();
+            if (returned != orders.size()) {
+                logger.warn("Wingnut returned {} results for a batch of {} work orders", returned, orders.size());
+            }
+            for (; matched < Math.min(incidents.size(), returned); matched++) {
+                resultsByIncident.put(incidents.get(matched), results.get(matched));
+            }
+        } catch (WingnutServiceException | RuntimeException e) {
+            logger.warn("Wingnut failed batch of {} work orders", orders.size(), e);
+            failure = e;
+        } finally {
+            for (int i = matched; i < incidents.size(); i++) {
+                Exception exception = failure != null ? failure :
+                    new WingnutServiceException(String.format("Wingnut returned no result for %s", orders.get(i)));
+                resultsByIncident.put(incidents.get(i), WorkOrderResult.failed(orders.get(i), exception));
+            }
+        }
+        return resultsByIncident;
+    }
+}
@@ -0,0 +1,21 @@
+package com.amazon.ata.mocking.rackmonitor.batch;
+
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutServiceException;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WorkOrder;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WorkOrderResult;
+
+import java.util.List;
+
+/**
+ * Submits the batches a WorkOrderBatcher fills to Wingnut.
+ */
+@FunctionalInterface
+public interface WorkOrderSubmitter {
+    /**
+     * Submits one batch.
+     * @param workOrders The WorkOrders in the batch.
+     * @return a WorkOrderResult for each WorkOrder, in the same order.
+     * @throws WingnutServiceException if the whole batch fails.
+     */
+    List<WorkOrderResult> submit(List<WorkOrder> workOrders) throws WingnutServiceException;
+}
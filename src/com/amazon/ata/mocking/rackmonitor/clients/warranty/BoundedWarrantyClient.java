@@ -0,0 +1,38 @@
+package com.amazon.ata.mocking.rackmonitor.clients.warranty;
+
+import com.amazon.ata.mocking.rackmonitor.Server;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * A WarrantyClient that limits how many lookups may be outstanding
+ * at once, so a parallel sweep can't flood the warranty service.
+ * Callers beyond the limit wait for a permit.
+ */
+public class BoundedWarrantyClient extends WarrantyClient {
+    private final WarrantyClient delegate;
+    private final Semaphore permits;
+
+    /**
+     * Constructs a BoundedWarrantyClient.
+     * @param delegate The WarrantyClient that actually looks up Warranties.
+     * @param maxConcurrentCalls How many lookups may be in flight at once.
+     */
+    public BoundedWarrantyClient(WarrantyClient delegate, int maxConcurrentCalls) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("maxConcurrentCalls must be positive!");
+        }
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    @Override
+    public Warranty getWarrantyForServer(Server server) throws WarrantyNotFoundException {
+        permits.acquireUninterruptibly();
+        try {
+            return delegate.getWarrantyForServer(server);
+        } finally {
+            permits.release();
+        }
+    }
+}
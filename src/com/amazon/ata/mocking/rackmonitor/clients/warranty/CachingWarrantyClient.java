@@ -0,0 +1,116 @@
+package com.amazon.ata.mocking.rackmonitor.clients.warranty;
+
+import com.amazon.ata.mocking.rackmonitor.Server;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A WarrantyClient that remembers the Warranties it has looked up, so
+ * a server that keeps flapping between healthy and unhealthy doesn't
+ * cost a round trip to the warranty service every time.
+ *
+ * Servers with no Warranty are remembered too: until the entry
+ * expires, they throw WarrantyNotFoundException without asking the
+ * service again. Entries expire after a fixed time-to-live, and the
+ * least recently used entries are evicted once the cache is full.
+ * Callers asking for the same Server at once share one lookup.
+ */
+public class CachingWarrantyClient extends WarrantyClient {
+    private final WarrantyClient delegate;
+    private final Cache<Server, CachedWarranty> cache;
+
+    /**
+     * Constructs a CachingWarrantyClient.
+     * @param delegate The WarrantyClient that actually looks up Warranties.
+     * @param ttlMillis How long to remember each lookup.
+     * @param maxEntries The most Servers to remember at once.
+     */
+    public CachingWarrantyClient(WarrantyClient delegate, long ttlMillis, long maxEntries) {
+        this(delegate, ttlMillis, maxEntries, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    CachingWarrantyClient(WarrantyClient delegate, long ttlMillis, long maxEntries, Ticker ticker) {
+        this.delegate = delegate;
+        this.cache = CacheBuilder.newBuilder()
+            .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+            .maximumSize(maxEntries)
+            .ticker(ticker)
+            .recordStats()
+            .build();
+    }
+
+    @Override
+    public Warranty getWarrantyForServer(Server server) throws WarrantyNotFoundException {
+        CachedWarranty cached;
+        try {
+            cached = cache.get(server, () -> lookUp(server));
+        } catch (UncheckedExecutionException | ExecutionError e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        } catch (ExecutionException e) {
+            // lookUp() only throws unchecked exceptions, but just in case
+            throw new IllegalStateException(e.getCause());
+        }
+
+        if (cached.notFound != null) {
+            // A fresh exception, so the stack trace shows this caller
+            throw new WarrantyNotFoundException(cached.notFound.getMessage(), cached.notFound);
+        }
+        return cached.warranty;
+    }
+
+    /**
+     * Forgets everything this client has looked up.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    private CachedWarranty lookUp(Server server) {
+        try {
+            return new CachedWarranty(delegate.getWarrantyForServer(server), null);
+        } catch (WarrantyNotFoundException e) {
+            return new CachedWarranty(null, e);
+        }
+    }
+
+    /**
+     * The outcome of one lookup: either a Warranty, or the
+     * WarrantyNotFoundException explaining why there isn't one.
+     */
+    private static class CachedWarranty {
+        private final Warranty warranty;
+        private final WarrantyNotFoundException notFound;
+
+        CachedWarranty(Warranty warranty, WarrantyNotFoundException notFound) {
+            this.warranty = warranty;
+            this.notFound = notFound;
+        }
+    }
+}
@@ -12,6 +12,9 @@ public class Warranty {
     // An actual Warranty would have a lot more details:
     // vendor, date, coverage, etc
 
+    // Whether this Warranty has expired; computed on first use
+    private volatile Boolean expired;
+
     /**
      * Returns an instance of a Warranty with no terms. Used when we
      * specifically want to say that the server has no warranty.
@@ -31,6 +34,16 @@ public class Warranty {
      * @return true if the Warranty has expired, false otherwise.
      */
     public boolean hasExpired() {
+        Boolean result = expired;
+        if (result == null) {
+            // Harmless if two threads both compute it; the answer is the same
+            result = calculateExpired();
+            expired = result;
+        }
+        return result;
+    }
+
+    private boolean calculateExpired() {
         // The null warranty is always expired
         if (this == nullWarranty) {
             return true;
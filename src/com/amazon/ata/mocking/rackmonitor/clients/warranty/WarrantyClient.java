@@ -2,14 +2,35 @@ package com.amazon.ata.mocking.rackmonitor.clients.warranty;
 
 import com.amazon.ata.mocking.rackmonitor.Server;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Represents a connection to a remote service that returns
  * Warranty details.
  */
 public class WarrantyClient {
+    // Null for production clients, which always ask the service
+    private final WarrantySource warrantySource;
+
+    /**
+     * Constructs a WarrantyClient that asks the warranty service for
+     * every Warranty.
+     */
+    public WarrantyClient() {
+        this(null);
+    }
+
+    /**
+     * Constructs a WarrantyClient whose Warranties come from a
+     * WarrantySource, falling back to the warranty service for any
+     * Server it has no Warranty for.
+     * @param warrantySource Supplies the Warranties; null to always ask
+     *                       the service.
+     */
+    public WarrantyClient(WarrantySource warrantySource) {
+        this.warrantySource = warrantySource;
+    }
 
     /**
      * Looks up the Warranty for the provided Server.
@@ -21,45 +42,34 @@ public class WarrantyClient {
      */
     public Warranty getWarrantyForServer(Server server) throws WarrantyNotFoundException {
 
-        String serverId = server.getServerId();
-
-        Warranty warranty;
-        // It's a shame I have to keep test data mixed in with my
-        // valid production data just to support services that
-        // don't know how to mock.
-        warranty = calculateTestWarranty(serverId);
+        Warranty warranty = warrantySource != null ? warrantySource.getWarranty(server) : null;
         if (warranty == null) {
 
             // A real service would look up the warranty here
-            warranty = new Warranty(String.format("for %s", serverId));
+            warranty = new Warranty(String.format("for %s", server.getServerId()));
         }
         return warranty;
     }
 
     /**
-     * Ugh, now I've got to handle all the warranty cases so
-     * my dependents can thoroughly test.
-     * @param serverId The serverId to generate a test Warranty for.
-     * @return a Warranty corresponding to the test Server.
+     * Looks up the Warranty for the provided Server without blocking
+     * the caller.
+     * @param server The Server to look up the Warranty for.
+     * @param executor The executor to run the lookup on.
+     * @return a future Warranty for the given server. If the Server has
+     *     no Warranty, the future completes exceptionally with a
+     *     WarrantyNotFoundException.
      */
-    private Warranty calculateTestWarranty(String serverId) throws WarrantyNotFoundException {
-        if (!serverId.startsWith("TEST")) {
-            return null;
-        }
-
-        try {
-            byte[] digest = MessageDigest.getInstance("SHA-1")
-                .digest(serverId.getBytes());
-            if (digest[10] > 120) {
-                String msg = String.format("Server %s has no warranty!", serverId);
-                throw new WarrantyNotFoundException(msg);
+    public CompletableFuture<Warranty> getWarrantyForServerAsync(Server server, Executor executor) {
+        // A real client would make a non-blocking call to the service here
+        CompletableFuture<Warranty> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                future.complete(getWarrantyForServer(server));
+            } catch (WarrantyNotFoundException | RuntimeException e) {
+                future.completeExceptionally(e);
             }
-        } catch (NoSuchAlgorithmException e) {
-            // This should never happen, since all implementations of
-            // Java must support SHA-1
-            throw new WarrantyNotFoundException(e);
-        }
-
-        return new Warranty(String.format("fake warranty for %s", serverId));
+        });
+        return future;
     }
 }
@@ -0,0 +1,22 @@
+package com.amazon.ata.mocking.rackmonitor.clients.warranty;
+
+import com.amazon.ata.mocking.rackmonitor.Server;
+
+/**
+ * Supplies Warranties from somewhere other than the warranty service:
+ * fixed Warranties for test fixtures, or a simulated fleet for load
+ * tests.
+ *
+ * A WarrantyClient built without a WarrantySource asks the service
+ * for every Warranty, and never calls one.
+ */
+@FunctionalInterface
+public interface WarrantySource {
+    /**
+     * Returns the Warranty for a Server.
+     * @param server The Server to look up.
+     * @return The Server's Warranty, or null to ask the warranty service.
+     * @throws WarrantyNotFoundException if the Server has no Warranty.
+     */
+    Warranty getWarranty(Server server) throws WarrantyNotFoundException;
+}
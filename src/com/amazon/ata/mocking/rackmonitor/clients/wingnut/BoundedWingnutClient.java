@@ -0,0 +1,107 @@
+package com.amazon.ata.mocking.rackmonitor.clients.wingnut;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A WingnutClient that limits how many requests may be outstanding
+ * at once, so a parallel sweep can't flood Wingnut. Callers beyond
+ * the limit wait for a permit.
+ */
+public class BoundedWingnutClient extends WingnutClient {
+    private final WingnutClient delegate;
+    private final Semaphore permits;
+
+    /**
+     * Constructs a BoundedWingnutClient.
+     * @param delegate The WingnutClient that actually files requests.
+     * @param maxConcurrentCalls How many requests may be in flight at once.
+     */
+    public BoundedWingnutClient(WingnutClient delegate, int maxConcurrentCalls) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("maxConcurrentCalls must be positive!");
+        }
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    @Override
+    public void requestReplacement(Rack rack, int unit, Warranty warranty)
+        throws WingnutClientException, WingnutServiceException {
+
+        permits.acquireUninterruptibly();
+        try {
+            delegate.requestReplacement(rack, unit, warranty);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void requestInspection(Rack rack, int unit)
+        throws WingnutClientException, WingnutServiceException {
+
+        permits.acquireUninterruptibly();
+        try {
+            delegate.requestInspection(rack, unit);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void cancelInspection(Rack rack, int unit)
+        throws WingnutClientException, WingnutServiceException {
+
+        permits.acquireUninterruptibly();
+        try {
+            delegate.cancelInspection(rack, unit);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void requestRackInspection(Rack rack)
+        throws WingnutClientException, WingnutServiceException {
+
+        permits.acquireUninterruptibly();
+        try {
+            delegate.requestRackInspection(rack);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public List<WorkOrderResult> submitWorkOrders(List<WorkOrder> workOrders)
+        throws WingnutServiceException {
+
+        // A batch is a single call to Wingnut, so it takes a single permit
+        permits.acquireUninterruptibly();
+        try {
+            return delegate.submitWorkOrders(workOrders);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Wingnut's notifications arrive on the delegate, so listeners are kept there
+    @Override
+    public void addWorkOrderListener(WorkOrderListener listener) {
+        delegate.addWorkOrderListener(listener);
+    }
+
+    @Override
+    public void notifyAcknowledged(WorkOrder workOrder) {
+        delegate.notifyAcknowledged(workOrder);
+    }
+
+    @Override
+    public void notifyCompleted(WorkOrder workOrder) {
+        delegate.notifyCompleted(workOrder);
+    }
+}
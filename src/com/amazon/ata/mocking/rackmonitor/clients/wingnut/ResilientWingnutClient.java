@@ -0,0 +1,371 @@
+package com.amazon.ata.mocking.rackmonitor.clients.wingnut;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.resilience.Backoff;
+import com.amazon.ata.mocking.rackmonitor.resilience.CircuitBreaker;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A WingnutClient that rides out Wingnut outages, so one failing or
+ * slow call doesn't abort a sweep of the whole fleet.
+ *
+ * Each call that fails with a WingnutServiceException is retried with
+ * exponential backoff. A CircuitBreaker watches every call; once
+ * Wingnut keeps failing, or keeps answering too slowly, the breaker
+ * opens and calls stop waiting on Wingnut at all. A request that still
+ * can't be made is deferred: it's queued, the caller returns as though
+ * it was filed, and the queue is drained once Wingnut recovers. Only
+ * when the queue is full does the WingnutServiceException reach the
+ * caller.
+ *
+ * A WingnutClientException means we sent a bad request, so it's never
+ * retried or deferred, and it's thrown straight away.
+ *
+ * Deferred requests are only held in memory; a request deferred when
+ * the process dies is lost, though the caller has recorded it as filed.
+ */
+public class ResilientWingnutClient extends WingnutClient {
+    // How many deferred requests to send after each successful call
+    private static final int DRAIN_BATCH = 16;
+
+    private Logger logger = LogManager.getLogger(ResilientWingnutClient.class);
+    private final WingnutClient delegate;
+    private final CircuitBreaker breaker;
+    private final Backoff backoff;
+    private final int maxAttempts;
+    private final int maxDeferred;
+
+    private final Deque<WorkOrder> deferred = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger deferredCount = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Constructs a ResilientWingnutClient.
+     * @param delegate The WingnutClient that actually files requests.
+     * @param breaker The CircuitBreaker to guard Wingnut with.
+     * @param backoff How long to wait between attempts.
+     * @param maxAttempts How many times to try each call, including
+     *                    the first.
+     * @param maxDeferred The most requests to hold while Wingnut is down.
+     */
+    public ResilientWingnutClient(WingnutClient delegate, CircuitBreaker breaker, Backoff backoff,
+                                  int maxAttempts, int maxDeferred) {
+        if (maxAttempts < 1 || maxDeferred < 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive, and maxDeferred not negative!");
+        }
+        this.delegate = delegate;
+        this.breaker = breaker;
+        this.backoff = backoff;
+        this.maxAttempts = maxAttempts;
+        this.maxDeferred = maxDeferred;
+    }
+
+    @Override
+    public void requestReplacement(Rack rack, int unit, Warranty warranty)
+        throws WingnutClientException, WingnutServiceException {
+
+        submit(WorkOrder.replacement(rack, unit, warranty));
+    }
+
+    @Override
+    public void requestInspection(Rack rack, int unit)
+        throws WingnutClientException, WingnutServiceException {
+
+        submit(WorkOrder.inspection(rack, unit));
+    }
+
+    @Override
+    public void requestRackInspection(Rack rack)
+        throws WingnutClientException, WingnutServiceException {
+
+        // Not deferred: the caller keeps checking the rack until it's filed
+        call(() -> {
+            delegate.requestRackInspection(rack);
+            return null;
+        });
+    }
+
+    @Override
+    public void cancelInspection(Rack rack, int unit)
+        throws WingnutClientException, WingnutServiceException {
+
+        // An inspection that's still deferred never has to reach Wingnut
+        if (removeDeferred(RequestAction.INSPECT, rack, unit)) {
+            return;
+        }
+        call(() -> {
+            delegate.cancelInspection(rack, unit);
+            return null;
+        });
+    }
+
+    @Override
+    public List<WorkOrderResult> submitWorkOrders(List<WorkOrder> workOrders)
+        throws WingnutServiceException {
+
+        List<WorkOrderResult> results;
+        try {
+            results = call(() -> delegate.submitWorkOrders(workOrders));
+        } catch (WingnutClientException e) {
+            // submitWorkOrders() reports bad orders in their results instead
+            throw new IllegalStateException(e);
+        } catch (WingnutServiceException e) {
+            if (!hasRoomFor(workOrders.size())) {
+                throw e;
+            }
+            results = new ArrayList<>(workOrders.size());
+            for (WorkOrder workOrder : workOrders) {
+                results.add(WorkOrderResult.failed(workOrder, e));
+            }
+        }
+
+        // Defer each order Wingnut couldn't take, while there's room
+        List<WorkOrderResult> settled = new ArrayList<>(results.size());
+        boolean anySucceeded = false;
+        for (WorkOrderResult result : results) {
+            if (result.getException() instanceof WingnutServiceException && defer(result.getWorkOrder())) {
+                settled.add(WorkOrderResult.succeeded(result.getWorkOrder()));
+            } else {
+                anySucceeded |= result.isSuccessful();
+                settled.add(result);
+            }
+        }
+        if (anySucceeded) {
+            drain(DRAIN_BATCH);
+        }
+        return settled;
+    }
+
+    /**
+     * Sends every deferred request that Wingnut will take, stopping at
+     * the first one it fails or the breaker turns away.
+     * @return how many deferred requests were filed.
+     */
+    public int drainDeferred() {
+        return drain(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns how many requests are waiting for Wingnut to recover.
+     * @return the number of deferred requests.
+     */
+    public int getDeferredCount() {
+        return deferredCount.get();
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * Returns how many deferred requests Wingnut rejected as bad
+     * requests when they were finally sent. They can't be reported to
+     * the caller, which has long since returned.
+     * @return the number of dropped requests.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    // Wingnut's notifications arrive on the delegate, so listeners are kept there
+    @Override
+    public void addWorkOrderListener(WorkOrderListener listener) {
+        delegate.addWorkOrderListener(listener);
+    }
+
+    @Override
+    public void notifyAcknowledged(WorkOrder workOrder) {
+        delegate.notifyAcknowledged(workOrder);
+    }
+
+    @Override
+    public void notifyCompleted(WorkOrder workOrder) {
+        delegate.notifyCompleted(workOrder);
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return breaker;
+    }
+
+    /**
+     * Files a single request, deferring it if Wingnut can't take it.
+     * @param workOrder The request to file.
+     * @throws WingnutClientException if the request is bad.
+     * @throws WingnutServiceException if Wingnut failed and there's no
+     *         room to defer the request.
+     */
+    private void submit(WorkOrder workOrder) throws WingnutClientException, WingnutServiceException {
+        try {
+            call(() -> {
+                send(workOrder);
+                return null;
+            });
+        } catch (WingnutServiceException e) {
+            if (!defer(workOrder)) {
+                throw e;
+            }
+            logger.debug("Deferred {} while Wingnut is failing", workOrder, e);
+            return;
+        }
+        drain(DRAIN_BATCH);
+    }
+
+    /**
+     * Makes a call through the breaker, retrying service failures with
+     * backoff.
+     * @param call The call to make.
+     * @param <T> The type of the call's result.
+     * @return the call's result.
+     * @throws WingnutClientException as soon as the call throws one.
+     * @throws WingnutServiceException if every attempt failed, or the
+     *         breaker turned the call away.
+     */
+    private <T> T call(WingnutCall<T> call) throws WingnutClientException, WingnutServiceException {
+        WingnutServiceException failure = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (!breaker.tryAcquire()) {
+                throw failure != null ? failure : new WingnutServiceException("Wingnut circuit breaker is open");
+            }
+            long start = System.nanoTime();
+            try {
+                T result = call.call();
+                breaker.onSuccess(System.nanoTime() - start);
+                return result;
+            } catch (WingnutClientException e) {
+                // Wingnut answered; the fault is ours, so don't hold it against Wingnut
+                breaker.onSuccess(System.nanoTime() - start);
+                throw e;
+            } catch (WingnutServiceException e) {
+                breaker.onFailure();
+                failure = e;
+            } catch (RuntimeException e) {
+                breaker.onFailure();
+                throw e;
+            }
+
+            if (attempt < maxAttempts) {
+                retries.increment();
+                try {
+                    backoff.sleep(attempt);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw failure;
+                }
+            }
+        }
+        throw failure;
+    }
+
+    private void send(WorkOrder workOrder) throws WingnutClientException, WingnutServiceException {
+        if (workOrder.getAction() == RequestAction.REPLACE) {
+            delegate.requestReplacement(workOrder.getRack(), workOrder.getUnit(), workOrder.getWarranty());
+        } else if (workOrder.getAction() == RequestAction.INSPECT_RACK) {
+            delegate.requestRackInspection(workOrder.getRack());
+        } else {
+            delegate.requestInspection(workOrder.getRack(), workOrder.getUnit());
+        }
+    }
+
+    private boolean hasRoomFor(int requests) {
+        return deferredCount.get() + requests <= maxDeferred;
+    }
+
+    /**
+     * Queues a request to send once Wingnut recovers.
+     * @param workOrder The request.
+     * @return false if the queue is full.
+     */
+    private boolean defer(WorkOrder workOrder) {
+        if (deferredCount.incrementAndGet() > maxDeferred) {
+            deferredCount.decrementAndGet();
+            return false;
+        }
+        deferred.addLast(workOrder);
+        return true;
+    }
+
+    private boolean removeDeferred(RequestAction action, Rack rack, int unit) {
+        boolean removed = false;
+        for (Iterator<WorkOrder> it = deferred.iterator(); it.hasNext(); ) {
+            WorkOrder workOrder = it.next();
+            if (workOrder.getAction() == action && workOrder.getRack().equals(rack) && workOrder.getUnit() == unit) {
+                it.remove();
+                deferredCount.decrementAndGet();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Sends deferred requests, one at a time and without retries, while
+     * the breaker allows. Only one thread drains at once.
+     * @param limit The most requests to send.
+     * @return how many deferred requests were filed.
+     */
+    private int drain(int limit) {
+        if (deferred.isEmpty() || !draining.compareAndSet(false, true)) {
+            return 0;
+        }
+        int sent = 0;
+        try {
+            while (sent < limit) {
+                WorkOrder workOrder = deferred.pollFirst();
+                if (workOrder == null) {
+                    break;
+                }
+                if (!breaker.tryAcquire()) {
+                    deferred.addFirst(workOrder);
+                    break;
+                }
+                long start = System.nanoTime();
+                try {
+                    send(workOrder);
+                    breaker.onSuccess(System.nanoTime() - start);
+                    sent++;
+                } catch (WingnutClientException e) {
+                    breaker.onSuccess(System.nanoTime() - start);
+                    dropped.increment();
+                    logger.error("Wingnut rejected deferred {}; it will not be filed", workOrder, e);
+                } catch (WingnutServiceException | RuntimeException e) {
+                    breaker.onFailure();
+                    deferred.addFirst(workOrder);
+                    logger.debug("Wingnut still failing; {} requests deferred", deferredCount.get(), e);
+                    break;
+                }
+                deferredCount.decrementAndGet();
+            }
+        } finally {
+            draining.set(false);
+        }
+        if (sent > 0) {
+            logger.info("Filed {} deferred requests; {} still deferred", sent, deferredCount.get());
+        }
+        return sent;
+    }
+
+    /**
+     * A call to Wingnut.
+     *
+     * @param <T> The type of the call's result.
+     */
+    @FunctionalInterface
+    private interface WingnutCall<T> {
+        T call() throws WingnutClientException, WingnutServiceException;
+    }
+}
@@ -1,12 +1,20 @@
 package com.amazon.ata.mocking.rackmonitor.clients.wingnut;
 
 import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
 import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
 /**
  * Represents a service that handles hardware in a data center.
  */
 public class WingnutClient {
+    private final List<WorkOrderListener> listeners = new CopyOnWriteArrayList<>();
 
     /**
      * Notifies Maintenance that a server is unhealthy and should be
@@ -43,4 +51,145 @@ public class WingnutClient {
         // A real service would create a work order, and might thrown an exception.
         System.out.println(String.format("Inspection requested for %s unit %d", rack, unit));
     }
+
+    /**
+     * Notifies Maintenance that a whole rack has failed, as when its PDU
+     * or top-of-rack switch dies, and someone should inspect the rack
+     * before any of its servers are replaced.
+     * @param rack The failed rack.
+     * @throws WingnutClientException if the inputs are invalid.
+     * @throws WingnutServiceException if something goes wrong.
+     */
+    public void requestRackInspection(Rack rack)
+        throws WingnutClientException, WingnutServiceException {
+
+        // A real service would create a work order, and might thrown an exception.
+        System.out.println(String.format("Rack inspection requested for %s", rack));
+    }
+
+    /**
+     * Withdraws an inspection request, as when the server is being
+     * replaced instead.
+     * @param rack The rack containing the suspect server.
+     * @param unit The top unit slot where the server is installed.
+     * @throws WingnutClientException if the inputs are invalid.
+     * @throws WingnutServiceException if something goes wrong.
+     */
+    public void cancelInspection(Rack rack, int unit)
+        throws WingnutClientException, WingnutServiceException {
+
+        // A real service would close the work order, and might thrown an exception.
+        System.out.println(String.format("Inspection cancelled for %s unit %d", rack, unit));
+    }
+
+    /**
+     * Notifies Maintenance that a server should be replaced, without
+     * blocking the caller.
+     * @param rack The Rack containing the unhealthy server.
+     * @param unit The unit slot where the server is installed.
+     * @param warranty The Warranty that applies to the server.
+     * @param executor The executor to make the request on.
+     * @return a future that completes when the request is filed, or
+     *     completes exceptionally with a WingnutClientException or
+     *     WingnutServiceException.
+     */
+    public CompletableFuture<Void> requestReplacementAsync(Rack rack, int unit, Warranty warranty,
+                                                           Executor executor) {
+        // A real client would make a non-blocking call to the service here
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                requestReplacement(rack, unit, warranty);
+                future.complete(null);
+            } catch (WingnutClientException | WingnutServiceException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Notifies Maintenance that a server should be inspected, without
+     * blocking the caller.
+     * @param rack The rack containing the suspect server.
+     * @param unit The top unit slot where the server is installed.
+     * @param executor The executor to make the request on.
+     * @return a future that completes when the request is filed, or
+     *     completes exceptionally with a WingnutClientException or
+     *     WingnutServiceException.
+     */
+    public CompletableFuture<Void> requestInspectionAsync(Rack rack, int unit, Executor executor) {
+        // A real client would make a non-blocking call to the service here
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                requestInspection(rack, unit);
+                future.complete(null);
+            } catch (WingnutClientException | WingnutServiceException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Submits many INSPECT and REPLACE WorkOrders in one request.
+     * Each WorkOrder succeeds or fails on its own; one bad order
+     * doesn't fail the rest of the batch.
+     * @param workOrders The WorkOrders to submit.
+     * @return a WorkOrderResult for each WorkOrder, in the same order.
+     * @throws WingnutServiceException if the whole batch fails.
+     */
+    public List<WorkOrderResult> submitWorkOrders(List<WorkOrder> workOrders)
+        throws WingnutServiceException {
+
+        // A real service would create every work order in a single round trip.
+        List<WorkOrderResult> results = new ArrayList<>(workOrders.size());
+        for (WorkOrder workOrder : workOrders) {
+            try {
+                if (workOrder.getAction() == RequestAction.REPLACE) {
+                    requestReplacement(workOrder.getRack(), workOrder.getUnit(), workOrder.getWarranty());
+                } else if (workOrder.getAction() == RequestAction.INSPECT_RACK) {
+                    requestRackInspection(workOrder.getRack());
+                } else {
+                    requestInspection(workOrder.getRack(), workOrder.getUnit());
+                }
+                results.add(WorkOrderResult.succeeded(workOrder));
+            } catch (WingnutClientException | WingnutServiceException e) {
+                results.add(WorkOrderResult.failed(workOrder, e));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Registers a listener to hear when WorkOrders are acknowledged
+     * and completed.
+     * @param listener The listener to add.
+     */
+    public void addWorkOrderListener(WorkOrderListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Tells every listener that Maintenance picked up a WorkOrder.
+     * Called when Wingnut's notification arrives.
+     * @param workOrder The WorkOrder being worked on.
+     */
+    public void notifyAcknowledged(WorkOrder workOrder) {
+        for (WorkOrderListener listener : listeners) {
+            listener.workOrderAcknowledged(workOrder);
+        }
+    }
+
+    /**
+     * Tells every listener that Maintenance finished a WorkOrder.
+     * Called when Wingnut's notification arrives.
+     * @param workOrder The WorkOrder that was completed.
+     */
+    public void notifyCompleted(WorkOrder workOrder) {
+        for (WorkOrderListener listener : listeners) {
+            listener.workOrderCompleted(workOrder);
+        }
+    }
 }
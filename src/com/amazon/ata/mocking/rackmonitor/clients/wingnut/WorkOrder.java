@@ -0,0 +1,83 @@
+package com.amazon.ata.mocking.rackmonitor.clients.wingnut;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+
+/**
+ * An immutable request for Wingnut to INSPECT or REPLACE the server
+ * in a Rack unit slot, or to INSPECT_RACK a whole Rack. Used to submit
+ * many requests in one batch, and to tell listeners how they went.
+ */
+public class WorkOrder {
+    private final RequestAction action;
+    private final Rack rack;
+    private final int unit;
+    private final Warranty warranty;
+
+    private WorkOrder(RequestAction action, Rack rack, int unit, Warranty warranty) {
+        this.action = action;
+        this.rack = rack;
+        this.unit = unit;
+        this.warranty = warranty;
+    }
+
+    /**
+     * Creates a WorkOrder to inspect a server.
+     * @param rack The rack containing the suspect server.
+     * @param unit The top unit slot where the server is installed.
+     * @return an INSPECT WorkOrder.
+     */
+    public static WorkOrder inspection(Rack rack, int unit) {
+        return new WorkOrder(RequestAction.INSPECT, rack, unit, null);
+    }
+
+    /**
+     * Creates a WorkOrder to replace a server.
+     * @param rack The Rack containing the unhealthy server.
+     * @param unit The unit slot where the server is installed.
+     * @param warranty The Warranty that applies to the server.
+     * @return a REPLACE WorkOrder.
+     */
+    public static WorkOrder replacement(Rack rack, int unit, Warranty warranty) {
+        return new WorkOrder(RequestAction.REPLACE, rack, unit, warranty);
+    }
+
+    /**
+     * Creates a WorkOrder to inspect a whole Rack, as Wingnut reports
+     * for requestRackInspection().
+     * @param rack The failed Rack.
+     * @return an INSPECT_RACK WorkOrder for unit 0.
+     */
+    public static WorkOrder rackInspection(Rack rack) {
+        return new WorkOrder(RequestAction.INSPECT_RACK, rack, 0, null);
+    }
+
+    public RequestAction getAction() {
+        return action;
+    }
+
+    public Rack getRack() {
+        return rack;
+    }
+
+    public int getUnit() {
+        return unit;
+    }
+
+    /**
+     * Returns the Warranty that applies to a REPLACE order.
+     * @return the Warranty, or null for an inspection.
+     */
+    public Warranty getWarranty() {
+        return warranty;
+    }
+
+    @Override
+    public String toString() {
+        if (action == RequestAction.REPLACE) {
+            return String.format("{%s %s unit %d under %s}", action, rack, unit, warranty);
+        }
+        return String.format("{%s %s unit %d}", action, rack, unit);
+    }
+}
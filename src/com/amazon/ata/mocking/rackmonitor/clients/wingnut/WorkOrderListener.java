@@ -0,0 +1,19 @@
+package com.amazon.ata.mocking.rackmonitor.clients.wingnut;
+
+/**
+ * Hears from Wingnut as Maintenance works through WorkOrders.
+ */
+public interface WorkOrderListener {
+
+    /**
+     * Called when Maintenance picks up a WorkOrder.
+     * @param workOrder The WorkOrder being worked on.
+     */
+    void workOrderAcknowledged(WorkOrder workOrder);
+
+    /**
+     * Called when Maintenance finishes a WorkOrder.
+     * @param workOrder The WorkOrder that was completed.
+     */
+    void workOrderCompleted(WorkOrder workOrder);
+}
@@ -0,0 +1,57 @@
+package com.amazon.ata.mocking.rackmonitor.clients.wingnut;
+
+/**
+ * The outcome of a single WorkOrder in a batch submission. A failed
+ * result carries the WingnutClientException or WingnutServiceException
+ * that Wingnut would have thrown for that order on its own.
+ */
+public class WorkOrderResult {
+    private final WorkOrder workOrder;
+    private final Exception exception;
+
+    private WorkOrderResult(WorkOrder workOrder, Exception exception) {
+        this.workOrder = workOrder;
+        this.exception = exception;
+    }
+
+    /**
+     * Creates the result of a WorkOrder that Wingnut accepted.
+     * @param workOrder The accepted WorkOrder.
+     * @return a successful WorkOrderResult.
+     */
+    public static WorkOrderResult succeeded(WorkOrder workOrder) {
+        return new WorkOrderResult(workOrder, null);
+    }
+
+    /**
+     * Creates the result of a WorkOrder that Wingnut rejected.
+     * @param workOrder The rejected WorkOrder.
+     * @param exception The WingnutClientException or WingnutServiceException
+     *                  explaining why.
+     * @return a failed WorkOrderResult.
+     */
+    public static WorkOrderResult failed(WorkOrder workOrder, Exception exception) {
+        return new WorkOrderResult(workOrder, exception);
+    }
+
+    public WorkOrder getWorkOrder() {
+        return workOrder;
+    }
+
+    public boolean isSuccessful() {
+        return exception == null;
+    }
+
+    /**
+     * Returns why the WorkOrder failed.
+     * @return the exception, or null if the WorkOrder succeeded.
+     */
+    public Exception getException() {
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{%s %s}", workOrder, isSuccessful() ? "succeeded" : "failed: " + exception);
+    }
+}
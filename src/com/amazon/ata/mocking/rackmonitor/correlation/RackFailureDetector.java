@@ -0,0 +1,95 @@
+package com.amazon.ata.mocking.rackmonitor.correlation;
+
+/**
+ * Decides from a whole Rack's health whether the Rack itself has
+ * failed, rather than its Servers one at a time. When a PDU or
+ * top-of-rack switch dies, every Server behind it drops below the
+ * replace threshold at once; one rack-level incident covers them all,
+ * where per-server handling would cost a Warranty lookup and a Wingnut
+ * request for each.
+ *
+ * A Rack has failed when at least a minimum share of its Servers are
+ * due for replacement, and it has enough Servers for that share to
+ * mean something. The thresholds can be changed at any time; a
+ * disabled detector never reports a failure.
+ */
+public class RackFailureDetector {
+    private volatile Thresholds thresholds;
+
+    /**
+     * Constructs a RackFailureDetector.
+     * @param minFailedFraction The share of a Rack's Servers, from 0.0
+     *                          to 1.0, that must be failing.
+     * @param minServers The fewest Servers a Rack must have for its
+     *                   failure to be detected.
+     */
+    public RackFailureDetector(double minFailedFraction, int minServers) {
+        setThresholds(minFailedFraction, minServers);
+    }
+
+    private RackFailureDetector() {
+        this.thresholds = null;
+    }
+
+    /**
+     * Creates a RackFailureDetector that never reports a failure, until
+     * its thresholds are set.
+     * @return a disabled RackFailureDetector.
+     */
+    public static RackFailureDetector disabled() {
+        return new RackFailureDetector();
+    }
+
+    /**
+     * Changes the thresholds, enabling the detector if it was disabled.
+     * @param minFailedFraction The share of a Rack's Servers, from 0.0
+     *                          to 1.0, that must be failing.
+     * @param minServers The fewest Servers a Rack must have for its
+     *                   failure to be detected.
+     */
+    public void setThresholds(double minFailedFraction, int minServers) {
+        if (!(minFailedFraction > 0 && minFailedFraction <= 1) || minServers < 1) {
+            throw new IllegalArgumentException("minFailedFraction must be in (0, 1], and minServers positive!");
+        }
+        thresholds = new Thresholds(minFailedFraction, minServers);
+    }
+
+    /**
+     * Stops the detector reporting failures.
+     */
+    public void disable() {
+        thresholds = null;
+    }
+
+    public boolean isEnabled() {
+        return thresholds != null;
+    }
+
+    /**
+     * Decides whether a Rack has failed as a whole.
+     * @param failedServers How many of the Rack's Servers are due for
+     *                      replacement.
+     * @param servers How many Servers the Rack has.
+     * @return true if the Rack has failed.
+     */
+    public boolean isRackFailure(int failedServers, int servers) {
+        Thresholds current = thresholds;
+        return current != null
+            && servers >= current.minServers
+            && failedServers >= current.minFailedFraction * servers;
+    }
+
+    /**
+     * The thresholds, swapped as one object by setThresholds(), so
+     * isRackFailure() can't pair a new fraction with an old minimum.
+     */
+    private static class Thresholds {
+        private final double minFailedFraction;
+        private final int minServers;
+
+        Thresholds(double minFailedFraction, int minServers) {
+            this.minFailedFraction = minFailedFraction;
+            this.minServers = minServers;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.amazon.ata.mocking.rackmonitor.incidents;
+
+import com.amazon.ata.mocking.rackmonitor.HealthIncident;
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.Server;
+
+import com.google.common.collect.Iterators;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An IncidentStore backed by a concurrent hash map with one entry per
+ * Server in a unit slot. Every change to a Server's incidents is made
+ * in a single atomic compute() on its entry, so concurrent sweeps
+ * never block on other Servers and never both win the same Server.
+ */
+public class ConcurrentIncidentStore implements IncidentStore {
+    private final ConcurrentHashMap<Location, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicInteger recordedCount = new AtomicInteger();
+    private final Set<HealthIncident> recordedView = new RecordedView();
+
+    @Override
+    public boolean claim(HealthIncident incident) {
+        boolean[] claimed = new boolean[1];
+        slots.compute(new Location(incident), (location, slot) -> {
+            if (slot == null) {
+                claimed[0] = true;
+                return new Slot(null, incident);
+            }
+            if (slot.pending != null || !supersedes(incident, slot.recorded)) {
+                return slot;
+            }
+            claimed[0] = true;
+            return new Slot(slot.recorded, incident);
+        });
+        return claimed[0];
+    }
+
+    @Override
+    public void record(HealthIncident incident) {
+        slots.compute(new Location(incident), (location, slot) -> {
+            if (slot == null) {
+                recordedCount.incrementAndGet();
+                return new Slot(incident, null);
+            }
+            HealthIncident pending = incident.equals(slot.pending) ? null : slot.pending;
+            if (!supersedes(incident, slot.recorded)) {
+                // Already recorded, or a REPLACE is; never downgrade
+                return new Slot(slot.recorded, pending);
+            }
+            if (slot.recorded == null) {
+                recordedCount.incrementAndGet();
+            }
+            return new Slot(incident, pending);
+        });
+    }
+
+    @Override
+    public void release(HealthIncident incident) {
+        slots.computeIfPresent(new Location(incident), (location, slot) -> {
+            if (!incident.equals(slot.pending)) {
+                return slot;
+            }
+            return slot.recorded == null ? null : new Slot(slot.recorded, null);
+        });
+    }
+
+    @Override
+    public boolean remove(HealthIncident incident) {
+        boolean[] removed = new boolean[1];
+        slots.computeIfPresent(new Location(incident), (location, slot) -> {
+            if (!incident.equals(slot.recorded)) {
+                return slot;
+            }
+            removed[0] = true;
+            recordedCount.decrementAndGet();
+            return slot.pending == null ? null : new Slot(null, slot.pending);
+        });
+        return removed[0];
+    }
+
+    @Override
+    public boolean contains(HealthIncident incident) {
+        Slot slot = slots.get(new Location(incident));
+        return slot != null && incident.equals(slot.recorded);
+    }
+
+    @Override
+    public Set<HealthIncident> getIncidents() {
+        return recordedView;
+    }
+
+    /**
+     * Decides whether an incident can be reported over what's already
+     * recorded for its Server.
+     * @param incident The incident about to be claimed or recorded.
+     * @param recorded The Server's recorded incident, or null.
+     * @return true if nothing is recorded, or incident is a REPLACE
+     *         and only an INSPECT is recorded.
+     */
+    private static boolean supersedes(HealthIncident incident, HealthIncident recorded) {
+        return recorded == null ||
+            incident.getAction() == RequestAction.REPLACE && recorded.getAction() == RequestAction.INSPECT;
+    }
+
+    /**
+     * A Server in a unit slot of a Rack, or a whole Rack.
+     */
+    private static final class Location {
+        private final Server server;
+        private final Rack rack;
+        private final int unit;
+        private final boolean wholeRack;
+
+        private Location(HealthIncident incident) {
+            this.server = incident.getServer();
+            this.rack = incident.getRack();
+            this.unit = incident.getUnit();
+            this.wholeRack = incident.getAction() == RequestAction.INSPECT_RACK;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Location)) {
+                return false;
+            }
+            Location that = (Location) o;
+            return unit == that.unit && wholeRack == that.wholeRack &&
+                Objects.equals(server, that.server) && Objects.equals(rack, that.rack);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = 31 + Objects.hashCode(server);
+            result = 31 * result + Objects.hashCode(rack);
+            result = 31 * result + unit;
+            return 31 * result + Boolean.hashCode(wholeRack);
+        }
+    }
+
+    /**
+     * What's known about one Server: its recorded incident, and the
+     * claim in flight, either of which may be null. Immutable, so each
+     * compute() swaps in a new one.
+     */
+    private static final class Slot {
+        private final HealthIncident recorded;
+        private final HealthIncident pending;
+
+        private Slot(HealthIncident recorded, HealthIncident pending) {
+            this.recorded = recorded;
+            this.pending = pending;
+        }
+    }
+
+    /**
+     * A read-only view of the recorded incidents.
+     */
+    private class RecordedView extends AbstractSet<HealthIncident> {
+        @Override
+        public int size() {
+            return recordedCount.get();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof HealthIncident && ConcurrentIncidentStore.this.contains((HealthIncident) o);
+        }
+
+        @Override
+        public Iterator<HealthIncident> iterator() {
+            // transform() and filter() both return read-only iterators
+            return Iterators.filter(
+                Iterators.transform(slots.values().iterator(), slot -> slot.recorded), Objects::nonNull);
+        }
+    }
+}
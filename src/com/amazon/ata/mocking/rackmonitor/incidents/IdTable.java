@@ -0,0 +1,132 @@
+package com.amazon.ata.mocking.rackmonitor.incidents;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Assigns dense int indexes to string IDs, and remembers a value for
+ * each one. Indexes are handed out in order starting at zero and never
+ * change, so they can be packed into other values and written to disk.
+ *
+ * IDs are found through an open-addressed table of indexes rather than
+ * a HashMap, so each ID costs a few bytes on top of the ID and value
+ * themselves. Lookups are lock-free; only new IDs, and IDs getting
+ * their first value, take a lock.
+ *
+ * @param <T> The type of value stored for each ID.
+ */
+public class IdTable<T> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private volatile AtomicReferenceArray<String> ids = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    private volatile AtomicReferenceArray<T> values = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    // Each slot holds an index plus one, or zero if empty; kept at most half full
+    private volatile AtomicIntegerArray slots = new AtomicIntegerArray(INITIAL_CAPACITY * 2);
+    private volatile int size;
+
+    /**
+     * Returns the index of an ID, assigning the next index if it's new.
+     * If the ID has no value yet, it takes the given one.
+     * @param id The ID.
+     * @param value The value for the ID; may be null.
+     * @return the ID's index.
+     */
+    public int intern(String id, T value) {
+        int index = indexOf(id);
+        if (index >= 0 && (value == null || values.get(index) != null)) {
+            return index;
+        }
+        synchronized (this) {
+            index = indexOf(id);
+            if (index < 0) {
+                index = size;
+                if (index == ids.length()) {
+                    ids = copyOf(ids, index * 2);
+                    values = copyOf(values, index * 2);
+                }
+                ids.set(index, id);
+                values.set(index, value);
+                size = index + 1;
+                if (size * 2 > slots.length()) {
+                    slots = rehash(slots.length() * 2);
+                }
+                // Published last, so anyone who finds the index can read it
+                insert(slots, id, index);
+            } else if (values.get(index) == null) {
+                values.set(index, value);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Returns the index of an ID.
+     * @param id The ID.
+     * @return its index, or -1 if it was never interned.
+     */
+    public int indexOf(String id) {
+        AtomicIntegerArray table = slots;
+        int mask = table.length() - 1;
+        for (int slot = slotFor(id, mask); ; slot = (slot + 1) & mask) {
+            int entry = table.get(slot);
+            if (entry == 0) {
+                return -1;
+            }
+            if (id.equals(ids.get(entry - 1))) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Returns the ID at an index.
+     * @param index The index.
+     * @return the ID.
+     */
+    public String getId(int index) {
+        return ids.get(index);
+    }
+
+    /**
+     * Returns the value at an index.
+     * @param index The index.
+     * @return the value, or null if the ID has none.
+     */
+    public T getValue(int index) {
+        return values.get(index);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private AtomicIntegerArray rehash(int capacity) {
+        AtomicIntegerArray table = new AtomicIntegerArray(capacity);
+        for (int index = 0; index < size - 1; index++) {
+            insert(table, ids.get(index), index);
+        }
+        return table;
+    }
+
+    private static void insert(AtomicIntegerArray table, String id, int index) {
+        int mask = table.length() - 1;
+        int slot = slotFor(id, mask);
+        while (table.get(slot) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table.set(slot, index + 1);
+    }
+
+    private static int slotFor(String id, int mask) {
+        int hash = id.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static <E> AtomicReferenceArray<E> copyOf(AtomicReferenceArray<E> array, int length) {
+        AtomicReferenceArray<E> copy = new AtomicReferenceArray<>(length);
+        for (int i = 0; i < array.length(); i++) {
+            copy.set(i, array.get(i));
+        }
+        return copy;
+    }
+}
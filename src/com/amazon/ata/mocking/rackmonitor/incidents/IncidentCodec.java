@@ -0,0 +1,206 @@
+package com.amazon.ata.mocking.rackmonitor.incidents;
+
+import com.amazon.ata.mocking.rackmonitor.HealthIncident;
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.Server;
+
+/**
+ * Packs a HealthIncident into a single long, for stores, journals and
+ * anything else that needs to hold or send many incidents cheaply.
+ *
+ * Rack and server IDs are interned to dense indexes, which are packed
+ * with the unit and action as:
+ * <pre>
+ *   | server index: 26 bits | rack index: 24 bits | unit: 12 bits | action: 2 bits |
+ * </pre>
+ * The action is stored as its ordinal plus one, so no incident ever
+ * encodes to zero. Indexes are only meaningful to the codec that
+ * assigned them; anything that stores codes outside this process must
+ * also store the IDs, in index order (see getRackId() and getServerId()).
+ */
+public class IncidentCodec {
+    static final int ACTION_BITS = 2;
+    static final int UNIT_BITS = 12;
+    static final int RACK_BITS = 24;
+    static final int SERVER_BITS = 26;
+
+    private static final int UNIT_SHIFT = ACTION_BITS;
+    private static final int RACK_SHIFT = UNIT_SHIFT + UNIT_BITS;
+    private static final int SERVER_SHIFT = RACK_SHIFT + RACK_BITS;
+    private static final long ACTION_MASK = (1 << ACTION_BITS) - 1;
+    private static final RequestAction[] ACTIONS = RequestAction.values();
+
+    private final IdTable<Rack> racks = new IdTable<>();
+    private final IdTable<Server> servers = new IdTable<>();
+
+    /**
+     * Packs a HealthIncident into a long, interning its Rack and Server.
+     * @param incident The incident to encode.
+     * @return the incident's code; never zero.
+     * @throws IllegalArgumentException if the unit, or the number of
+     *         racks or servers, doesn't fit the encoding.
+     */
+    public long encode(HealthIncident incident) {
+        int rack = racks.intern(incident.getRack().getRackId(), incident.getRack());
+        int server = servers.intern(incident.getServer().getServerId(), incident.getServer());
+        return pack(server, rack, incident.getUnit(), incident.getAction());
+    }
+
+    /**
+     * Packs a HealthIncident into a long only if its Rack and Server
+     * have already been interned, so looking up an incident that can't
+     * be present never grows the codec.
+     * @param incident The incident to encode.
+     * @return the incident's code, or zero if it has never been encoded.
+     */
+    public long encodeIfKnown(HealthIncident incident) {
+        int rack = racks.indexOf(incident.getRack().getRackId());
+        int server = servers.indexOf(incident.getServer().getServerId());
+        if (rack < 0 || server < 0 || incident.getUnit() < 0 || incident.getUnit() >= 1 << UNIT_BITS) {
+            return 0L;
+        }
+        return pack(server, rack, incident.getUnit(), incident.getAction());
+    }
+
+    /**
+     * Unpacks a code into a HealthIncident.
+     * @param code A code from encode().
+     * @return the incident, or null if its Rack is only known by ID
+     *         (for example, a Rack read from a journal that's no
+     *         longer monitored).
+     */
+    public HealthIncident decode(long code) {
+        Rack rack = racks.getValue(rackIndexOf(code));
+        if (rack == null) {
+            return null;
+        }
+        int server = serverIndexOf(code);
+        Server value = servers.getValue(server);
+        return new HealthIncident(value != null ? value : new Server(servers.getId(server)),
+            rack, unitOf(code), actionOf(code));
+    }
+
+    /**
+     * Interns a Rack, so incidents decode to it. A Rack previously
+     * interned by ID alone takes this Rack as its value.
+     * @param rack The Rack.
+     * @return the Rack's index.
+     */
+    public int internRack(Rack rack) {
+        return checkIndex(racks.intern(rack.getRackId(), rack), RACK_BITS, "racks");
+    }
+
+    /**
+     * Interns a rack ID with no Rack, as when reading codes written by
+     * another process. Incidents in this rack decode to null until the
+     * Rack itself is interned.
+     * @param rackId The rack ID.
+     * @return the rack ID's index.
+     */
+    public int internRackId(String rackId) {
+        return checkIndex(racks.intern(rackId, null), RACK_BITS, "racks");
+    }
+
+    /**
+     * Interns a server ID without a Server, as when reading codes
+     * written by another process. Incidents decode to a new Server
+     * with this ID until the Server itself is encoded.
+     * @param serverId The server ID.
+     * @return the server ID's index.
+     */
+    public int internServerId(String serverId) {
+        return checkIndex(servers.intern(serverId, null), SERVER_BITS, "servers");
+    }
+
+    /**
+     * Returns the Rack at an index.
+     * @param index The rack index.
+     * @return the Rack, or null if the rack is only known by ID.
+     */
+    public Rack getRack(int index) {
+        return racks.getValue(index);
+    }
+
+    public String getRackId(int index) {
+        return racks.getId(index);
+    }
+
+    public String getServerId(int index) {
+        return servers.getId(index);
+    }
+
+    public int getRackCount() {
+        return racks.size();
+    }
+
+    public int getServerCount() {
+        return servers.size();
+    }
+
+    /**
+     * Extracts the rack index from a code.
+     * @param code A code from encode().
+     * @return the rack index.
+     */
+    public static int rackIndexOf(long code) {
+        return (int) (code >>> RACK_SHIFT) & ((1 << RACK_BITS) - 1);
+    }
+
+    /**
+     * Extracts the server index from a code.
+     * @param code A code from encode().
+     * @return the server index.
+     */
+    public static int serverIndexOf(long code) {
+        return (int) (code >>> SERVER_SHIFT) & ((1 << SERVER_BITS) - 1);
+    }
+
+    /**
+     * Extracts the unit from a code.
+     * @param code A code from encode().
+     * @return the unit.
+     */
+    public static int unitOf(long code) {
+        return (int) (code >>> UNIT_SHIFT) & ((1 << UNIT_BITS) - 1);
+    }
+
+    /**
+     * Extracts the action from a code.
+     * @param code A code from encode().
+     * @return the action.
+     */
+    public static RequestAction actionOf(long code) {
+        return ACTIONS[(int) (code & ACTION_MASK) - 1];
+    }
+
+    /**
+     * Swaps the action in a code, for the incident with another action
+     * on the same Server.
+     * @param code A code from encode().
+     * @param action The action for the new code.
+     * @return the code of the other incident.
+     */
+    public static long withAction(long code, RequestAction action) {
+        return code & ~ACTION_MASK | (action.ordinal() + 1);
+    }
+
+    private static long pack(int server, int rack, int unit, RequestAction action) {
+        checkIndex(server, SERVER_BITS, "servers");
+        checkIndex(rack, RACK_BITS, "racks");
+        if (unit < 0 || unit >= 1 << UNIT_BITS) {
+            throw new IllegalArgumentException("Unit " + unit + " doesn't fit in " + UNIT_BITS + " bits!");
+        }
+        return (long) server << SERVER_SHIFT |
+            (long) rack << RACK_SHIFT |
+            (long) unit << UNIT_SHIFT |
+            (action.ordinal() + 1);
+    }
+
+    private static int checkIndex(int index, int bits, String what) {
+        if (index >= 1 << bits) {
+            throw new IllegalArgumentException("Too many " + what + " for " + bits + " bits!");
+        }
+        return index;
+    }
+}
@@ -0,0 +1,322 @@
+package com.amazon.ata.mocking.rackmonitor.incidents;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * An append-only, memory-mapped log of incident codes from an
+ * IncidentCodec, so a restarted RackMonitor can remember which
+ * requests it already filed.
+ *
+ * The file starts with a magic number and format version, followed by
+ * records that each start with a type byte:
+ * <ul>
+ *   <li>RACK_ID and SERVER_ID records define the next rack or server
+ *       index, with a length-prefixed UTF-8 ID. Every index is defined
+ *       before the first incident that uses it.</li>
+ *   <li>INCIDENT records hold one 8-byte code.</li>
+ *   <li>REMOVED records hold the 8-byte code of an incident that has
+ *       since been forgotten.</li>
+ * </ul>
+ * Each record's body is written before its type byte, so a record
+ * torn by a crash reads as a zero type and replay stops cleanly in
+ * front of it. The file grows by doubling.
+ *
+ * Writes land in the page cache as soon as they're made, so they
+ * survive the process dying; force() makes them survive the machine
+ * dying too.
+ *
+ * Not thread safe; callers must synchronize.
+ */
+public class IncidentJournal implements Closeable {
+    private static final int MAGIC = 0x494E4344; // "INCD"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 8;
+    private static final int INITIAL_BYTES = 64 * 1024;
+
+    private static final byte RACK_ID = 1;
+    private static final byte SERVER_ID = 2;
+    private static final byte INCIDENT = 3;
+    private static final byte REMOVED = 4;
+
+    private final Path path;
+    private final IncidentCodec codec;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private boolean replayed;
+    private int racksWritten;
+    private int serversWritten;
+    private int recordCount;
+
+    /**
+     * Opens a journal with a new IncidentCodec, creating it if it
+     * doesn't exist. Call replay() before appending, to find the end
+     * of any existing records.
+     * @param path The journal file.
+     * @throws IOException if the file can't be opened, or isn't a journal.
+     */
+    public IncidentJournal(Path path) throws IOException {
+        this(path, new IncidentCodec());
+    }
+
+    /**
+     * Opens a journal, creating it if it doesn't exist. Call replay()
+     * before appending, to find the end of any existing records.
+     * @param path The journal file.
+     * @param codec The codec whose indexes the journal's codes use.
+     * @throws IOException if the file can't be opened, or isn't a journal.
+     */
+    public IncidentJournal(Path path, IncidentCodec codec) throws IOException {
+        this.path = path;
+        this.codec = codec;
+        open();
+    }
+
+    /**
+     * Reads every record in the journal, interning each rack and server
+     * ID in the codec in the order they were written. Rack IDs are
+     * interned without Racks; intern the monitored Racks afterwards so
+     * their incidents decode. Leaves the journal positioned to append
+     * after the last complete record.
+     * @param incidents Receives the code of each incident record.
+     * @param removals Receives the code of each removal record.
+     * @return the number of incident and removal records read.
+     * @throws IOException if the journal's IDs don't match what the
+     *         codec already holds.
+     */
+    public int replay(LongConsumer incidents, LongConsumer removals) throws IOException {
+        buffer.position(HEADER_BYTES);
+        racksWritten = 0;
+        serversWritten = 0;
+        recordCount = 0;
+        while (buffer.hasRemaining()) {
+            int start = buffer.position();
+            byte type = buffer.get();
+            if (type == RACK_ID && hasString()) {
+                checkIndex(codec.internRackId(readString()), racksWritten++);
+            } else if (type == SERVER_ID && hasString()) {
+                checkIndex(codec.internServerId(readString()), serversWritten++);
+            } else if ((type == INCIDENT || type == REMOVED) && buffer.remaining() >= Long.BYTES) {
+                long code = buffer.getLong();
+                if (IncidentCodec.rackIndexOf(code) >= racksWritten ||
+                    IncidentCodec.serverIndexOf(code) >= serversWritten) {
+                    // Not something we wrote; treat it as the end of the log
+                    buffer.position(start);
+                    break;
+                }
+                recordCount++;
+                (type == INCIDENT ? incidents : removals).accept(code);
+            } else {
+                // The end of the log, or a torn record
+                buffer.position(start);
+                break;
+            }
+        }
+        replayed = true;
+        return recordCount;
+    }
+
+    /**
+     * Appends an incident code to the journal, first defining any rack
+     * or server IDs the journal doesn't have yet.
+     * @param code The code of the incident to remember.
+     * @throws IOException if the journal can't grow.
+     */
+    public void append(long code) throws IOException {
+        appendCode(INCIDENT, code);
+    }
+
+    /**
+     * Appends a removal to the journal, so replay forgets an incident
+     * appended earlier.
+     * @param code The code of the incident to forget.
+     * @throws IOException if the journal can't grow.
+     */
+    public void appendRemoval(long code) throws IOException {
+        appendCode(REMOVED, code);
+    }
+
+    /**
+     * Appends a code record, first defining any rack or server IDs the
+     * journal doesn't have yet.
+     * @param type The type of record.
+     * @param code The incident's code.
+     * @throws IOException if the journal can't grow.
+     */
+    private void appendCode(byte type, long code) throws IOException {
+        if (!replayed) {
+            throw new IllegalStateException("Call replay() before appending to " + path);
+        }
+        while (racksWritten <= IncidentCodec.rackIndexOf(code)) {
+            writeString(RACK_ID, codec.getRackId(racksWritten++));
+        }
+        while (serversWritten <= IncidentCodec.serverIndexOf(code)) {
+            writeString(SERVER_ID, codec.getServerId(serversWritten++));
+        }
+
+        ensureCapacity(Byte.BYTES + Long.BYTES);
+        int start = buffer.position();
+        buffer.position(start + Byte.BYTES);
+        buffer.putLong(code);
+        // Publish the record by writing its type last
+        buffer.put(start, type);
+        recordCount++;
+    }
+
+    /**
+     * Rewrites the journal to hold only the given incidents, dropping
+     * anything no longer relevant. The new journal is written beside
+     * the old one and moved over it, so a crash during compaction
+     * leaves one or the other intact.
+     * @param incidents Calls its argument with the code of every
+     *                  incident that should stay in the journal.
+     * @throws IOException if the new journal can't be written.
+     */
+    public void compact(Consumer<LongConsumer> incidents) throws IOException {
+        Path compactedPath = path.resolveSibling(path.getFileName() + ".compact");
+        Files.deleteIfExists(compactedPath);
+        IncidentJournal compacted = new IncidentJournal(compactedPath, codec);
+        try {
+            compacted.replay(code -> { }, code -> { });
+            IOException[] failure = new IOException[1];
+            incidents.accept(code -> {
+                try {
+                    compacted.append(code);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        } finally {
+            compacted.close();
+        }
+
+        channel.close();
+        Files.move(compactedPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        open();
+        buffer.position(compacted.buffer.position());
+        racksWritten = compacted.racksWritten;
+        serversWritten = compacted.serversWritten;
+        recordCount = compacted.recordCount;
+    }
+
+    /**
+     * Returns how many incident and removal records are in the journal,
+     * including any that compaction would drop.
+     * @return the number of records.
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Returns how many bytes of the journal hold records.
+     * @return the used size of the journal, in bytes.
+     */
+    public long getUsedBytes() {
+        return buffer.position();
+    }
+
+    public IncidentCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Flushes every record to the storage device.
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /**
+     * Opens and maps the journal file, writing a header if it's new.
+     * @throws IOException if the file can't be opened, or isn't a journal.
+     */
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException(path + " is too large to map!");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, INITIAL_BYTES));
+        if (size == 0) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(Integer.BYTES, VERSION);
+        } else if (size < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+            channel.close();
+            throw new IOException(path + " is not an incident journal!");
+        }
+        buffer.position(HEADER_BYTES);
+    }
+
+    /**
+     * Remaps the journal with at least the given number of bytes free
+     * after the current position.
+     * @param bytes The number of bytes about to be written.
+     * @throws IOException if the file can't grow.
+     */
+    private void ensureCapacity(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        int position = buffer.position();
+        long capacity = buffer.capacity();
+        while (capacity - position < bytes) {
+            capacity *= 2;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException(path + " is too large to map; compact it!");
+        }
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        buffer.position(position);
+    }
+
+    private void checkIndex(int interned, int written) throws IOException {
+        if (interned != written) {
+            throw new IOException(path + " doesn't match its IncidentCodec; replay it into a new one!");
+        }
+    }
+
+    private void writeString(byte type, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(Byte.BYTES + Short.BYTES + bytes.length);
+        int start = buffer.position();
+        buffer.position(start + Byte.BYTES);
+        buffer.putShort((short) bytes.length).put(bytes);
+        buffer.put(start, type);
+    }
+
+    private boolean hasString() {
+        if (buffer.remaining() < Short.BYTES) {
+            return false;
+        }
+        short length = buffer.getShort(buffer.position());
+        return length >= 0 && buffer.remaining() >= Short.BYTES + length;
+    }
+
+    private String readString() {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
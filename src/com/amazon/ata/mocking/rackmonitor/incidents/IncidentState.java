@@ -0,0 +1,15 @@
+package com.amazon.ata.mocking.rackmonitor.incidents;
+
+/**
+ * Where a reported HealthIncident is in its life.
+ */
+public enum IncidentState {
+    /** Wingnut accepted the request; nobody has picked it up yet. */
+    OPEN,
+    /** Maintenance has picked up the request and is working on it. */
+    ACKNOWLEDGED,
+    /** The work is done; the server may be reported again if it fails. */
+    RESOLVED,
+    /** Nothing was heard in time; the server may be reported again. */
+    EXPIRED
+}
@@ -0,0 +1,70 @@
+package com.amazon.ata.mocking.rackmonitor.incidents;
+
+import com.amazon.ata.mocking.rackmonitor.HealthIncident;
+
+import java.util.Set;
+
+/**
+ * Remembers which HealthIncidents have been reported to Wingnut, so
+ * we never file the same request twice, even from concurrent sweeps.
+ *
+ * Filing a request is a three-step protocol: claim() the incident
+ * before calling Wingnut, then either record() it once Wingnut
+ * accepts the request, or release() it if the request failed so a
+ * later sweep can try again.
+ *
+ * Each Server in a unit slot has at most one recorded incident. A
+ * REPLACE supersedes an INSPECT: it can be claimed while the INSPECT
+ * is recorded, and recording it forgets the INSPECT. An INSPECT can't
+ * be claimed while a REPLACE is recorded, and nothing can be claimed
+ * for a Server while another claim on it is in flight, so concurrent
+ * sweeps never file both.
+ */
+public interface IncidentStore {
+
+    /**
+     * Atomically reserves an incident for reporting. Only one caller
+     * can hold the claim; everyone else should skip the incident.
+     * @param incident The incident about to be reported.
+     * @return true if the caller now owns the incident, false if it
+     *         is already claimed or recorded, another claim on the
+     *         same Server is in flight, or a REPLACE is recorded for
+     *         the Server.
+     */
+    boolean claim(HealthIncident incident);
+
+    /**
+     * Marks a claimed incident as successfully reported. Recording a
+     * REPLACE forgets any INSPECT recorded for the same Server.
+     * @param incident The incident Wingnut accepted.
+     */
+    void record(HealthIncident incident);
+
+    /**
+     * Gives up a claim on an incident that could not be reported,
+     * so it can be claimed again. Recorded incidents are not affected.
+     * @param incident The incident that could not be reported.
+     */
+    void release(HealthIncident incident);
+
+    /**
+     * Forgets a recorded incident, once it's been resolved or has
+     * expired, so it can be claimed and reported again.
+     * @param incident The incident to forget.
+     * @return true if the incident was recorded.
+     */
+    boolean remove(HealthIncident incident);
+
+    /**
+     * Determines whether an incident has been successfully reported.
+     * @param incident The incident to look for.
+     * @return true if the incident has been recorded.
+     */
+    boolean contains(HealthIncident incident);
+
+    /**
+     * Returns the incidents that have been successfully reported.
+     * @return an unmodifiable, live view of the recorded incidents.
+     */
+    Set<HealthIncident> getIncidents();
+}
@@ -0,0 +1,165 @@
+package com.amazon.ata.mocking.rackmonitor.incidents;
+
+import com.amazon.ata.mocking.rackmonitor.HealthIncident;
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.Server;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * An IncidentStore that survives restarts. Incidents are held in
+ * memory by a PackedIncidentStore; every incident recorded or removed
+ * is also appended to an IncidentJournal, and the journal is replayed
+ * when the store is constructed.
+ *
+ * The journal is compacted when it's opened if any replayed incidents
+ * were dropped, and whenever it holds more than twice as many records
+ * as there are recorded incidents. If the journal can't be written,
+ * the incident is still remembered in memory, so this process won't
+ * file it twice.
+ */
+public class JournaledIncidentStore implements IncidentStore, Closeable {
+    // Don't bother compacting tiny journals
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+
+    private Logger logger = LogManager.getLogger(JournaledIncidentStore.class);
+    private final IncidentJournal journal;
+    private final IncidentCodec codec;
+    private final PackedIncidentStore incidents;
+
+    /**
+     * Constructs a JournaledIncidentStore, replaying every incident
+     * already in the journal.
+     * @param journal The journal to replay and append to. Its codec
+     *                must be new. The store closes the journal when
+     *                the store is closed.
+     * @param racks The Racks being monitored. Incidents for other
+     *              Racks, or for units now holding a different Server,
+     *              are dropped.
+     * @throws IOException if the journal can't be replayed or compacted.
+     */
+    public JournaledIncidentStore(IncidentJournal journal, Collection<Rack> racks) throws IOException {
+        this.journal = journal;
+        this.codec = journal.getCodec();
+        this.incidents = new PackedIncidentStore(codec);
+
+        long start = System.nanoTime();
+        int records = journal.replay(incidents::restore, incidents::forget);
+        // The journal interned its IDs first, so its indexes still line up
+        for (Rack rack : racks) {
+            codec.internRack(rack);
+        }
+        int dropped = incidents.retainRecorded(this::isCurrent);
+        logger.info("Replayed {} incidents from {} records in {}ms", incidents.size(), records,
+            (System.nanoTime() - start) / 1_000_000);
+        if (dropped > 0 || records > incidents.size()) {
+            compact();
+        }
+    }
+
+    @Override
+    public boolean claim(HealthIncident incident) {
+        return incidents.claim(incident);
+    }
+
+    @Override
+    public void record(HealthIncident incident) {
+        long code = codec.encode(incident);
+        incidents.restore(code);
+        synchronized (journal) {
+            try {
+                journal.append(code);
+                compactIfSparse();
+            } catch (IOException e) {
+                logger.error("Could not journal {}; it will be forgotten on restart", incident, e);
+            }
+        }
+    }
+
+    @Override
+    public void release(HealthIncident incident) {
+        incidents.release(incident);
+    }
+
+    @Override
+    public boolean remove(HealthIncident incident) {
+        long code = codec.encodeIfKnown(incident);
+        if (!incidents.forget(code)) {
+            return false;
+        }
+        synchronized (journal) {
+            try {
+                journal.appendRemoval(code);
+                compactIfSparse();
+            } catch (IOException e) {
+                logger.error("Could not journal removal of {}; it will be remembered on restart", incident, e);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(HealthIncident incident) {
+        return incidents.contains(incident);
+    }
+
+    @Override
+    public Set<HealthIncident> getIncidents() {
+        return incidents.getIncidents();
+    }
+
+    /**
+     * Rewrites the journal to hold only the recorded incidents.
+     * @throws IOException if the new journal can't be written.
+     */
+    public void compact() throws IOException {
+        synchronized (journal) {
+            journal.compact(incidents::forEachRecorded);
+        }
+    }
+
+    /**
+     * Compacts the journal if it holds more than twice as many records
+     * as there are recorded incidents. Callers must hold the journal's lock.
+     * @throws IOException if the new journal can't be written.
+     */
+    private void compactIfSparse() throws IOException {
+        if (journal.getRecordCount() > MIN_COMPACTION_RECORDS &&
+            journal.getRecordCount() > 2 * incidents.size()) {
+            compact();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (journal) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Checks that a replayed incident is for a monitored Rack, and the
+     * Server it names is still in that unit.
+     * @param code The incident's code.
+     * @return true if the incident is still relevant.
+     */
+    private boolean isCurrent(long code) {
+        Rack rack = codec.getRack(IncidentCodec.rackIndexOf(code));
+        if (rack == null) {
+            return false;
+        }
+        if (IncidentCodec.actionOf(code) == RequestAction.INSPECT_RACK) {
+            return rack.getRackId().equals(codec.getServerId(IncidentCodec.serverIndexOf(code)));
+        }
+        Server installed = rack.getServerForUnit(IncidentCodec.unitOf(code));
+        return installed != null &&
+            installed.getServerId().equals(codec.getServerId(IncidentCodec.serverIndexOf(code)));
+    }
+}
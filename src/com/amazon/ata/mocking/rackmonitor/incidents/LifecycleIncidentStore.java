@@ -0,0 +1,289 @@
+package com.amazon.ata.mocking.rackmonitor.incidents;
+
+import com.amazon.ata.mocking.rackmonitor.HealthIncident;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WorkOrder;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WorkOrderListener;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An IncidentStore that lets reported incidents go, so a long-running
+ * monitor's memory stays flat and a server that fails again after
+ * being repaired is reported again.
+ *
+ * Every recorded incident starts OPEN. When Wingnut says Maintenance
+ * picked up its WorkOrder it becomes ACKNOWLEDGED, and when Wingnut
+ * says the work is done it's RESOLVED and removed from the delegate
+ * store. An incident that isn't resolved within its time to live
+ * EXPIRES and is removed too; acknowledging an incident restarts its
+ * clock with the (usually longer) acknowledged time to live.
+ *
+ * Deadlines are kept in a TimerWheel, so tracking and expiring an
+ * incident costs the same no matter how many are open. Expiry runs
+ * on whichever claim() or record() first finds the wheel's next tick
+ * has passed, or whenever expireIncidents() is called.
+ *
+ * Register the store with WingnutClient.addWorkOrderListener() to
+ * hear about acknowledged and completed WorkOrders.
+ */
+public class LifecycleIncidentStore implements IncidentStore, WorkOrderListener {
+    private static final int WHEEL_SLOTS = 512;
+    // Aim for this many ticks in the shortest time to live
+    private static final int TICKS_PER_TTL = 64;
+    private static final long MIN_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private Logger logger = LogManager.getLogger(LifecycleIncidentStore.class);
+    private final IncidentStore delegate;
+    private final Ticker ticker;
+    private final long originNanos;
+    private final long openTtlNanos;
+    private final long acknowledgedTtlNanos;
+
+    // Guards every change to tracked incidents and their deadlines
+    private final TimerWheel<HealthIncident> wheel;
+    private final Map<HealthIncident, Tracked> tracked = new ConcurrentHashMap<>();
+    private volatile long nextExpiryNanos;
+
+    private final LongAdder resolved = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    /**
+     * Constructs a LifecycleIncidentStore. Incidents the delegate has
+     * already recorded, such as ones replayed from a journal, are
+     * tracked as OPEN from now.
+     * @param delegate The store that remembers the incidents.
+     * @param openTtl How long an incident stays OPEN before it expires.
+     * @param acknowledgedTtl How long an incident stays ACKNOWLEDGED
+     *                        before it expires.
+     * @param unit The unit of both times to live.
+     */
+    public LifecycleIncidentStore(IncidentStore delegate, long openTtl, long acknowledgedTtl, TimeUnit unit) {
+        this(delegate, openTtl, acknowledgedTtl, unit, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    LifecycleIncidentStore(IncidentStore delegate, long openTtl, long acknowledgedTtl, TimeUnit unit,
+                           Ticker ticker) {
+        if (openTtl <= 0 || acknowledgedTtl <= 0) {
+            throw new IllegalArgumentException("Times to live must be positive!");
+        }
+        this.delegate = delegate;
+        this.ticker = ticker;
+        this.originNanos = ticker.read();
+        this.openTtlNanos = unit.toNanos(openTtl);
+        this.acknowledgedTtlNanos = unit.toNanos(acknowledgedTtl);
+
+        long tickNanos = Math.max(MIN_TICK_NANOS, Math.min(openTtlNanos, acknowledgedTtlNanos) / TICKS_PER_TTL);
+        this.wheel = new TimerWheel<>(tickNanos, WHEEL_SLOTS, 0);
+        synchronized (wheel) {
+            for (HealthIncident incident : delegate.getIncidents()) {
+                track(incident, IncidentState.OPEN, openTtlNanos);
+            }
+            nextExpiryNanos = wheel.getNextTickNanos();
+        }
+    }
+
+    @Override
+    public boolean claim(HealthIncident incident) {
+        expireIfDue();
+        return delegate.claim(incident);
+    }
+
+    @Override
+    public void record(HealthIncident incident) {
+        delegate.record(incident);
+        synchronized (wheel) {
+            untrack(incident);
+            if (incident.getAction() == RequestAction.REPLACE) {
+                // The delegate forgot the INSPECT this supersedes
+                untrack(incident.withAction(RequestAction.INSPECT));
+            }
+            track(incident, IncidentState.OPEN, openTtlNanos);
+        }
+        expireIfDue();
+    }
+
+    @Override
+    public void release(HealthIncident incident) {
+        delegate.release(incident);
+    }
+
+    @Override
+    public boolean remove(HealthIncident incident) {
+        synchronized (wheel) {
+            untrack(incident);
+        }
+        return delegate.remove(incident);
+    }
+
+    @Override
+    public boolean contains(HealthIncident incident) {
+        return delegate.contains(incident);
+    }
+
+    @Override
+    public Set<HealthIncident> getIncidents() {
+        return delegate.getIncidents();
+    }
+
+    /**
+     * Marks an OPEN incident as picked up by Maintenance, restarting
+     * its clock with the acknowledged time to live.
+     * @param incident The incident being worked on.
+     * @return true if the incident was OPEN.
+     */
+    public boolean acknowledge(HealthIncident incident) {
+        synchronized (wheel) {
+            Tracked current = tracked.get(incident);
+            if (current == null || current.state != IncidentState.OPEN) {
+                return false;
+            }
+            untrack(incident);
+            track(incident, IncidentState.ACKNOWLEDGED, acknowledgedTtlNanos);
+        }
+        return true;
+    }
+
+    /**
+     * Marks an incident as RESOLVED and forgets it, so its server can
+     * be reported again.
+     * @param incident The incident whose work is done.
+     * @return true if the incident was OPEN or ACKNOWLEDGED.
+     */
+    public boolean resolve(HealthIncident incident) {
+        synchronized (wheel) {
+            if (untrack(incident) == null) {
+                return false;
+            }
+        }
+        delegate.remove(incident);
+        resolved.increment();
+        logger.debug("{} {}", incident, IncidentState.RESOLVED);
+        return true;
+    }
+
+    /**
+     * Forgets every incident whose time to live has run out.
+     * @return how many incidents EXPIRED.
+     */
+    public int expireIncidents() {
+        List<HealthIncident> due = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(now(), due::add);
+            for (HealthIncident incident : due) {
+                tracked.remove(incident);
+            }
+            nextExpiryNanos = wheel.getNextTickNanos();
+        }
+        for (HealthIncident incident : due) {
+            delegate.remove(incident);
+            expired.increment();
+        }
+        if (!due.isEmpty()) {
+            logger.info("{} incidents {}", due.size(), IncidentState.EXPIRED);
+        }
+        return due.size();
+    }
+
+    /**
+     * Returns where an incident is in its life.
+     * @param incident The incident to look up.
+     * @return OPEN or ACKNOWLEDGED, or null once the incident has been
+     *         resolved, has expired, or was never recorded.
+     */
+    public IncidentState getState(HealthIncident incident) {
+        Tracked current = tracked.get(incident);
+        return current == null ? null : current.state;
+    }
+
+    /**
+     * Returns how many incidents are OPEN or ACKNOWLEDGED.
+     * @return the number of tracked incidents.
+     */
+    public int getTrackedCount() {
+        return tracked.size();
+    }
+
+    public long getResolvedCount() {
+        return resolved.sum();
+    }
+
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    @Override
+    public void workOrderAcknowledged(WorkOrder workOrder) {
+        HealthIncident incident = toIncident(workOrder);
+        if (incident != null && !acknowledge(incident)) {
+            logger.debug("Acknowledged WorkOrder for {} isn't OPEN", incident);
+        }
+    }
+
+    @Override
+    public void workOrderCompleted(WorkOrder workOrder) {
+        HealthIncident incident = toIncident(workOrder);
+        if (incident != null && !resolve(incident)) {
+            logger.debug("Completed WorkOrder for {} isn't tracked", incident);
+        }
+    }
+
+    private HealthIncident toIncident(WorkOrder workOrder) {
+        if (workOrder.getAction() == RequestAction.INSPECT_RACK) {
+            return HealthIncident.forRack(workOrder.getRack());
+        }
+        Server server = workOrder.getRack().getServerForUnit(workOrder.getUnit());
+        if (server == null) {
+            logger.warn("WorkOrder for empty unit {} of {}", workOrder.getUnit(), workOrder.getRack());
+            return null;
+        }
+        return new HealthIncident(server, workOrder.getRack(), workOrder.getUnit(), workOrder.getAction());
+    }
+
+    private void expireIfDue() {
+        if (now() >= nextExpiryNanos) {
+            expireIncidents();
+        }
+    }
+
+    private long now() {
+        return ticker.read() - originNanos;
+    }
+
+    // Callers must hold the wheel's lock
+    private void track(HealthIncident incident, IncidentState state, long ttlNanos) {
+        tracked.put(incident, new Tracked(state, wheel.schedule(incident, now() + ttlNanos)));
+    }
+
+    // Callers must hold the wheel's lock
+    private Tracked untrack(HealthIncident incident) {
+        Tracked previous = tracked.remove(incident);
+        if (previous != null) {
+            wheel.cancel(previous.timeout);
+        }
+        return previous;
+    }
+
+    private static class Tracked {
+        private final IncidentState state;
+        private final TimerWheel.Timeout<HealthIncident> timeout;
+
+        private Tracked(IncidentState state, TimerWheel.Timeout<HealthIncident> timeout) {
+            this.state = state;
+            this.timeout = timeout;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.amazon.ata.mocking.rackmonitor.incidents;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A set of primitive longs, stored in one open-addressed array with
+ * linear probing. Takes about 11 to 21 bytes per element, with no
+ * per-element objects.
+ *
+ * Zero can't be stored; it marks an empty slot. Not thread safe;
+ * callers must synchronize.
+ */
+public class LongHashSet {
+    private static final int MIN_CAPACITY = 16;
+    // Grow once the table is three quarters full
+    private static final int LOAD_FACTOR_PERCENT = 75;
+
+    private long[] table;
+    private int size;
+    private int resizeAt;
+
+    /**
+     * Constructs an empty LongHashSet.
+     */
+    public LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty LongHashSet sized to hold some elements
+     * without growing.
+     * @param expectedSize How many elements the set should hold.
+     */
+    public LongHashSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Adds a value to the set.
+     * @param value The value to add; must not be zero.
+     * @return true if the value was added, false if already present.
+     */
+    public boolean add(long value) {
+        checkValue(value);
+        int slot = slotFor(value);
+        while (table[slot] != 0) {
+            if (table[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & (table.length - 1);
+        }
+        table[slot] = value;
+        if (++size > resizeAt) {
+            rehash(table.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a value is in the set.
+     * @param value The value to look for.
+     * @return true if the value is present.
+     */
+    public boolean contains(long value) {
+        if (value == 0) {
+            return false;
+        }
+        int slot = slotFor(value);
+        while (table[slot] != 0) {
+            if (table[slot] == value) {
+                return true;
+            }
+            slot = (slot + 1) & (table.length - 1);
+        }
+        return false;
+    }
+
+    /**
+     * Removes a value from the set.
+     * @param value The value to remove.
+     * @return true if the value was removed, false if it wasn't present.
+     */
+    public boolean remove(long value) {
+        if (value == 0) {
+            return false;
+        }
+        int mask = table.length - 1;
+        int slot = slotFor(value);
+        while (table[slot] != value) {
+            if (table[slot] == 0) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        // Shift later elements of the probe run back into the gap, so
+        // lookups never stop early at it
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (table[next] != 0) {
+            int home = slotFor(table[next]);
+            // Move the element unless its home lies after the gap, up to it
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                table[gap] = table[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[gap] = 0;
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every value from the set, keeping its capacity.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        size = 0;
+    }
+
+    /**
+     * Calls an action with every value in the set, in no particular order.
+     * @param action The action to call.
+     */
+    public void forEach(LongConsumer action) {
+        for (long value : table) {
+            if (value != 0) {
+                action.accept(value);
+            }
+        }
+    }
+
+    /**
+     * Copies every value in the set into a new array.
+     * @return the values, in no particular order.
+     */
+    public long[] toArray() {
+        long[] values = new long[size];
+        int i = 0;
+        for (long value : table) {
+            if (value != 0) {
+                values[i++] = value;
+            }
+        }
+        return values;
+    }
+
+    private int slotFor(long value) {
+        // Murmur3's 64-bit finalizer, so packed values spread evenly
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return (int) hash & (table.length - 1);
+    }
+
+    private void rehash(int capacity) {
+        long[] old = table;
+        allocate(capacity);
+        for (long value : old) {
+            if (value != 0) {
+                int slot = slotFor(value);
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & (table.length - 1);
+                }
+                table[slot] = value;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        table = new long[capacity];
+        resizeAt = (int) ((long) capacity * LOAD_FACTOR_PERCENT / 100);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = Math.max(MIN_CAPACITY, (long) expectedSize * 100 / LOAD_FACTOR_PERCENT + 1);
+        if (needed > 1 << 30) {
+            throw new IllegalArgumentException("Too many elements: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    private static void checkValue(long value) {
+        if (value == 0) {
+            throw new IllegalArgumentException("LongHashSet can't hold zero!");
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.amazon.ata.mocking.rackmonitor.incidents;
+
+import com.amazon.ata.mocking.rackmonitor.HealthIncident;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * An IncidentStore that holds each incident as a packed long from an
+ * IncidentCodec, in primitive hash sets, so it can remember tens of
+ * millions of incidents in a fraction of the heap HealthIncident
+ * objects would take.
+ *
+ * The sets are split into lock stripes by Server, so concurrent sweeps
+ * rarely contend, and both of a Server's incidents share a stripe. getIncidents() decodes on the fly; iterating it
+ * allocates a HealthIncident per element, so it's meant for reporting,
+ * not the hot path.
+ */
+public class PackedIncidentStore implements IncidentStore {
+    private static final int STRIPES = 64;
+
+    private final IncidentCodec codec;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final Set<HealthIncident> incidentsView = new IncidentsView();
+
+    /**
+     * Constructs an empty PackedIncidentStore.
+     * @param codec The codec to pack incidents with.
+     */
+    public PackedIncidentStore(IncidentCodec codec) {
+        this.codec = codec;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public boolean claim(HealthIncident incident) {
+        long code = codec.encode(incident);
+        Stripe stripe = stripeFor(code);
+        long inspect = IncidentCodec.withAction(code, RequestAction.INSPECT);
+        long replace = IncidentCodec.withAction(code, RequestAction.REPLACE);
+        synchronized (stripe) {
+            if (IncidentCodec.actionOf(code) == RequestAction.INSPECT_RACK) {
+                // A Rack's incident only blocks itself
+                return !stripe.recorded.contains(code) && stripe.claimed.add(code);
+            }
+            // Either claim in flight blocks the Server
+            if (stripe.claimed.contains(inspect) || stripe.claimed.contains(replace)) {
+                return false;
+            }
+            // A recorded REPLACE blocks both; a recorded INSPECT only itself
+            if (stripe.recorded.contains(replace) || code == inspect && stripe.recorded.contains(inspect)) {
+                return false;
+            }
+            return stripe.claimed.add(code);
+        }
+    }
+
+    @Override
+    public void record(HealthIncident incident) {
+        restore(codec.encode(incident));
+    }
+
+    @Override
+    public void release(HealthIncident incident) {
+        long code = codec.encodeIfKnown(incident);
+        if (code == 0) {
+            return;
+        }
+        Stripe stripe = stripeFor(code);
+        synchronized (stripe) {
+            stripe.claimed.remove(code);
+        }
+    }
+
+    @Override
+    public boolean remove(HealthIncident incident) {
+        return forget(codec.encodeIfKnown(incident));
+    }
+
+    @Override
+    public boolean contains(HealthIncident incident) {
+        return contains(codec.encodeIfKnown(incident));
+    }
+
+    @Override
+    public Set<HealthIncident> getIncidents() {
+        return incidentsView;
+    }
+
+    public IncidentCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Returns how many incidents are recorded.
+     * @return the number of recorded incidents.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.recorded.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Records an incident by its code, as when replaying a journal.
+     * A REPLACE forgets the Server's INSPECT; an INSPECT is ignored if
+     * the Server's REPLACE is recorded. A Rack's incident stands alone.
+     * @param code The incident's code.
+     */
+    void restore(long code) {
+        Stripe stripe = stripeFor(code);
+        long inspect = IncidentCodec.withAction(code, RequestAction.INSPECT);
+        synchronized (stripe) {
+            stripe.claimed.remove(code);
+            if (code == inspect) {
+                if (!stripe.recorded.contains(IncidentCodec.withAction(code, RequestAction.REPLACE))) {
+                    stripe.recorded.add(code);
+                }
+            } else {
+                if (IncidentCodec.actionOf(code) == RequestAction.REPLACE) {
+                    stripe.recorded.remove(inspect);
+                }
+                stripe.recorded.add(code);
+            }
+        }
+    }
+
+    /**
+     * Forgets a recorded incident by its code, as when replaying a
+     * journal.
+     * @param code The incident's code.
+     * @return true if the incident was recorded.
+     */
+    boolean forget(long code) {
+        if (code == 0) {
+            return false;
+        }
+        Stripe stripe = stripeFor(code);
+        synchronized (stripe) {
+            return stripe.recorded.remove(code);
+        }
+    }
+
+    /**
+     * Checks whether an incident is recorded, by its code.
+     * @param code The incident's code.
+     * @return true if it's recorded.
+     */
+    boolean contains(long code) {
+        if (code == 0) {
+            return false;
+        }
+        Stripe stripe = stripeFor(code);
+        synchronized (stripe) {
+            return stripe.recorded.contains(code);
+        }
+    }
+
+    /**
+     * Forgets every recorded incident that doesn't match a predicate.
+     * @param keep Whether to keep the incident with a code.
+     * @return the number of incidents forgotten.
+     */
+    int retainRecorded(LongPredicate keep) {
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (long code : stripe.recorded.toArray()) {
+                    if (!keep.test(code)) {
+                        stripe.recorded.remove(code);
+                        removed++;
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Calls an action with the code of every recorded incident. Each
+     * stripe is locked while it's visited.
+     * @param action The action to call.
+     */
+    void forEachRecorded(LongConsumer action) {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.recorded.forEach(action);
+            }
+        }
+    }
+
+    private Stripe stripeFor(long code) {
+        // The server index is in the high bits and varies the most; the
+        // action is left out so both of a Server's incidents share a lock
+        long server = IncidentCodec.withAction(code, RequestAction.INSPECT);
+        return stripes[(int) ((server ^ (server >>> 32)) * 0x9E3779B9L >>> 26) & (STRIPES - 1)];
+    }
+
+    private static class Stripe {
+        // In-flight claims only; recorded incidents live in recorded
+        private final LongHashSet claimed = new LongHashSet();
+        private final LongHashSet recorded = new LongHashSet();
+    }
+
+    /**
+     * A read-only view of the recorded incidents, decoded on demand.
+     */
+    private class IncidentsView extends AbstractSet<HealthIncident> {
+        @Override
+        public int size() {
+            return PackedIncidentStore.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof HealthIncident && PackedIncidentStore.this.contains((HealthIncident) o);
+        }
+
+        @Override
+        public Iterator<HealthIncident> iterator() {
+            return new Iterator<HealthIncident>() {
+                private int nextStripe;
+                private long[] codes = new long[0];
+                private int nextCode;
+                private HealthIncident next = advance();
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public HealthIncident next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    HealthIncident current = next;
+                    next = advance();
+                    return current;
+                }
+
+                // Copies one stripe at a time, skipping codes that don't decode
+                private HealthIncident advance() {
+                    while (true) {
+                        while (nextCode < codes.length) {
+                            HealthIncident incident = codec.decode(codes[nextCode++]);
+                            if (incident != null) {
+                                return incident;
+                            }
+                        }
+                        if (nextStripe == STRIPES) {
+                            return null;
+                        }
+                        Stripe stripe = stripes[nextStripe++];
+                        synchronized (stripe) {
+                            codes = stripe.recorded.toArray();
+                        }
+                        nextCode = 0;
+                    }
+                }
+            };
+        }
+    }
+}
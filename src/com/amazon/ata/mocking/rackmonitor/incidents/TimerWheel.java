@@ -0,0 +1,151 @@
+package com.amazon.ata.mocking.rackmonitor.incidents;
+
+import java.util.function.Consumer;
+
+/**
+ * A hashed timer wheel: schedules items to expire at a deadline, with
+ * O(1) scheduling and cancellation no matter how many items are
+ * pending.
+ *
+ * Time is divided into ticks, and each tick maps to one slot of the
+ * wheel. An item is kept in the slot for its deadline's tick; items
+ * more than one turn of the wheel away simply stay put until the
+ * wheel comes round to them in the right turn. Expiry is accurate to
+ * one tick.
+ *
+ * Not thread safe; callers must synchronize.
+ *
+ * @param <T> The type of item scheduled.
+ */
+public class TimerWheel<T> {
+    private final long tickNanos;
+    private final Timeout<T>[] slots;
+    private final int mask;
+    private long currentTick;
+    private int size;
+
+    /**
+     * Constructs an empty TimerWheel.
+     * @param tickNanos How long each tick lasts, in nanoseconds.
+     * @param wheelSize How many slots the wheel has; rounded up to a
+     *                  power of two.
+     * @param nowNanos The current time, in nanoseconds.
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickNanos, int wheelSize, long nowNanos) {
+        if (tickNanos <= 0 || wheelSize < 1) {
+            throw new IllegalArgumentException("tickNanos and wheelSize must be positive!");
+        }
+        this.tickNanos = tickNanos;
+        int capacity = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.slots = (Timeout<T>[]) new Timeout<?>[capacity];
+        this.mask = capacity - 1;
+        this.currentTick = nowNanos / tickNanos;
+    }
+
+    /**
+     * Schedules an item to expire.
+     * @param item The item.
+     * @param deadlineNanos When it should expire, in nanoseconds.
+     * @return a Timeout that can be used to cancel the item.
+     */
+    public Timeout<T> schedule(T item, long deadlineNanos) {
+        Timeout<T> timeout = new Timeout<>(item, deadlineNanos);
+        // Never file into a slot the wheel has already passed
+        long tick = Math.max(deadlineNanos / tickNanos, currentTick);
+        timeout.slot = (int) (tick & mask);
+        timeout.next = slots[timeout.slot];
+        if (timeout.next != null) {
+            timeout.next.previous = timeout;
+        }
+        slots[timeout.slot] = timeout;
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancels a scheduled item, so it never expires. Cancelling an item
+     * that already expired or was cancelled has no effect.
+     * @param timeout The Timeout returned when the item was scheduled.
+     */
+    public void cancel(Timeout<T> timeout) {
+        if (timeout.slot < 0) {
+            return;
+        }
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.slot = -1;
+        timeout.previous = null;
+        timeout.next = null;
+        size--;
+    }
+
+    /**
+     * Moves the wheel forward to the current time, expiring every item
+     * whose deadline has passed.
+     * @param nowNanos The current time, in nanoseconds.
+     * @param expired Receives each expired item.
+     */
+    public void advance(long nowNanos, Consumer<T> expired) {
+        long nowTick = nowNanos / tickNanos;
+        // Past one full turn, every slot has been visited
+        long lastTick = Math.min(nowTick, currentTick + slots.length - 1);
+        for (long tick = currentTick; tick <= lastTick; tick++) {
+            Timeout<T> timeout = slots[(int) (tick & mask)];
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.deadlineNanos <= nowNanos) {
+                    cancel(timeout);
+                    expired.accept(timeout.item);
+                }
+                timeout = next;
+            }
+        }
+        currentTick = Math.max(currentTick, nowTick);
+    }
+
+    /**
+     * Returns when the next tick starts, which is the earliest that
+     * calling advance() could expire anything new.
+     * @return the start of the next tick, in nanoseconds.
+     */
+    public long getNextTickNanos() {
+        return (currentTick + 1) * tickNanos;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A handle on a scheduled item.
+     *
+     * @param <T> The type of item scheduled.
+     */
+    public static class Timeout<T> {
+        private final T item;
+        private final long deadlineNanos;
+        private int slot;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+
+        private Timeout(T item, long deadlineNanos) {
+            this.item = item;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public long getDeadlineNanos() {
+            return deadlineNanos;
+        }
+    }
+}
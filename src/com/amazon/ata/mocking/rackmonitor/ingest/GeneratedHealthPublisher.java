@@ -0,0 +1,99 @@
+package com.amazon.ata.mocking.rackmonitor.ingest;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.Server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A stand-in telemetry stream for tests and benchmarks. It cycles
+ * through every Server in a fleet, round-robin, publishing one health
+ * sample for each, and never runs out.
+ *
+ * Health comes either from a seeded random generator, uniform between
+ * 0.0 and 1.0 like production servers, or from a function of the
+ * Server, for tests that need to know which servers fail.
+ */
+public class GeneratedHealthPublisher implements HealthPublisher {
+    private final String[] rackIds;
+    private final String[] serverIds;
+    private final double[] fixedHealth;
+    private final SplittableRandom random;
+    private int next;
+
+    /**
+     * Constructs a GeneratedHealthPublisher with random health.
+     * @param racks The fleet to publish samples for.
+     * @param seed Seeds the health of each sample, so runs repeat.
+     */
+    public GeneratedHealthPublisher(Collection<Rack> racks, long seed) {
+        this(racks, null, new SplittableRandom(seed));
+    }
+
+    /**
+     * Constructs a GeneratedHealthPublisher whose samples always give
+     * each Server the same health.
+     * @param racks The fleet to publish samples for.
+     * @param health Gives the health of each Server.
+     */
+    public GeneratedHealthPublisher(Collection<Rack> racks, ToDoubleFunction<Server> health) {
+        this(racks, health, null);
+    }
+
+    private GeneratedHealthPublisher(Collection<Rack> racks, ToDoubleFunction<Server> health,
+                                     SplittableRandom random) {
+        List<String> rackIdList = new ArrayList<>();
+        List<Server> servers = new ArrayList<>();
+        for (Rack rack : racks) {
+            for (int unit = 0; unit < rack.getNumUnits(); unit++) {
+                Server server = rack.getServerForUnit(unit);
+                if (server != null) {
+                    rackIdList.add(rack.getRackId());
+                    servers.add(server);
+                }
+            }
+        }
+        if (servers.isEmpty()) {
+            throw new IllegalArgumentException("The fleet has no servers to publish samples for!");
+        }
+        this.rackIds = rackIdList.toArray(new String[0]);
+        this.serverIds = new String[servers.size()];
+        this.fixedHealth = health == null ? null : new double[servers.size()];
+        for (int n = 0; n < servers.size(); n++) {
+            serverIds[n] = servers.get(n).getServerId();
+            if (health != null) {
+                fixedHealth[n] = health.applyAsDouble(servers.get(n));
+            }
+        }
+        this.random = random;
+    }
+
+    /**
+     * Publishes the next samples in the cycle. Only one thread should
+     * publish from a GeneratedHealthPublisher at once.
+     * @param buffer The buffer to publish into.
+     * @param maxSamples How many samples to publish.
+     * @return maxSamples; the cycle never runs out.
+     */
+    @Override
+    public int publish(HealthRingBuffer buffer, int maxSamples) {
+        for (int n = 0; n < maxSamples; n++) {
+            double health = fixedHealth == null ? random.nextDouble() : fixedHealth[next];
+            buffer.publish(rackIds[next], serverIds[next], health);
+            next = next + 1 == serverIds.length ? 0 : next + 1;
+        }
+        return maxSamples;
+    }
+
+    /**
+     * Returns how many Servers a full cycle publishes samples for.
+     * @return the number of Servers in the fleet.
+     */
+    public int getServerCount() {
+        return serverIds.length;
+    }
+}
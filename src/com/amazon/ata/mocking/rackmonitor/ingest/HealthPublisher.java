@@ -0,0 +1,17 @@
+package com.amazon.ata.mocking.rackmonitor.ingest;
+
+/**
+ * A source of health samples, such as a telemetry stream, that pushes
+ * them into a HealthRingBuffer.
+ */
+public interface HealthPublisher {
+    /**
+     * Publishes health samples, waiting for room while the buffer is
+     * full.
+     * @param buffer The buffer to publish into.
+     * @param maxSamples The most samples to publish.
+     * @return how many samples were published; fewer than maxSamples
+     *         only if the source has run out.
+     */
+    int publish(HealthRingBuffer buffer, int maxSamples);
+}
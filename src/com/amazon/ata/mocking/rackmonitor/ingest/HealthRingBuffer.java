@@ -0,0 +1,176 @@
+package com.amazon.ata.mocking.rackmonitor.ingest;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded buffer of health samples, published by any number of
+ * telemetry threads and drained by one consumer at a time.
+ *
+ * Slots are allocated once, as parallel arrays, and reused: publishing
+ * and draining allocate nothing and box nothing. Each slot carries a
+ * sequence number that says whether it's free for the producer on this
+ * lap around the ring or holds a sample for the consumer, so producers
+ * only contend on claiming the next slot and never block the consumer.
+ *
+ * When the buffer is full, tryPublish() turns the sample away and
+ * publish() waits for the consumer to make room.
+ */
+public class HealthRingBuffer {
+    // How long publish() parks between attempts while the buffer is full
+    private static final long FULL_PARK_NANOS = 1_000;
+
+    private final int capacity;
+    private final int mask;
+    // A slot at position p is free when its sequence is p, and full when it's p + 1
+    private final AtomicLongArray sequences;
+    private final String[] rackIds;
+    private final String[] serverIds;
+    private final double[] health;
+
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Constructs an empty HealthRingBuffer.
+     * @param capacity The most samples to hold; rounded up to a power
+     *                 of two, and to at least 2.
+     */
+    public HealthRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30!");
+        }
+        // With one slot, a full slot's sequence (p + 1) would read as free on the next lap
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int slot = 0; slot < this.capacity; slot++) {
+            sequences.set(slot, slot);
+        }
+        this.rackIds = new String[this.capacity];
+        this.serverIds = new String[this.capacity];
+        this.health = new double[this.capacity];
+    }
+
+    /**
+     * Publishes a sample if there's room.
+     * @param rackId The ID of the Rack the Server is installed in.
+     * @param serverId The ID of the Server the sample is for.
+     * @param serverHealth The Server's health.
+     * @return false if the buffer was full and the sample was dropped.
+     */
+    public boolean tryPublish(String rackId, String serverId, double serverHealth) {
+        if (offer(rackId, serverId, serverHealth)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Publishes a sample, waiting for the consumer to make room if the
+     * buffer is full. Interrupts don't stop the wait, but the thread's
+     * interrupt status is kept.
+     * @param rackId The ID of the Rack the Server is installed in.
+     * @param serverId The ID of the Server the sample is for.
+     * @param serverHealth The Server's health.
+     */
+    public void publish(String rackId, String serverId, double serverHealth) {
+        while (!offer(rackId, serverId, serverHealth)) {
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Hands buffered samples to a handler, oldest first. Only one
+     * thread drains at once; a thread that finds another already
+     * draining returns straight away.
+     * @param handler What to do with each sample.
+     * @param maxSamples The most samples to drain.
+     * @return how many samples were drained.
+     */
+    public int drain(HealthSampleHandler handler, int maxSamples) {
+        if (!draining.compareAndSet(false, true)) {
+            return 0;
+        }
+        int drained = 0;
+        try {
+            long position = head;
+            while (drained < maxSamples) {
+                int slot = (int) position & mask;
+                if (sequences.get(slot) != position + 1) {
+                    break;
+                }
+                String rackId = rackIds[slot];
+                String serverId = serverIds[slot];
+                double serverHealth = health[slot];
+                rackIds[slot] = null;
+                serverIds[slot] = null;
+                // Free the slot for the producer's next lap before handling the sample
+                sequences.set(slot, position + capacity);
+                position++;
+                head = position;
+                drained++;
+                handler.onSample(rackId, serverId, serverHealth);
+            }
+        } finally {
+            draining.set(false);
+        }
+        return drained;
+    }
+
+    /**
+     * Returns how many samples are waiting to be drained. Only a
+     * snapshot while producers are publishing.
+     * @return the number of buffered samples.
+     */
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns how many samples tryPublish() dropped because the buffer
+     * was full.
+     * @return the number of dropped samples.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    private boolean offer(String rackId, String serverId, double serverHealth) {
+        long position = tail.get();
+        int slot;
+        while (true) {
+            slot = (int) position & mask;
+            long free = sequences.get(slot) - position;
+            if (free == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (free < 0) {
+                // The consumer hasn't freed this slot since the last lap
+                return false;
+            } else {
+                // Another producer claimed the slot first
+                position = tail.get();
+            }
+        }
+        rackIds[slot] = rackId;
+        serverIds[slot] = serverId;
+        health[slot] = serverHealth;
+        // Publishes the writes above to the consumer
+        sequences.set(slot, position + 1);
+        return true;
+    }
+}
@@ -0,0 +1,15 @@
+package com.amazon.ata.mocking.rackmonitor.ingest;
+
+/**
+ * Receives health samples as they're drained from a HealthRingBuffer.
+ */
+@FunctionalInterface
+public interface HealthSampleHandler {
+    /**
+     * Handles one health sample.
+     * @param rackId The ID of the Rack the Server is installed in.
+     * @param serverId The ID of the Server the sample is for.
+     * @param health The Server's health when the sample was taken.
+     */
+    void onSample(String rackId, String serverId, double health);
+}
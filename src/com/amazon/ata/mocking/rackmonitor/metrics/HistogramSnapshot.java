@@ -0,0 +1,81 @@
+package com.amazon.ata.mocking.rackmonitor.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable copy of a LatencyHistogram at one point in time.
+ * All values are in nanoseconds.
+ */
+public class HistogramSnapshot {
+    private final long[] buckets;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    /**
+     * Constructs a HistogramSnapshot. Only LatencyHistogram should
+     * need to do this.
+     * @param buckets The count in each bucket; owned by the snapshot.
+     * @param count The number of values recorded.
+     * @param sum The sum of the values recorded.
+     * @param max The largest value recorded.
+     */
+    HistogramSnapshot(long[] buckets, long count, long sum, long max) {
+        this.buckets = buckets;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     * @return the mean, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        return count == 0 ? 0.0D : (double) sum / count;
+    }
+
+    /**
+     * Returns the value that the given percentage of recorded values
+     * are at or below, to within the precision of the histogram.
+     * @param percentile The percentile, from 0 to 100.
+     * @return the value at that percentile, or 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        for (long bucketCount : buckets) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0L;
+        }
+
+        long rank = Math.max(1L, (long) Math.ceil(total * Math.min(100.0D, percentile) / 100.0D));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.highestValueIn(i), max);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%dus p50=%dus p99=%dus max=%dus",
+            count,
+            TimeUnit.NANOSECONDS.toMicros((long) getMean()),
+            TimeUnit.NANOSECONDS.toMicros(getValueAtPercentile(50)),
+            TimeUnit.NANOSECONDS.toMicros(getValueAtPercentile(99)),
+            TimeUnit.NANOSECONDS.toMicros(max));
+    }
+}
@@ -0,0 +1,63 @@
+package com.amazon.ata.mocking.rackmonitor.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds named counters and latency histograms, and takes snapshots
+ * of them.
+ *
+ * Looking a metric up by name costs a map lookup, so hot paths should
+ * look their metrics up once and hold on to them. Recording into a
+ * metric is lock-free.
+ */
+public class MetricsRegistry {
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the counter with the given name, creating it if needed.
+     * @param name The name of the counter.
+     * @return the counter.
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, ignored -> new LongAdder());
+    }
+
+    /**
+     * Returns the histogram with the given name, creating it if needed.
+     * @param name The name of the histogram.
+     * @return the histogram.
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, ignored -> new LatencyHistogram());
+    }
+
+    /**
+     * Counts an exception under "exceptions." plus its simple class
+     * name, so each type of failure gets its own counter.
+     * @param exception The exception to count.
+     */
+    public void countException(Throwable exception) {
+        counter("exceptions." + exception.getClass().getSimpleName()).increment();
+    }
+
+    /**
+     * Copies the current value of every counter and histogram.
+     * @return a MetricsSnapshot of this registry.
+     */
+    public MetricsSnapshot snapshot() {
+        Map<String, Long> counterValues = new HashMap<>();
+        for (Map.Entry<String, LongAdder> counter : counters.entrySet()) {
+            counterValues.put(counter.getKey(), counter.getValue().sum());
+        }
+        Map<String, HistogramSnapshot> histogramSnapshots = new HashMap<>();
+        for (Map.Entry<String, LatencyHistogram> histogram : histograms.entrySet()) {
+            histogramSnapshots.put(histogram.getKey(), histogram.getValue().snapshot());
+        }
+        return new MetricsSnapshot(counterValues, histogramSnapshots);
+    }
+}
@@ -0,0 +1,64 @@
+package com.amazon.ata.mocking.rackmonitor.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable copy of every counter and histogram in a
+ * MetricsRegistry, sorted by name.
+ */
+public class MetricsSnapshot {
+    private final Map<String, Long> counters;
+    private final Map<String, HistogramSnapshot> histograms;
+
+    /**
+     * Constructs a MetricsSnapshot. Only MetricsRegistry should need
+     * to do this.
+     * @param counters The value of each counter, by name.
+     * @param histograms A snapshot of each histogram, by name.
+     */
+    MetricsSnapshot(Map<String, Long> counters, Map<String, HistogramSnapshot> histograms) {
+        this.counters = Collections.unmodifiableMap(new TreeMap<>(counters));
+        this.histograms = Collections.unmodifiableMap(new TreeMap<>(histograms));
+    }
+
+    /**
+     * Returns the value of a counter.
+     * @param name The name of the counter.
+     * @return its value, or 0 if it was never incremented.
+     */
+    public long getCounter(String name) {
+        return counters.getOrDefault(name, 0L);
+    }
+
+    /**
+     * Returns the snapshot of a histogram. A histogram that has been
+     * created but never recorded into has a snapshot with a count of 0.
+     * @param name The name of the histogram.
+     * @return its snapshot, or null if no histogram has that name.
+     */
+    public HistogramSnapshot getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public Map<String, HistogramSnapshot> getHistograms() {
+        return histograms;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder dump = new StringBuilder();
+        for (Map.Entry<String, Long> counter : counters.entrySet()) {
+            dump.append(counter.getKey()).append(": ").append(counter.getValue()).append('\n');
+        }
+        for (Map.Entry<String, HistogramSnapshot> histogram : histograms.entrySet()) {
+            dump.append(histogram.getKey()).append(": ").append(histogram.getValue()).append('\n');
+        }
+        return dump.toString();
+    }
+}
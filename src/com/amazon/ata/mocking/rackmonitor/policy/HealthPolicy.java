@@ -0,0 +1,154 @@
+package com.amazon.ata.mocking.rackmonitor.policy;
+
+import com.amazon.ata.mocking.rackmonitor.smoothing.HealthSmoother;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An ordered set of HealthRules, compiled for evaluating every reading
+ * in a sweep of the whole fleet. The first rule that applies to a
+ * reading gives its thresholds; a reading no rule applies to falls back
+ * to the default thresholds.
+ *
+ * Compiling does the work that's the same for every Server in a Rack
+ * up front: each Rack gets only the rules that can apply to it, built
+ * the first time the Rack is seen and reused after that. Evaluating a
+ * reading then walks a short array, checking server prefixes and any
+ * time or trend conditions; the clock is only read if a rule has a
+ * time of day, and the smoothed health only if a rule has a trend.
+ *
+ * A HealthPolicy is immutable, so a RackMonitor can swap in a new one
+ * between any two readings without stopping a sweep.
+ */
+public final class HealthPolicy {
+    private final List<HealthRule> rules;
+    private final HealthRule defaultRule;
+    private final Clock clock;
+    private final boolean byRack;
+    private final boolean byTime;
+    private final double maxInspectHealth;
+
+    // Used for every Rack when no rule depends on the Rack
+    private final HealthRule[] everyRack;
+    private final ConcurrentMap<String, HealthRule[]> rackRules = new ConcurrentHashMap<>();
+
+    private HealthPolicy(List<HealthRule> rules, HealthRule defaultRule, Clock clock) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        this.defaultRule = defaultRule;
+        this.clock = clock;
+
+        boolean anyByRack = false;
+        boolean anyByTime = false;
+        double maxInspect = defaultRule.getInspectHealth();
+        for (HealthRule rule : rules) {
+            anyByRack |= !rule.appliesToAllRacks();
+            anyByTime |= !rule.isAllDay();
+            maxInspect = Math.max(maxInspect, rule.getInspectHealth());
+        }
+        this.byRack = anyByRack;
+        this.byTime = anyByTime;
+        this.maxInspectHealth = maxInspect;
+        this.everyRack = anyByRack ? null : rulesFor(null);
+    }
+
+    /**
+     * Compiles a HealthPolicy that keeps time with the system clock.
+     * @param rules The rules, most specific first.
+     * @param inspectHealth The inspect threshold when no rule applies.
+     * @param replaceHealth The replace threshold when no rule applies.
+     * @return the compiled policy.
+     */
+    public static HealthPolicy compile(List<HealthRule> rules, double inspectHealth, double replaceHealth) {
+        return compile(rules, inspectHealth, replaceHealth, Clock.systemUTC());
+    }
+
+    /**
+     * Compiles a HealthPolicy.
+     * @param rules The rules, most specific first.
+     * @param inspectHealth The inspect threshold when no rule applies.
+     * @param replaceHealth The replace threshold when no rule applies.
+     * @param clock The clock that time-of-day rules go by.
+     * @return the compiled policy.
+     */
+    public static HealthPolicy compile(List<HealthRule> rules, double inspectHealth, double replaceHealth,
+                                       Clock clock) {
+        return new HealthPolicy(rules, HealthRule.thresholds(inspectHealth, replaceHealth), clock);
+    }
+
+    /**
+     * Finds the rule whose thresholds apply to a reading.
+     * @param rackId The ID of the Server's Rack.
+     * @param serverId The ID of the Server.
+     * @param health The reading.
+     * @param smoother Where to find the Server's smoothed health, for
+     *                 trend rules.
+     * @return the first rule that applies, or the default rule.
+     */
+    public HealthRule ruleFor(String rackId, String serverId, double health, HealthSmoother smoother) {
+        HealthRule[] candidates = byRack ?
+            rackRules.computeIfAbsent(rackId == null ? "" : rackId, this::rulesFor) : everyRack;
+        int minuteOfDay = byTime ? minuteOfDay() : 0;
+        double smoothedHealth = Double.NaN;
+        boolean smoothed = false;
+        // The default rule is last, and always applies
+        for (HealthRule rule : candidates) {
+            if (!rule.matchesServer(serverId) || !rule.isAllDay() && !rule.matchesTime(minuteOfDay)) {
+                continue;
+            }
+            if (rule.isTrendBased()) {
+                if (!smoothed) {
+                    smoothedHealth = smoother.getSmoothedHealth(serverId);
+                    smoothed = true;
+                }
+                if (!rule.matchesTrend(health, smoothedHealth)) {
+                    continue;
+                }
+            }
+            return rule;
+        }
+        return defaultRule;
+    }
+
+    /**
+     * Returns the highest inspect threshold of any rule. A reading at
+     * or above it is healthy under every rule.
+     * @return the highest inspect threshold.
+     */
+    public double getMaxInspectHealth() {
+        return maxInspectHealth;
+    }
+
+    public List<HealthRule> getRules() {
+        return rules;
+    }
+
+    public HealthRule getDefaultRule() {
+        return defaultRule;
+    }
+
+    private HealthRule[] rulesFor(String rackId) {
+        List<HealthRule> applicable = new ArrayList<>();
+        for (HealthRule rule : rules) {
+            if (rule.matchesRack(rackId)) {
+                applicable.add(rule);
+            }
+        }
+        applicable.add(defaultRule);
+        return applicable.toArray(new HealthRule[0]);
+    }
+
+    private int minuteOfDay() {
+        return (int) (TimeUnit.MILLISECONDS.toMinutes(clock.millis()) % (24 * 60));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HealthPolicy %s, default %s", rules, defaultRule);
+    }
+}
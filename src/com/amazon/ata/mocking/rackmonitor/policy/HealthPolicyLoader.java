@@ -0,0 +1,158 @@
+package com.amazon.ata.mocking.rackmonitor.policy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads a HealthPolicy from a rules file, and loads it again whenever
+ * the file changes, so thresholds can be tuned without restarting.
+ *
+ * Each line of the file is one rule, most specific first, made of
+ * key=value settings:
+ * <pre>
+ * # Comments and blank lines are ignored
+ * rack=ROW7 server=GPU hours=22-6 drop=0.1 inspect=0.95 replace=0.9
+ * server=GPU inspect=0.9 replace=0.8
+ * default inspect=0.85 replace=0.75
+ * </pre>
+ * Every rule needs inspect and replace; rack, server, hours and drop
+ * narrow it as in HealthRule. A default line replaces the default
+ * thresholds the loader was constructed with.
+ */
+public class HealthPolicyLoader {
+    private Logger logger = LogManager.getLogger(HealthPolicyLoader.class);
+    private final Path file;
+    private final double inspectHealth;
+    private final double replaceHealth;
+    private FileTime lastModified;
+
+    /**
+     * Constructs a HealthPolicyLoader.
+     * @param file The rules file.
+     * @param inspectHealth The inspect threshold when no rule applies.
+     * @param replaceHealth The replace threshold when no rule applies.
+     */
+    public HealthPolicyLoader(Path file, double inspectHealth, double replaceHealth) {
+        this.file = file;
+        this.inspectHealth = inspectHealth;
+        this.replaceHealth = replaceHealth;
+    }
+
+    /**
+     * Loads the rules file if it changed since it was last loaded.
+     * @return the new policy, or null if the file hasn't changed.
+     * @throws IOException if the file can't be read.
+     * @throws IllegalArgumentException if the file has a bad rule; the
+     *         file will be tried again on the next call.
+     */
+    public synchronized HealthPolicy reloadIfChanged() throws IOException {
+        FileTime modified = Files.getLastModifiedTime(file);
+        if (modified.equals(lastModified)) {
+            return null;
+        }
+        HealthPolicy policy = parse(Files.readAllLines(file, StandardCharsets.UTF_8), inspectHealth, replaceHealth);
+        lastModified = modified;
+        logger.info("Loaded {} rules from {}", policy.getRules().size(), file);
+        return policy;
+    }
+
+    /**
+     * Parses rules, in the rules file format.
+     * @param lines The lines of rules.
+     * @param inspectHealth The inspect threshold when no rule applies.
+     * @param replaceHealth The replace threshold when no rule applies.
+     * @return the compiled policy.
+     * @throws IllegalArgumentException if a line isn't a valid rule.
+     */
+    public static HealthPolicy parse(List<String> lines, double inspectHealth, double replaceHealth) {
+        List<HealthRule> rules = new ArrayList<>();
+        HealthRule defaultRule = HealthRule.thresholds(inspectHealth, replaceHealth);
+        for (int n = 0; n < lines.size(); n++) {
+            String line = lines.get(n).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                if (line.startsWith("default ")) {
+                    defaultRule = parseRule(line.substring("default ".length()));
+                    if (!defaultRule.appliesToAllRacks() || !defaultRule.isAllDay() || defaultRule.isTrendBased()) {
+                        throw new IllegalArgumentException("the default can only have thresholds");
+                    }
+                } else {
+                    rules.add(parseRule(line));
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format("Bad rule on line %d: %s", n + 1, e.getMessage()), e);
+            }
+        }
+        return HealthPolicy.compile(rules, defaultRule.getInspectHealth(), defaultRule.getReplaceHealth());
+    }
+
+    private static HealthRule parseRule(String line) {
+        String rack = null;
+        String server = null;
+        String hours = null;
+        double drop = Double.NaN;
+        double inspect = Double.NaN;
+        double replace = Double.NaN;
+        for (String setting : line.split("\\s+")) {
+            int equals = setting.indexOf('=');
+            if (equals < 1) {
+                throw new IllegalArgumentException("expected key=value, found " + setting);
+            }
+            String value = setting.substring(equals + 1);
+            switch (setting.substring(0, equals)) {
+                case "rack":
+                    rack = value;
+                    break;
+                case "server":
+                    server = value;
+                    break;
+                case "hours":
+                    hours = value;
+                    break;
+                case "drop":
+                    drop = Double.parseDouble(value);
+                    break;
+                case "inspect":
+                    inspect = Double.parseDouble(value);
+                    break;
+                case "replace":
+                    replace = Double.parseDouble(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown setting " + setting);
+            }
+        }
+        if (Double.isNaN(inspect) || Double.isNaN(replace)) {
+            throw new IllegalArgumentException("inspect and replace are required");
+        }
+
+        HealthRule rule = HealthRule.thresholds(inspect, replace);
+        if (rack != null) {
+            rule = rule.forRacks(rack);
+        }
+        if (server != null) {
+            rule = rule.forServers(server);
+        }
+        if (hours != null) {
+            String[] range = hours.split("-");
+            if (range.length != 2) {
+                throw new IllegalArgumentException("expected hours=from-to, found " + hours);
+            }
+            rule = rule.between(Integer.parseInt(range[0]), Integer.parseInt(range[1]));
+        }
+        if (!Double.isNaN(drop)) {
+            rule = rule.whenDroppingBy(drop);
+        }
+        return rule;
+    }
+}
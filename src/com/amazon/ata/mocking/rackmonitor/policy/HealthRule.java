@@ -0,0 +1,178 @@
+package com.amazon.ata.mocking.rackmonitor.policy;
+
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+
+import java.util.Objects;
+
+import static com.amazon.ata.mocking.rackmonitor.RequestAction.INSPECT;
+import static com.amazon.ata.mocking.rackmonitor.RequestAction.REPLACE;
+
+/**
+ * A rule giving the inspect and replace thresholds for the Servers it
+ * applies to. A rule can be narrowed to Racks or Servers whose IDs
+ * start with a prefix, to a time of day, and to Servers whose health
+ * is falling: a reading at least some amount below the Server's
+ * smoothed health.
+ *
+ * Rules are immutable; each with-method returns a narrower copy.
+ */
+public final class HealthRule {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final double inspectHealth;
+    private final double replaceHealth;
+    private final String rackPrefix;
+    private final String serverPrefix;
+    // Applies from fromMinute (inclusive) to toMinute (exclusive), wrapping past midnight
+    private final int fromMinute;
+    private final int toMinute;
+    private final double minDrop;
+
+    private HealthRule(double inspectHealth, double replaceHealth, String rackPrefix, String serverPrefix,
+                       int fromMinute, int toMinute, double minDrop) {
+        this.inspectHealth = inspectHealth;
+        this.replaceHealth = replaceHealth;
+        this.rackPrefix = rackPrefix;
+        this.serverPrefix = serverPrefix;
+        this.fromMinute = fromMinute;
+        this.toMinute = toMinute;
+        this.minDrop = minDrop;
+    }
+
+    /**
+     * Creates a rule that applies to every Server, all the time.
+     * @param inspectHealth Inspect (shaky) threshold.
+     * @param replaceHealth Replace (unhealthy) threshold value.
+     * @return the rule.
+     */
+    public static HealthRule thresholds(double inspectHealth, double replaceHealth) {
+        if (!(replaceHealth <= inspectHealth)) {
+            throw new IllegalArgumentException("replaceHealth must not be above inspectHealth!");
+        }
+        return new HealthRule(inspectHealth, replaceHealth, null, null, 0, MINUTES_PER_DAY, Double.NaN);
+    }
+
+    /**
+     * Narrows the rule to Racks whose IDs start with a prefix.
+     * @param prefix The prefix, such as a row or a group of Racks.
+     * @return the narrower rule.
+     */
+    public HealthRule forRacks(String prefix) {
+        return new HealthRule(inspectHealth, replaceHealth, Objects.requireNonNull(prefix), serverPrefix,
+            fromMinute, toMinute, minDrop);
+    }
+
+    /**
+     * Narrows the rule to Servers whose IDs start with a prefix.
+     * @param prefix The prefix, such as a class of hardware.
+     * @return the narrower rule.
+     */
+    public HealthRule forServers(String prefix) {
+        return new HealthRule(inspectHealth, replaceHealth, rackPrefix, Objects.requireNonNull(prefix),
+            fromMinute, toMinute, minDrop);
+    }
+
+    /**
+     * Narrows the rule to a time of day, in UTC. The window may wrap
+     * past midnight, as from 22 to 6.
+     * @param fromHour The hour the rule starts applying, from 0 to 23.
+     * @param toHour The hour it stops applying, from 0 to 24.
+     * @return the narrower rule.
+     */
+    public HealthRule between(int fromHour, int toHour) {
+        if (fromHour < 0 || fromHour > 23 || toHour < 0 || toHour > 24 || fromHour == toHour) {
+            throw new IllegalArgumentException("Hours must be different, from 0 to 24!");
+        }
+        return new HealthRule(inspectHealth, replaceHealth, rackPrefix, serverPrefix,
+            fromHour * 60, toHour * 60, minDrop);
+    }
+
+    /**
+     * Narrows the rule to readings at least some amount below the
+     * Server's smoothed health, so a Server that's falling fast can be
+     * held to stricter thresholds. Needs the RackMonitor's
+     * HealthSmoother configured; without a smoothed health, the rule
+     * never applies.
+     * @param drop How far below the smoothed health a reading must be.
+     * @return the narrower rule.
+     */
+    public HealthRule whenDroppingBy(double drop) {
+        if (!(drop > 0)) {
+            throw new IllegalArgumentException("drop must be positive!");
+        }
+        return new HealthRule(inspectHealth, replaceHealth, rackPrefix, serverPrefix, fromMinute, toMinute, drop);
+    }
+
+    public double getInspectHealth() {
+        return inspectHealth;
+    }
+
+    public double getReplaceHealth() {
+        return replaceHealth;
+    }
+
+    /**
+     * Decides what to ask Wingnut to do about a reading, under this
+     * rule's thresholds.
+     * @param health The Server's health.
+     * @return REPLACE or INSPECT, or null if the Server is healthy.
+     */
+    public RequestAction actionFor(double health) {
+        if (health < replaceHealth) {
+            return REPLACE;
+        } else if (health < inspectHealth) {
+            return INSPECT;
+        }
+        return null;
+    }
+
+    boolean matchesRack(String rackId) {
+        return rackPrefix == null || rackId != null && rackId.startsWith(rackPrefix);
+    }
+
+    boolean matchesServer(String serverId) {
+        return serverPrefix == null || serverId.startsWith(serverPrefix);
+    }
+
+    boolean isAllDay() {
+        return fromMinute == 0 && toMinute == MINUTES_PER_DAY;
+    }
+
+    boolean matchesTime(int minuteOfDay) {
+        if (fromMinute < toMinute) {
+            return minuteOfDay >= fromMinute && minuteOfDay < toMinute;
+        }
+        return minuteOfDay >= fromMinute || minuteOfDay < toMinute;
+    }
+
+    boolean isTrendBased() {
+        return !Double.isNaN(minDrop);
+    }
+
+    boolean matchesTrend(double health, double smoothedHealth) {
+        // A NaN smoothed health means no history, which never matches
+        return smoothedHealth - health >= minDrop;
+    }
+
+    boolean appliesToAllRacks() {
+        return rackPrefix == null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder rule = new StringBuilder();
+        if (rackPrefix != null) {
+            rule.append("rack=").append(rackPrefix).append(' ');
+        }
+        if (serverPrefix != null) {
+            rule.append("server=").append(serverPrefix).append(' ');
+        }
+        if (!isAllDay()) {
+            rule.append("hours=").append(fromMinute / 60).append('-').append(toMinute / 60).append(' ');
+        }
+        if (isTrendBased()) {
+            rule.append("drop=").append(minDrop).append(' ');
+        }
+        return rule.append("inspect=").append(inspectHealth).append(" replace=").append(replaceHealth).toString();
+    }
+}
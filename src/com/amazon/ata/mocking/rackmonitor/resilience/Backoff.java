@@ -0,0 +1,50 @@
+package com.amazon.ata.mocking.rackmonitor.resilience;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exponential backoff with jitter: the delay before each retry doubles,
+ * up to a maximum, and is randomized between half and all of that so
+ * callers that failed together don't all retry together.
+ */
+public class Backoff {
+    private final long initialNanos;
+    private final long maxNanos;
+
+    /**
+     * Constructs a Backoff.
+     * @param initial The delay before the first retry.
+     * @param max The longest delay before any retry.
+     * @param unit The unit of both delays.
+     */
+    public Backoff(long initial, long max, TimeUnit unit) {
+        if (initial <= 0 || max < initial) {
+            throw new IllegalArgumentException("Delays must be positive, with max at least initial!");
+        }
+        this.initialNanos = unit.toNanos(initial);
+        this.maxNanos = unit.toNanos(max);
+    }
+
+    /**
+     * Returns how long to wait before a retry.
+     * @param retry Which retry this is, starting at 1.
+     * @return the delay, in nanoseconds.
+     */
+    public long delayNanos(int retry) {
+        int doublings = Math.max(0, retry - 1);
+        // Past this many doublings the shift would overflow; the cap applies long before
+        long delay = doublings >= Long.numberOfLeadingZeros(initialNanos) - 1 ?
+            maxNanos : Math.min(maxNanos, initialNanos << doublings);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Sleeps for the delay before a retry.
+     * @param retry Which retry this is, starting at 1.
+     * @throws InterruptedException if the thread is interrupted.
+     */
+    public void sleep(int retry) throws InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(delayNanos(retry));
+    }
+}
@@ -0,0 +1,115 @@
+package com.amazon.ata.mocking.rackmonitor.resilience;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps how many calls to one dependency may be in flight at once, so a
+ * slow dependency ties up only its own share of the callers' threads.
+ * Callers beyond the cap wait for a permit.
+ *
+ * The cap can be changed at any time. Lowering it doesn't interrupt
+ * calls already in flight; new calls wait until enough have finished.
+ */
+public class Bulkhead {
+    private final ResizableSemaphore permits;
+    private int maxConcurrentCalls;
+
+    /**
+     * Constructs a Bulkhead.
+     * @param maxConcurrentCalls How many calls may be in flight at once.
+     */
+    public Bulkhead(int maxConcurrentCalls) {
+        checkMax(maxConcurrentCalls);
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.permits = new ResizableSemaphore(maxConcurrentCalls);
+    }
+
+    /**
+     * Creates a Bulkhead that lets every call through, until its cap
+     * is set.
+     * @return an unbounded Bulkhead.
+     */
+    public static Bulkhead unbounded() {
+        return new Bulkhead(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Waits for a permit to make a call. Every acquire() must be
+     * followed by a release() once the call finishes.
+     * @return how long the caller waited, in nanoseconds.
+     */
+    public long acquire() {
+        if (permits.tryAcquire()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        permits.acquireUninterruptibly();
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Takes a permit to make a call, if one is free right now. Every
+     * successful tryAcquire() must be followed by a release() once the
+     * call finishes.
+     * @return true if a permit was taken.
+     */
+    public boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    /**
+     * Returns the permit for a finished call.
+     */
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * Changes how many calls may be in flight at once.
+     * @param newMaxConcurrentCalls The new cap.
+     */
+    public synchronized void setMaxConcurrentCalls(int newMaxConcurrentCalls) {
+        checkMax(newMaxConcurrentCalls);
+        int change = newMaxConcurrentCalls - maxConcurrentCalls;
+        if (change > 0) {
+            permits.release(change);
+        } else if (change < 0) {
+            permits.reduce(-change);
+        }
+        maxConcurrentCalls = newMaxConcurrentCalls;
+    }
+
+    public synchronized int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    /**
+     * Returns how many more calls could start right now.
+     * @return the number of free permits; negative after the cap was
+     *         lowered below the calls in flight.
+     */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    private static void checkMax(int maxConcurrentCalls) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("maxConcurrentCalls must be positive!");
+        }
+    }
+
+    /**
+     * A Semaphore whose permits can be taken away without waiting for them.
+     */
+    private static class ResizableSemaphore extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        ResizableSemaphore(int permits) {
+            super(permits);
+        }
+
+        void reduce(int reduction) {
+            reducePermits(reduction);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.amazon.ata.mocking.rackmonitor.resilience;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops calls to a dependency that keeps failing, so callers fail fast
+ * instead of waiting on it, and it gets a chance to recover.
+ *
+ * The breaker starts CLOSED and lets every call through. After enough
+ * consecutive failures it OPENs and rejects calls until its open time
+ * has passed; then it goes HALF_OPEN and lets a single trial call
+ * through. If the trial succeeds the breaker closes; if it fails the
+ * breaker opens again. A call that succeeds, but slower than the slow
+ * call threshold, counts as a failure, so a dependency whose latency
+ * spikes is treated like one that's down.
+ *
+ * Callers ask tryAcquire() before each call, then report the outcome
+ * with onSuccess() or onFailure().
+ */
+public class CircuitBreaker {
+    /**
+     * Whether the breaker is letting calls through.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final long slowCallNanos;
+    private final Ticker ticker;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+    private long rejectedCount;
+
+    /**
+     * Constructs a CLOSED CircuitBreaker.
+     * @param failureThreshold Open after this many consecutive failures.
+     * @param openMillis How long to stay open before trying again.
+     * @param slowCallMillis Count calls that take longer than this as
+     *                       failures.
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis, long slowCallMillis) {
+        this(failureThreshold, openMillis, slowCallMillis, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    CircuitBreaker(int failureThreshold, long openMillis, long slowCallMillis, Ticker ticker) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be positive!");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.ticker = ticker;
+    }
+
+    /**
+     * Asks whether a call may go ahead. A caller that gets true must
+     * report the outcome.
+     * @return true if the call may be made.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && ticker.read() - openedAtNanos >= openNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return true;
+        }
+        rejectedCount++;
+        return false;
+    }
+
+    /**
+     * Reports a call that succeeded.
+     * @param elapsedNanos How long the call took.
+     */
+    public synchronized void onSuccess(long elapsedNanos) {
+        if (elapsedNanos > slowCallNanos) {
+            onFailure();
+            return;
+        }
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Reports a call that failed because of the dependency.
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtNanos = ticker.read();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Returns how many calls tryAcquire() turned away.
+     * @return the number of rejected calls.
+     */
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+}
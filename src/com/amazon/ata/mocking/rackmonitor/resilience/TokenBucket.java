@@ -0,0 +1,162 @@
+package com.amazon.ata.mocking.rackmonitor.resilience;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token-bucket rate limiter: tokens accrue at a steady rate up to a
+ * burst size, and each call spends one, so a dependency sees at most
+ * the burst at once and the rate on average.
+ *
+ * Callers can be urgent. While an urgent caller is waiting for a token,
+ * ordinary callers don't get one, so when the bucket runs dry the
+ * urgent calls go first.
+ *
+ * The rate can be changed at any time. An unlimited bucket never makes
+ * anyone wait, and costs a single volatile read per call.
+ */
+public class TokenBucket {
+    private final Ticker ticker;
+
+    private volatile boolean unlimited;
+    private double permitsPerSecond;
+    private int burst;
+    private double tokens;
+    private long lastRefillNanos;
+    private int urgentWaiting;
+
+    /**
+     * Constructs a TokenBucket that starts full.
+     * @param permitsPerSecond How many tokens accrue each second, or
+     *                         infinity for no limit.
+     * @param burst The most tokens the bucket holds.
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    TokenBucket(double permitsPerSecond, int burst, Ticker ticker) {
+        this.ticker = ticker;
+        setRate(permitsPerSecond, burst);
+        this.tokens = burst;
+    }
+
+    /**
+     * Creates a TokenBucket that never limits anything, until its rate
+     * is set.
+     * @return an unlimited TokenBucket.
+     */
+    public static TokenBucket unlimited() {
+        return new TokenBucket(Double.POSITIVE_INFINITY, 1);
+    }
+
+    /**
+     * Changes the rate and burst size. Tokens already in the bucket
+     * are kept, up to the new burst size.
+     * @param newPermitsPerSecond How many tokens accrue each second, or
+     *                            infinity for no limit.
+     * @param newBurst The most tokens the bucket holds.
+     */
+    public synchronized void setRate(double newPermitsPerSecond, int newBurst) {
+        if (!(newPermitsPerSecond > 0) || newBurst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive!");
+        }
+        refill(ticker.read());
+        this.permitsPerSecond = newPermitsPerSecond;
+        this.burst = newBurst;
+        // A bucket that wasn't limiting anything starts full
+        this.tokens = unlimited ? newBurst : Math.min(tokens, newBurst);
+        this.unlimited = Double.isInfinite(newPermitsPerSecond);
+        notifyAll();
+    }
+
+    /**
+     * Waits for a token and spends it. Interrupts don't stop the wait,
+     * but the thread's interrupt status is kept.
+     * @param urgent Whether this call should go ahead of ordinary ones.
+     * @return how long the caller waited, in nanoseconds.
+     */
+    public long acquire(boolean urgent) {
+        if (unlimited) {
+            return 0;
+        }
+        boolean interrupted = false;
+        synchronized (this) {
+            long start = ticker.read();
+            if (urgent) {
+                urgentWaiting++;
+            }
+            try {
+                while (true) {
+                    long now = ticker.read();
+                    if (unlimited || takeToken(now, urgent)) {
+                        return now - start;
+                    }
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(this, nanosUntilToken());
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (urgent) {
+                    urgentWaiting--;
+                    // Ordinary callers may have been held back for us
+                    notifyAll();
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Spends a token if one is available right now.
+     * @param urgent Whether this call should go ahead of ordinary ones.
+     * @return true if a token was spent.
+     */
+    public boolean tryAcquire(boolean urgent) {
+        if (unlimited) {
+            return true;
+        }
+        synchronized (this) {
+            return takeToken(ticker.read(), urgent);
+        }
+    }
+
+    public synchronized double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public synchronized int getBurst() {
+        return burst;
+    }
+
+    // Callers must hold the lock
+    private boolean takeToken(long now, boolean urgent) {
+        refill(now);
+        if (tokens < 1 || !urgent && urgentWaiting > 0) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    // Callers must hold the lock
+    private void refill(long now) {
+        if (!unlimited) {
+            tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerSecond / 1e9);
+        }
+        lastRefillNanos = now;
+    }
+
+    // Callers must hold the lock; at least a millisecond, so waiters don't spin
+    private long nanosUntilToken() {
+        double missing = Math.max(0, 1 - tokens);
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(1), (long) Math.ceil(missing * 1e9 / permitsPerSecond));
+    }
+}
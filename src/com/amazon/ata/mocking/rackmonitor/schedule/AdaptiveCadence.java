@@ -0,0 +1,66 @@
+package com.amazon.ata.mocking.rackmonitor.schedule;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sweeps more often when many servers are close to needing attention,
+ * and less often when the fleet is stable.
+ *
+ * The interval slides linearly from the maximum (no servers below the
+ * watch threshold) to the minimum (busyServers or more below it). A
+ * sweep that was cut short by an exception undercounts, so it keeps
+ * the previous interval instead. Failures for single servers don't cut
+ * a sweep short, so the cadence still adapts to it.
+ */
+public class AdaptiveCadence implements SweepCadence {
+    private final double watchHealth;
+    private final int busyServers;
+    private final long minIntervalNanos;
+    private final long maxIntervalNanos;
+    private long lastIntervalNanos;
+
+    /**
+     * Constructs an AdaptiveCadence.
+     * @param watchHealth Servers below this health count as close to
+     *                    needing attention; usually a little above the
+     *                    RackMonitor's inspect threshold.
+     * @param busyServers How many servers below watchHealth call for
+     *                    the minimum interval.
+     * @param minInterval The shortest interval between sweeps.
+     * @param maxInterval The longest interval between sweeps.
+     * @param unit The unit of both intervals.
+     */
+    public AdaptiveCadence(double watchHealth, int busyServers,
+                           long minInterval, long maxInterval, TimeUnit unit) {
+        if (busyServers < 1) {
+            throw new IllegalArgumentException("busyServers must be positive!");
+        }
+        if (minInterval <= 0 || maxInterval < minInterval) {
+            throw new IllegalArgumentException("Need 0 < minInterval <= maxInterval!");
+        }
+        this.watchHealth = watchHealth;
+        this.busyServers = busyServers;
+        this.minIntervalNanos = unit.toNanos(minInterval);
+        this.maxIntervalNanos = unit.toNanos(maxInterval);
+        this.lastIntervalNanos = maxIntervalNanos;
+    }
+
+    @Override
+    public double getWatchHealth() {
+        return watchHealth;
+    }
+
+    @Override
+    public synchronized long getIntervalNanos(SweepOutcome lastSweep) {
+        if (lastSweep.getException() == null) {
+            double pressure = Math.min(1.0D, (double) lastSweep.getWatchedServers() / busyServers);
+            lastIntervalNanos = maxIntervalNanos - (long) ((maxIntervalNanos - minIntervalNanos) * pressure);
+        }
+        return lastIntervalNanos;
+    }
+
+    @Override
+    public long getMaxIntervalNanos() {
+        return maxIntervalNanos;
+    }
+}
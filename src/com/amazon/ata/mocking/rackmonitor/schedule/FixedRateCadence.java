@@ -0,0 +1,37 @@
+package com.amazon.ata.mocking.rackmonitor.schedule;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sweeps at the same interval no matter what the fleet looks like.
+ */
+public class FixedRateCadence implements SweepCadence {
+    private final long intervalNanos;
+
+    /**
+     * Constructs a FixedRateCadence.
+     * @param interval How long between the start of each sweep.
+     * @param unit The unit of the interval.
+     */
+    public FixedRateCadence(long interval, TimeUnit unit) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive!");
+        }
+        this.intervalNanos = unit.toNanos(interval);
+    }
+
+    @Override
+    public double getWatchHealth() {
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    @Override
+    public long getIntervalNanos(SweepOutcome lastSweep) {
+        return intervalNanos;
+    }
+
+    @Override
+    public long getMaxIntervalNanos() {
+        return intervalNanos;
+    }
+}
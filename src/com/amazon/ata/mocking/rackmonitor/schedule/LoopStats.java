@@ -0,0 +1,79 @@
+package com.amazon.ata.mocking.rackmonitor.schedule;
+
+import com.amazon.ata.mocking.rackmonitor.metrics.HistogramSnapshot;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable snapshot of how well a MonitoringLoop is keeping to
+ * its schedule.
+ */
+public class LoopStats {
+    private final long sweepsCompleted;
+    private final long sweepsFailed;
+    private final long serverFailures;
+    private final long missedDeadlines;
+    private final long intervalNanos;
+    private final boolean backpressured;
+    private final HistogramSnapshot lateness;
+
+    /**
+     * Constructs a LoopStats.
+     * @param sweepsCompleted How many sweeps finished.
+     * @param sweepsFailed How many sweeps stopped on an exception.
+     * @param serverFailures How many servers or racks couldn't be
+     *                       handled, over every sweep that finished.
+     * @param missedDeadlines How many scheduled sweeps were skipped
+     *                        because an earlier one overran.
+     * @param intervalNanos The interval the next sweep is scheduled at.
+     * @param backpressured Whether the last sweep overran or hit a
+     *                      failing dependency, so the loop is holding back.
+     * @param lateness How late each sweep started after its deadline.
+     */
+    public LoopStats(long sweepsCompleted, long sweepsFailed, long serverFailures, long missedDeadlines,
+                     long intervalNanos, boolean backpressured, HistogramSnapshot lateness) {
+        this.sweepsCompleted = sweepsCompleted;
+        this.sweepsFailed = sweepsFailed;
+        this.serverFailures = serverFailures;
+        this.missedDeadlines = missedDeadlines;
+        this.intervalNanos = intervalNanos;
+        this.backpressured = backpressured;
+        this.lateness = lateness;
+    }
+
+    public long getSweepsCompleted() {
+        return sweepsCompleted;
+    }
+
+    public long getSweepsFailed() {
+        return sweepsFailed;
+    }
+
+    public long getServerFailures() {
+        return serverFailures;
+    }
+
+    public long getMissedDeadlines() {
+        return missedDeadlines;
+    }
+
+    public long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    public boolean isBackpressured() {
+        return backpressured;
+    }
+
+    public HistogramSnapshot getLateness() {
+        return lateness;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "completed=%d failed=%d serverFailures=%d missed=%d interval=%dms backpressured=%s lateness: %s",
+            sweepsCompleted, sweepsFailed, serverFailures, missedDeadlines,
+            TimeUnit.NANOSECONDS.toMillis(intervalNanos), backpressured, lateness);
+    }
+}
@@ -0,0 +1,228 @@
+package com.amazon.ata.mocking.rackmonitor.schedule;
+
+import com.amazon.ata.mocking.rackmonitor.HealthReport;
+import com.amazon.ata.mocking.rackmonitor.RackMonitor;
+import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorDependencyException;
+import com.amazon.ata.mocking.rackmonitor.metrics.LatencyHistogram;
+import com.amazon.ata.mocking.rackmonitor.sweep.SweepFailure;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a RackMonitor's sweeps on a schedule, so callers don't need an
+ * external cron to call monitorRacks() repeatedly.
+ *
+ * Each sweep has a deadline, and the next deadline is set by the
+ * SweepCadence once the sweep finishes, so sweeps never overlap. If a
+ * sweep overruns one or more later deadlines, those sweeps are skipped
+ * and counted as missed, and the next sweep starts at the first
+ * deadline that hasn't passed. When a dependency fails, the interval
+ * doubles with each consecutive sweep it fails in, up to the cadence's
+ * maximum. Either way the loop reports itself as backpressured until a
+ * sweep finishes on time.
+ *
+ * A failure for one server doesn't cut its sweep short: the sweep
+ * still completes, the failure is counted in the LoopStats' server
+ * failures, and the cadence adapts to what the sweep saw. Only an
+ * unexpected exception cuts a sweep short and counts it as failed.
+ * Neither stops the loop; only stop() does.
+ */
+public class MonitoringLoop {
+    // Don't double past 2^16 times the interval, whatever the maximum
+    private static final int MAX_BACKOFF_SHIFT = 16;
+
+    private Logger logger = LogManager.getLogger(MonitoringLoop.class);
+    private final RackMonitor rackMonitor;
+    private final ScheduledExecutorService scheduler;
+    private final SweepCadence cadence;
+    // Held for a whole sweep, so one from before a restart finishes before the next begins
+    private final Object sweepLock = new Object();
+    // Only touched under sweepLock
+    private final HealthReport report = new HealthReport();
+    private final LatencyHistogram lateness = new LatencyHistogram();
+
+    private final AtomicLong sweepsCompleted = new AtomicLong();
+    private final AtomicLong sweepsFailed = new AtomicLong();
+    private final AtomicLong serverFailures = new AtomicLong();
+    private final AtomicLong missedDeadlines = new AtomicLong();
+    private volatile long intervalNanos;
+    private volatile boolean backpressured;
+    private int consecutiveDependencyFailures;
+
+    private boolean running;
+    // Bumped by every start(), so a sweep from before a restart can't reschedule
+    private long generation;
+    private long nextDeadline;
+    private ScheduledFuture<?> pendingSweep;
+
+    /**
+     * Constructs a MonitoringLoop. Nothing runs until start() is called.
+     * @param rackMonitor The RackMonitor to sweep with.
+     * @param scheduler The executor to run sweeps on. The caller owns
+     *                  the executor and must shut it down.
+     * @param cadence Decides how often to sweep.
+     */
+    public MonitoringLoop(RackMonitor rackMonitor, ScheduledExecutorService scheduler, SweepCadence cadence) {
+        this.rackMonitor = rackMonitor;
+        this.scheduler = scheduler;
+        this.cadence = cadence;
+    }
+
+    /**
+     * Starts sweeping, beginning immediately.
+     * @throws IllegalStateException if the loop is already running.
+     */
+    public synchronized void start() {
+        if (running) {
+            throw new IllegalStateException("MonitoringLoop is already running!");
+        }
+        running = true;
+        long thisGeneration = ++generation;
+        nextDeadline = System.nanoTime();
+        pendingSweep = scheduler.schedule(() -> sweep(thisGeneration), 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops sweeping. A sweep that's already running is allowed to
+     * finish, but no further sweeps are scheduled.
+     */
+    public synchronized void stop() {
+        running = false;
+        if (pendingSweep != null) {
+            pendingSweep.cancel(false);
+            pendingSweep = null;
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Returns whether the loop is holding back because the last sweep
+     * overran its interval or a dependency failed.
+     * @return true if the loop is backpressured.
+     */
+    public boolean isBackpressured() {
+        return backpressured;
+    }
+
+    /**
+     * Copies the loop's schedule statistics.
+     * @return a LoopStats snapshot.
+     */
+    public LoopStats getStats() {
+        return new LoopStats(sweepsCompleted.get(), sweepsFailed.get(), serverFailures.get(), missedDeadlines.get(),
+            intervalNanos, backpressured, lateness.snapshot());
+    }
+
+    /**
+     * Runs one sweep, after any sweep still running from before a
+     * restart, then schedules the next one.
+     * @param sweepGeneration The start() that scheduled this sweep.
+     */
+    private void sweep(long sweepGeneration) {
+        synchronized (sweepLock) {
+            runSweep(sweepGeneration);
+        }
+    }
+
+    /**
+     * Runs one sweep, then schedules the next one.
+     * @param sweepGeneration The start() that scheduled this sweep. If
+     *                        the loop was stopped or restarted since,
+     *                        the sweep doesn't run or reschedule.
+     */
+    private void runSweep(long sweepGeneration) {
+        long deadline;
+        synchronized (this) {
+            if (!running || generation != sweepGeneration) {
+                return;
+            }
+            deadline = nextDeadline;
+        }
+
+        long start = System.nanoTime();
+        lateness.record(start - deadline);
+
+        int watched = 0;
+        List<SweepFailure> failures = new ArrayList<>();
+        Exception failure = null;
+        try {
+            watched = rackMonitor.monitorRacks(report, cadence.getWatchHealth(), failures);
+            if (!failures.isEmpty()) {
+                logger.warn("Sweep finished with {} failures; will retry them next interval: {}",
+                    failures.size(), failures);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Sweep failed; will try again next interval", e);
+            failure = e;
+        }
+        long end = System.nanoTime();
+
+        if (failure == null) {
+            sweepsCompleted.incrementAndGet();
+        } else {
+            sweepsFailed.incrementAndGet();
+        }
+        serverFailures.addAndGet(failures.size());
+        consecutiveDependencyFailures = anyDependencyFailure(failures) ? consecutiveDependencyFailures + 1 : 0;
+
+        long interval = backOff(cadence.getIntervalNanos(new SweepOutcome(end - start, watched, failure, failures)));
+        long next = deadline + interval;
+        long missed = 0;
+        if (next < end) {
+            // Skip every deadline this sweep overran
+            missed = (end - deadline) / interval;
+            next = deadline + (missed + 1) * interval;
+            missedDeadlines.addAndGet(missed);
+        }
+        intervalNanos = interval;
+        backpressured = missed > 0 || consecutiveDependencyFailures > 0;
+
+        synchronized (this) {
+            if (running && generation == sweepGeneration) {
+                nextDeadline = next;
+                pendingSweep = scheduler.schedule(() -> sweep(sweepGeneration), next - System.nanoTime(),
+                    TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Decides whether the loop should back off: a dependency failed for
+     * at least one server. Other failures are specific to their server,
+     * and sweeping less often wouldn't help them.
+     * @param failures The sweep's failures.
+     * @return true if any of them was a dependency failure.
+     */
+    private static boolean anyDependencyFailure(List<SweepFailure> failures) {
+        for (SweepFailure failure : failures) {
+            if (failure.getException() instanceof RackMonitorDependencyException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stretches an interval after consecutive dependency failures.
+     * @param interval The interval the cadence asked for.
+     * @return the interval to actually use.
+     */
+    private long backOff(long interval) {
+        if (consecutiveDependencyFailures == 0) {
+            return interval;
+        }
+        int shift = Math.min(consecutiveDependencyFailures, MAX_BACKOFF_SHIFT);
+        return Math.max(interval, Math.min(cadence.getMaxIntervalNanos(), interval << shift));
+    }
+}
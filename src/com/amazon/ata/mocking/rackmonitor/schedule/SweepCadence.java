@@ -0,0 +1,29 @@
+package com.amazon.ata.mocking.rackmonitor.schedule;
+
+/**
+ * Decides how often a MonitoringLoop sweeps the fleet.
+ */
+public interface SweepCadence {
+    /**
+     * Returns the health below which a server counts as close to
+     * needing attention. The MonitoringLoop counts these servers on
+     * every sweep and reports the count in the SweepOutcome.
+     * @return the watch threshold, or negative infinity to count nothing.
+     */
+    double getWatchHealth();
+
+    /**
+     * Decides how long after the last sweep's deadline the next sweep
+     * should start.
+     * @param lastSweep What happened on the last sweep.
+     * @return the interval until the next sweep, in nanoseconds.
+     */
+    long getIntervalNanos(SweepOutcome lastSweep);
+
+    /**
+     * Returns the longest interval this cadence will allow, which also
+     * caps how far the MonitoringLoop backs off when dependencies fail.
+     * @return the maximum interval, in nanoseconds.
+     */
+    long getMaxIntervalNanos();
+}
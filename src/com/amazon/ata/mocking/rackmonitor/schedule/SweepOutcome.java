@@ -0,0 +1,74 @@
+package com.amazon.ata.mocking.rackmonitor.schedule;
+
+import com.amazon.ata.mocking.rackmonitor.sweep.SweepFailure;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable record of what happened on one sweep of a
+ * MonitoringLoop, used to decide when to sweep next.
+ */
+public class SweepOutcome {
+    private final long durationNanos;
+    private final int watchedServers;
+    private final Exception exception;
+    private final List<SweepFailure> serverFailures;
+
+    /**
+     * Constructs a SweepOutcome for a sweep with no failures for
+     * single servers.
+     * @param durationNanos How long the sweep took.
+     * @param watchedServers How many servers were below the cadence's
+     *                       watch threshold.
+     * @param exception What cut the sweep short, or null if it ran to
+     *                  completion.
+     */
+    public SweepOutcome(long durationNanos, int watchedServers, Exception exception) {
+        this(durationNanos, watchedServers, exception, Collections.emptyList());
+    }
+
+    /**
+     * Constructs a SweepOutcome.
+     * @param durationNanos How long the sweep took.
+     * @param watchedServers How many servers were below the cadence's
+     *                       watch threshold.
+     * @param exception What cut the sweep short, or null if it ran to
+     *                  completion.
+     * @param serverFailures The servers or racks that couldn't be
+     *                       handled; the sweep carried on past them.
+     */
+    public SweepOutcome(long durationNanos, int watchedServers, Exception exception,
+                        List<SweepFailure> serverFailures) {
+        this.durationNanos = durationNanos;
+        this.watchedServers = watchedServers;
+        this.exception = exception;
+        this.serverFailures = Collections.unmodifiableList(serverFailures);
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public int getWatchedServers() {
+        return watchedServers;
+    }
+
+    /**
+     * Returns what cut the sweep short. A sweep cut short saw only some
+     * of the fleet, so its count of watched servers is too low.
+     * @return the exception, or null if the sweep ran to completion.
+     */
+    public Exception getException() {
+        return exception;
+    }
+
+    /**
+     * Returns the servers or racks the sweep couldn't handle. These
+     * don't cut a sweep short.
+     * @return an unmodifiable list of SweepFailures; empty if there were none.
+     */
+    public List<SweepFailure> getServerFailures() {
+        return serverFailures;
+    }
+}
@@ -0,0 +1,78 @@
+package com.amazon.ata.mocking.rackmonitor.shard;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Maps keys to nodes so that adding or removing a node only moves the
+ * keys that node gains or loses; everything else stays put.
+ *
+ * Each node is placed on the ring at several points (virtual nodes)
+ * so keys spread evenly even with only a few nodes. A key belongs to
+ * the first node at or after its own hash, wrapping around.
+ *
+ * Not thread safe; callers must synchronize.
+ */
+public class ConsistentHashRing {
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final int virtualNodes;
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    /**
+     * Constructs an empty ConsistentHashRing.
+     * @param virtualNodes How many points on the ring each node gets.
+     */
+    public ConsistentHashRing(int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be positive!");
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    /**
+     * Adds a node to the ring. Adding a node twice has no effect.
+     * @param nodeId The ID of the node.
+     */
+    public void addNode(String nodeId) {
+        for (int i = 0; i < virtualNodes; i++) {
+            ring.put(hash(nodeId + "#" + i), nodeId);
+        }
+    }
+
+    /**
+     * Removes a node from the ring, if present.
+     * @param nodeId The ID of the node.
+     */
+    public void removeNode(String nodeId) {
+        for (int i = 0; i < virtualNodes; i++) {
+            ring.remove(hash(nodeId + "#" + i), nodeId);
+        }
+    }
+
+    /**
+     * Finds the node a key belongs to.
+     * @param key The key to place, such as a rack ID.
+     * @return the ID of the owning node, or null if the ring is empty.
+     */
+    public String nodeFor(String key) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> owner = ring.ceilingEntry(hash(key));
+        return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+    }
+
+    public boolean isEmpty() {
+        return ring.isEmpty();
+    }
+
+    private static long hash(String value) {
+        return HASH.hashString(value, StandardCharsets.UTF_8).asLong();
+    }
+}
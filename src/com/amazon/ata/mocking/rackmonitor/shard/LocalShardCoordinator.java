@@ -0,0 +1,115 @@
+package com.amazon.ata.mocking.rackmonitor.shard;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An in-process ShardCoordinator that assigns Racks to MonitorShards
+ * by consistent hashing on their rack IDs. A stand-in for a real
+ * coordination service, so several shards can run (and be tested)
+ * inside one JVM.
+ *
+ * When a shard joins or leaves, only the Racks whose owner changed
+ * are moved. Each moving Rack is assigned to its new owner before it's
+ * revoked from the old one, so no Rack goes unswept during a handoff.
+ */
+public class LocalShardCoordinator implements ShardCoordinator {
+    private Logger logger = LogManager.getLogger(LocalShardCoordinator.class);
+    private final Set<Rack> racks;
+    private final ConsistentHashRing ring;
+    private final Map<String, MonitorShard> shards = new LinkedHashMap<>();
+    private final Map<Rack, String> owners = new HashMap<>();
+
+    /**
+     * Constructs a LocalShardCoordinator with no shards.
+     * @param racks Every Rack in the fleet.
+     * @param virtualNodes How many points on the hash ring each shard gets.
+     */
+    public LocalShardCoordinator(Set<Rack> racks, int virtualNodes) {
+        this.racks = new HashSet<>(racks);
+        this.ring = new ConsistentHashRing(virtualNodes);
+    }
+
+    @Override
+    public synchronized void join(MonitorShard shard) {
+        if (shards.containsKey(shard.getShardId())) {
+            throw new IllegalArgumentException("Shard " + shard.getShardId() + " has already joined!");
+        }
+        shards.put(shard.getShardId(), shard);
+        ring.addNode(shard.getShardId());
+        rebalance();
+    }
+
+    @Override
+    public synchronized void leave(String shardId) {
+        MonitorShard shard = shards.get(shardId);
+        if (shard == null) {
+            return;
+        }
+        ring.removeNode(shardId);
+        rebalance();
+        shards.remove(shardId);
+        // Anything still assigned here had nowhere else to go
+        shard.revoke(new ArrayList<>(shard.getAssignedRacks()));
+    }
+
+    @Override
+    public synchronized String ownerOf(Rack rack) {
+        return owners.get(rack);
+    }
+
+    @Override
+    public synchronized Map<String, Set<Rack>> getAssignments() {
+        Map<String, Set<Rack>> assignments = new LinkedHashMap<>();
+        for (String shardId : shards.keySet()) {
+            assignments.put(shardId, new HashSet<>());
+        }
+        for (Map.Entry<Rack, String> owner : owners.entrySet()) {
+            assignments.get(owner.getValue()).add(owner.getKey());
+        }
+        return assignments;
+    }
+
+    /**
+     * Moves every Rack whose owner on the ring has changed.
+     */
+    private void rebalance() {
+        Map<String, List<Rack>> gained = new HashMap<>();
+        Map<String, List<Rack>> lost = new HashMap<>();
+        for (Rack rack : racks) {
+            String newOwner = ring.nodeFor(rack.getRackId());
+            String oldOwner = owners.get(rack);
+            if (newOwner == null || newOwner.equals(oldOwner)) {
+                continue;
+            }
+            gained.computeIfAbsent(newOwner, ignored -> new ArrayList<>()).add(rack);
+            if (oldOwner != null) {
+                lost.computeIfAbsent(oldOwner, ignored -> new ArrayList<>()).add(rack);
+            }
+            owners.put(rack, newOwner);
+        }
+        if (ring.isEmpty()) {
+            owners.clear();
+        }
+
+        // Assign before revoking, so every Rack always has an owner
+        for (Map.Entry<String, List<Rack>> moved : gained.entrySet()) {
+            shards.get(moved.getKey()).assign(moved.getValue());
+        }
+        for (Map.Entry<String, List<Rack>> moved : lost.entrySet()) {
+            shards.get(moved.getKey()).revoke(moved.getValue());
+        }
+        int movedRacks = gained.values().stream().mapToInt(List::size).sum();
+        logger.info("Rebalanced {} racks across {} shards", movedRacks, shards.size());
+    }
+}
@@ -0,0 +1,88 @@
+package com.amazon.ata.mocking.rackmonitor.shard;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RackMonitor;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutClient;
+import com.amazon.ata.mocking.rackmonitor.incidents.IncidentStore;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One monitor instance in a sharded fleet. Its RackMonitor sweeps only
+ * the Racks its ShardCoordinator has assigned to it, and the assignment
+ * can change between (or during) sweeps as shards join and leave.
+ *
+ * Every shard must share the same IncidentStore. A Rack handed off
+ * mid-sweep may briefly be checked by both its old and new owner, and
+ * the shared store's claims make sure only one of them files each
+ * request.
+ */
+public class MonitorShard {
+    private final String shardId;
+    // Concurrent, so the coordinator can reassign racks while sweeping
+    private final Set<Rack> assignedRacks = ConcurrentHashMap.newKeySet();
+    private final RackMonitor rackMonitor;
+
+    /**
+     * Constructs a MonitorShard with no Racks assigned.
+     * @param shardId A unique ID for this shard.
+     * @param wingnutClient WingnutClient to use if needed.
+     * @param warrantyClient WarrantyClient to use, if needed.
+     * @param inspectHealth Inspect (shaky) threshold.
+     * @param replaceHealth Replace (unhealthy) threshold value.
+     * @param incidents The IncidentStore shared by every shard.
+     */
+    public MonitorShard(String shardId, WingnutClient wingnutClient, WarrantyClient warrantyClient,
+                        double inspectHealth, double replaceHealth, IncidentStore incidents) {
+        this.shardId = shardId;
+        this.rackMonitor = new RackMonitor(assignedRacks, wingnutClient, warrantyClient,
+            inspectHealth, replaceHealth, incidents);
+    }
+
+    public String getShardId() {
+        return shardId;
+    }
+
+    /**
+     * Returns the RackMonitor that sweeps this shard's Racks.
+     * @return the shard's RackMonitor.
+     */
+    public RackMonitor getRackMonitor() {
+        return rackMonitor;
+    }
+
+    /**
+     * Returns the Racks currently assigned to this shard.
+     * @return an unmodifiable, live view of the assigned Racks.
+     */
+    public Set<Rack> getAssignedRacks() {
+        return Collections.unmodifiableSet(assignedRacks);
+    }
+
+    /**
+     * Takes ownership of Racks. Only the coordinator should call this.
+     * @param racks The Racks to take.
+     */
+    void assign(Collection<Rack> racks) {
+        assignedRacks.addAll(racks);
+        rackMonitor.racksChanged();
+    }
+
+    /**
+     * Gives up ownership of Racks. Only the coordinator should call this.
+     * @param racks The Racks to give up.
+     */
+    void revoke(Collection<Rack> racks) {
+        assignedRacks.removeAll(racks);
+        rackMonitor.racksChanged();
+    }
+
+    @Override
+    public String toString() {
+        return "MonitorShard{" + shardId + ", " + assignedRacks.size() + " racks}";
+    }
+}
@@ -0,0 +1,41 @@
+package com.amazon.ata.mocking.rackmonitor.shard;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides which MonitorShard owns each Rack, and moves Racks between
+ * shards as shards join and leave.
+ */
+public interface ShardCoordinator {
+
+    /**
+     * Adds a shard and rebalances, giving it its share of the Racks.
+     * @param shard The shard joining.
+     * @throws IllegalArgumentException if a shard with the same ID has
+     *         already joined.
+     */
+    void join(MonitorShard shard);
+
+    /**
+     * Removes a shard and rebalances, handing its Racks to the others.
+     * Leaving a shard that never joined has no effect.
+     * @param shardId The ID of the shard leaving.
+     */
+    void leave(String shardId);
+
+    /**
+     * Finds the shard that owns a Rack.
+     * @param rack The Rack to look up.
+     * @return the owning shard's ID, or null if no shards have joined.
+     */
+    String ownerOf(Rack rack);
+
+    /**
+     * Returns which Racks each shard owns.
+     * @return a copy of the Racks owned by each shard ID.
+     */
+    Map<String, Set<Rack>> getAssignments();
+}
@@ -0,0 +1,142 @@
+package com.amazon.ata.mocking.rackmonitor.simulation;
+
+import com.amazon.ata.mocking.rackmonitor.HealthSource;
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyNotFoundException;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantySource;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A simulated fleet for load tests, as large as memory allows, whose
+ * health and Warranties are the same on every run with the same seed.
+ *
+ * Each Server's health is a hash of the seed, its ID and the current
+ * round, uniform between 0.0 and 1.0 like production servers, so the
+ * share of the fleet that needs attention is set by the thresholds.
+ * Nothing is stored per Server, so reads cost a pass over the Server's
+ * ID and never allocate. The whole ID is hashed to 64 bits, so even a
+ * fleet of millions of Servers has no two sharing a health by chance. advance() starts a new round, re-rolling every
+ * Server's health, as though time had passed between sweeps.
+ *
+ * A seeded share of the Servers have no Warranty; the rest have one
+ * that stays the same for every round.
+ */
+public class FleetSimulator implements HealthSource, WarrantySource {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    // Separates the warranty hash from every round's health hash
+    private static final long WARRANTY_STREAM = 0x94D049BB133111EBL;
+
+    private final long seed;
+    private final double unwarrantiedRatio;
+    private volatile long round;
+
+    /**
+     * Constructs a FleetSimulator.
+     * @param seed Seeds every Server's health and Warranty, so runs repeat.
+     * @param unwarrantiedRatio The share of Servers, from 0.0 to 1.0,
+     *                          that have no Warranty.
+     */
+    public FleetSimulator(long seed, double unwarrantiedRatio) {
+        if (!(unwarrantiedRatio >= 0 && unwarrantiedRatio <= 1)) {
+            throw new IllegalArgumentException("unwarrantiedRatio must be between 0.0 and 1.0!");
+        }
+        this.seed = seed;
+        this.unwarrantiedRatio = unwarrantiedRatio;
+    }
+
+    /**
+     * Builds a fleet of Racks whose health comes from this simulator.
+     * Rack and Server IDs are numbered in order, so the same arguments
+     * always build the same fleet.
+     * @param racks How many Racks to build.
+     * @param serversPerRack How many Servers to install in each Rack,
+     *                       one per unit slot.
+     * @return the Racks, in order.
+     */
+    public Set<Rack> generate(int racks, int serversPerRack) {
+        if (racks < 0 || serversPerRack < 0) {
+            throw new IllegalArgumentException("racks and serversPerRack must not be negative!");
+        }
+        Set<Rack> fleet = new LinkedHashSet<>();
+        for (int r = 0; r < racks; r++) {
+            // Sized so the map never rehashes
+            Map<Server, Integer> unitMap = new HashMap<>(serversPerRack * 4 / 3 + 1);
+            for (int unit = 0; unit < serversPerRack; unit++) {
+                unitMap.put(new Server(String.format("SIM%010d", (long) r * serversPerRack + unit)), unit);
+            }
+            fleet.add(new Rack(String.format("SIMRACK%07d", r), unitMap, this));
+        }
+        return fleet;
+    }
+
+    /**
+     * Creates a WarrantyClient whose Warranties come from this simulator.
+     * @return the WarrantyClient.
+     */
+    public WarrantyClient warrantyClient() {
+        return new WarrantyClient(this);
+    }
+
+    /**
+     * Starts a new round, giving every Server a new health.
+     */
+    public void advance() {
+        round++;
+    }
+
+    public long getRound() {
+        return round;
+    }
+
+    @Override
+    public double getHealth(Server server) {
+        return toUnit(mix(hash(server) + round * GOLDEN_GAMMA));
+    }
+
+    @Override
+    public Warranty getWarranty(Server server) throws WarrantyNotFoundException {
+        if (toUnit(mix(hash(server) ^ WARRANTY_STREAM)) < unwarrantiedRatio) {
+            throw new WarrantyNotFoundException(String.format("Server %s has no warranty!", server.getServerId()));
+        }
+        return new Warranty(String.format("simulated warranty for %s", server.getServerId()));
+    }
+
+    // Folds the ID through SplitMix64 four chars at a time; String.hashCode()
+    // is only 32 bits, and collides within a fleet of a few million IDs
+    private long hash(Server server) {
+        String id = server.getServerId();
+        int length = id.length();
+        long hash = seed;
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            long block = id.charAt(i) | (long) id.charAt(i + 1) << 16 |
+                (long) id.charAt(i + 2) << 32 | (long) id.charAt(i + 3) << 48;
+            hash = mix((hash ^ block) + GOLDEN_GAMMA);
+        }
+        long tail = 0;
+        for (int shift = 0; i < length; i++, shift += 16) {
+            tail |= (long) id.charAt(i) << shift;
+        }
+        // The length tells "A" apart from "A" followed by NUL chars
+        return mix((hash ^ tail) + length * GOLDEN_GAMMA);
+    }
+
+    // The SplitMix64 finalizer: every input bit affects every output bit
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // The top 53 bits, as a double between 0.0 (inclusive) and 1.0 (exclusive)
+    private static double toUnit(long bits) {
+        return (bits >>> 11) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,72 @@
+package com.amazon.ata.mocking.rackmonitor.simulation;
+
+import com.amazon.ata.mocking.rackmonitor.HealthSource;
+import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyNotFoundException;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantySource;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+
+/**
+ * Fixed health and Warranties for "test" servers, whose IDs start with
+ * TEST, so tests and benchmarks can know in advance which servers are
+ * unhealthy and which have no Warranty. Servers with any other ID are
+ * left to telemetry and the warranty service.
+ *
+ * A test server's health is the same on every read. About 3% of
+ * test servers have no Warranty; TEST0052 is the first.
+ */
+public class TestServers implements HealthSource, WarrantySource {
+    private static final String PREFIX = "TEST";
+
+    /**
+     * Calculates a consistent health for a test server.
+     * @param server A test Server to generate a fake health for.
+     * @return The fake health; NaN if not a test server or the server
+     *         ID isn't long enough.
+     */
+    @Override
+    public double getHealth(Server server) {
+        String serverId = server.getServerId();
+        if (!serverId.startsWith(PREFIX) || serverId.length() < 8) {
+            return Double.NaN;
+        }
+
+        byte[] seedBytes = serverId.substring(4).getBytes();
+        long seed = seedBytes[3] << 24 | seedBytes[2] << 16 |  seedBytes[1] << 8 | seedBytes[0];
+        return new Random(seed).nextDouble();
+    }
+
+    /**
+     * Calculates a consistent Warranty for a test server.
+     * @param server A test Server to generate a fake Warranty for.
+     * @return The fake Warranty; null if not a test server.
+     * @throws WarrantyNotFoundException if the test server is one of
+     *         those generated without a Warranty.
+     */
+    @Override
+    public Warranty getWarranty(Server server) throws WarrantyNotFoundException {
+        String serverId = server.getServerId();
+        if (!serverId.startsWith(PREFIX)) {
+            return null;
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1")
+                .digest(serverId.getBytes());
+            if (digest[10] > 120) {
+                String msg = String.format("Server %s has no warranty!", serverId);
+                throw new WarrantyNotFoundException(msg);
+            }
+        } catch (NoSuchAlgorithmException e) {
+            // This should never happen, since all implementations of
+            // Java must support SHA-1
+            throw new WarrantyNotFoundException(e);
+        }
+
+        return new Warranty(String.format("fake warranty for %s", serverId));
+    }
+}
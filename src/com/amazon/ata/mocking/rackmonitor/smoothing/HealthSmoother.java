@@ -0,0 +1,246 @@
+package com.amazon.ata.mocking.rackmonitor.smoothing;
+
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.incidents.IdTable;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.amazon.ata.mocking.rackmonitor.RequestAction.INSPECT;
+import static com.amazon.ata.mocking.rackmonitor.RequestAction.REPLACE;
+
+/**
+ * Smooths each Server's health readings and adds hysteresis, so a
+ * Server hovering around a threshold doesn't flap between healthy and
+ * unhealthy on every sweep.
+ *
+ * Each reading updates an exponentially weighted moving average of the
+ * Server's health. The Server only moves to a worse level (INSPECT,
+ * then REPLACE) once its average has been below the threshold for a
+ * number of readings in a row, and only moves back once its average
+ * has climbed a band above the threshold.
+ *
+ * The whole state of a Server is packed into one long: the average as
+ * a float, plus its level and how many readings in a row have been
+ * worse. States live in chunked primitive arrays indexed through an
+ * IdTable, so millions of Servers cost a few tens of bytes each, and
+ * each update is a single compare-and-set, safe from any number of
+ * threads without locking.
+ *
+ * The smoother is disabled until it's configured; a disabled smoother
+ * compares each reading against the thresholds directly, and
+ * remembers nothing.
+ */
+public class HealthSmoother {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // State layout: [average as float bits : 32][seen : 1][unused : 13][level : 2][streak : 16]
+    private static final long SEEN = 1L << 31;
+    private static final int LEVEL_SHIFT = 16;
+    private static final int LEVEL_MASK = 0x3;
+    private static final int STREAK_MASK = 0xFFFF;
+    private static final RequestAction[] LEVELS = {null, INSPECT, REPLACE};
+
+    private final double inspectHealth;
+    private final double replaceHealth;
+    private volatile Settings settings;
+
+    private final IdTable<Void> servers = new IdTable<>();
+    // Copied on write, under the lock, whenever a chunk is added
+    private volatile AtomicLongArray[] chunks = new AtomicLongArray[0];
+
+    /**
+     * Constructs a disabled HealthSmoother.
+     * @param inspectHealth Inspect (shaky) threshold.
+     * @param replaceHealth Replace (unhealthy) threshold value.
+     */
+    public HealthSmoother(double inspectHealth, double replaceHealth) {
+        this.inspectHealth = inspectHealth;
+        this.replaceHealth = replaceHealth;
+    }
+
+    /**
+     * Enables the smoother, or changes its settings. Servers keep their
+     * averages and levels across changes.
+     * @param alpha How much weight each new reading gets, from just
+     *              above 0.0 (barely moves the average) to 1.0 (no
+     *              smoothing).
+     * @param band How far above a threshold a Server's average must
+     *             climb before it moves back to a better level.
+     * @param confirmReadings How many readings in a row must be worse
+     *                        before a Server moves to a worse level.
+     */
+    public void configure(double alpha, double band, int confirmReadings) {
+        if (!(alpha > 0 && alpha <= 1) || !(band >= 0) || confirmReadings < 1 || confirmReadings > STREAK_MASK) {
+            throw new IllegalArgumentException(
+                "alpha must be in (0, 1], band not negative, and confirmReadings between 1 and 65535!");
+        }
+        settings = new Settings(alpha, band, confirmReadings);
+    }
+
+    /**
+     * Stops smoothing. Servers' states are kept in case it's enabled
+     * again.
+     */
+    public void disable() {
+        settings = null;
+    }
+
+    public boolean isEnabled() {
+        return settings != null;
+    }
+
+    /**
+     * Adds a reading to a Server's history and decides what it needs.
+     * Call once per reading: every call moves the average.
+     * @param serverId The ID of the Server.
+     * @param health The Server's latest health reading.
+     * @return REPLACE or INSPECT, or null if the Server is healthy.
+     */
+    public RequestAction update(String serverId, double health) {
+        return update(serverId, health, inspectHealth, replaceHealth);
+    }
+
+    /**
+     * Adds a reading to a Server's history and decides what it needs,
+     * against thresholds particular to this Server.
+     * @param serverId The ID of the Server.
+     * @param health The Server's latest health reading.
+     * @param serverInspectHealth The Server's inspect threshold.
+     * @param serverReplaceHealth The Server's replace threshold.
+     * @return REPLACE or INSPECT, or null if the Server is healthy.
+     */
+    public RequestAction update(String serverId, double health,
+                                double serverInspectHealth, double serverReplaceHealth) {
+        Settings current = settings;
+        if (current == null) {
+            return LEVELS[levelFor(health, serverInspectHealth, serverReplaceHealth)];
+        }
+        if (Double.isNaN(health)) {
+            return null;
+        }
+        int index = servers.intern(serverId, null);
+        AtomicLongArray chunk = chunkFor(index);
+        int offset = index & CHUNK_MASK;
+        while (true) {
+            long state = chunk.get(offset);
+            long next = advance(state, health, current, serverInspectHealth, serverReplaceHealth);
+            if (chunk.compareAndSet(offset, state, next)) {
+                return LEVELS[levelOf(next)];
+            }
+        }
+    }
+
+    /**
+     * Returns a Server's smoothed health.
+     * @param serverId The ID of the Server.
+     * @return the average of its readings, or NaN if it has none.
+     */
+    public double getSmoothedHealth(String serverId) {
+        long state = stateOf(serverId);
+        return (state & SEEN) == 0 ? Double.NaN : averageOf(state);
+    }
+
+    /**
+     * Returns the level a Server has settled at.
+     * @param serverId The ID of the Server.
+     * @return REPLACE or INSPECT, or null if it's healthy or has no
+     *         readings.
+     */
+    public RequestAction getLevel(String serverId) {
+        return LEVELS[levelOf(stateOf(serverId))];
+    }
+
+    /**
+     * Returns how many Servers have a history.
+     * @return the number of Servers.
+     */
+    public int getServerCount() {
+        return servers.size();
+    }
+
+    private long advance(long state, double health, Settings current,
+                         double serverInspectHealth, double serverReplaceHealth) {
+        double average = (state & SEEN) == 0 ? health : averageOf(state) + current.alpha * (health - averageOf(state));
+        int level = levelOf(state);
+        int streak = (int) state & STREAK_MASK;
+
+        int reading = levelFor(average, serverInspectHealth, serverReplaceHealth);
+        if (reading > level) {
+            streak++;
+            if (streak >= current.confirmReadings) {
+                level = reading;
+                streak = 0;
+            }
+        } else {
+            streak = 0;
+            // Only better once clear of the threshold by the band
+            level = Math.min(level, levelFor(average - current.band, serverInspectHealth, serverReplaceHealth));
+        }
+        return (long) Float.floatToRawIntBits((float) average) << 32 | SEEN
+            | (long) level << LEVEL_SHIFT | streak;
+    }
+
+    private static int levelFor(double health, double serverInspectHealth, double serverReplaceHealth) {
+        if (health < serverReplaceHealth) {
+            return 2;
+        } else if (health < serverInspectHealth) {
+            return 1;
+        }
+        return 0;
+    }
+
+    private static double averageOf(long state) {
+        return Float.intBitsToFloat((int) (state >>> 32));
+    }
+
+    private static int levelOf(long state) {
+        return (int) (state >>> LEVEL_SHIFT) & LEVEL_MASK;
+    }
+
+    private long stateOf(String serverId) {
+        int index = servers.indexOf(serverId);
+        if (index < 0) {
+            return 0;
+        }
+        return chunkFor(index).get(index & CHUNK_MASK);
+    }
+
+    private AtomicLongArray chunkFor(int index) {
+        int chunk = index >>> CHUNK_BITS;
+        AtomicLongArray[] table = chunks;
+        if (chunk < table.length) {
+            return table[chunk];
+        }
+        synchronized (this) {
+            table = chunks;
+            if (chunk >= table.length) {
+                AtomicLongArray[] grown = new AtomicLongArray[Math.max(chunk + 1, table.length * 2)];
+                System.arraycopy(table, 0, grown, 0, table.length);
+                for (int n = table.length; n < grown.length; n++) {
+                    grown[n] = new AtomicLongArray(CHUNK_SIZE);
+                }
+                chunks = grown;
+                table = grown;
+            }
+            return table[chunk];
+        }
+    }
+
+    /**
+     * What configure() sets. An update() reads them once, so it smooths
+     * and confirms a reading under a single configuration.
+     */
+    private static class Settings {
+        private final double alpha;
+        private final double band;
+        private final int confirmReadings;
+
+        Settings(double alpha, double band, int confirmReadings) {
+            this.alpha = alpha;
+            this.band = band;
+            this.confirmReadings = confirmReadings;
+        }
+    }
+}
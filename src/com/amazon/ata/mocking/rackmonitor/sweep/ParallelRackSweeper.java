@@ -0,0 +1,125 @@
+package com.amazon.ata.mocking.rackmonitor.sweep;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RackMonitor;
+import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorDependencyException;
+import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Sweeps all the Racks of a RackMonitor in parallel. Each Rack is
+ * checked on its own task, so one slow Rack (or one slow dependency
+ * call) doesn't hold up the rest of the fleet.
+ *
+ * Unlike RackMonitor.monitorRacks(), a failure while handling one
+ * Server doesn't abort the sweep; it's recorded in the SweepReport
+ * and the sweep carries on.
+ *
+ * The executor decides how the work is scheduled: a ForkJoinPool
+ * sized to the number of cores for CPU-bound racks, or a thread per
+ * task (virtual threads, where available) when most time is spent
+ * waiting on dependencies. To bound how many calls are made to each
+ * dependency at once, construct the RackMonitor with a
+ * BoundedWarrantyClient and BoundedWingnutClient.
+ */
+public class ParallelRackSweeper {
+    private Logger logger = LogManager.getLogger(ParallelRackSweeper.class);
+    private final RackMonitor rackMonitor;
+    private final ExecutorService executor;
+
+    /**
+     * Constructs a ParallelRackSweeper.
+     * @param rackMonitor The RackMonitor whose Racks should be swept.
+     * @param executor The executor to run each Rack's sweep on. The
+     *                 caller owns the executor and must shut it down.
+     */
+    public ParallelRackSweeper(RackMonitor rackMonitor, ExecutorService executor) {
+        this.rackMonitor = rackMonitor;
+        this.executor = executor;
+    }
+
+    /**
+     * Checks all the servers in all the racks in parallel, filing
+     * requests with Wingnut if any of them aren't healthy. Waits for
+     * every Rack to finish before returning.
+     *
+     * @return a SweepReport with the latency of each Rack, the total
+     *         wall-clock time, and all failures encountered.
+     * @throws InterruptedException If interrupted while waiting for
+     *         the sweep to finish.
+     */
+    public SweepReport sweep() throws InterruptedException {
+        long start = System.nanoTime();
+
+        List<Future<RackSweepResult>> futures = new ArrayList<>();
+        for (Rack rack : rackMonitor.getRacks()) {
+            futures.add(executor.submit(() -> sweepRack(rack)));
+        }
+
+        List<RackSweepResult> results = new ArrayList<>(futures.size());
+        for (Future<RackSweepResult> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                // sweepRack() catches everything, so this shouldn't happen
+                logger.error("Unexpected failure sweeping a rack", e);
+            }
+        }
+
+        SweepReport report = new SweepReport(System.nanoTime() - start, results);
+        logger.info("sweep(): {}", report);
+        return report;
+    }
+
+    /**
+     * Checks every Server in a single Rack, recording failures
+     * instead of throwing them.
+     * @param rack The Rack to sweep.
+     * @return The latency, server count, and failures for this Rack.
+     */
+    private RackSweepResult sweepRack(Rack rack) {
+        long start = System.nanoTime();
+        List<SweepFailure> failures = new ArrayList<>();
+        int checked = 0;
+
+        Map<Server, Double> healthReport;
+        try {
+            healthReport = rack.getHealth();
+        } catch (RuntimeException e) {
+            logger.warn("Could not get health for {}", rack, e);
+            failures.add(new SweepFailure(rack, null, e));
+            return new RackSweepResult(rack, System.nanoTime() - start, checked, failures);
+        }
+
+        try {
+            if (rackMonitor.checkRackFailure(rack, healthReport)) {
+                return new RackSweepResult(rack, System.nanoTime() - start, checked, failures);
+            }
+        } catch (RackMonitorException | RackMonitorDependencyException | RuntimeException e) {
+            failures.add(new SweepFailure(rack, null, e));
+            return new RackSweepResult(rack, System.nanoTime() - start, checked, failures);
+        }
+
+        for (Map.Entry<Server, Double> serverHealth : healthReport.entrySet()) {
+            Server server = serverHealth.getKey();
+            checked++;
+            try {
+                rackMonitor.checkServer(rack, server, serverHealth.getValue());
+            } catch (RackMonitorException | RackMonitorDependencyException | RuntimeException e) {
+                failures.add(new SweepFailure(rack, server, e));
+            }
+        }
+
+        return new RackSweepResult(rack, System.nanoTime() - start, checked, failures);
+    }
+}
@@ -0,0 +1,197 @@
+package com.amazon.ata.mocking.rackmonitor.sweep;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RackMonitor;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorDependencyException;
+import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Sweeps a RackMonitor's Racks so the worst servers reach Wingnut
+ * first, instead of in whatever order the Racks and their health
+ * reports happen to iterate.
+ *
+ * A sweep has two phases. First every Rack's health is read, which is
+ * quick and makes no dependency calls, and each Server that needs
+ * attention is queued by severity: every REPLACE before any INSPECT,
+ * and within each, the lowest health first. Then worker threads drain
+ * the queue, filing the requests through RackMonitor. A Rack that
+ * has failed as a whole is filed straight away, during the first
+ * phase, and none of its Servers are queued.
+ *
+ * A Rack can be weighted to move its Servers up or down the queue: a
+ * Server's health is divided by its Rack's weight before it's ranked,
+ * so a Rack with weight 2 is handled as though its Servers were half
+ * as healthy. A weight of zero or less puts a Rack's Servers behind
+ * every other Server needing the same action; weighting never moves
+ * an INSPECT ahead of a REPLACE.
+ *
+ * Like ParallelRackSweeper, a failure for one Server doesn't abort the
+ * sweep.
+ */
+public class PrioritizedSweeper {
+    // Fine enough that servers a thousandth of a health point apart are ordered
+    private static final int BUCKETS = 2048;
+
+    private Logger logger = LogManager.getLogger(PrioritizedSweeper.class);
+    private final RackMonitor rackMonitor;
+    private final ExecutorService executor;
+    private final int workers;
+    private final ToDoubleFunction<Rack> rackWeight;
+
+    /**
+     * Constructs a PrioritizedSweeper that weights every Rack equally.
+     * @param rackMonitor The RackMonitor whose Racks should be swept.
+     * @param executor The executor to run the workers on. The caller
+     *                 owns the executor and must shut it down.
+     * @param workers How many workers drain the queue at once.
+     */
+    public PrioritizedSweeper(RackMonitor rackMonitor, ExecutorService executor, int workers) {
+        this(rackMonitor, executor, workers, rack -> 1.0);
+    }
+
+    /**
+     * Constructs a PrioritizedSweeper.
+     * @param rackMonitor The RackMonitor whose Racks should be swept.
+     * @param executor The executor to run the workers on. The caller
+     *                 owns the executor and must shut it down.
+     * @param workers How many workers drain the queue at once.
+     * @param rackWeight How much to favor each Rack; 1.0 is neutral.
+     */
+    public PrioritizedSweeper(RackMonitor rackMonitor, ExecutorService executor, int workers,
+                              ToDoubleFunction<Rack> rackWeight) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be positive!");
+        }
+        this.rackMonitor = rackMonitor;
+        this.executor = executor;
+        this.workers = workers;
+        this.rackWeight = rackWeight;
+    }
+
+    /**
+     * Checks all the servers in all the racks, then files requests for
+     * the unhealthy ones, most severe first. Waits for every request to
+     * finish before returning.
+     *
+     * @return A SweepFailure for every Server that couldn't be handled.
+     * @throws InterruptedException If interrupted while waiting for
+     *         the workers to finish.
+     */
+    public List<SweepFailure> sweep() throws InterruptedException {
+        long start = System.nanoTime();
+        List<SweepFailure> failures = Collections.synchronizedList(new ArrayList<>());
+        SeverityQueue<PendingAction> queue = new SeverityQueue<>(BUCKETS);
+        for (Rack rack : rackMonitor.getRacks()) {
+            enqueueRack(rack, queue, failures);
+        }
+        int queued = queue.size();
+
+        List<Future<?>> futures = new ArrayList<>(workers);
+        for (int n = 0; n < Math.min(workers, queued); n++) {
+            futures.add(executor.submit(() -> drain(queue, failures)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                // drain() catches everything, so this shouldn't happen
+                logger.error("Unexpected failure draining the queue", e);
+            }
+        }
+
+        logger.debug("sweep(): {} requests, {} failures in {}ms", queued, failures.size(),
+            (System.nanoTime() - start) / 1_000_000);
+        return new ArrayList<>(failures);
+    }
+
+    /**
+     * Ranks a Server needing attention: 0.0 is the most severe and
+     * 1.0 the least. REPLACE ranks in [0, 0.5) and INSPECT in [0.5, 1],
+     * each ordered by weighted health, so the two never overlap.
+     * @param action What the Server needs.
+     * @param health The Server's health.
+     * @param weight Its Rack's weight.
+     * @return the Server's severity.
+     */
+    static double severityOf(RequestAction action, double health, double weight) {
+        double weighted = weight > 0 ? health / weight : 1.0;
+        double clamped = Math.min(1.0, Math.max(0.0, weighted));
+        // Even the healthiest REPLACE stays below 0.5, in a lower bucket than any INSPECT
+        return action == RequestAction.REPLACE ? clamped * 0.499 : 0.5 + clamped / 2;
+    }
+
+    private void enqueueRack(Rack rack, SeverityQueue<PendingAction> queue, List<SweepFailure> failures) {
+        Map<Server, Double> healthReport;
+        try {
+            healthReport = rack.getHealth();
+        } catch (RuntimeException e) {
+            logger.warn("Could not get health for {}", rack, e);
+            failures.add(new SweepFailure(rack, null, e));
+            return;
+        }
+        try {
+            // A failed rack is filed as a whole, right away, ahead of any single server
+            if (rackMonitor.checkRackFailure(rack, healthReport)) {
+                return;
+            }
+        } catch (RackMonitorException | RackMonitorDependencyException | RuntimeException e) {
+            failures.add(new SweepFailure(rack, null, e));
+            return;
+        }
+
+        double weight = rackWeight.applyAsDouble(rack);
+        for (Map.Entry<Server, Double> serverHealth : healthReport.entrySet()) {
+            Server server = serverHealth.getKey();
+            double health = serverHealth.getValue();
+            // Decided once, here, so a smoothed reading isn't counted twice
+            RequestAction action = rackMonitor.actionFor(rack, server, health);
+            if (action != null) {
+                queue.offer(new PendingAction(rack, server, action), severityOf(action, health, weight));
+            }
+        }
+    }
+
+    private void drain(SeverityQueue<PendingAction> queue, List<SweepFailure> failures) {
+        PendingAction pending;
+        while ((pending = queue.poll()) != null) {
+            try {
+                if (pending.action == RequestAction.REPLACE) {
+                    rackMonitor.arrangeReplacement(pending.rack, pending.server);
+                } else {
+                    rackMonitor.arrangeInspection(pending.rack, pending.server);
+                }
+            } catch (RackMonitorException | RackMonitorDependencyException | RuntimeException e) {
+                failures.add(new SweepFailure(pending.rack, pending.server, e));
+            }
+        }
+    }
+
+    /**
+     * A Server waiting for its request to be filed.
+     */
+    private static class PendingAction {
+        private final Rack rack;
+        private final Server server;
+        private final RequestAction action;
+
+        PendingAction(Rack rack, Server server, RequestAction action) {
+            this.rack = rack;
+            this.server = server;
+            this.action = action;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.amazon.ata.mocking.rackmonitor.sweep;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of sweeping a single Rack: how long it took, how many
+ * Servers were checked, and anything that went wrong.
+ */
+public class RackSweepResult {
+    private final Rack rack;
+    private final long latencyNanos;
+    private final int serversChecked;
+    private final List<SweepFailure> failures;
+
+    /**
+     * Constructs a RackSweepResult.
+     * @param rack The Rack that was swept.
+     * @param latencyNanos How long the sweep of this Rack took.
+     * @param serversChecked How many Servers had their health checked.
+     * @param failures The failures encountered in this Rack.
+     */
+    public RackSweepResult(Rack rack, long latencyNanos, int serversChecked, List<SweepFailure> failures) {
+        this.rack = rack;
+        this.latencyNanos = latencyNanos;
+        this.serversChecked = serversChecked;
+        this.failures = Collections.unmodifiableList(failures);
+    }
+
+    public Rack getRack() {
+        return rack;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    public int getServersChecked() {
+        return serversChecked;
+    }
+
+    public List<SweepFailure> getFailures() {
+        return failures;
+    }
+}
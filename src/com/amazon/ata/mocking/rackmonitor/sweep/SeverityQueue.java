@@ -0,0 +1,93 @@
+package com.amazon.ata.mocking.rackmonitor.sweep;
+
+import java.util.ArrayDeque;
+
+/**
+ * A thread-safe priority queue keyed by a severity between 0.0 (most
+ * severe) and 1.0 (least), that stays O(1) per operation no matter how
+ * many items are queued.
+ *
+ * Severities are bucketed: the range is split into a fixed number of
+ * buckets, each a FIFO queue, with a bitmap of which buckets hold
+ * anything. poll() takes from the first non-empty bucket. Items whose
+ * severities fall in the same bucket come out in the order they were
+ * offered, so ordering is exact to within one bucket's width.
+ *
+ * @param <T> The type of item queued.
+ */
+public class SeverityQueue<T> {
+    private final ArrayDeque<T>[] buckets;
+    // Bit b of word w is set when bucket w * 64 + b holds anything
+    private final long[] occupied;
+    private int size;
+
+    /**
+     * Constructs an empty SeverityQueue.
+     * @param bucketCount How many buckets to split severities into;
+     *                    rounded up to a multiple of 64.
+     */
+    @SuppressWarnings("unchecked")
+    public SeverityQueue(int bucketCount) {
+        if (bucketCount < 1) {
+            throw new IllegalArgumentException("bucketCount must be positive!");
+        }
+        int words = (bucketCount + Long.SIZE - 1) / Long.SIZE;
+        this.buckets = (ArrayDeque<T>[]) new ArrayDeque<?>[words * Long.SIZE];
+        this.occupied = new long[words];
+    }
+
+    /**
+     * Queues an item.
+     * @param item The item.
+     * @param severity How severe it is, from 0.0 (first) to 1.0 (last);
+     *                 values outside that range are clamped, and NaN
+     *                 goes last.
+     */
+    public synchronized void offer(T item, double severity) {
+        int bucket = bucketFor(severity);
+        ArrayDeque<T> queue = buckets[bucket];
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            buckets[bucket] = queue;
+        }
+        queue.addLast(item);
+        occupied[bucket >>> 6] |= 1L << bucket;
+        size++;
+    }
+
+    /**
+     * Removes the most severe item.
+     * @return the item, or null if the queue is empty.
+     */
+    public synchronized T poll() {
+        for (int word = 0; word < occupied.length; word++) {
+            if (occupied[word] == 0) {
+                continue;
+            }
+            int bucket = word * Long.SIZE + Long.numberOfTrailingZeros(occupied[word]);
+            ArrayDeque<T> queue = buckets[bucket];
+            T item = queue.pollFirst();
+            if (queue.isEmpty()) {
+                occupied[word] &= ~(1L << bucket);
+            }
+            size--;
+            return item;
+        }
+        return null;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    private int bucketFor(double severity) {
+        if (!(severity < 1.0)) {
+            return buckets.length - 1;
+        }
+        return Math.max(0, (int) (severity * buckets.length));
+    }
+}
@@ -0,0 +1,44 @@
+package com.amazon.ata.mocking.rackmonitor.sweep;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.Server;
+
+/**
+ * An immutable record of a problem encountered while sweeping a Rack.
+ * Lets a sweep carry on past a failure and report it at the end.
+ */
+public class SweepFailure {
+    private final Rack rack;
+    private final Server server;
+    private final Exception exception;
+
+    /**
+     * Constructs a SweepFailure.
+     * @param rack The Rack being swept when the failure happened.
+     * @param server The Server being handled, or null if the whole
+     *               Rack failed (for example, while reporting health).
+     * @param exception What went wrong.
+     */
+    public SweepFailure(Rack rack, Server server, Exception exception) {
+        this.rack = rack;
+        this.server = server;
+        this.exception = exception;
+    }
+
+    public Rack getRack() {
+        return rack;
+    }
+
+    public Server getServer() {
+        return server;
+    }
+
+    public Exception getException() {
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{%s in %s failed: %s}", server, rack, exception);
+    }
+}
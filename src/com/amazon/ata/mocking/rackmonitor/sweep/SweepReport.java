@@ -0,0 +1,88 @@
+package com.amazon.ata.mocking.rackmonitor.sweep;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summarizes a sweep over many Racks: the total wall-clock time,
+ * the latency of each Rack, and every failure encountered.
+ */
+public class SweepReport {
+    private final long wallClockNanos;
+    private final Map<Rack, Long> rackLatencyNanos;
+    private final List<SweepFailure> failures;
+    private final int serversChecked;
+
+    /**
+     * Builds a report from the results of each Rack in the sweep.
+     * @param wallClockNanos How long the whole sweep took.
+     * @param rackResults The result of sweeping each Rack.
+     */
+    public SweepReport(long wallClockNanos, List<RackSweepResult> rackResults) {
+        Map<Rack, Long> latencies = new HashMap<>();
+        List<SweepFailure> allFailures = new ArrayList<>();
+        int checked = 0;
+        for (RackSweepResult result : rackResults) {
+            latencies.put(result.getRack(), result.getLatencyNanos());
+            allFailures.addAll(result.getFailures());
+            checked += result.getServersChecked();
+        }
+
+        this.wallClockNanos = wallClockNanos;
+        this.rackLatencyNanos = Collections.unmodifiableMap(latencies);
+        this.failures = Collections.unmodifiableList(allFailures);
+        this.serversChecked = checked;
+    }
+
+    public long getWallClockNanos() {
+        return wallClockNanos;
+    }
+
+    /**
+     * Returns how long each Rack took to sweep, in nanoseconds.
+     * @return a Map of the latency of each Rack in the sweep.
+     */
+    public Map<Rack, Long> getRackLatencyNanos() {
+        return rackLatencyNanos;
+    }
+
+    /**
+     * Returns the latency of the slowest Rack in the sweep.
+     * @return the largest per-Rack latency, in nanoseconds; 0 if
+     *         no Racks were swept.
+     */
+    public long getMaxRackLatencyNanos() {
+        long max = 0;
+        for (long latency : rackLatencyNanos.values()) {
+            max = Math.max(max, latency);
+        }
+        return max;
+    }
+
+    public List<SweepFailure> getFailures() {
+        return failures;
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    public int getServersChecked() {
+        return serversChecked;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{%d racks, %d servers in %d ms (slowest rack %d ms), %d failures}",
+            rackLatencyNanos.size(), serversChecked,
+            TimeUnit.NANOSECONDS.toMillis(wallClockNanos),
+            TimeUnit.NANOSECONDS.toMillis(getMaxRackLatencyNanos()),
+            failures.size());
+    }
+}
@@ -0,0 +1,89 @@
+package com.amazon.ata.mocking.rackmonitor.telemetry;
+
+/**
+ * Turns a Server's recent telemetry into a health between 0.0 (failed)
+ * and 1.0 (perfectly healthy).
+ *
+ * Health is a weighted sum of three scores, each from 0.0 to 1.0:
+ * temperature and power draw score 1.0 at or below their nominal level
+ * and fall linearly to 0.0 at their maximum, and age scores 1.0 when
+ * new and falls linearly to 0.0 at the rated service life. A Server
+ * with no telemetry scores NaN, which fails every threshold comparison.
+ *
+ * Scoring is branch-free arithmetic, so scoring a whole Rack is a
+ * straight loop over primitive arrays that the JIT can vectorize.
+ */
+public class HealthScorer {
+    private final double nominalTemperature;
+    private final double temperatureRange;
+    private final double nominalPower;
+    private final double powerRange;
+    private final double ratedHours;
+    private final double temperatureWeight;
+    private final double powerWeight;
+    private final double ageWeight;
+
+    /**
+     * Constructs a HealthScorer.
+     * @param nominalTemperature The highest temperature, in Celsius,
+     *                           that costs no health.
+     * @param maxTemperature The temperature at which a Server has no
+     *                       health left.
+     * @param nominalPower The highest power draw, in watts, that costs
+     *                     no health.
+     * @param maxPower The power draw at which a Server has no health left.
+     * @param ratedHours The Server's rated service life, in hours.
+     * @param temperatureWeight How much temperature counts.
+     * @param powerWeight How much power draw counts.
+     * @param ageWeight How much age counts.
+     */
+    public HealthScorer(double nominalTemperature, double maxTemperature,
+                        double nominalPower, double maxPower, double ratedHours,
+                        double temperatureWeight, double powerWeight, double ageWeight) {
+        if (!(maxTemperature > nominalTemperature) || !(maxPower > nominalPower) || !(ratedHours > 0)) {
+            throw new IllegalArgumentException("Maximums must be above nominals, and ratedHours positive!");
+        }
+        double totalWeight = temperatureWeight + powerWeight + ageWeight;
+        if (temperatureWeight < 0 || powerWeight < 0 || ageWeight < 0 || !(totalWeight > 0)) {
+            throw new IllegalArgumentException("Weights must not be negative, and not all zero!");
+        }
+        this.nominalTemperature = nominalTemperature;
+        this.temperatureRange = maxTemperature - nominalTemperature;
+        this.nominalPower = nominalPower;
+        this.powerRange = maxPower - nominalPower;
+        this.ratedHours = ratedHours;
+        // Normalized, so health stays between 0.0 and 1.0
+        this.temperatureWeight = temperatureWeight / totalWeight;
+        this.powerWeight = powerWeight / totalWeight;
+        this.ageWeight = ageWeight / totalWeight;
+    }
+
+    /**
+     * Creates a HealthScorer for typical data center servers: nominal
+     * at 35C and 300W, failed at 85C and 600W, rated for five years,
+     * with temperature counting most.
+     * @return the default HealthScorer.
+     */
+    public static HealthScorer defaults() {
+        return new HealthScorer(35, 85, 300, 600, 5 * 365 * 24, 0.5, 0.3, 0.2);
+    }
+
+    /**
+     * Scores a single Server.
+     * @param meanTemperature The Server's recent mean temperature.
+     * @param meanPower The Server's recent mean power draw.
+     * @param uptimeHours How long the Server has been in service.
+     * @return the Server's health, or NaN if any input is NaN.
+     */
+    public double score(double meanTemperature, double meanPower, double uptimeHours) {
+        double temperature = clamp(1 - (meanTemperature - nominalTemperature) / temperatureRange);
+        double power = clamp(1 - (meanPower - nominalPower) / powerRange);
+        double age = clamp(1 - uptimeHours / ratedHours);
+        return temperatureWeight * temperature + powerWeight * power + ageWeight * age;
+    }
+
+    // Math.min and Math.max pass NaN through, so no telemetry stays NaN
+    private static double clamp(double score) {
+        return Math.min(1.0, Math.max(0.0, score));
+    }
+}
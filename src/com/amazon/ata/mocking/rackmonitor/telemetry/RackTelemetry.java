@@ -0,0 +1,146 @@
+package com.amazon.ata.mocking.rackmonitor.telemetry;
+
+import java.util.Arrays;
+
+/**
+ * The recent telemetry of every Server in a Rack: a ring buffer of the
+ * last few temperature and power samples for each unit slot, plus each
+ * Server's uptime.
+ *
+ * Samples are kept in flat primitive arrays, one row per unit slot,
+ * and each unit's window sums are kept up to date as samples arrive.
+ * Scoring the whole Rack is then one pass over per-unit arrays, with
+ * no work per sample in the window and no allocation.
+ *
+ * Telemetry is recorded and scored under the Rack's telemetry lock;
+ * each is brief, so recording threads and sweeps barely contend.
+ */
+public class RackTelemetry {
+    private final int units;
+    private final int window;
+
+    // Row u holds unit u's samples: [u * window, (u + 1) * window)
+    private final float[] temperatures;
+    private final float[] powers;
+    private final int[] next;
+    private final int[] counts;
+    private final double[] temperatureSums;
+    private final double[] powerSums;
+    private final double[] uptimeHours;
+
+    /**
+     * Constructs an empty RackTelemetry.
+     * @param units How many unit slots the Rack has.
+     * @param window How many recent samples to keep for each Server.
+     */
+    public RackTelemetry(int units, int window) {
+        if (units < 0 || window < 1) {
+            throw new IllegalArgumentException("units must not be negative, and window must be positive!");
+        }
+        this.units = units;
+        this.window = window;
+        this.temperatures = new float[units * window];
+        this.powers = new float[units * window];
+        this.next = new int[units];
+        this.counts = new int[units];
+        this.temperatureSums = new double[units];
+        this.powerSums = new double[units];
+        this.uptimeHours = new double[units];
+    }
+
+    /**
+     * Records a sample for the Server in a unit slot, pushing its oldest
+     * sample out of the window once the window is full.
+     * @param unit The unit slot.
+     * @param temperature The Server's temperature, in Celsius.
+     * @param power The Server's power draw, in watts.
+     * @param serverUptimeHours How long the Server has been in service.
+     */
+    public synchronized void record(int unit, double temperature, double power, double serverUptimeHours) {
+        if (unit < 0 || unit >= units) {
+            throw new IndexOutOfBoundsException(String.format("No unit slot %d in a %d-unit rack", unit, units));
+        }
+        int slot = unit * window + next[unit];
+        if (counts[unit] == window) {
+            temperatureSums[unit] -= temperatures[slot];
+            powerSums[unit] -= powers[slot];
+        } else {
+            counts[unit]++;
+        }
+        temperatures[slot] = (float) temperature;
+        powers[slot] = (float) power;
+        temperatureSums[unit] += temperatures[slot];
+        powerSums[unit] += powers[slot];
+        uptimeHours[unit] = serverUptimeHours;
+
+        next[unit]++;
+        if (next[unit] == window) {
+            next[unit] = 0;
+            // Once a lap, resum the window so rounding errors can't build up
+            resum(unit);
+        }
+    }
+
+    /**
+     * Scores every unit slot in one pass.
+     * @param scorer How to turn telemetry into health.
+     * @param health Receives each unit's health, or NaN for a unit with
+     *               no telemetry; must have room for every unit.
+     */
+    public synchronized void score(HealthScorer scorer, double[] health) {
+        for (int unit = 0; unit < units; unit++) {
+            // A unit with no samples divides zero by zero, and scores NaN
+            health[unit] = scorer.score(temperatureSums[unit] / counts[unit], powerSums[unit] / counts[unit],
+                uptimeHours[unit]);
+        }
+    }
+
+    /**
+     * Scores a single unit slot.
+     * @param scorer How to turn telemetry into health.
+     * @param unit The unit slot.
+     * @return the unit's health, or NaN if it has no telemetry.
+     */
+    public synchronized double score(HealthScorer scorer, int unit) {
+        return scorer.score(temperatureSums[unit] / counts[unit], powerSums[unit] / counts[unit], uptimeHours[unit]);
+    }
+
+    /**
+     * Returns how many samples are in a unit's window.
+     * @param unit The unit slot.
+     * @return the number of samples, up to the window size.
+     */
+    public synchronized int getSampleCount(int unit) {
+        return counts[unit];
+    }
+
+    /**
+     * Forgets every sample, as when a Rack's Servers are swapped out.
+     */
+    public synchronized void clear() {
+        Arrays.fill(next, 0);
+        Arrays.fill(counts, 0);
+        Arrays.fill(temperatureSums, 0);
+        Arrays.fill(powerSums, 0);
+        Arrays.fill(uptimeHours, 0);
+    }
+
+    public int getUnitCount() {
+        return units;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    private void resum(int unit) {
+        double temperatureSum = 0;
+        double powerSum = 0;
+        for (int slot = unit * window; slot < (unit + 1) * window; slot++) {
+            temperatureSum += temperatures[slot];
+            powerSum += powers[slot];
+        }
+        temperatureSums[unit] = temperatureSum;
+        powerSums[unit] = powerSum;
+    }
+}
@@ -0,0 +1,116 @@
+package com.amazon.ata.mocking.rackmonitor.telemetry;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A stand-in telemetry collector for tests and benchmarks. Each tick
+ * records one temperature and power sample for every Server in a
+ * fleet, straight into its Rack's telemetry.
+ *
+ * Healthy Servers run near 30C and 250W. A seeded, fixed share of the
+ * Servers are degraded and run hot, near 70C and 450W, so they fall
+ * below the usual thresholds once their windows fill. Every Server
+ * starts somewhere in its first two years of service and ages an hour
+ * each tick.
+ */
+public class SyntheticTelemetry {
+    private static final double HEALTHY_TEMPERATURE = 30;
+    private static final double HEALTHY_POWER = 250;
+    private static final double DEGRADED_TEMPERATURE = 70;
+    private static final double DEGRADED_POWER = 450;
+    private static final double STARTING_HOURS = 2 * 365 * 24;
+
+    private final RackTelemetry[] telemetry;
+    private final int[] units;
+    private final boolean[] degraded;
+    private final double[] uptimeHours;
+    private final SplittableRandom random;
+
+    /**
+     * Constructs a SyntheticTelemetry.
+     * @param racks The fleet to record telemetry for.
+     * @param degradedRatio The share of Servers, from 0.0 to 1.0, that
+     *                      run hot.
+     * @param seed Seeds which Servers are degraded and each sample's
+     *             noise, so runs repeat.
+     */
+    public SyntheticTelemetry(Collection<Rack> racks, double degradedRatio, long seed) {
+        if (!(degradedRatio >= 0 && degradedRatio <= 1)) {
+            throw new IllegalArgumentException("degradedRatio must be between 0.0 and 1.0!");
+        }
+        List<RackTelemetry> telemetryList = new ArrayList<>();
+        List<Integer> unitList = new ArrayList<>();
+        for (Rack rack : racks) {
+            for (int unit = 0; unit < rack.getNumUnits(); unit++) {
+                if (rack.getServerForUnit(unit) != null) {
+                    telemetryList.add(rack.getTelemetry());
+                    unitList.add(unit);
+                }
+            }
+        }
+        this.random = new SplittableRandom(seed);
+        this.telemetry = telemetryList.toArray(new RackTelemetry[0]);
+        this.units = new int[unitList.size()];
+        this.degraded = new boolean[unitList.size()];
+        this.uptimeHours = new double[unitList.size()];
+        for (int n = 0; n < units.length; n++) {
+            units[n] = unitList.get(n);
+            degraded[n] = random.nextDouble() < degradedRatio;
+            uptimeHours[n] = random.nextDouble() * STARTING_HOURS;
+        }
+    }
+
+    /**
+     * Records one sample for every Server. Only one thread should tick
+     * a SyntheticTelemetry at once.
+     */
+    public void tick() {
+        for (int n = 0; n < units.length; n++) {
+            double temperature = degraded[n] ? DEGRADED_TEMPERATURE : HEALTHY_TEMPERATURE;
+            double power = degraded[n] ? DEGRADED_POWER : HEALTHY_POWER;
+            uptimeHours[n] += 1;
+            telemetry[n].record(units[n], temperature + noise(2), power + noise(15), uptimeHours[n]);
+        }
+    }
+
+    /**
+     * Records several samples for every Server, as after a long enough
+     * run for their windows to fill.
+     * @param ticks How many samples to record for each Server.
+     */
+    public void tick(int ticks) {
+        for (int n = 0; n < ticks; n++) {
+            tick();
+        }
+    }
+
+    /**
+     * Returns whether a Server was chosen to run hot.
+     * @param rack The Server's Rack.
+     * @param unit The Server's unit slot.
+     * @return true if the Server is degraded.
+     */
+    public boolean isDegraded(Rack rack, int unit) {
+        RackTelemetry rackTelemetry = rack.getTelemetry();
+        for (int n = 0; n < units.length; n++) {
+            if (telemetry[n] == rackTelemetry && units[n] == unit) {
+                return degraded[n];
+            }
+        }
+        throw new IllegalArgumentException(String.format("No server in unit %d of %s", unit, rack));
+    }
+
+    public int getServerCount() {
+        return units.length;
+    }
+
+    // Roughly normal, with the given standard deviation
+    private double noise(double deviation) {
+        return (random.nextDouble() + random.nextDouble() + random.nextDouble() - 1.5) * 2 * deviation;
+    }
+}
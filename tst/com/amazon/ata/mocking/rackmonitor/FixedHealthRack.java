@@ -0,0 +1,60 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A Rack for tests whose Servers report health set by the test, one
+ * Server per unit slot in the order given. Every Server starts
+ * perfectly healthy.
+ */
+public class FixedHealthRack extends Rack {
+    private final Map<Server, Double> health;
+
+    /**
+     * Constructs a FixedHealthRack.
+     * @param rackId The ID of the Rack.
+     * @param serverIds The IDs of the Servers in units 0, 1, 2, ...
+     */
+    public FixedHealthRack(String rackId, String... serverIds) {
+        this(rackId, unitMapOf(serverIds), new ConcurrentHashMap<>());
+    }
+
+    private FixedHealthRack(String rackId, Map<Server, Integer> unitMap, Map<Server, Double> health) {
+        super(rackId, unitMap, health::get);
+        this.health = health;
+        setAll(1.0);
+    }
+
+    /**
+     * Sets the health of one Server.
+     * @param serverId The Server's ID.
+     * @param serverHealth Its new health.
+     */
+    public void set(String serverId, double serverHealth) {
+        Server server = new Server(serverId);
+        if (!health.containsKey(server)) {
+            throw new IllegalArgumentException("No server " + serverId);
+        }
+        health.put(server, serverHealth);
+    }
+
+    /**
+     * Sets the health of every Server.
+     * @param serverHealth Their new health.
+     */
+    public void setAll(double serverHealth) {
+        for (int unit = 0; unit < getNumUnits(); unit++) {
+            health.put(getServerForUnit(unit), serverHealth);
+        }
+    }
+
+    private static Map<Server, Integer> unitMapOf(String[] serverIds) {
+        Map<Server, Integer> unitMap = new HashMap<>();
+        for (int unit = 0; unit < serverIds.length; unit++) {
+            unitMap.put(new Server(serverIds[unit]), unit);
+        }
+        return unitMap;
+    }
+}
@@ -0,0 +1,70 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutServiceException;
+import com.amazon.ata.mocking.rackmonitor.sweep.SweepFailure;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RackMonitorAsyncEscalationTest {
+    RackMonitor rackMonitor;
+    FixedHealthRack rack = new FixedHealthRack("RACK01", "SRV0001", "SRV0002");
+    RecordingWingnutClient wingnutClient = new SlowReplacementWingnutClient();
+    ExecutorService executor = Executors.newFixedThreadPool(1);
+
+    @BeforeEach
+    void setUp() {
+        WarrantyClient warrantyClient = new WarrantyClient(server -> Warranty.nullWarranty());
+        rackMonitor = new RackMonitor(Collections.singleton(rack), wingnutClient, warrantyClient, 0.9D, 0.8D);
+        rackMonitor.getInspectBulkhead().setMaxConcurrentCalls(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void monitorRacksAsync_escalatesWhileInspectBulkheadIsFull_cancelsWithoutHanging() throws Exception {
+        // GIVEN
+        rack.set("SRV0001", 0.85);
+        rackMonitor.monitorRacksAsync(executor).get(5, TimeUnit.SECONDS);
+
+        // WHEN
+        rack.set("SRV0001", 0.5);
+        rack.set("SRV0002", 0.85);
+        List<SweepFailure> failures = rackMonitor.monitorRacksAsync(executor).get(5, TimeUnit.SECONDS);
+
+        // THEN
+        assertTrue(failures.isEmpty(), "Every request should have been filed!");
+        List<String> requests = wingnutClient.getRequests();
+        assertTrue(requests.contains("CANCEL SRV0001"), "The superseded inspection should be cancelled!");
+        assertTrue(requests.contains("INSPECT SRV0002"));
+        assertEquals(1, rackMonitor.getMetricsSnapshot().getCounter(RackMonitor.ESCALATED));
+    }
+
+    // Holds the executor's only thread long enough for the sweep to queue its INSPECT
+    private static class SlowReplacementWingnutClient extends RecordingWingnutClient {
+        @Override
+        public void requestReplacement(Rack rack, int unit, Warranty warranty) throws WingnutServiceException {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.requestReplacement(rack, unit, warranty);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyNotFoundException;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutServiceException;
+import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorDependencyException;
+import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorException;
+import com.amazon.ata.mocking.rackmonitor.sweep.SweepFailure;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class RackMonitorAsyncTest {
+    RackMonitor rackMonitor;
+    @Mock
+    WingnutClient wingnutClient;
+    @Mock
+    WarrantyClient warrantyClient;
+    @Mock
+    Rack rack;
+    // Runs every async call on the calling thread, so the test is deterministic
+    Executor directExecutor = Runnable::run;
+    Server unhealthyServer = new Server("TEST0001");
+    Server shakyServer = new Server("TEST0002");
+    Map<Server, Double> serverHealth = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        initMocks(this);
+        serverHealth.put(unhealthyServer, 0.5D);
+        serverHealth.put(shakyServer, 0.85D);
+        when(rack.getHealth()).thenReturn(serverHealth);
+        when(rack.getUnitForServer(unhealthyServer)).thenReturn(1);
+        when(rack.getUnitForServer(shakyServer)).thenReturn(2);
+        when(wingnutClient.requestInspectionAsync(rack, 2, directExecutor))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        rackMonitor = new RackMonitor(new HashSet<>(Arrays.asList(rack)),
+            wingnutClient, warrantyClient, 0.9D, 0.8D);
+    }
+
+    @Test
+    public void monitorRacksAsync_withUnhealthyAndShakyServers_filesBothRequests() throws Exception {
+        // GIVEN
+        when(warrantyClient.getWarrantyForServerAsync(unhealthyServer, directExecutor))
+            .thenReturn(CompletableFuture.completedFuture(Warranty.nullWarranty()));
+        when(wingnutClient.requestReplacementAsync(rack, 1, Warranty.nullWarranty(), directExecutor))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+        // WHEN
+        List<SweepFailure> failures = rackMonitor.monitorRacksAsync(directExecutor).get();
+
+        // THEN
+        verify(wingnutClient).requestReplacementAsync(rack, 1, Warranty.nullWarranty(), directExecutor);
+        verify(wingnutClient).requestInspectionAsync(rack, 2, directExecutor);
+        assertTrue(failures.isEmpty(), "Successful requests should report no failures!");
+        assertEquals(2, rackMonitor.getIncidents().size());
+    }
+
+    @Test
+    public void monitorRacksAsync_withUnwarrantiedServer_reportsRackMonitorException() throws Exception {
+        // GIVEN
+        CompletableFuture<Warranty> noWarranty = new CompletableFuture<>();
+        noWarranty.completeExceptionally(new WarrantyNotFoundException());
+        when(warrantyClient.getWarrantyForServerAsync(unhealthyServer, directExecutor)).thenReturn(noWarranty);
+
+        // WHEN
+        List<SweepFailure> failures = rackMonitor.monitorRacksAsync(directExecutor).get();
+
+        // THEN
+        assertEquals(1, failures.size());
+        assertEquals(unhealthyServer, failures.get(0).getServer());
+        assertTrue(failures.get(0).getException() instanceof RackMonitorException,
+            "A server with no warranty should be reported as a RackMonitorException!");
+        assertEquals(1, rackMonitor.getIncidents().size(), "Only the INSPECT should be remembered!");
+    }
+
+    @Test
+    public void monitorRacksAsync_withWingnutFailure_reportsDependencyException() throws Exception {
+        // GIVEN
+        CompletableFuture<Void> wingnutDown = new CompletableFuture<>();
+        wingnutDown.completeExceptionally(new WingnutServiceException());
+        when(warrantyClient.getWarrantyForServerAsync(unhealthyServer, directExecutor))
+            .thenReturn(CompletableFuture.completedFuture(Warranty.nullWarranty()));
+        when(wingnutClient.requestReplacementAsync(rack, 1, Warranty.nullWarranty(), directExecutor)).thenReturn(wingnutDown);
+
+        // WHEN
+        List<SweepFailure> failures = rackMonitor.monitorRacksAsync(directExecutor).get();
+
+        // THEN
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0).getException() instanceof RackMonitorDependencyException,
+            "A Wingnut failure should be reported as a dependency failure!");
+    }
+}
@@ -0,0 +1,111 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutServiceException;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WorkOrder;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WorkOrderResult;
+import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorDependencyException;
+import com.amazon.ata.mocking.rackmonitor.sweep.SweepFailure;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class RackMonitorBatchTest {
+    RackMonitor rackMonitor;
+    @Mock
+    WingnutClient wingnutClient;
+    @Mock
+    WarrantyClient warrantyClient;
+    @Mock
+    Rack rack;
+    Server unhealthyServer = new Server("TEST0001");
+    Server shakyServer = new Server("TEST0002");
+    Map<Server, Double> serverHealth = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        initMocks(this);
+        serverHealth.put(unhealthyServer, 0.5D);
+        serverHealth.put(shakyServer, 0.85D);
+        when(rack.getHealth()).thenReturn(serverHealth);
+        when(rack.getUnitForServer(unhealthyServer)).thenReturn(1);
+        when(rack.getUnitForServer(shakyServer)).thenReturn(2);
+        when(warrantyClient.getWarrantyForServer(unhealthyServer)).thenReturn(Warranty.nullWarranty());
+        rackMonitor = new RackMonitor(new HashSet<>(Arrays.asList(rack)),
+            wingnutClient, warrantyClient, 0.9D, 0.8D);
+    }
+
+    @Test
+    public void monitorRacks_withBatcher_submitsOneBatchAndRecordsIncidents() throws Exception {
+        // GIVEN
+        // Wingnut accepts every work order
+        when(wingnutClient.submitWorkOrders(any())).thenAnswer(invocation -> {
+            List<WorkOrder> orders = invocation.getArgument(0);
+            List<WorkOrderResult> results = new ArrayList<>();
+            for (WorkOrder order : orders) {
+                results.add(WorkOrderResult.succeeded(order));
+            }
+            return results;
+        });
+
+        // WHEN
+        List<SweepFailure> failures = rackMonitor.monitorRacks(rackMonitor.newWorkOrderBatcher(10, 60_000L));
+
+        // THEN
+        verify(wingnutClient, times(1)).submitWorkOrders(any());
+        verify(wingnutClient, never()).requestReplacement(any(), anyInt(), any());
+        assertTrue(failures.isEmpty(), "A successful batch should report no failures!");
+        assertEquals(2, rackMonitor.getIncidents().size(), "Both incidents should be remembered!");
+        assertEquals(1, rackMonitor.getMetricsSnapshot().getHistogram(RackMonitor.WINGNUT_REPLACE_LATENCY).getCount(),
+            "The batch should be timed like a replacement!");
+        assertEquals(1,
+            rackMonitor.getMetricsSnapshot().getHistogram(RackMonitor.WINGNUT_REPLACE_QUEUE_DELAY).getCount());
+    }
+
+    @Test
+    public void monitorRacks_withPartialBatchFailure_recordsOnlySuccessfulIncidents() throws Exception {
+        // GIVEN
+        // Wingnut rejects the INSPECT order only
+        when(wingnutClient.submitWorkOrders(any())).thenAnswer(invocation -> {
+            List<WorkOrder> orders = invocation.getArgument(0);
+            List<WorkOrderResult> results = new ArrayList<>();
+            for (WorkOrder order : orders) {
+                results.add(order.getAction() == RequestAction.INSPECT ?
+                    WorkOrderResult.failed(order, new WingnutServiceException()) :
+                    WorkOrderResult.succeeded(order));
+            }
+            return results;
+        });
+
+        // WHEN
+        List<SweepFailure> failures = rackMonitor.monitorRacks(rackMonitor.newWorkOrderBatcher(10, 60_000L));
+
+        // THEN
+        assertEquals(1, failures.size(), "The rejected INSPECT should be reported!");
+        assertEquals(shakyServer, failures.get(0).getServer());
+        assertTrue(failures.get(0).getException() instanceof RackMonitorDependencyException);
+        assertEquals(1, rackMonitor.getIncidents().size(), "Only the accepted incident should be remembered!");
+        assertTrue(rackMonitor.getIncidents().contains(
+            new HealthIncident(unhealthyServer, rack, 1, RequestAction.REPLACE)));
+    }
+}
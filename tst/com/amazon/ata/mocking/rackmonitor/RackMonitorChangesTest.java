@@ -0,0 +1,75 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutServiceException;
+import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorDependencyException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class RackMonitorChangesTest {
+    RackMonitor rackMonitor;
+    @Mock
+    WingnutClient wingnutClient;
+    @Mock
+    WarrantyClient warrantyClient;
+    @Mock
+    Rack rack;
+    Server shakyServer = new Server("TEST0001");
+
+    @BeforeEach
+    void setUp() throws Exception {
+        initMocks(this);
+        when(rack.getUnitForServer(shakyServer)).thenReturn(1);
+        rackMonitor = new RackMonitor(new HashSet<>(Arrays.asList(rack)),
+            wingnutClient, warrantyClient, 0.9D, 0.8D);
+    }
+
+    @Test
+    public void monitorRackChanges_calledTwice_asksOnlyForNewChanges() throws Exception {
+        // GIVEN
+        // The first delta has a shaky server; nothing changes after that
+        when(rack.getHealthChanges(0L, 0.9D))
+            .thenReturn(new HealthDelta(1L, Collections.singletonMap(shakyServer, 0.85D)));
+        when(rack.getHealthChanges(1L, 0.9D))
+            .thenReturn(new HealthDelta(2L, Collections.emptyMap()));
+
+        // WHEN
+        rackMonitor.monitorRackChanges();
+        rackMonitor.monitorRackChanges();
+
+        // THEN
+        verify(wingnutClient).requestInspection(rack, 1);
+        verify(rack).getHealthChanges(1L, 0.9D);
+    }
+
+    @Test
+    public void monitorRackChanges_afterFailure_asksForSameChangesAgain() throws Exception {
+        // GIVEN
+        // Wingnut fails the first time
+        when(rack.getHealthChanges(0L, 0.9D))
+            .thenReturn(new HealthDelta(1L, Collections.singletonMap(shakyServer, 0.85D)));
+        doThrow(WingnutServiceException.class).when(wingnutClient).requestInspection(rack, 1);
+        assertThrows(RackMonitorDependencyException.class, () -> rackMonitor.monitorRackChanges());
+
+        // WHEN
+        assertThrows(RackMonitorDependencyException.class, () -> rackMonitor.monitorRackChanges());
+
+        // THEN
+        // Both sweeps asked from the beginning, so the failure would be retried
+        verify(rack, times(2)).getHealthChanges(0L, 0.9D);
+    }
+}
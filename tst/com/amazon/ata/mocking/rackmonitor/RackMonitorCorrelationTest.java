@@ -0,0 +1,211 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WorkOrder;
+import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorDependencyException;
+import com.amazon.ata.mocking.rackmonitor.incidents.ConcurrentIncidentStore;
+import com.amazon.ata.mocking.rackmonitor.incidents.IncidentStore;
+import com.amazon.ata.mocking.rackmonitor.incidents.LifecycleIncidentStore;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RackMonitorCorrelationTest {
+    static final int SERVERS = 10;
+
+    RackMonitor rackMonitor;
+    FixedHealthRack rack;
+    RecordingWingnutClient wingnutClient = new RecordingWingnutClient();
+    int warrantyLookups;
+
+    @BeforeEach
+    void setUp() {
+        String[] serverIds = new String[SERVERS];
+        for (int unit = 0; unit < SERVERS; unit++) {
+            serverIds[unit] = "SRV000" + unit;
+        }
+        rack = new FixedHealthRack("RACK01", serverIds);
+        WarrantyClient warrantyClient = new WarrantyClient(server -> {
+            warrantyLookups++;
+            return Warranty.nullWarranty();
+        });
+        rackMonitor = new RackMonitor(Collections.singleton(rack), wingnutClient, warrantyClient, 0.9D, 0.8D);
+        rackMonitor.getRackFailureDetector().setThresholds(0.8, 4);
+    }
+
+    @Test
+    public void monitorRacks_wholeRackFailed_filesOneRackIncident() throws Exception {
+        // GIVEN
+        rack.setAll(0.1);
+
+        // WHEN
+        rackMonitor.monitorRacks();
+
+        // THEN
+        assertEquals(List.of("RACK RACK01"), wingnutClient.getRequests());
+        assertEquals(0, warrantyLookups);
+        assertEquals(Collections.singleton(rack), rackMonitor.getFailedRacks());
+        assertEquals(1, rackMonitor.getMetricsSnapshot().getCounter(RackMonitor.RACK_INCIDENTS));
+        assertEquals(SERVERS, rackMonitor.getMetricsSnapshot().getCounter(RackMonitor.CORRELATED));
+    }
+
+    @Test
+    public void monitorRacks_rackStillFailed_doesNotRepeatRackIncident() throws Exception {
+        // GIVEN
+        rack.setAll(0.1);
+        rackMonitor.monitorRacks();
+
+        // WHEN
+        rackMonitor.monitorRacks(new HealthReport());
+
+        // THEN
+        assertEquals(List.of("RACK RACK01"), wingnutClient.getRequests());
+    }
+
+    @Test
+    public void monitorRacks_fewServersFailed_handlesEachServer() throws Exception {
+        // GIVEN
+        rack.setAll(1.0);
+        rack.set("SRV0003", 0.1);
+        rack.set("SRV0004", 0.85);
+
+        // WHEN
+        rackMonitor.monitorRacks(new HealthReport());
+
+        // THEN
+        assertEquals(2, wingnutClient.getRequests().size());
+        assertTrue(wingnutClient.getRequests().containsAll(List.of("REPLACE SRV0003", "INSPECT SRV0004")));
+        assertTrue(rackMonitor.getFailedRacks().isEmpty());
+    }
+
+    @Test
+    public void monitorRacks_rackRecovers_handlesStragglersIndividually() throws Exception {
+        // GIVEN
+        rack.setAll(0.1);
+        rackMonitor.monitorRacks();
+        rack.setAll(1.0);
+        rack.set("SRV0007", 0.1);
+
+        // WHEN
+        rackMonitor.monitorRacks();
+
+        // THEN
+        assertEquals(List.of("RACK RACK01", "REPLACE SRV0007"), wingnutClient.getRequests());
+        assertTrue(rackMonitor.getFailedRacks().isEmpty());
+    }
+
+    @Test
+    public void monitorRacks_rackIncidentFails_isRetriedNextSweep() throws Exception {
+        // GIVEN
+        rack.setAll(0.1);
+        wingnutClient.setFailing(true);
+        assertThrows(RackMonitorDependencyException.class, () -> rackMonitor.monitorRacks());
+        wingnutClient.setFailing(false);
+
+        // WHEN
+        rackMonitor.monitorRacks();
+
+        // THEN
+        assertEquals(List.of("RACK RACK01"), wingnutClient.getRequests());
+        assertEquals(Collections.singleton(rack), rackMonitor.getFailedRacks());
+    }
+
+    @Test
+    public void monitorRacks_rackStaysFailed_countsCorrelatedServersOnce() throws Exception {
+        // GIVEN
+        rack.setAll(0.1);
+        rackMonitor.monitorRacks();
+
+        // WHEN
+        rackMonitor.monitorRacks();
+        rackMonitor.monitorRacks(new HealthReport());
+
+        // THEN
+        assertEquals(SERVERS, rackMonitor.getMetricsSnapshot().getCounter(RackMonitor.CORRELATED));
+    }
+
+    @Test
+    public void monitorRacks_rackHandedOffWhileFailed_doesNotRepeatRackIncident() throws Exception {
+        // GIVEN
+        IncidentStore incidents = new ConcurrentIncidentStore();
+        WarrantyClient warrantyClient = new WarrantyClient(server -> Warranty.nullWarranty());
+        RackMonitor before = new RackMonitor(Collections.singleton(rack), wingnutClient, warrantyClient,
+            0.9D, 0.8D, incidents);
+        before.getRackFailureDetector().setThresholds(0.8, 4);
+        RackMonitor after = new RackMonitor(Collections.singleton(rack), wingnutClient, warrantyClient,
+            0.9D, 0.8D, incidents);
+        after.getRackFailureDetector().setThresholds(0.8, 4);
+        rack.setAll(0.1);
+        before.monitorRacks();
+
+        // WHEN
+        after.monitorRacks();
+        after.monitorRackChanges();
+
+        // THEN
+        assertEquals(List.of("RACK RACK01"), wingnutClient.getRequests());
+        assertEquals(Collections.singleton(rack), after.getFailedRacks());
+        assertTrue(incidents.contains(HealthIncident.forRack(rack)));
+    }
+
+    @Test
+    public void monitorRacks_rackInspectionCompleted_refilesIfStillFailed() throws Exception {
+        // GIVEN
+        LifecycleIncidentStore incidents = new LifecycleIncidentStore(new ConcurrentIncidentStore(),
+            1, 1, TimeUnit.HOURS);
+        wingnutClient.addWorkOrderListener(incidents);
+        rackMonitor = new RackMonitor(Collections.singleton(rack), wingnutClient,
+            new WarrantyClient(server -> Warranty.nullWarranty()), 0.9D, 0.8D, incidents);
+        rackMonitor.getRackFailureDetector().setThresholds(0.8, 4);
+        rack.setAll(0.1);
+        rackMonitor.monitorRacks();
+
+        // WHEN
+        wingnutClient.notifyCompleted(WorkOrder.rackInspection(rack));
+        rackMonitor.monitorRacks();
+
+        // THEN
+        assertEquals(List.of("RACK RACK01", "RACK RACK01"), wingnutClient.getRequests());
+        assertEquals(1, incidents.getResolvedCount());
+    }
+
+    @Test
+    public void monitorRackChanges_wholeRackFailed_filesOneRackIncident() throws Exception {
+        // GIVEN
+        rack.setAll(0.1);
+
+        // WHEN
+        rackMonitor.monitorRackChanges();
+        rackMonitor.monitorRackChanges();
+
+        // THEN
+        assertEquals(List.of("RACK RACK01"), wingnutClient.getRequests());
+        assertEquals(0, warrantyLookups);
+        assertEquals(Collections.singleton(rack), rackMonitor.getFailedRacks());
+    }
+
+    @Test
+    public void monitorRackChanges_rackRecovers_handlesUnchangedStragglers() throws Exception {
+        // GIVEN
+        rack.setAll(0.1);
+        rackMonitor.monitorRackChanges();
+        rack.setAll(1.0);
+        rack.set("SRV0007", 0.1);
+
+        // WHEN
+        rackMonitor.monitorRackChanges();
+
+        // THEN
+        assertEquals(List.of("RACK RACK01", "REPLACE SRV0007"), wingnutClient.getRequests());
+        assertTrue(rackMonitor.getFailedRacks().isEmpty());
+    }
+}
@@ -0,0 +1,102 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutServiceException;
+import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorDependencyException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class RackMonitorEscalationTest {
+    RackMonitor rackMonitor;
+    @Mock
+    WingnutClient wingnutClient;
+    @Mock
+    WarrantyClient warrantyClient;
+    @Mock
+    Rack rack;
+    Server server = new Server("TEST0001");
+    Map<Server, Double> healthReport = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        initMocks(this);
+        when(rack.getHealth()).thenReturn(healthReport);
+        when(rack.getUnitForServer(server)).thenReturn(1);
+        when(warrantyClient.getWarrantyForServer(server)).thenReturn(Warranty.nullWarranty());
+        rackMonitor = new RackMonitor(new HashSet<>(Arrays.asList(rack)),
+            wingnutClient, warrantyClient, 0.9D, 0.8D);
+    }
+
+    @Test
+    public void monitorRacks_shakyServerDegrades_escalatesToReplacement() throws Exception {
+        // GIVEN
+        healthReport.put(server, 0.85D);
+        rackMonitor.monitorRacks();
+
+        // WHEN
+        healthReport.put(server, 0.5D);
+        rackMonitor.monitorRacks();
+
+        // THEN
+        verify(wingnutClient).requestInspection(rack, 1);
+        verify(wingnutClient).requestReplacement(rack, 1, Warranty.nullWarranty());
+        verify(wingnutClient).cancelInspection(rack, 1);
+        assertEquals(Collections.singleton(new HealthIncident(server, rack, 1, RequestAction.REPLACE)),
+            new HashSet<>(rackMonitor.getIncidents()), "Only the REPLACE should be remembered!");
+        assertEquals(1, rackMonitor.getMetricsSnapshot().getCounter(RackMonitor.ESCALATED));
+    }
+
+    @Test
+    public void monitorRacks_replacedServerLooksShaky_doesNotInspect() throws Exception {
+        // GIVEN
+        healthReport.put(server, 0.5D);
+        rackMonitor.monitorRacks();
+
+        // WHEN
+        healthReport.put(server, 0.85D);
+        rackMonitor.monitorRacks();
+
+        // THEN
+        verify(wingnutClient).requestReplacement(rack, 1, Warranty.nullWarranty());
+        verify(wingnutClient, never()).requestInspection(rack, 1);
+        verify(warrantyClient).getWarrantyForServer(server);
+        verifyNoMoreInteractions(wingnutClient, warrantyClient);
+    }
+
+    @Test
+    public void monitorRacks_escalationFails_keepsInspection() throws Exception {
+        // GIVEN
+        healthReport.put(server, 0.85D);
+        rackMonitor.monitorRacks();
+        healthReport.put(server, 0.5D);
+        doThrow(WingnutServiceException.class).when(wingnutClient)
+            .requestReplacement(rack, 1, Warranty.nullWarranty());
+
+        // WHEN
+        assertThrows(RackMonitorDependencyException.class, () -> rackMonitor.monitorRacks());
+
+        // THEN
+        verify(wingnutClient, never()).cancelInspection(rack, 1);
+        assertEquals(Collections.singleton(new HealthIncident(server, rack, 1, RequestAction.INSPECT)),
+            new HashSet<>(rackMonitor.getIncidents()), "A failed escalation should keep the INSPECT!");
+    }
+}
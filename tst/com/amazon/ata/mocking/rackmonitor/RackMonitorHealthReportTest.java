@@ -0,0 +1,68 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutClient;
+import com.amazon.ata.mocking.rackmonitor.simulation.TestServers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class RackMonitorHealthReportTest {
+    RackMonitor rackMonitor;
+    @Mock
+    WingnutClient wingnutClient;
+    @Mock
+    WarrantyClient warrantyClient;
+    Rack rack;
+    // Test servers have a consistent health
+    Server unhealthyServer = new Server("TEST0001");    // health 0.16
+    Server shakyServer = new Server("TEST0008");        // health 0.83
+    Server healthyServer = new Server("TEST0020");      // health 0.98
+
+    @BeforeEach
+    void setUp() throws Exception {
+        initMocks(this);
+        Map<Server, Integer> unitMap = new HashMap<>();
+        unitMap.put(unhealthyServer, 3);
+        unitMap.put(shakyServer, 5);
+        unitMap.put(healthyServer, 7);
+        rack = new Rack("RACK01", unitMap, new TestServers());
+        when(warrantyClient.getWarrantyForServer(unhealthyServer)).thenReturn(Warranty.nullWarranty());
+        rackMonitor = new RackMonitor(new HashSet<>(Arrays.asList(rack)),
+            wingnutClient, warrantyClient, 0.9D, 0.8D);
+    }
+
+    @AfterEach
+    void verifyNoOtherDependencyCalls() {
+        verifyNoMoreInteractions(wingnutClient, warrantyClient);
+    }
+
+    @Test
+    public void monitorRacks_withHealthReport_filesRequestsForUnitSlots() throws Exception {
+        // GIVEN
+        HealthReport report = new HealthReport();
+
+        // WHEN
+        rackMonitor.monitorRacks(report);
+
+        // THEN
+        verify(warrantyClient).getWarrantyForServer(unhealthyServer);
+        verify(wingnutClient).requestReplacement(rack, 3, Warranty.nullWarranty());
+        verify(wingnutClient).requestInspection(rack, 5);
+        assertEquals(2, rackMonitor.getIncidents().size());
+    }
+}
@@ -0,0 +1,144 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.ingest.GeneratedHealthPublisher;
+import com.amazon.ata.mocking.rackmonitor.ingest.HealthRingBuffer;
+import com.amazon.ata.mocking.rackmonitor.sweep.SweepFailure;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RackMonitorIngestTest {
+    RackMonitor rackMonitor;
+    Rack rack;
+    Set<Rack> racks;
+    RecordingWingnutClient wingnutClient = new RecordingWingnutClient();
+    HealthRingBuffer buffer = new HealthRingBuffer(64);
+
+    @BeforeEach
+    void setUp() {
+        Map<Server, Integer> unitMap = new HashMap<>();
+        unitMap.put(new Server("SRV0001"), 0);
+        unitMap.put(new Server("SRV0002"), 1);
+        unitMap.put(new Server("SRV0003"), 2);
+        rack = new Rack("RACK01", unitMap);
+        WarrantyClient warrantyClient = new WarrantyClient(server -> Warranty.nullWarranty());
+        racks = new HashSet<>(Collections.singleton(rack));
+        rackMonitor = new RackMonitor(racks, wingnutClient, warrantyClient, 0.9D, 0.8D);
+    }
+
+    @Test
+    public void consumeHealth_unhealthySamples_filesRequestsAsTheyArrive() {
+        // GIVEN
+        buffer.publish("RACK01", "SRV0001", 0.95);
+        buffer.publish("RACK01", "SRV0002", 0.85);
+        buffer.publish("RACK01", "SRV0003", 0.5);
+
+        // WHEN
+        List<SweepFailure> failures = rackMonitor.consumeHealth(buffer, 100);
+
+        // THEN
+        assertTrue(failures.isEmpty());
+        assertEquals(List.of("INSPECT SRV0002", "REPLACE SRV0003"), wingnutClient.getRequests());
+        assertEquals(3, rackMonitor.getMetricsSnapshot().getCounter(RackMonitor.INGESTED_SAMPLES));
+    }
+
+    @Test
+    public void consumeHealth_repeatedUnhealthySamples_filesOneRequest() {
+        // GIVEN
+        GeneratedHealthPublisher publisher = new GeneratedHealthPublisher(Collections.singleton(rack),
+            server -> server.getServerId().equals("SRV0003") ? 0.1 : 1.0);
+
+        // WHEN
+        for (int round = 0; round < 5; round++) {
+            publisher.publish(buffer, publisher.getServerCount());
+            rackMonitor.consumeHealth(buffer, 100);
+        }
+
+        // THEN
+        assertEquals(List.of("REPLACE SRV0003"), wingnutClient.getRequests());
+        assertEquals(15, rackMonitor.getMetricsSnapshot().getCounter(RackMonitor.INGESTED_SAMPLES));
+    }
+
+    @Test
+    public void consumeHealth_unknownRackOrServer_countsAndSkipsSample() {
+        // GIVEN
+        buffer.publish("RACK99", "SRV0001", 0.1);
+        buffer.publish("RACK01", "SRV9999", 0.1);
+
+        // WHEN
+        List<SweepFailure> failures = rackMonitor.consumeHealth(buffer, 100);
+
+        // THEN
+        assertTrue(failures.isEmpty());
+        assertTrue(wingnutClient.getRequests().isEmpty());
+        assertEquals(2, rackMonitor.getMetricsSnapshot().getCounter(RackMonitor.UNKNOWN_SAMPLES));
+    }
+
+    @Test
+    public void consumeHealth_unknownSamplesWhileSmoothing_neverReachTheSmoother() {
+        // GIVEN
+        rackMonitor.getHealthSmoother().configure(1.0, 0.0, 1);
+        buffer.publish("RACK99", "SRV0001", 0.1);
+        buffer.publish("RACK01", "SRV9999", 0.1);
+        buffer.publish("RACK01", "SRV0003", 0.1);
+
+        // WHEN
+        rackMonitor.consumeHealth(buffer, 100);
+
+        // THEN
+        assertEquals(List.of("REPLACE SRV0003"), wingnutClient.getRequests());
+        assertEquals(1, rackMonitor.getHealthSmoother().getServerCount(), "Only monitored servers should be tracked!");
+        assertEquals(2, rackMonitor.getMetricsSnapshot().getCounter(RackMonitor.UNKNOWN_SAMPLES));
+    }
+
+    @Test
+    public void consumeHealth_wingnutFails_reportsFailureAndRetriesOnNextSample() {
+        // GIVEN
+        wingnutClient.setFailing(true);
+        buffer.publish("RACK01", "SRV0003", 0.5);
+        List<SweepFailure> failures = rackMonitor.consumeHealth(buffer, 100);
+        wingnutClient.setFailing(false);
+        buffer.publish("RACK01", "SRV0003", 0.5);
+
+        // WHEN
+        List<SweepFailure> retryFailures = rackMonitor.consumeHealth(buffer, 100);
+
+        // THEN
+        assertEquals(1, failures.size());
+        assertEquals(new Server("SRV0003"), failures.get(0).getServer());
+        assertTrue(retryFailures.isEmpty());
+        assertEquals(List.of("REPLACE SRV0003"), wingnutClient.getRequests());
+    }
+
+    @Test
+    public void consumeHealth_afterRacksChanged_followsTheCurrentRacks() {
+        // GIVEN
+        buffer.publish("RACK01", "SRV0003", 0.5);
+        rackMonitor.consumeHealth(buffer, 100);
+        Rack newRack = new Rack("RACK02", Collections.singletonMap(new Server("SRV0004"), 0));
+        racks.remove(rack);
+        racks.add(newRack);
+        rackMonitor.racksChanged();
+        buffer.publish("RACK01", "SRV0002", 0.5);
+        buffer.publish("RACK02", "SRV0004", 0.5);
+
+        // WHEN
+        rackMonitor.consumeHealth(buffer, 100);
+
+        // THEN
+        assertEquals(List.of("REPLACE SRV0003", "REPLACE SRV0004"), wingnutClient.getRequests());
+        assertEquals(1, rackMonitor.getMetricsSnapshot().getCounter(RackMonitor.UNKNOWN_SAMPLES));
+    }
+}
@@ -0,0 +1,102 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutServiceException;
+import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorDependencyException;
+import com.amazon.ata.mocking.rackmonitor.metrics.MetricsSnapshot;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class RackMonitorMetricsTest {
+    RackMonitor rackMonitor;
+    @Mock
+    WingnutClient wingnutClient;
+    @Mock
+    WarrantyClient warrantyClient;
+    @Mock
+    Rack rack;
+    Server unhealthyServer = new Server("TEST0001");
+    Server shakyServer = new Server("TEST0002");
+    Map<Server, Double> healthReport = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        initMocks(this);
+        healthReport.put(unhealthyServer, 0.7D);
+        healthReport.put(shakyServer, 0.85D);
+        when(rack.getHealth()).thenReturn(healthReport);
+        when(rack.getUnitForServer(unhealthyServer)).thenReturn(1);
+        when(rack.getUnitForServer(shakyServer)).thenReturn(2);
+        when(warrantyClient.getWarrantyForServer(unhealthyServer)).thenReturn(Warranty.nullWarranty());
+        rackMonitor = new RackMonitor(new HashSet<>(Arrays.asList(rack)),
+            wingnutClient, warrantyClient, 0.9D, 0.8D);
+    }
+
+    @Test
+    public void monitorRacks_calledTwice_recordsLatenciesAndDeduplicatedRequests() throws Exception {
+        // GIVEN
+        // A replacement and an inspection on the first sweep
+
+        // WHEN
+        rackMonitor.monitorRacks();
+        rackMonitor.monitorRacks();
+
+        // THEN
+        MetricsSnapshot snapshot = rackMonitor.getMetricsSnapshot();
+        assertEquals(2, snapshot.getHistogram(RackMonitor.SWEEP_LATENCY).getCount());
+        assertEquals(1, snapshot.getHistogram(RackMonitor.WARRANTY_LATENCY).getCount());
+        assertEquals(1, snapshot.getHistogram(RackMonitor.WINGNUT_REPLACE_LATENCY).getCount());
+        assertEquals(1, snapshot.getHistogram(RackMonitor.WINGNUT_INSPECT_LATENCY).getCount());
+        assertEquals(2, snapshot.getCounter(RackMonitor.DEDUPLICATED));
+    }
+
+    @Test
+    public void monitorRacks_wingnutRateLimited_recordsQueueDelay() throws Exception {
+        // GIVEN
+        // One token up front, then one every 100ms
+        rackMonitor.getWingnutRateLimiter().setRate(10, 1);
+
+        // WHEN
+        rackMonitor.monitorRacks();
+
+        // THEN
+        MetricsSnapshot snapshot = rackMonitor.getMetricsSnapshot();
+        long replaceDelay = snapshot.getHistogram(RackMonitor.WINGNUT_REPLACE_QUEUE_DELAY).getMax();
+        long inspectDelay = snapshot.getHistogram(RackMonitor.WINGNUT_INSPECT_QUEUE_DELAY).getMax();
+        assertTrue(Math.max(replaceDelay, inspectDelay) >= TimeUnit.MILLISECONDS.toNanos(50),
+            "The second Wingnut request should have waited for a token!");
+        assertEquals(1, snapshot.getHistogram(RackMonitor.WARRANTY_QUEUE_DELAY).getCount());
+    }
+
+    @Test
+    public void monitorRacks_wingnutFails_countsExceptionByType() throws Exception {
+        // GIVEN
+        healthReport.remove(unhealthyServer);
+        doThrow(WingnutServiceException.class).when(wingnutClient).requestInspection(rack, 2);
+
+        // WHEN
+        assertThrows(RackMonitorDependencyException.class, () -> rackMonitor.monitorRacks());
+
+        // THEN
+        MetricsSnapshot snapshot = rackMonitor.getMetricsSnapshot();
+        assertEquals(1, snapshot.getCounter("exceptions.WingnutServiceException"));
+        assertEquals(1, snapshot.getHistogram(RackMonitor.WINGNUT_INSPECT_LATENCY).getCount());
+    }
+}
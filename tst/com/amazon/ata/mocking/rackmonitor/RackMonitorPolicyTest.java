@@ -0,0 +1,59 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.policy.HealthPolicy;
+import com.amazon.ata.mocking.rackmonitor.policy.HealthRule;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RackMonitorPolicyTest {
+    RackMonitor rackMonitor;
+    FixedHealthRack rack = new FixedHealthRack("RACK01", "GPU0001", "CPU0001");
+    RecordingWingnutClient wingnutClient = new RecordingWingnutClient();
+
+    @BeforeEach
+    void setUp() {
+        // Both servers at 0.95 health
+        rack.setAll(0.95);
+        WarrantyClient warrantyClient = new WarrantyClient(server -> Warranty.nullWarranty());
+        rackMonitor = new RackMonitor(Collections.singleton(rack), wingnutClient, warrantyClient, 0.9D, 0.8D);
+    }
+
+    @Test
+    public void monitorRacks_serverClassRule_appliesItsThresholds() throws Exception {
+        // GIVEN
+        rackMonitor.setHealthPolicy(HealthPolicy.compile(
+            Collections.singletonList(HealthRule.thresholds(0.97, 0.93).forServers("GPU")), 0.9, 0.8));
+
+        // WHEN
+        rackMonitor.monitorRacks(new HealthReport());
+
+        // THEN
+        // GPU0001 at 0.95 is shaky under the GPU rule; CPU0001 at 0.95 is healthy by default
+        assertEquals(List.of("INSPECT GPU0001"), wingnutClient.getRequests());
+    }
+
+    @Test
+    public void setHealthPolicy_betweenSweeps_takesEffectOnNextSweep() throws Exception {
+        // GIVEN
+        rackMonitor.monitorRacks();
+        List<String> beforeReload = wingnutClient.getRequests();
+
+        // WHEN
+        rackMonitor.setHealthPolicy(HealthPolicy.compile(Collections.emptyList(), 0.99, 0.96));
+        rackMonitor.monitorRacks();
+
+        // THEN
+        assertTrue(beforeReload.isEmpty());
+        assertEquals(2, wingnutClient.getRequests().size());
+        assertTrue(wingnutClient.getRequests().containsAll(List.of("REPLACE GPU0001", "REPLACE CPU0001")));
+    }
+}
@@ -0,0 +1,75 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.ingest.HealthRingBuffer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RackMonitorSmoothingTest {
+    RackMonitor rackMonitor;
+    FixedHealthRack rack = new FixedHealthRack("RACK01", "SRV0001");
+    RecordingWingnutClient wingnutClient = new RecordingWingnutClient();
+
+    @BeforeEach
+    void setUp() {
+        WarrantyClient warrantyClient = new WarrantyClient(server -> Warranty.nullWarranty());
+        rackMonitor = new RackMonitor(Collections.singleton(rack), wingnutClient, warrantyClient, 0.9D, 0.8D);
+        rackMonitor.getHealthSmoother().configure(1.0, 0.0, 3);
+    }
+
+    @Test
+    public void monitorRacks_briefDips_fileNothing() throws Exception {
+        // GIVEN
+        HealthReport report = new HealthReport();
+
+        // WHEN
+        for (double health : new double[] {0.5, 0.95, 0.5, 0.5, 0.95}) {
+            rack.set("SRV0001", health);
+            rackMonitor.monitorRacks(report);
+        }
+
+        // THEN
+        assertTrue(wingnutClient.getRequests().isEmpty());
+    }
+
+    @Test
+    public void monitorRacks_sustainedCrossing_filesOnceConfirmed() throws Exception {
+        // GIVEN
+        rack.set("SRV0001", 0.5);
+        rackMonitor.monitorRacks();
+        rackMonitor.monitorRacks();
+        List<String> beforeConfirmed = wingnutClient.getRequests();
+
+        // WHEN
+        rackMonitor.monitorRacks();
+
+        // THEN
+        assertTrue(beforeConfirmed.isEmpty());
+        assertEquals(List.of("REPLACE SRV0001"), wingnutClient.getRequests());
+    }
+
+    @Test
+    public void consumeHealth_sustainedCrossing_filesOnceConfirmed() {
+        // GIVEN
+        HealthRingBuffer buffer = new HealthRingBuffer(8);
+        buffer.publish("RACK01", "SRV0001", 0.85);
+        buffer.publish("RACK01", "SRV0001", 0.95);
+        buffer.publish("RACK01", "SRV0001", 0.85);
+        buffer.publish("RACK01", "SRV0001", 0.85);
+        buffer.publish("RACK01", "SRV0001", 0.85);
+
+        // WHEN
+        rackMonitor.consumeHealth(buffer, 100);
+
+        // THEN
+        assertEquals(List.of("INSPECT SRV0001"), wingnutClient.getRequests());
+    }
+}
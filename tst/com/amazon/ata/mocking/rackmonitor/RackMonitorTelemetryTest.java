@@ -0,0 +1,64 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.telemetry.SyntheticTelemetry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RackMonitorTelemetryTest {
+    RackMonitor rackMonitor;
+    Rack rack;
+    RecordingWingnutClient wingnutClient = new RecordingWingnutClient();
+
+    @BeforeEach
+    void setUp() {
+        Map<Server, Integer> unitMap = new HashMap<>();
+        for (int n = 0; n < 10; n++) {
+            unitMap.put(new Server(String.format("SRV%04d", n)), n);
+        }
+        rack = new Rack("RACK01", unitMap);
+        WarrantyClient warrantyClient = new WarrantyClient(server -> Warranty.nullWarranty());
+        rackMonitor = new RackMonitor(Collections.singleton(rack), wingnutClient, warrantyClient, 0.9D, 0.8D);
+    }
+
+    @Test
+    public void monitorRacks_rackWithNoTelemetry_filesNothing() throws Exception {
+        // GIVEN
+        // No telemetry has been recorded for the rack
+
+        // WHEN
+        for (int n = 0; n < 5; n++) {
+            rackMonitor.monitorRacks();
+            rackMonitor.monitorRacks(new HealthReport());
+            rackMonitor.monitorRackChanges();
+        }
+
+        // THEN
+        assertTrue(wingnutClient.getRequests().isEmpty(), "Servers that haven't reported need nothing!");
+        assertTrue(rackMonitor.getIncidents().isEmpty());
+        assertTrue(rackMonitor.getMetricsSnapshot().getCounter(RackMonitor.UNREPORTED) > 0,
+            "Readings with no telemetry should be counted as unreported!");
+    }
+
+    @Test
+    public void monitorRacks_afterTelemetryArrives_filesForDegradedServers() throws Exception {
+        // GIVEN
+        rackMonitor.monitorRacks();
+        new SyntheticTelemetry(Collections.singleton(rack), 1.0, 42L).tick(Rack.TELEMETRY_WINDOW);
+
+        // WHEN
+        rackMonitor.monitorRacks();
+
+        // THEN
+        assertEquals(10, wingnutClient.getRequests().size(), "Every degraded server should be reported!");
+    }
+}
@@ -0,0 +1,234 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+import com.amazon.ata.mocking.rackmonitor.exceptions.NoSuchServerException;
+import com.amazon.ata.mocking.rackmonitor.simulation.TestServers;
+import com.amazon.ata.mocking.rackmonitor.telemetry.HealthScorer;
+import com.amazon.ata.mocking.rackmonitor.telemetry.SyntheticTelemetry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RackTest {
+    static final double WATCH_HEALTH = 0.9D;
+    Rack rack;
+    Map<Server, Integer> unitMap;
+
+    @BeforeEach
+    void setUp() {
+        // Test servers have a consistent health
+        unitMap = new HashMap<>();
+        for (int n = 0; n < 30; n++) {
+            unitMap.put(new Server(String.format("TEST%04d", n)), n);
+        }
+        rack = new Rack("RACK01", unitMap, new TestServers());
+    }
+
+    @Test
+    public void getHealthChanges_firstCall_reportsEveryWatchedServer() {
+        // GIVEN
+        Map<Server, Double> health = rack.getHealth();
+
+        // WHEN
+        HealthDelta delta = rack.getHealthChanges(0L, WATCH_HEALTH);
+
+        // THEN
+        for (Map.Entry<Server, Double> serverHealth : health.entrySet()) {
+            boolean watched = serverHealth.getValue() < WATCH_HEALTH;
+            assertEquals(watched, delta.getChanges().containsKey(serverHealth.getKey()),
+                "Only servers below the watch level should be reported!");
+        }
+        assertFalse(delta.getChanges().isEmpty(), "Some test servers should be below the watch level!");
+    }
+
+    @Test
+    public void getHealthChanges_withNoChangesSinceLastEpoch_reportsNothing() {
+        // GIVEN
+        HealthDelta first = rack.getHealthChanges(0L, WATCH_HEALTH);
+
+        // WHEN
+        HealthDelta second = rack.getHealthChanges(first.getEpoch(), WATCH_HEALTH);
+
+        // THEN
+        assertTrue(second.getChanges().isEmpty(), "Unchanged servers should not be reported again!");
+        assertTrue(second.getEpoch() > first.getEpoch(), "Each call should start a new epoch!");
+    }
+
+    @Test
+    public void getHealthChanges_fromAnOlderEpoch_reportsChangesAgain() {
+        // GIVEN
+        HealthDelta first = rack.getHealthChanges(0L, WATCH_HEALTH);
+
+        // WHEN
+        HealthDelta again = rack.getHealthChanges(0L, WATCH_HEALTH);
+
+        // THEN
+        assertEquals(first.getChanges(), again.getChanges(),
+            "A caller that didn't handle the first delta should see the same changes!");
+    }
+
+    @Test
+    public void getHealthChanges_callerWithLowerWatchLevel_doesNotHideChanges() {
+        // GIVEN
+        FixedHealthRack fixed = new FixedHealthRack("RACK02", "SRV0001", "SRV0002");
+        fixed.set("SRV0001", 0.85);
+        HealthDelta first = fixed.getHealthChanges(0L, WATCH_HEALTH);
+        fixed.set("SRV0001", 0.86);
+
+        // WHEN
+        HealthDelta other = fixed.getHealthChanges(0L, 0.5);
+        HealthDelta next = fixed.getHealthChanges(first.getEpoch(), WATCH_HEALTH);
+
+        // THEN
+        assertEquals(Collections.singletonMap(new Server("SRV0001"), 0.85), first.getChanges());
+        assertTrue(other.getChanges().isEmpty(), "Nothing fell below the other caller's watch level!");
+        assertEquals(Collections.singletonMap(new Server("SRV0001"), 0.86), next.getChanges(),
+            "Another caller's watch level shouldn't swallow the change!");
+    }
+
+    @Test
+    public void getHealthChanges_serverRecovers_reportsItOnce() {
+        // GIVEN
+        FixedHealthRack fixed = new FixedHealthRack("RACK02", "SRV0001", "SRV0002");
+        fixed.set("SRV0001", 0.5);
+        HealthDelta first = fixed.getHealthChanges(0L, WATCH_HEALTH);
+        fixed.set("SRV0001", 0.95);
+
+        // WHEN
+        HealthDelta recovered = fixed.getHealthChanges(first.getEpoch(), WATCH_HEALTH);
+        HealthDelta after = fixed.getHealthChanges(recovered.getEpoch(), WATCH_HEALTH);
+
+        // THEN
+        assertEquals(Collections.singletonMap(new Server("SRV0001"), 0.95), recovered.getChanges());
+        assertTrue(after.getChanges().isEmpty(), "A healthy server that stays healthy isn't a change!");
+    }
+
+    @Test
+    public void fillHealth_withTestServers_matchesGetHealth() {
+        // GIVEN
+        Map<Server, Double> expected = rack.getHealth();
+        HealthReport report = new HealthReport();
+
+        // WHEN
+        rack.fillHealth(report);
+
+        // THEN
+        assertEquals(30, report.getUnitCount());
+        for (int unit = 0; unit < report.getUnitCount(); unit++) {
+            Server server = report.getServer(unit);
+            assertEquals(unitMap.get(server).intValue(), unit, "Each server should be in its own unit slot!");
+            assertEquals(expected.get(server), report.getHealth(unit), 0.0D);
+        }
+    }
+
+    @Test
+    public void fillHealth_withReusedReport_clearsPreviousRack() {
+        // GIVEN
+        // A smaller rack with a gap at unit 0
+        Map<Server, Integer> smallUnitMap = new HashMap<>();
+        smallUnitMap.put(new Server("TEST0100"), 1);
+        Rack smallRack = new Rack("RACK02", smallUnitMap, new TestServers());
+        HealthReport report = new HealthReport();
+        rack.fillHealth(report);
+
+        // WHEN
+        smallRack.fillHealth(report);
+
+        // THEN
+        assertEquals(2, report.getUnitCount());
+        assertNull(report.getServer(0), "An empty slot should have no server!");
+        assertTrue(Double.isNaN(report.getHealth(0)), "An empty slot should have no health!");
+        assertEquals(new Server("TEST0100"), report.getServer(1));
+    }
+
+    @Test
+    public void getServerForUnit_forEveryServer_matchesGetUnitForServer() throws Exception {
+        // GIVEN
+        // A rack with 30 servers in units 0 to 29
+
+        // WHEN and THEN
+        assertEquals(30, rack.getNumUnits());
+        for (int unit = 0; unit < rack.getNumUnits(); unit++) {
+            Server server = rack.getServerForUnit(unit);
+            assertEquals(unit, rack.getUnitForServer(server));
+        }
+        assertNull(rack.getServerForUnit(30), "A unit beyond the rack should have no server!");
+    }
+
+    @Test
+    public void getUnitForServer_withServerNotInRack_throwsNoSuchServerException() {
+        // GIVEN
+        Server stranger = new Server("TEST9999");
+
+        // WHEN and THEN
+        assertThrows(NoSuchServerException.class, () -> rack.getUnitForServer(stranger));
+    }
+
+    @Test
+    public void fillHealth_withTelemetry_scoresFromTelemetry() {
+        // GIVEN
+        Map<Server, Integer> production = new HashMap<>();
+        for (int n = 0; n < 30; n++) {
+            production.put(new Server(String.format("SRV%05d", n)), n);
+        }
+        Rack monitored = new Rack("RACK02", production);
+        SyntheticTelemetry telemetry = new SyntheticTelemetry(Collections.singleton(monitored), 0.2, 42L);
+        telemetry.tick(Rack.TELEMETRY_WINDOW);
+        HealthReport report = new HealthReport();
+
+        // WHEN
+        monitored.fillHealth(report);
+        Map<Server, Double> health = monitored.getHealth();
+
+        // THEN
+        for (int unit = 0; unit < 30; unit++) {
+            boolean degraded = telemetry.isDegraded(monitored, unit);
+            assertEquals(degraded, report.getHealth(unit) < 0.8, "Only degraded servers should score poorly!");
+            assertEquals(report.getHealth(unit), health.get(report.getServer(unit)), 1e-9,
+                "Batch and single scoring should agree!");
+        }
+    }
+
+    @Test
+    public void fillHealth_testServerWithTelemetry_keepsTestHealth() {
+        // GIVEN
+        Map<Server, Double> before = rack.getHealth();
+        new SyntheticTelemetry(Collections.singleton(rack), 1.0, 42L).tick(5);
+        HealthReport report = new HealthReport();
+
+        // WHEN
+        rack.fillHealth(report);
+
+        // THEN
+        for (int unit = 0; unit < 30; unit++) {
+            assertEquals(before.get(report.getServer(unit)), report.getHealth(unit), 1e-9,
+                "Test servers should keep their consistent health!");
+        }
+    }
+
+    @Test
+    public void getHealth_withoutHealthSource_doesNotTreatTestIdsSpecially() {
+        // GIVEN
+        Rack production = new Rack("RACK03", unitMap);
+        new SyntheticTelemetry(Collections.singleton(production), 0.0, 42L).tick(5);
+        new SyntheticTelemetry(Collections.singleton(rack), 0.0, 42L).tick(5);
+
+        // WHEN
+        Map<Server, Double> health = production.getHealth();
+
+        // THEN
+        assertEquals(production.getTelemetry().score(HealthScorer.defaults(), 0), health.get(production.getServerForUnit(0)),
+            1e-9, "A production rack should score test ids from telemetry!");
+        assertNotEquals(rack.getHealth().get(rack.getServerForUnit(0)), health.get(production.getServerForUnit(0)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.amazon.ata.mocking.rackmonitor;
+
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutServiceException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A WingnutClient for tests that records the requests it's sent, in
+ * order, as "REPLACE SRV0001", "INSPECT SRV0001", "CANCEL SRV0001" or
+ * "RACK RACK01". It can be told to fail every request, or only those
+ * for one Server.
+ */
+public class RecordingWingnutClient extends WingnutClient {
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean failing;
+    private volatile String failFor;
+
+    @Override
+    public void requestReplacement(Rack rack, int unit, Warranty warranty) throws WingnutServiceException {
+        record("REPLACE", rack, unit);
+    }
+
+    @Override
+    public void requestInspection(Rack rack, int unit) throws WingnutServiceException {
+        record("INSPECT", rack, unit);
+    }
+
+    @Override
+    public void cancelInspection(Rack rack, int unit) throws WingnutServiceException {
+        record("CANCEL", rack, unit);
+    }
+
+    @Override
+    public void requestRackInspection(Rack rack) throws WingnutServiceException {
+        record("RACK " + rack.getRackId(), null);
+    }
+
+    /**
+     * Returns the requests recorded so far.
+     * @return a copy of the requests, in the order they were made.
+     */
+    public List<String> getRequests() {
+        synchronized (requests) {
+            return new ArrayList<>(requests);
+        }
+    }
+
+    /**
+     * Makes every request fail, or stops them failing.
+     * @param failing Whether requests should fail.
+     */
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    /**
+     * Makes every request for one Server fail.
+     * @param serverId The Server's ID, or null for none.
+     */
+    public void setFailFor(String serverId) {
+        this.failFor = serverId;
+    }
+
+    private void record(String action, Rack rack, int unit) throws WingnutServiceException {
+        String serverId = rack.getServerForUnit(unit).getServerId();
+        record(action + " " + serverId, serverId);
+    }
+
+    private void record(String request, String serverId) throws WingnutServiceException {
+        if (failing || serverId != null && serverId.equals(failFor)) {
+            throw new WingnutServiceException("Wingnut is down");
+        }
+        requests.add(request);
+    }
+}
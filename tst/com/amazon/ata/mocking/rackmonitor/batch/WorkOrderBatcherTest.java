@@ -0,0 +1,178 @@
+package com.amazon.ata.mocking.rackmonitor.batch;
+
+import com.amazon.ata.mocking.rackmonitor.HealthIncident;
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutServiceException;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WorkOrder;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WorkOrderResult;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class WorkOrderBatcherTest {
+    WorkOrderBatcher batcher;
+    @Mock
+    WingnutClient wingnutClient;
+    @Mock
+    Rack rack;
+    HealthIncident incident1;
+    HealthIncident incident2;
+    WorkOrder order1;
+    WorkOrder order2;
+
+    @BeforeEach
+    void setUp() {
+        initMocks(this);
+        incident1 = new HealthIncident(new Server("TEST0001"), rack, 1, RequestAction.INSPECT);
+        incident2 = new HealthIncident(new Server("TEST0002"), rack, 2, RequestAction.INSPECT);
+        order1 = WorkOrder.inspection(rack, 1);
+        order2 = WorkOrder.inspection(rack, 2);
+        batcher = new WorkOrderBatcher(wingnutClient, 2, 60_000L);
+    }
+
+    @Test
+    public void add_beforeBatchIsFull_submitsNothing() {
+        // GIVEN
+        // A batcher that submits every 2 orders
+
+        // WHEN
+        Map<HealthIncident, WorkOrderResult> results = batcher.add(incident1, order1);
+
+        // THEN
+        assertTrue(results.isEmpty(), "A partial batch should not be submitted yet!");
+        assertEquals(1, batcher.getPendingCount());
+        verifyNoInteractions(wingnutClient);
+    }
+
+    @Test
+    public void add_whenBatchIsFull_submitsBatchWithResultPerIncident() throws Exception {
+        // GIVEN
+        // Wingnut rejects the second order only
+        WingnutServiceException failure = new WingnutServiceException("busy");
+        when(wingnutClient.submitWorkOrders(Arrays.asList(order1, order2))).thenReturn(Arrays.asList(
+            WorkOrderResult.succeeded(order1), WorkOrderResult.failed(order2, failure)));
+        batcher.add(incident1, order1);
+
+        // WHEN
+        Map<HealthIncident, WorkOrderResult> results = batcher.add(incident2, order2);
+
+        // THEN
+        assertTrue(results.get(incident1).isSuccessful(), "The first order should succeed!");
+        assertFalse(results.get(incident2).isSuccessful(), "The second order should fail!");
+        assertEquals(failure, results.get(incident2).getException());
+        assertEquals(0, batcher.getPendingCount());
+    }
+
+    @Test
+    public void flush_whenWholeBatchFails_failsEveryIncident() throws Exception {
+        // GIVEN
+        when(wingnutClient.submitWorkOrders(any())).thenThrow(WingnutServiceException.class);
+        batcher.add(incident1, order1);
+
+        // WHEN
+        Map<HealthIncident, WorkOrderResult> results = batcher.flush();
+
+        // THEN
+        verify(wingnutClient).submitWorkOrders(Arrays.asList(order1));
+        assertFalse(results.get(incident1).isSuccessful(), "A failed batch should fail every incident!");
+    }
+
+    @Test
+    public void add_whenWingnutReturnsTooFewResults_failsTheRest() throws Exception {
+        // GIVEN
+        // Wingnut answers for the first order only
+        when(wingnutClient.submitWorkOrders(Arrays.asList(order1, order2)))
+            .thenReturn(Arrays.asList(WorkOrderResult.succeeded(order1)));
+        batcher.add(incident1, order1);
+
+        // WHEN
+        Map<HealthIncident, WorkOrderResult> results = batcher.add(incident2, order2);
+
+        // THEN
+        assertEquals(2, results.size(), "Every incident should get a result!");
+        assertTrue(results.get(incident1).isSuccessful(), "The answered order should succeed!");
+        assertFalse(results.get(incident2).isSuccessful(), "The unanswered order should fail!");
+        assertTrue(results.get(incident2).getException() instanceof WingnutServiceException);
+    }
+
+    @Test
+    public void flush_whenWingnutThrowsUnexpectedly_failsEveryIncident() throws Exception {
+        // GIVEN
+        when(wingnutClient.submitWorkOrders(any())).thenThrow(IllegalStateException.class);
+        batcher.add(incident1, order1);
+
+        // WHEN
+        Map<HealthIncident, WorkOrderResult> results = batcher.flush();
+
+        // THEN
+        assertFalse(results.get(incident1).isSuccessful(), "A failed batch should fail every incident!");
+        assertTrue(results.get(incident1).getException() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void add_withZeroDelay_submitsImmediately() throws Exception {
+        // GIVEN
+        // A batcher whose time window has always elapsed
+        batcher = new WorkOrderBatcher(wingnutClient, 100, 0L);
+        when(wingnutClient.submitWorkOrders(Arrays.asList(order1)))
+            .thenReturn(Arrays.asList(WorkOrderResult.succeeded(order1)));
+
+        // WHEN
+        Map<HealthIncident, WorkOrderResult> results = batcher.add(incident1, order1);
+
+        // THEN
+        assertEquals(1, results.size(), "An order older than the time window should be submitted!");
+    }
+
+    @Test
+    public void flushIfDue_beforeDelay_submitsNothing() {
+        // GIVEN
+        batcher.add(incident1, order1);
+
+        // WHEN
+        Map<HealthIncident, WorkOrderResult> results = batcher.flushIfDue();
+
+        // THEN
+        assertTrue(results.isEmpty(), "A partial batch within its window should wait!");
+        assertEquals(1, batcher.getPendingCount());
+        verifyNoInteractions(wingnutClient);
+    }
+
+    @Test
+    public void flushIfDue_partialBatchPastDelay_submitsWithoutAnotherAdd() throws Exception {
+        // GIVEN
+        List<List<WorkOrder>> submitted = new ArrayList<>();
+        batcher = new WorkOrderBatcher(orders -> {
+            submitted.add(orders);
+            return Arrays.asList(WorkOrderResult.succeeded(orders.get(0)));
+        }, 100, 1L);
+        batcher.add(incident1, order1);
+        Thread.sleep(5);
+
+        // WHEN
+        Map<HealthIncident, WorkOrderResult> results = batcher.flushIfDue();
+
+        // THEN
+        assertEquals(Arrays.asList(Arrays.asList(order1)), submitted);
+        assertTrue(results.get(incident1).isSuccessful());
+        assertEquals(0, batcher.getPendingCount());
+    }
+}
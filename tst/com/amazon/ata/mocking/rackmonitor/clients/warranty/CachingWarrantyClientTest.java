@@ -0,0 +1,158 @@
+package com.amazon.ata.mocking.rackmonitor.clients.warranty;
+
+import com.amazon.ata.mocking.rackmonitor.Server;
+
+import com.google.common.base.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+class CachingWarrantyClientTest {
+    CachingWarrantyClient cachingClient;
+    @Mock
+    WarrantyClient warrantyClient;
+    FakeTicker ticker = new FakeTicker();
+    Server server = new Server("TEST0001");
+    Warranty warranty = new Warranty("for TEST0001");
+
+    @BeforeEach
+    void setUp() {
+        initMocks(this);
+        cachingClient = new CachingWarrantyClient(warrantyClient, 1000L, 2L, ticker);
+    }
+
+    @Test
+    void getWarrantyForServer_calledTwice_looksUpOnce() throws Exception {
+        // GIVEN
+        when(warrantyClient.getWarrantyForServer(server)).thenReturn(warranty);
+
+        // WHEN
+        cachingClient.getWarrantyForServer(server);
+        Warranty second = cachingClient.getWarrantyForServer(server);
+
+        // THEN
+        assertSame(warranty, second);
+        verify(warrantyClient, times(1)).getWarrantyForServer(server);
+        assertEquals(1, cachingClient.getHitCount());
+        assertEquals(1, cachingClient.getMissCount());
+    }
+
+    @Test
+    void getWarrantyForServer_afterTtl_looksUpAgain() throws Exception {
+        // GIVEN
+        when(warrantyClient.getWarrantyForServer(server)).thenReturn(warranty);
+        cachingClient.getWarrantyForServer(server);
+
+        // WHEN
+        ticker.advance(TimeUnit.MILLISECONDS.toNanos(1001L));
+        cachingClient.getWarrantyForServer(server);
+
+        // THEN
+        verify(warrantyClient, times(2)).getWarrantyForServer(server);
+    }
+
+    @Test
+    void getWarrantyForServer_withNoWarranty_cachesTheFailure() throws Exception {
+        // GIVEN
+        when(warrantyClient.getWarrantyForServer(server)).thenThrow(new WarrantyNotFoundException("none"));
+
+        // WHEN and THEN
+        assertThrows(WarrantyNotFoundException.class, () -> cachingClient.getWarrantyForServer(server));
+        assertThrows(WarrantyNotFoundException.class, () -> cachingClient.getWarrantyForServer(server),
+            "A cached missing Warranty should still throw!");
+        verify(warrantyClient, times(1)).getWarrantyForServer(server);
+    }
+
+    @Test
+    void getWarrantyForServer_beyondMaxEntries_evicts() throws Exception {
+        // GIVEN
+        // The cache holds at most 2 servers
+        for (int n = 0; n < 3; n++) {
+            Server other = new Server(String.format("TEST%04d", n));
+            when(warrantyClient.getWarrantyForServer(other)).thenReturn(warranty);
+        }
+
+        // WHEN
+        for (int n = 0; n < 3; n++) {
+            cachingClient.getWarrantyForServer(new Server(String.format("TEST%04d", n)));
+        }
+
+        // THEN
+        assertEquals(2, cachingClient.size());
+        assertEquals(1, cachingClient.getEvictionCount());
+    }
+
+    @Test
+    void getWarrantyForServer_concurrentCallers_shareOneLookUp() throws Exception {
+        // GIVEN
+        // The first lookup holds until the second caller is waiting on it
+        AtomicInteger lookUps = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        cachingClient = new CachingWarrantyClient(new WarrantyClient(other -> {
+            lookUps.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return warranty;
+        }), 1000L, 2L, ticker);
+        CompletableFuture<Warranty> first = CompletableFuture.supplyAsync(() -> lookUpQuietly(server));
+        CompletableFuture<Warranty> second = CompletableFuture.supplyAsync(() -> lookUpQuietly(server));
+
+        // WHEN
+        Thread.sleep(50);
+        release.countDown();
+
+        // THEN
+        assertSame(warranty, first.get(5, TimeUnit.SECONDS));
+        assertSame(warranty, second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, lookUps.get(), "Concurrent callers should share one lookup!");
+    }
+
+    @Test
+    void getWarrantyForServer_delegateThrowsUnchecked_rethrowsItUnwrapped() throws Exception {
+        // GIVEN
+        when(warrantyClient.getWarrantyForServer(server)).thenThrow(new IllegalStateException("down"));
+
+        // WHEN and THEN
+        assertThrows(IllegalStateException.class, () -> cachingClient.getWarrantyForServer(server));
+    }
+
+    private Warranty lookUpQuietly(Server lookedUp) {
+        try {
+            return cachingClient.getWarrantyForServer(lookedUp);
+        } catch (WarrantyNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A Ticker that only moves when the test says so.
+     */
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long moreNanos) {
+            nanos += moreNanos;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.amazon.ata.mocking.rackmonitor.clients.warranty;
 
 import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.simulation.TestServers;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -12,7 +14,7 @@ class WarrantyClientTest {
 
     @BeforeEach
     void setUp() {
-        warrantyClient = new WarrantyClient();
+        warrantyClient = new WarrantyClient(new TestServers());
     }
 
     @AfterEach
@@ -30,4 +32,18 @@ class WarrantyClientTest {
             }
         }
     }
+
+    @Test
+    void getWarrantyForServer_withoutWarrantySource_asksServiceForTestServers() throws Exception {
+        // GIVEN
+        WarrantyClient production = new WarrantyClient();
+
+        // WHEN
+        Warranty warranty = production.getWarrantyForServer(new Server("TEST0052"));
+
+        // THEN
+        assertEquals("for TEST0052", warranty.getWarrantyId());
+        assertThrows(WarrantyNotFoundException.class,
+            () -> warrantyClient.getWarrantyForServer(new Server("TEST0052")));
+    }
 }
@@ -0,0 +1,56 @@
+package com.amazon.ata.mocking.rackmonitor.clients.wingnut;
+
+import com.amazon.ata.mocking.rackmonitor.FixedHealthRack;
+import com.amazon.ata.mocking.rackmonitor.RecordingWingnutClient;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BoundedWingnutClientTest {
+    RecordingWingnutClient delegate = new RecordingWingnutClient();
+    BoundedWingnutClient wingnutClient = new BoundedWingnutClient(delegate, 1);
+    FixedHealthRack rack = new FixedHealthRack("RACK01", "SRV0001");
+
+    @Test
+    public void requestRackInspection_forwardsToDelegate() throws Exception {
+        // GIVEN
+        // A bounded client around a recording one
+
+        // WHEN
+        wingnutClient.requestRackInspection(rack);
+
+        // THEN
+        assertEquals(List.of("RACK RACK01"), delegate.getRequests());
+    }
+
+    @Test
+    public void cancelInspection_forwardsToDelegate() throws Exception {
+        // GIVEN
+        // A bounded client around a recording one
+
+        // WHEN
+        wingnutClient.cancelInspection(rack, 0);
+
+        // THEN
+        assertEquals(List.of("CANCEL SRV0001"), delegate.getRequests());
+    }
+
+    @Test
+    public void addWorkOrderListener_notifiedThroughDelegate_hearsEveryWorkOrder() {
+        // GIVEN
+        RecordingWorkOrderListener listener = new RecordingWorkOrderListener();
+        wingnutClient.addWorkOrderListener(listener);
+        WorkOrder workOrder = WorkOrder.inspection(rack, 0);
+
+        // WHEN
+        delegate.notifyAcknowledged(workOrder);
+        wingnutClient.notifyCompleted(workOrder);
+
+        // THEN
+        assertEquals(List.of(workOrder), listener.acknowledged);
+        assertEquals(List.of(workOrder), listener.completed);
+    }
+}
@@ -0,0 +1,22 @@
+package com.amazon.ata.mocking.rackmonitor.clients.wingnut;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A WorkOrderListener that remembers every WorkOrder it hears about.
+ */
+class RecordingWorkOrderListener implements WorkOrderListener {
+    final List<WorkOrder> acknowledged = new ArrayList<>();
+    final List<WorkOrder> completed = new ArrayList<>();
+
+    @Override
+    public void workOrderAcknowledged(WorkOrder workOrder) {
+        acknowledged.add(workOrder);
+    }
+
+    @Override
+    public void workOrderCompleted(WorkOrder workOrder) {
+        completed.add(workOrder);
+    }
+}
@@ -0,0 +1,201 @@
+package com.amazon.ata.mocking.rackmonitor.clients.wingnut;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.resilience.Backoff;
+import com.amazon.ata.mocking.rackmonitor.resilience.CircuitBreaker;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResilientWingnutClientTest {
+    FlakyWingnutClient wingnut;
+    Rack rack = new Rack("RACK01", new HashMap<>());
+    Backoff backoff = new Backoff(1, 2, TimeUnit.MILLISECONDS);
+
+    @BeforeEach
+    void setUp() {
+        wingnut = new FlakyWingnutClient();
+    }
+
+    @Test
+    public void requestReplacement_transientFailure_retriesUntilFiled() throws Exception {
+        // GIVEN
+        ResilientWingnutClient client = newClient(new CircuitBreaker(10, 60_000, 60_000), 3, 10);
+        wingnut.failures = 2;
+
+        // WHEN
+        client.requestReplacement(rack, 1, Warranty.nullWarranty());
+
+        // THEN
+        assertEquals(1, wingnut.filed.size());
+        assertEquals(2, client.getRetryCount());
+        assertEquals(0, client.getDeferredCount());
+    }
+
+    @Test
+    public void requestInspection_badRequest_throwsWithoutRetrying() {
+        // GIVEN
+        ResilientWingnutClient client = newClient(new CircuitBreaker(10, 60_000, 60_000), 3, 10);
+        wingnut.badRequest = true;
+
+        // WHEN + THEN
+        assertThrows(WingnutClientException.class, () -> client.requestInspection(rack, 1));
+        assertEquals(1, wingnut.calls, "A bad request should never be retried!");
+        assertEquals(0, client.getDeferredCount(), "A bad request should never be deferred!");
+    }
+
+    @Test
+    public void requestInspection_wingnutDown_defersAndStopsCalling() throws Exception {
+        // GIVEN
+        ResilientWingnutClient client = newClient(new CircuitBreaker(2, 60_000, 60_000), 2, 10);
+        wingnut.failures = Integer.MAX_VALUE;
+
+        // WHEN
+        for (int unit = 0; unit < 5; unit++) {
+            client.requestInspection(rack, unit);
+        }
+
+        // THEN
+        assertEquals(5, client.getDeferredCount());
+        assertEquals(2, wingnut.calls, "Once the breaker opens, Wingnut shouldn't be called at all!");
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreaker().getState());
+    }
+
+    @Test
+    public void requestInspection_deferredQueueFull_throwsServiceException() throws Exception {
+        // GIVEN
+        ResilientWingnutClient client = newClient(new CircuitBreaker(1, 60_000, 60_000), 1, 1);
+        wingnut.failures = Integer.MAX_VALUE;
+        client.requestInspection(rack, 1);
+
+        // WHEN + THEN
+        assertThrows(WingnutServiceException.class, () -> client.requestInspection(rack, 2));
+        assertEquals(1, client.getDeferredCount());
+    }
+
+    @Test
+    public void drainDeferred_wingnutRecovered_filesInOrder() throws Exception {
+        // GIVEN
+        ResilientWingnutClient client = newClient(new CircuitBreaker(1, 50, 60_000), 1, 10);
+        wingnut.failures = 1;
+        client.requestInspection(rack, 1);
+        client.requestReplacement(rack, 2, Warranty.nullWarranty());
+        Thread.sleep(60);
+
+        // WHEN
+        int sent = client.drainDeferred();
+
+        // THEN
+        assertEquals(2, sent);
+        assertEquals(0, client.getDeferredCount());
+        assertEquals(Arrays.asList(RequestAction.INSPECT, RequestAction.REPLACE), wingnut.filed);
+    }
+
+    @Test
+    public void cancelInspection_stillDeferred_neverReachesWingnut() throws Exception {
+        // GIVEN
+        ResilientWingnutClient client = newClient(new CircuitBreaker(1, 60_000, 60_000), 1, 10);
+        wingnut.failures = Integer.MAX_VALUE;
+        client.requestInspection(rack, 1);
+
+        // WHEN
+        client.cancelInspection(rack, 1);
+
+        // THEN
+        assertEquals(0, client.getDeferredCount());
+        assertEquals(1, wingnut.calls);
+    }
+
+    @Test
+    public void submitWorkOrders_wingnutDown_defersEveryOrder() throws Exception {
+        // GIVEN
+        ResilientWingnutClient client = newClient(new CircuitBreaker(1, 60_000, 60_000), 1, 10);
+        wingnut.failures = Integer.MAX_VALUE;
+        List<WorkOrder> orders = Arrays.asList(WorkOrder.inspection(rack, 1), WorkOrder.inspection(rack, 2));
+
+        // WHEN
+        List<WorkOrderResult> results = client.submitWorkOrders(orders);
+
+        // THEN
+        assertTrue(results.stream().allMatch(WorkOrderResult::isSuccessful));
+        assertEquals(2, client.getDeferredCount());
+    }
+
+    @Test
+    public void addWorkOrderListener_notifiedThroughDelegate_hearsEveryWorkOrder() {
+        // GIVEN
+        ResilientWingnutClient client = newClient(new CircuitBreaker(10, 60_000, 60_000), 3, 10);
+        RecordingWorkOrderListener listener = new RecordingWorkOrderListener();
+        client.addWorkOrderListener(listener);
+        WorkOrder workOrder = WorkOrder.inspection(rack, 1);
+
+        // WHEN
+        wingnut.notifyAcknowledged(workOrder);
+        client.notifyCompleted(workOrder);
+
+        // THEN
+        assertEquals(List.of(workOrder), listener.acknowledged);
+        assertEquals(List.of(workOrder), listener.completed);
+    }
+
+    private ResilientWingnutClient newClient(CircuitBreaker breaker, int maxAttempts, int maxDeferred) {
+        return new ResilientWingnutClient(wingnut, breaker, backoff, maxAttempts, maxDeferred);
+    }
+
+    /**
+     * A WingnutClient that fails a set number of calls before it
+     * starts filing requests.
+     */
+    private static class FlakyWingnutClient extends WingnutClient {
+        private int failures;
+        private boolean badRequest;
+        private int calls;
+        private final List<RequestAction> filed = new ArrayList<>();
+
+        @Override
+        public void requestReplacement(Rack rack, int unit, Warranty warranty)
+            throws WingnutClientException, WingnutServiceException {
+
+            file(RequestAction.REPLACE);
+        }
+
+        @Override
+        public void requestInspection(Rack rack, int unit) throws WingnutClientException, WingnutServiceException {
+            file(RequestAction.INSPECT);
+        }
+
+        @Override
+        public List<WorkOrderResult> submitWorkOrders(List<WorkOrder> workOrders) throws WingnutServiceException {
+            calls++;
+            if (failures > 0) {
+                failures--;
+                throw new WingnutServiceException("Wingnut is down");
+            }
+            throw new UnsupportedOperationException();
+        }
+
+        private void file(RequestAction action) throws WingnutClientException, WingnutServiceException {
+            calls++;
+            if (badRequest) {
+                throw new WingnutClientException("Bad request");
+            }
+            if (failures > 0) {
+                failures--;
+                throw new WingnutServiceException("Wingnut is down");
+            }
+            filed.add(action);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.amazon.ata.mocking.rackmonitor.correlation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RackFailureDetectorTest {
+
+    @Test
+    public void isRackFailure_enoughServersFailing_detectsFailure() {
+        // GIVEN
+        RackFailureDetector detector = new RackFailureDetector(0.8, 4);
+
+        // WHEN
+        boolean allFailing = detector.isRackFailure(10, 10);
+        boolean mostFailing = detector.isRackFailure(8, 10);
+        boolean someFailing = detector.isRackFailure(7, 10);
+
+        // THEN
+        assertTrue(allFailing);
+        assertTrue(mostFailing);
+        assertFalse(someFailing);
+    }
+
+    @Test
+    public void isRackFailure_tooFewServers_neverDetectsFailure() {
+        // GIVEN
+        RackFailureDetector detector = new RackFailureDetector(0.5, 4);
+
+        // WHEN
+        boolean smallRackFailing = detector.isRackFailure(3, 3);
+
+        // THEN
+        assertFalse(smallRackFailing);
+    }
+
+    @Test
+    public void isRackFailure_disabled_neverDetectsFailureUntilThresholdsSet() {
+        // GIVEN
+        RackFailureDetector detector = RackFailureDetector.disabled();
+        boolean detectedWhileDisabled = detector.isRackFailure(10, 10);
+
+        // WHEN
+        detector.setThresholds(0.9, 1);
+
+        // THEN
+        assertFalse(detectedWhileDisabled);
+        assertTrue(detector.isEnabled());
+        assertTrue(detector.isRackFailure(10, 10));
+    }
+
+    @Test
+    public void setThresholds_fractionOutOfRange_throwsIllegalArgumentException() {
+        // GIVEN
+        RackFailureDetector detector = RackFailureDetector.disabled();
+
+        // WHEN + THEN
+        assertThrows(IllegalArgumentException.class, () -> detector.setThresholds(0.0, 4));
+        assertThrows(IllegalArgumentException.class, () -> detector.setThresholds(1.5, 4));
+    }
+}
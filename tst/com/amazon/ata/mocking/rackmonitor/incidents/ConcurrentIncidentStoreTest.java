@@ -0,0 +1,207 @@
+package com.amazon.ata.mocking.rackmonitor.incidents;
+
+import com.amazon.ata.mocking.rackmonitor.HealthIncident;
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.Server;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentIncidentStoreTest {
+    ConcurrentIncidentStore store;
+    Server server = new Server("TEST0001");
+    Rack rack = new Rack("RACK01", new HashMap<>());
+    HealthIncident incident = new HealthIncident(server, rack, 1, RequestAction.REPLACE);
+
+    @BeforeEach
+    void setUp() {
+        store = new ConcurrentIncidentStore();
+    }
+
+    @Test
+    public void claim_withNewIncident_succeedsOnlyOnce() {
+        // GIVEN
+        // An empty store
+
+        // WHEN
+        boolean first = store.claim(incident);
+        boolean second = store.claim(incident);
+
+        // THEN
+        assertTrue(first, "The first claim on an incident should succeed!");
+        assertFalse(second, "A second claim on the same incident should fail!");
+        assertFalse(store.contains(incident), "A claimed incident isn't recorded until Wingnut accepts it!");
+    }
+
+    @Test
+    public void release_withClaimedIncident_allowsNewClaim() {
+        // GIVEN
+        store.claim(incident);
+
+        // WHEN
+        store.release(incident);
+
+        // THEN
+        assertTrue(store.claim(incident), "A released incident should be claimable again!");
+    }
+
+    @Test
+    public void release_withRecordedIncident_keepsIncident() {
+        // GIVEN
+        store.claim(incident);
+        store.record(incident);
+
+        // WHEN
+        store.release(incident);
+
+        // THEN
+        assertTrue(store.contains(incident), "Releasing must not forget a recorded incident!");
+        assertFalse(store.claim(incident), "A recorded incident should never be claimed again!");
+    }
+
+    @Test
+    public void getIncidents_afterRecord_reflectsRecordedIncidentsOnly() {
+        // GIVEN
+        HealthIncident inspect = new HealthIncident(server, rack, 1, RequestAction.INSPECT);
+        store.claim(incident);
+        store.claim(inspect);
+
+        // WHEN
+        store.record(incident);
+
+        // THEN
+        assertEquals(1, store.getIncidents().size());
+        assertTrue(store.getIncidents().contains(incident));
+        assertThrows(UnsupportedOperationException.class, () -> store.getIncidents().add(inspect),
+            "The incidents view should not be modifiable!");
+    }
+
+    @Test
+    public void record_replaceOverRecordedInspect_keepsOnlyReplace() {
+        // GIVEN
+        HealthIncident inspect = new HealthIncident(server, rack, 1, RequestAction.INSPECT);
+        store.claim(inspect);
+        store.record(inspect);
+
+        // WHEN
+        boolean claimed = store.claim(incident);
+        store.record(incident);
+
+        // THEN
+        assertTrue(claimed, "A REPLACE should be claimable over a recorded INSPECT!");
+        assertEquals(1, store.getIncidents().size());
+        assertTrue(store.contains(incident));
+        assertFalse(store.contains(inspect), "The REPLACE should supersede the INSPECT!");
+        assertFalse(store.claim(inspect), "An INSPECT can't be claimed once a REPLACE is recorded!");
+    }
+
+    @Test
+    public void release_escalationFailed_keepsInspect() {
+        // GIVEN
+        HealthIncident inspect = new HealthIncident(server, rack, 1, RequestAction.INSPECT);
+        store.claim(inspect);
+        store.record(inspect);
+        store.claim(incident);
+
+        // WHEN
+        store.release(incident);
+
+        // THEN
+        assertTrue(store.contains(inspect));
+        assertFalse(store.contains(incident));
+        assertTrue(store.claim(incident), "A later sweep should be able to escalate again!");
+    }
+
+    @Test
+    public void claim_otherClaimInFlight_fails() {
+        // GIVEN
+        HealthIncident inspect = new HealthIncident(server, rack, 1, RequestAction.INSPECT);
+        store.claim(inspect);
+
+        // WHEN
+        boolean claimed = store.claim(incident);
+
+        // THEN
+        assertFalse(claimed, "Only one request per server may be in flight!");
+    }
+
+    @Test
+    public void claimAndRecord_inspectAndReplaceRaceFromManyThreads_recordOneIncident() throws Exception {
+        // GIVEN
+        HealthIncident inspect = new HealthIncident(server, rack, 1, RequestAction.INSPECT);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> sweeps = new ArrayList<>();
+
+        // WHEN
+        for (int n = 0; n < threads; n++) {
+            HealthIncident found = n % 2 == 0 ? inspect : incident;
+            sweeps.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1_000; i++) {
+                    if (store.claim(found)) {
+                        store.record(found);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> sweep : sweeps) {
+            sweep.get();
+        }
+        executor.shutdown();
+
+        // THEN
+        assertEquals(1, store.getIncidents().size(), "A server should have exactly one incident!");
+        assertTrue(store.contains(incident), "The REPLACE should always win in the end!");
+    }
+
+    @Test
+    public void claim_fromManyThreads_hasExactlyOneWinner() throws Exception {
+        // GIVEN
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Boolean>> claims = new ArrayList<>();
+        for (int n = 0; n < threads; n++) {
+            claims.add(() -> {
+                start.await();
+                return store.claim(incident);
+            });
+        }
+
+        // WHEN
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (Callable<Boolean> claim : claims) {
+            results.add(executor.submit(claim));
+        }
+        start.countDown();
+
+        // THEN
+        int winners = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                winners++;
+            }
+        }
+        executor.shutdown();
+        assertEquals(1, winners, "Exactly one thread should win the claim!");
+    }
+}
@@ -0,0 +1,156 @@
+package com.amazon.ata.mocking.rackmonitor.incidents;
+
+import com.amazon.ata.mocking.rackmonitor.HealthIncident;
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.Server;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JournaledIncidentStoreTest {
+    Path journalPath;
+    Server server1 = new Server("TEST0001");
+    Server server2 = new Server("TEST0002");
+    Rack rack1;
+    Rack rack2;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journalPath = Files.createTempDirectory("journal").resolve("incidents.journal");
+        Map<Server, Integer> unitMap = new HashMap<>();
+        unitMap.put(server1, 1);
+        unitMap.put(server2, 2);
+        rack1 = new Rack("RACK01", unitMap);
+        rack2 = new Rack("RACK02", unitMap);
+    }
+
+    @Test
+    public void record_thenReopen_remembersIncidents() throws IOException {
+        // GIVEN
+        HealthIncident replace = new HealthIncident(server1, rack1, 1, RequestAction.REPLACE);
+        HealthIncident inspect = new HealthIncident(server2, rack2, 2, RequestAction.INSPECT);
+        try (JournaledIncidentStore store = open(rack1, rack2)) {
+            assertTrue(store.claim(replace));
+            store.record(replace);
+            assertTrue(store.claim(inspect));
+            store.record(inspect);
+        }
+
+        // WHEN
+        try (JournaledIncidentStore store = open(rack1, rack2)) {
+            // THEN
+            assertEquals(2, store.getIncidents().size());
+            assertTrue(store.contains(replace));
+            assertTrue(store.contains(inspect));
+            assertFalse(store.claim(replace));
+        }
+    }
+
+    @Test
+    public void remove_thenReopen_forgetsIncident() throws IOException {
+        // GIVEN
+        HealthIncident replace = new HealthIncident(server1, rack1, 1, RequestAction.REPLACE);
+        HealthIncident inspect = new HealthIncident(server2, rack1, 2, RequestAction.INSPECT);
+        try (JournaledIncidentStore store = open(rack1)) {
+            store.claim(replace);
+            store.record(replace);
+            store.claim(inspect);
+            store.record(inspect);
+            assertTrue(store.remove(replace));
+        }
+
+        // WHEN
+        try (JournaledIncidentStore store = open(rack1)) {
+            // THEN
+            assertEquals(Collections.singleton(inspect), store.getIncidents());
+            assertTrue(store.claim(replace), "A removed incident should be claimable after a restart!");
+        }
+    }
+
+    @Test
+    public void open_rackGone_dropsItsIncidentsAndCompacts() throws IOException {
+        // GIVEN
+        HealthIncident kept = new HealthIncident(server1, rack1, 1, RequestAction.REPLACE);
+        try (JournaledIncidentStore store = open(rack1, rack2)) {
+            store.record(kept);
+            store.record(new HealthIncident(server1, rack2, 1, RequestAction.REPLACE));
+        }
+
+        // WHEN
+        // RACK02 has been decommissioned
+        try (JournaledIncidentStore store = open(rack1)) {
+            // THEN
+            assertEquals(Collections.singleton(kept), store.getIncidents());
+        }
+        try (IncidentJournal journal = new IncidentJournal(journalPath)) {
+            assertEquals(1, journal.replay(code -> { }, code -> { }));
+        }
+    }
+
+    @Test
+    public void record_rackIncident_thenReopen_remembersIt() throws IOException {
+        // GIVEN
+        HealthIncident rackIncident = HealthIncident.forRack(rack1);
+        try (JournaledIncidentStore store = open(rack1)) {
+            assertTrue(store.claim(rackIncident));
+            store.record(rackIncident);
+        }
+
+        // WHEN
+        try (JournaledIncidentStore store = open(rack1)) {
+            // THEN
+            assertEquals(Collections.singleton(rackIncident), store.getIncidents());
+            assertFalse(store.claim(rackIncident));
+        }
+    }
+
+    @Test
+    public void record_manyIncidents_growsJournalAndReplaysThemAll() throws IOException {
+        // GIVEN
+        List<Rack> racks = new ArrayList<>();
+        for (int n = 0; n < 5_000; n++) {
+            racks.add(new Rack(String.format("RACK%05d", n), Collections.singletonMap(server1, 1)));
+        }
+        try (JournaledIncidentStore store = new JournaledIncidentStore(new IncidentJournal(journalPath), racks)) {
+            for (Rack rack : racks) {
+                store.record(new HealthIncident(server1, rack, 1, RequestAction.INSPECT));
+            }
+        }
+
+        // WHEN
+        try (JournaledIncidentStore store = new JournaledIncidentStore(new IncidentJournal(journalPath), racks)) {
+            // THEN
+            assertEquals(5_000, store.getIncidents().size());
+        }
+        assertTrue(Files.size(journalPath) > 64 * 1024);
+    }
+
+    @Test
+    public void constructor_notAJournal_throwsIOException() throws IOException {
+        // GIVEN
+        Files.write(journalPath, "not a journal".getBytes());
+
+        // WHEN + THEN
+        assertThrows(IOException.class, () -> new IncidentJournal(journalPath));
+    }
+
+    private JournaledIncidentStore open(Rack... racks) throws IOException {
+        return new JournaledIncidentStore(new IncidentJournal(journalPath), Arrays.asList(racks));
+    }
+}
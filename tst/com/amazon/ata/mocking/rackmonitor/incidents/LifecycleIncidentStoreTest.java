@@ -0,0 +1,191 @@
+package com.amazon.ata.mocking.rackmonitor.incidents;
+
+import com.amazon.ata.mocking.rackmonitor.HealthIncident;
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WorkOrder;
+
+import com.google.common.base.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LifecycleIncidentStoreTest {
+    LifecycleIncidentStore store;
+    ConcurrentIncidentStore delegate;
+    FakeTicker ticker = new FakeTicker();
+    Server server = new Server("TEST0001");
+    Rack rack;
+    HealthIncident incident;
+
+    @BeforeEach
+    void setUp() {
+        Map<Server, Integer> unitMap = new HashMap<>();
+        unitMap.put(server, 1);
+        rack = new Rack("RACK01", unitMap);
+        incident = new HealthIncident(server, rack, 1, RequestAction.REPLACE);
+        delegate = new ConcurrentIncidentStore();
+        store = new LifecycleIncidentStore(delegate, 1, 10, TimeUnit.SECONDS, ticker);
+    }
+
+    @Test
+    public void record_newIncident_isOpen() {
+        // GIVEN
+        store.claim(incident);
+
+        // WHEN
+        store.record(incident);
+
+        // THEN
+        assertEquals(IncidentState.OPEN, store.getState(incident));
+        assertTrue(store.contains(incident));
+    }
+
+    @Test
+    public void expireIncidents_pastOpenTtl_forgetsIncident() {
+        // GIVEN
+        store.claim(incident);
+        store.record(incident);
+
+        // WHEN
+        ticker.advance(2, TimeUnit.SECONDS);
+        int expired = store.expireIncidents();
+
+        // THEN
+        assertEquals(1, expired);
+        assertNull(store.getState(incident));
+        assertFalse(delegate.contains(incident), "An expired incident should be removed from the delegate!");
+        assertTrue(store.claim(incident), "An expired incident should be claimable again!");
+        assertEquals(1, store.getExpiredCount());
+    }
+
+    @Test
+    public void claim_afterOpenTtl_expiresWithoutBeingAsked() {
+        // GIVEN
+        store.claim(incident);
+        store.record(incident);
+        ticker.advance(2, TimeUnit.SECONDS);
+
+        // WHEN
+        boolean claimed = store.claim(incident);
+
+        // THEN
+        assertTrue(claimed, "claim() should expire overdue incidents first!");
+    }
+
+    @Test
+    public void acknowledge_openIncident_extendsTtl() {
+        // GIVEN
+        store.claim(incident);
+        store.record(incident);
+
+        // WHEN
+        boolean acknowledged = store.acknowledge(incident);
+        ticker.advance(5, TimeUnit.SECONDS);
+        store.expireIncidents();
+
+        // THEN
+        assertTrue(acknowledged);
+        assertEquals(IncidentState.ACKNOWLEDGED, store.getState(incident));
+        assertTrue(store.contains(incident), "An acknowledged incident should outlive the OPEN time to live!");
+
+        ticker.advance(6, TimeUnit.SECONDS);
+        store.expireIncidents();
+        assertFalse(store.contains(incident), "An acknowledged incident should still expire eventually!");
+    }
+
+    @Test
+    public void workOrderCompleted_trackedIncident_resolvesIt() {
+        // GIVEN
+        store.claim(incident);
+        store.record(incident);
+        store.workOrderAcknowledged(WorkOrder.replacement(rack, 1, null));
+
+        // WHEN
+        store.workOrderCompleted(WorkOrder.replacement(rack, 1, null));
+
+        // THEN
+        assertNull(store.getState(incident));
+        assertFalse(delegate.contains(incident));
+        assertEquals(1, store.getResolvedCount());
+        assertEquals(0, store.getTrackedCount());
+        assertEquals(0, store.expireIncidents(), "A resolved incident shouldn't expire later!");
+    }
+
+    @Test
+    public void record_replaceSupersedesInspect_tracksOnlyReplace() {
+        // GIVEN
+        HealthIncident inspect = incident.withAction(RequestAction.INSPECT);
+        store.claim(inspect);
+        store.record(inspect);
+
+        // WHEN
+        store.claim(incident);
+        store.record(incident);
+
+        // THEN
+        assertNull(store.getState(inspect));
+        assertEquals(IncidentState.OPEN, store.getState(incident));
+        assertEquals(1, store.getTrackedCount());
+    }
+
+    @Test
+    public void constructor_delegateWithRecordedIncidents_tracksThemAsOpen() {
+        // GIVEN
+        delegate.record(incident);
+
+        // WHEN
+        LifecycleIncidentStore restarted = new LifecycleIncidentStore(delegate, 1, 10, TimeUnit.SECONDS, ticker);
+        ticker.advance(2, TimeUnit.SECONDS);
+        restarted.expireIncidents();
+
+        // THEN
+        assertFalse(delegate.contains(incident), "Incidents recorded before startup should expire too!");
+    }
+
+    @Test
+    public void expireIncidents_manyCycles_keepsNothingAround() {
+        // GIVEN
+        // A fresh incident for each of many servers, each left to expire
+
+        // WHEN
+        for (int i = 0; i < 10_000; i++) {
+            HealthIncident cycled = new HealthIncident(new Server("TEST" + i), rack, 1, RequestAction.INSPECT);
+            store.claim(cycled);
+            store.record(cycled);
+            ticker.advance(1, TimeUnit.MILLISECONDS);
+        }
+        ticker.advance(2, TimeUnit.SECONDS);
+        store.expireIncidents();
+
+        // THEN
+        assertEquals(0, store.getTrackedCount());
+        assertEquals(0, delegate.getIncidents().size());
+        assertEquals(10_000, store.getExpiredCount());
+    }
+
+    /**
+     * A Ticker that only moves when the test says so.
+     */
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long time, TimeUnit unit) {
+            nanos += unit.toNanos(time);
+        }
+    }
+}
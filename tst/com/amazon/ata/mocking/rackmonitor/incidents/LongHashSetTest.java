@@ -0,0 +1,67 @@
+package com.amazon.ata.mocking.rackmonitor.incidents;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongHashSetTest {
+
+    @Test
+    public void addContainsRemove_randomOperations_matchesHashSet() {
+        // GIVEN
+        // A small range, so adds and removes collide often
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        // WHEN
+        for (int i = 0; i < 200_000; i++) {
+            long value = 1 + random.nextInt(5_000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value), "add " + value);
+            } else {
+                assertEquals(expected.remove(value), set.remove(value), "remove " + value);
+            }
+        }
+
+        // THEN
+        assertEquals(expected.size(), set.size());
+        for (long value = 1; value <= 5_000; value++) {
+            assertEquals(expected.contains(value), set.contains(value), "contains " + value);
+        }
+        Set<Long> iterated = new HashSet<>();
+        set.forEach(iterated::add);
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void add_manyValues_grows() {
+        // GIVEN
+        LongHashSet set = new LongHashSet(4);
+
+        // WHEN
+        for (long value = 1; value <= 100_000; value++) {
+            set.add(value << 20);
+        }
+
+        // THEN
+        assertEquals(100_000, set.size());
+        assertTrue(set.contains(50_000L << 20));
+        assertFalse(set.contains(100_001L << 20));
+        assertEquals(100_000, set.toArray().length);
+    }
+
+    @Test
+    public void add_zero_throwsIllegalArgumentException() {
+        LongHashSet set = new LongHashSet();
+        assertThrows(IllegalArgumentException.class, () -> set.add(0L));
+        assertFalse(set.contains(0L));
+    }
+}
@@ -0,0 +1,166 @@
+package com.amazon.ata.mocking.rackmonitor.incidents;
+
+import com.amazon.ata.mocking.rackmonitor.HealthIncident;
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.Server;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PackedIncidentStoreTest {
+    IncidentCodec codec;
+    PackedIncidentStore store;
+    Server server = new Server("TEST0001");
+    Rack rack;
+    HealthIncident replace;
+    HealthIncident inspect;
+
+    @BeforeEach
+    void setUp() {
+        codec = new IncidentCodec();
+        store = new PackedIncidentStore(codec);
+        Map<Server, Integer> unitMap = new HashMap<>();
+        unitMap.put(server, 4095);
+        rack = new Rack("RACK01", unitMap);
+        replace = new HealthIncident(server, rack, 4095, RequestAction.REPLACE);
+        inspect = new HealthIncident(server, rack, 4095, RequestAction.INSPECT);
+    }
+
+    @Test
+    public void decode_encodedIncident_roundTrips() {
+        // WHEN
+        long code = codec.encode(replace);
+
+        // THEN
+        assertTrue(code != 0);
+        assertEquals(replace, codec.decode(code));
+        assertEquals(4095, IncidentCodec.unitOf(code));
+        assertEquals(RequestAction.REPLACE, IncidentCodec.actionOf(code));
+        assertTrue(code != codec.encode(inspect));
+    }
+
+    @Test
+    public void encode_unitTooLarge_throwsIllegalArgumentException() {
+        HealthIncident incident = new HealthIncident(server, rack, 4096, RequestAction.REPLACE);
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(incident));
+    }
+
+    @Test
+    public void decode_rackKnownOnlyById_returnsNull() {
+        // GIVEN
+        // As when a journal names a rack that's no longer monitored
+        IncidentCodec replayed = new IncidentCodec();
+        replayed.internRackId("RACK01");
+        replayed.internServerId("TEST0001");
+
+        // WHEN
+        long code = replayed.encodeIfKnown(replace);
+
+        // THEN
+        assertNull(replayed.decode(code));
+        replayed.internRack(rack);
+        assertEquals(replace, replayed.decode(code));
+    }
+
+    @Test
+    public void claim_recordRelease_followsIncidentStoreProtocol() {
+        // GIVEN
+        assertTrue(store.claim(replace));
+        assertFalse(store.claim(replace));
+        assertFalse(store.contains(replace));
+
+        // WHEN
+        store.release(replace);
+        assertTrue(store.claim(replace));
+        store.record(replace);
+
+        // THEN
+        assertTrue(store.contains(replace));
+        assertFalse(store.claim(replace));
+        store.release(replace);
+        assertTrue(store.contains(replace));
+        assertFalse(store.contains(inspect));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void claimAndRecord_escalation_keepsOneIncidentPerServer() {
+        // GIVEN
+        assertTrue(store.claim(inspect));
+        assertFalse(store.claim(replace), "Only one request per server may be in flight!");
+        store.record(inspect);
+
+        // WHEN
+        assertTrue(store.claim(replace));
+        store.record(replace);
+
+        // THEN
+        assertTrue(store.contains(replace));
+        assertFalse(store.contains(inspect));
+        assertFalse(store.claim(inspect));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void restore_inspectAfterReplace_neverDowngrades() {
+        // GIVEN
+        store.record(replace);
+
+        // WHEN
+        store.restore(codec.encode(inspect));
+
+        // THEN
+        assertTrue(store.contains(replace));
+        assertFalse(store.contains(inspect));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void claimAndRecord_rackIncident_onlyBlocksItself() {
+        // GIVEN
+        HealthIncident rackIncident = HealthIncident.forRack(rack);
+        store.record(replace);
+
+        // WHEN
+        assertTrue(store.claim(rackIncident));
+        store.record(rackIncident);
+
+        // THEN
+        assertFalse(store.claim(rackIncident));
+        assertTrue(store.contains(replace));
+        assertEquals(rackIncident, codec.decode(codec.encode(rackIncident)));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    public void getIncidents_manyIncidents_decodesEveryOne() {
+        // GIVEN
+        Server other = new Server("TEST0002");
+        for (int n = 0; n < 1_000; n++) {
+            Rack fleetRack = new Rack(String.format("RACK%04d", n), Collections.singletonMap(other, 1));
+            store.record(new HealthIncident(other, fleetRack, 1, RequestAction.INSPECT));
+        }
+        store.record(replace);
+
+        // WHEN
+        HashSet<HealthIncident> incidents = new HashSet<>(store.getIncidents());
+
+        // THEN
+        assertEquals(1_001, incidents.size());
+        assertEquals(1_001, store.getIncidents().size());
+        assertTrue(incidents.contains(replace));
+        assertTrue(store.getIncidents().contains(replace));
+    }
+}
@@ -0,0 +1,103 @@
+package com.amazon.ata.mocking.rackmonitor.incidents;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimerWheelTest {
+
+    @Test
+    public void advance_pastDeadlines_expiresOnlyDueItems() {
+        // GIVEN
+        TimerWheel<String> wheel = new TimerWheel<>(10, 8, 0);
+        wheel.schedule("early", 25);
+        wheel.schedule("late", 55);
+        List<String> expired = new ArrayList<>();
+
+        // WHEN
+        wheel.advance(30, expired::add);
+
+        // THEN
+        assertEquals(Collections.singletonList("early"), expired);
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    public void advance_deadlineSeveralTurnsAway_waitsForTheRightTurn() {
+        // GIVEN
+        // One turn of the wheel is 40ns
+        TimerWheel<String> wheel = new TimerWheel<>(10, 4, 0);
+        wheel.schedule("far", 135);
+        List<String> expired = new ArrayList<>();
+
+        // WHEN
+        for (long now = 0; now < 130; now += 10) {
+            wheel.advance(now, expired::add);
+        }
+        List<String> beforeDeadline = new ArrayList<>(expired);
+        wheel.advance(140, expired::add);
+
+        // THEN
+        assertTrue(beforeDeadline.isEmpty(), "Nothing should expire before its deadline!");
+        assertEquals(Collections.singletonList("far"), expired);
+    }
+
+    @Test
+    public void advance_longAfterEveryDeadline_expiresEverything() {
+        // GIVEN
+        TimerWheel<Integer> wheel = new TimerWheel<>(10, 4, 0);
+        for (int i = 0; i < 20; i++) {
+            wheel.schedule(i, i * 17L);
+        }
+        List<Integer> expired = new ArrayList<>();
+
+        // WHEN
+        wheel.advance(10_000, expired::add);
+
+        // THEN
+        Collections.sort(expired);
+        assertEquals(20, expired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void cancel_scheduledItem_neverExpires() {
+        // GIVEN
+        TimerWheel<String> wheel = new TimerWheel<>(10, 8, 0);
+        TimerWheel.Timeout<String> first = wheel.schedule("first", 20);
+        wheel.schedule("second", 20);
+        TimerWheel.Timeout<String> third = wheel.schedule("third", 20);
+        List<String> expired = new ArrayList<>();
+
+        // WHEN
+        wheel.cancel(first);
+        wheel.cancel(third);
+        wheel.cancel(third);
+        wheel.advance(100, expired::add);
+
+        // THEN
+        assertEquals(Arrays.asList("second"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void schedule_deadlineAlreadyPassed_expiresOnNextAdvance() {
+        // GIVEN
+        TimerWheel<String> wheel = new TimerWheel<>(10, 8, 0);
+        wheel.advance(100, item -> { });
+        wheel.schedule("overdue", 50);
+        List<String> expired = new ArrayList<>();
+
+        // WHEN
+        wheel.advance(100, expired::add);
+
+        // THEN
+        assertEquals(Collections.singletonList("overdue"), expired);
+    }
+}
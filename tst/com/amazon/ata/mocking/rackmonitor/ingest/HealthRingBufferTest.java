@@ -0,0 +1,137 @@
+package com.amazon.ata.mocking.rackmonitor.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HealthRingBufferTest {
+
+    @Test
+    public void drain_publishedSamples_returnsThemInOrder() {
+        // GIVEN
+        HealthRingBuffer buffer = new HealthRingBuffer(4);
+        buffer.publish("RACK01", "SRV01", 0.1);
+        buffer.publish("RACK01", "SRV02", 0.2);
+        buffer.publish("RACK02", "SRV03", 0.3);
+        List<String> drained = new ArrayList<>();
+
+        // WHEN
+        int count = buffer.drain((rackId, serverId, health) -> drained.add(rackId + "/" + serverId + "=" + health),
+            Integer.MAX_VALUE);
+
+        // THEN
+        assertEquals(3, count);
+        assertEquals(List.of("RACK01/SRV01=0.1", "RACK01/SRV02=0.2", "RACK02/SRV03=0.3"), drained);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void tryPublish_bufferFull_rejectsUntilDrained() {
+        // GIVEN
+        HealthRingBuffer buffer = new HealthRingBuffer(3);
+        for (int n = 0; n < buffer.getCapacity(); n++) {
+            assertTrue(buffer.tryPublish("RACK01", "SRV" + n, 0.5));
+        }
+
+        // WHEN
+        boolean publishedWhileFull = buffer.tryPublish("RACK01", "SRVX", 0.5);
+        buffer.drain((rackId, serverId, health) -> { }, 1);
+        boolean publishedAfterDrain = buffer.tryPublish("RACK01", "SRVX", 0.5);
+
+        // THEN
+        assertEquals(4, buffer.getCapacity());
+        assertFalse(publishedWhileFull);
+        assertTrue(publishedAfterDrain);
+        assertEquals(1, buffer.getRejectedCount());
+        assertEquals(4, buffer.size());
+    }
+
+    @Test
+    public void publish_capacityOne_keepsEverySample() {
+        // GIVEN
+        HealthRingBuffer buffer = new HealthRingBuffer(1);
+        List<String> drained = new ArrayList<>();
+
+        // WHEN
+        buffer.publish("RACK01", "SRV01", 0.1);
+        buffer.publish("RACK01", "SRV02", 0.2);
+        int count = buffer.drain((rackId, serverId, health) -> drained.add(serverId + "=" + health),
+            Integer.MAX_VALUE);
+
+        // THEN
+        assertEquals(2, buffer.getCapacity());
+        assertEquals(2, count);
+        assertEquals(List.of("SRV01=0.1", "SRV02=0.2"), drained);
+    }
+
+    @Test
+    public void drain_maxSamples_leavesTheRest() {
+        // GIVEN
+        HealthRingBuffer buffer = new HealthRingBuffer(8);
+        for (int n = 0; n < 5; n++) {
+            buffer.publish("RACK01", "SRV" + n, 0.5);
+        }
+
+        // WHEN
+        int count = buffer.drain((rackId, serverId, health) -> { }, 2);
+
+        // THEN
+        assertEquals(2, count);
+        assertEquals(3, buffer.size());
+    }
+
+    @Test
+    public void publish_manyProducers_deliversEverySampleOnce() throws Exception {
+        // GIVEN
+        int producers = 4;
+        int perProducer = 50_000;
+        HealthRingBuffer buffer = new HealthRingBuffer(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String rackId = "RACK" + p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int n = 0; n < perProducer; n++) {
+                    buffer.publish(rackId, "SRV", n);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        long[] nextExpected = new long[producers];
+        boolean[] outOfOrder = new boolean[1];
+
+        // WHEN
+        start.countDown();
+        int drained = 0;
+        while (drained < producers * perProducer) {
+            drained += buffer.drain((rackId, serverId, health) -> {
+                int producer = rackId.charAt(4) - '0';
+                // Each producer's samples must arrive in the order it published them
+                outOfOrder[0] |= health != nextExpected[producer];
+                nextExpected[producer]++;
+            }, 1024);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // THEN
+        assertFalse(outOfOrder[0]);
+        for (long count : nextExpected) {
+            assertEquals(perProducer, count);
+        }
+        assertEquals(0, buffer.size());
+    }
+}
@@ -0,0 +1,105 @@
+package com.amazon.ata.mocking.rackmonitor.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketFor_everyBucket_roundTripsThroughHighestValue() {
+        for (int bucket = 0; bucket < LatencyHistogram.BUCKET_COUNT; bucket++) {
+            long highest = LatencyHistogram.highestValueIn(bucket);
+            assertEquals(bucket, LatencyHistogram.bucketFor(highest), "highest value of bucket " + bucket);
+            if (highest < Long.MAX_VALUE) {
+                assertEquals(bucket + 1, LatencyHistogram.bucketFor(highest + 1), "value after bucket " + bucket);
+            }
+        }
+    }
+
+    @Test
+    public void snapshot_uniformValues_percentilesWithinPrecision() {
+        // GIVEN
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+
+        // WHEN
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        // THEN
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(10_000, snapshot.getMax());
+        assertEquals(5_000.5D, snapshot.getMean(), 0.001D);
+        long p50 = snapshot.getValueAtPercentile(50);
+        long p99 = snapshot.getValueAtPercentile(99);
+        assertTrue(p50 >= 5_000 && p50 <= 5_000 * 1.125, "p50 was " + p50);
+        assertTrue(p99 >= 9_900 && p99 <= 10_000, "p99 was " + p99);
+        assertEquals(10_000, snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void snapshot_nothingRecorded_isEmpty() {
+        // GIVEN
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // WHEN
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        // THEN
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtPercentile(99));
+        assertEquals(0.0D, snapshot.getMean());
+    }
+
+    @Test
+    public void record_negativeValue_recordedAsZero() {
+        // GIVEN
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // WHEN
+        histogram.record(-5);
+
+        // THEN
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(0, snapshot.getMax());
+    }
+
+    @Test
+    public void snapshot_registry_includesCountersAndExceptions() {
+        // GIVEN
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("dedup").increment();
+        registry.counter("dedup").increment();
+        registry.countException(new IllegalStateException());
+        registry.histogram("latency").record(100);
+
+        // WHEN
+        MetricsSnapshot snapshot = registry.snapshot();
+
+        // THEN
+        assertEquals(2, snapshot.getCounter("dedup"));
+        assertEquals(1, snapshot.getCounter("exceptions.IllegalStateException"));
+        assertEquals(0, snapshot.getCounter("missing"));
+        assertEquals(1, snapshot.getHistogram("latency").getCount());
+        assertTrue(snapshot.toString().contains("dedup: 2"));
+    }
+
+    @Test
+    public void snapshot_histogramNeverRecorded_hasEmptySnapshot() {
+        // GIVEN
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.histogram("latency");
+
+        // WHEN
+        MetricsSnapshot snapshot = registry.snapshot();
+
+        // THEN
+        assertEquals(0, snapshot.getHistogram("latency").getCount());
+        assertNull(snapshot.getHistogram("missing"), "Only created histograms should be snapshotted!");
+    }
+}
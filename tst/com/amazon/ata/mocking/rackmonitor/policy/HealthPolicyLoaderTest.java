@@ -0,0 +1,72 @@
+package com.amazon.ata.mocking.rackmonitor.policy;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HealthPolicyLoaderTest {
+
+    @Test
+    public void parse_rulesAndDefault_compilesThemInOrder() {
+        // GIVEN
+        String[] lines = {
+            "# GPUs in row 7 run hot overnight",
+            "rack=ROW7 server=GPU hours=22-6 inspect=0.99 replace=0.95",
+            "",
+            "server=GPU drop=0.1 inspect=0.95 replace=0.9",
+            "default inspect=0.85 replace=0.75"
+        };
+
+        // WHEN
+        HealthPolicy policy = HealthPolicyLoader.parse(Arrays.asList(lines), 0.9, 0.8);
+
+        // THEN
+        assertEquals(2, policy.getRules().size());
+        assertEquals("rack=ROW7 server=GPU hours=22-6 inspect=0.99 replace=0.95",
+            policy.getRules().get(0).toString());
+        assertEquals("server=GPU drop=0.1 inspect=0.95 replace=0.9", policy.getRules().get(1).toString());
+        assertEquals(0.85, policy.getDefaultRule().getInspectHealth());
+    }
+
+    @Test
+    public void parse_badRule_reportsLine() {
+        // GIVEN
+        String[] lines = {"inspect=0.9 replace=0.8", "server=GPU inspect=0.9"};
+
+        // WHEN
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> HealthPolicyLoader.parse(Arrays.asList(lines), 0.9, 0.8));
+
+        // THEN
+        assertTrue(e.getMessage().startsWith("Bad rule on line 2"), e.getMessage());
+    }
+
+    @Test
+    public void reloadIfChanged_fileUnchanged_returnsNullUntilItChanges() throws Exception {
+        // GIVEN
+        Path file = Files.createTempDirectory("policy").resolve("rules.txt");
+        Files.write(file, Collections.singletonList("server=GPU inspect=0.95 replace=0.9"));
+        HealthPolicyLoader loader = new HealthPolicyLoader(file, 0.9, 0.8);
+        HealthPolicy first = loader.reloadIfChanged();
+
+        // WHEN
+        HealthPolicy unchanged = loader.reloadIfChanged();
+        Files.write(file, Arrays.asList("server=GPU inspect=0.95 replace=0.9", "server=SSD inspect=0.9 replace=0.7"));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+        HealthPolicy changed = loader.reloadIfChanged();
+
+        // THEN
+        assertEquals(1, first.getRules().size());
+        assertNull(unchanged);
+        assertEquals(2, changed.getRules().size());
+    }
+}
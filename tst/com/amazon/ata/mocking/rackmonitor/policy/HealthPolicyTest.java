@@ -0,0 +1,99 @@
+package com.amazon.ata.mocking.rackmonitor.policy;
+
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.smoothing.HealthSmoother;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HealthPolicyTest {
+    HealthSmoother smoother = new HealthSmoother(0.9, 0.8);
+
+    @Test
+    public void ruleFor_noRuleApplies_returnsDefault() {
+        // GIVEN
+        HealthPolicy policy = HealthPolicy.compile(Collections.emptyList(), 0.9, 0.8);
+
+        // WHEN
+        HealthRule rule = policy.ruleFor("RACK01", "SRV01", 0.85, smoother);
+
+        // THEN
+        assertSame(policy.getDefaultRule(), rule);
+        assertEquals(RequestAction.INSPECT, rule.actionFor(0.85));
+    }
+
+    @Test
+    public void ruleFor_severalRulesApply_returnsFirst() {
+        // GIVEN
+        HealthRule gpuRow7 = HealthRule.thresholds(0.99, 0.95).forRacks("ROW7").forServers("GPU");
+        HealthRule gpu = HealthRule.thresholds(0.95, 0.9).forServers("GPU");
+        HealthPolicy policy = HealthPolicy.compile(Arrays.asList(gpuRow7, gpu), 0.9, 0.8);
+
+        // WHEN
+        HealthRule inRow7 = policy.ruleFor("ROW7-RACK01", "GPU0001", 0.97, smoother);
+        HealthRule elsewhere = policy.ruleFor("ROW3-RACK01", "GPU0001", 0.97, smoother);
+        HealthRule cpu = policy.ruleFor("ROW7-RACK01", "CPU0001", 0.97, smoother);
+
+        // THEN
+        assertSame(gpuRow7, inRow7);
+        assertSame(gpu, elsewhere);
+        assertSame(policy.getDefaultRule(), cpu);
+        assertEquals(0.99, policy.getMaxInspectHealth());
+    }
+
+    @Test
+    public void ruleFor_timeOfDayRule_appliesOnlyInItsWindow() {
+        // GIVEN
+        HealthRule overnight = HealthRule.thresholds(0.95, 0.9).between(22, 6);
+        HealthPolicy atNight = HealthPolicy.compile(Collections.singletonList(overnight), 0.9, 0.8,
+            clockAt("2026-01-01T23:30:00Z"));
+        HealthPolicy atNoon = HealthPolicy.compile(Collections.singletonList(overnight), 0.9, 0.8,
+            clockAt("2026-01-01T12:00:00Z"));
+
+        // WHEN
+        HealthRule nightRule = atNight.ruleFor("RACK01", "SRV01", 0.5, smoother);
+        HealthRule noonRule = atNoon.ruleFor("RACK01", "SRV01", 0.5, smoother);
+
+        // THEN
+        assertSame(overnight, nightRule);
+        assertSame(atNoon.getDefaultRule(), noonRule);
+    }
+
+    @Test
+    public void ruleFor_trendRule_appliesOnlyToFallingServers() {
+        // GIVEN
+        smoother.configure(1.0, 0.0, 1);
+        smoother.update("SRV01", 0.99);
+        HealthRule falling = HealthRule.thresholds(0.97, 0.9).whenDroppingBy(0.05);
+        HealthPolicy policy = HealthPolicy.compile(Collections.singletonList(falling), 0.9, 0.8);
+
+        // WHEN
+        HealthRule fastDrop = policy.ruleFor("RACK01", "SRV01", 0.92, smoother);
+        HealthRule slowDrop = policy.ruleFor("RACK01", "SRV01", 0.97, smoother);
+        HealthRule noHistory = policy.ruleFor("RACK01", "SRV02", 0.5, smoother);
+
+        // THEN
+        assertSame(falling, fastDrop);
+        assertSame(policy.getDefaultRule(), slowDrop);
+        assertSame(policy.getDefaultRule(), noHistory);
+    }
+
+    @Test
+    public void thresholds_replaceAboveInspect_throwsIllegalArgumentException() {
+        // WHEN + THEN
+        assertThrows(IllegalArgumentException.class, () -> HealthRule.thresholds(0.8, 0.9));
+    }
+
+    private static Clock clockAt(String instant) {
+        return Clock.fixed(Instant.parse(instant), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,67 @@
+package com.amazon.ata.mocking.rackmonitor.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BulkheadTest {
+
+    @Test
+    public void acquire_capReached_waitsForRelease() throws Exception {
+        // GIVEN
+        Bulkhead bulkhead = new Bulkhead(1);
+        bulkhead.acquire();
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            bulkhead.acquire();
+            acquired.countDown();
+        });
+
+        // WHEN
+        waiter.start();
+        boolean acquiredEarly = acquired.await(50, TimeUnit.MILLISECONDS);
+        bulkhead.release();
+
+        // THEN
+        assertFalse(acquiredEarly, "A second call should wait while the first is in flight!");
+        assertTrue(acquired.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void setMaxConcurrentCalls_lowered_appliesOnceCallsFinish() {
+        // GIVEN
+        Bulkhead bulkhead = new Bulkhead(4);
+        bulkhead.acquire();
+        bulkhead.acquire();
+        bulkhead.acquire();
+
+        // WHEN
+        bulkhead.setMaxConcurrentCalls(1);
+
+        // THEN
+        assertEquals(-2, bulkhead.getAvailablePermits());
+        bulkhead.release();
+        bulkhead.release();
+        bulkhead.release();
+        assertEquals(1, bulkhead.getAvailablePermits());
+        assertEquals(1, bulkhead.getMaxConcurrentCalls());
+    }
+
+    @Test
+    public void setMaxConcurrentCalls_raised_freesPermitsImmediately() {
+        // GIVEN
+        Bulkhead bulkhead = Bulkhead.unbounded();
+        bulkhead.setMaxConcurrentCalls(2);
+
+        // WHEN
+        bulkhead.setMaxConcurrentCalls(5);
+
+        // THEN
+        assertEquals(5, bulkhead.getAvailablePermits());
+    }
+}
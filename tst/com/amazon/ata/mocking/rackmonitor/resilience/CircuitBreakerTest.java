@@ -0,0 +1,120 @@
+package com.amazon.ata.mocking.rackmonitor.resilience;
+
+import com.google.common.base.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CircuitBreakerTest {
+    CircuitBreaker breaker;
+    FakeTicker ticker = new FakeTicker();
+
+    @BeforeEach
+    void setUp() {
+        breaker = new CircuitBreaker(3, 1000, 100, ticker);
+    }
+
+    @Test
+    public void onFailure_consecutiveFailuresReachThreshold_opens() {
+        // GIVEN
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // WHEN
+        breaker.onFailure();
+
+        // THEN
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(), "An open breaker should turn calls away!");
+        assertEquals(1, breaker.getRejectedCount());
+    }
+
+    @Test
+    public void onSuccess_betweenFailures_resetsCount() {
+        // GIVEN
+        breaker.onFailure();
+        breaker.onFailure();
+
+        // WHEN
+        breaker.onSuccess(0);
+        breaker.onFailure();
+        breaker.onFailure();
+
+        // THEN
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void tryAcquire_afterOpenTime_allowsOneTrial() {
+        // GIVEN
+        tripBreaker();
+
+        // WHEN
+        ticker.advance(1, TimeUnit.SECONDS);
+        boolean trial = breaker.tryAcquire();
+        boolean second = breaker.tryAcquire();
+
+        // THEN
+        assertTrue(trial, "A half-open breaker should allow one trial call!");
+        assertFalse(second, "Only one trial call should be in flight!");
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    public void onSuccess_trialSucceeds_closes() {
+        // GIVEN
+        tripBreaker();
+        ticker.advance(1, TimeUnit.SECONDS);
+        breaker.tryAcquire();
+
+        // WHEN
+        breaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(5));
+
+        // THEN
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void onSuccess_trialTooSlow_opensAgain() {
+        // GIVEN
+        tripBreaker();
+        ticker.advance(1, TimeUnit.SECONDS);
+        breaker.tryAcquire();
+
+        // WHEN
+        breaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(500));
+
+        // THEN
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(), "The breaker should wait out another open time!");
+    }
+
+    private void tripBreaker() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+    }
+
+    /**
+     * A Ticker that only moves when the test says so.
+     */
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long time, TimeUnit unit) {
+            nanos += unit.toNanos(time);
+        }
+    }
+}
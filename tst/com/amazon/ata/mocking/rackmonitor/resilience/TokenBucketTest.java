@@ -0,0 +1,108 @@
+package com.amazon.ata.mocking.rackmonitor.resilience;
+
+import com.google.common.base.Ticker;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketTest {
+    FakeTicker ticker = new FakeTicker();
+
+    @Test
+    public void tryAcquire_burstSpent_refillsAtRate() {
+        // GIVEN
+        TokenBucket bucket = new TokenBucket(10, 3, ticker);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(bucket.tryAcquire(false));
+        }
+        assertFalse(bucket.tryAcquire(false), "The burst should be spent!");
+
+        // WHEN
+        ticker.advance(100, TimeUnit.MILLISECONDS);
+
+        // THEN
+        assertTrue(bucket.tryAcquire(false), "One token should accrue every 100ms!");
+        assertFalse(bucket.tryAcquire(false));
+    }
+
+    @Test
+    public void tryAcquire_longIdle_neverExceedsBurst() {
+        // GIVEN
+        TokenBucket bucket = new TokenBucket(10, 2, ticker);
+
+        // WHEN
+        ticker.advance(1, TimeUnit.HOURS);
+
+        // THEN
+        assertTrue(bucket.tryAcquire(false));
+        assertTrue(bucket.tryAcquire(false));
+        assertFalse(bucket.tryAcquire(false));
+    }
+
+    @Test
+    public void setRate_unlimitedBucket_startsLimitingFull() {
+        // GIVEN
+        TokenBucket bucket = TokenBucket.unlimited();
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(bucket.tryAcquire(false));
+        }
+
+        // WHEN
+        bucket.setRate(0.001, 2);
+
+        // THEN
+        assertTrue(bucket.tryAcquire(false));
+        assertTrue(bucket.tryAcquire(false));
+        assertFalse(bucket.tryAcquire(false));
+    }
+
+    @Test
+    public void acquire_urgentCallerWaiting_goesBeforeOrdinaryCaller() throws Exception {
+        // GIVEN
+        TokenBucket bucket = new TokenBucket(10, 1);
+        bucket.acquire(false);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        Thread inspect = new Thread(() -> {
+            bucket.acquire(false);
+            order.add("INSPECT");
+        });
+        Thread replace = new Thread(() -> {
+            bucket.acquire(true);
+            order.add("REPLACE");
+        });
+
+        // WHEN
+        inspect.start();
+        Thread.sleep(20);
+        replace.start();
+        inspect.join(2_000);
+        replace.join(2_000);
+
+        // THEN
+        assertEquals(Arrays.asList("REPLACE", "INSPECT"), order);
+    }
+
+    /**
+     * A Ticker that only moves when the test says so.
+     */
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long time, TimeUnit unit) {
+            nanos += unit.toNanos(time);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.amazon.ata.mocking.rackmonitor.schedule;
+
+import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorDependencyException;
+import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorException;
+import com.amazon.ata.mocking.rackmonitor.sweep.SweepFailure;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AdaptiveCadenceTest {
+    AdaptiveCadence cadence = new AdaptiveCadence(0.95D, 10, 1, 11, TimeUnit.SECONDS);
+
+    @Test
+    public void getIntervalNanos_stableFleet_usesMaxInterval() {
+        // GIVEN
+        SweepOutcome outcome = new SweepOutcome(0L, 0, null);
+
+        // WHEN
+        long interval = cadence.getIntervalNanos(outcome);
+
+        // THEN
+        assertEquals(TimeUnit.SECONDS.toNanos(11), interval);
+    }
+
+    @Test
+    public void getIntervalNanos_someServersWatched_slidesTowardsMinInterval() {
+        // GIVEN
+        SweepOutcome outcome = new SweepOutcome(0L, 5, null);
+
+        // WHEN
+        long interval = cadence.getIntervalNanos(outcome);
+
+        // THEN
+        assertEquals(TimeUnit.SECONDS.toNanos(6), interval);
+    }
+
+    @Test
+    public void getIntervalNanos_busyFleet_usesMinInterval() {
+        // GIVEN
+        SweepOutcome outcome = new SweepOutcome(0L, 50, null);
+
+        // WHEN
+        long interval = cadence.getIntervalNanos(outcome);
+
+        // THEN
+        assertEquals(TimeUnit.SECONDS.toNanos(1), interval);
+    }
+
+    @Test
+    public void getIntervalNanos_failedSweep_keepsPreviousInterval() {
+        // GIVEN
+        cadence.getIntervalNanos(new SweepOutcome(0L, 10, null));
+
+        // WHEN
+        long interval = cadence.getIntervalNanos(
+            new SweepOutcome(0L, 0, new RackMonitorDependencyException("Wingnut is down")));
+
+        // THEN
+        assertEquals(TimeUnit.SECONDS.toNanos(1), interval);
+    }
+
+    @Test
+    public void getIntervalNanos_completedSweepWithServerFailures_stillAdapts() {
+        // GIVEN
+        cadence.getIntervalNanos(new SweepOutcome(0L, 10, null));
+        SweepFailure failure = new SweepFailure(null, new Server("TEST0001"),
+            new RackMonitorException("TEST0001 has no warranty"));
+
+        // WHEN
+        long interval = cadence.getIntervalNanos(
+            new SweepOutcome(0L, 0, null, Collections.singletonList(failure)));
+
+        // THEN
+        assertEquals(TimeUnit.SECONDS.toNanos(11), interval);
+    }
+
+    @Test
+    public void constructor_minAboveMax_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new AdaptiveCadence(0.95D, 10, 5, 1, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,233 @@
+package com.amazon.ata.mocking.rackmonitor.schedule;
+
+import com.amazon.ata.mocking.rackmonitor.FixedHealthRack;
+import com.amazon.ata.mocking.rackmonitor.HealthReport;
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RackMonitor;
+import com.amazon.ata.mocking.rackmonitor.RecordingWingnutClient;
+import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyNotFoundException;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutClient;
+import com.amazon.ata.mocking.rackmonitor.simulation.TestServers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MonitoringLoopTest {
+    Map<Server, Integer> unitMap;
+
+    @BeforeEach
+    void setUp() {
+        // Healthy test servers, so no dependency calls are needed
+        unitMap = new HashMap<>();
+        unitMap.put(new Server("TEST0020"), 1);
+        unitMap.put(new Server("TEST0021"), 2);
+    }
+
+    @Test
+    public void start_fixedRate_sweepsRepeatedlyUntilStopped() throws Exception {
+        // GIVEN
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        MonitoringLoop loop = new MonitoringLoop(monitorFor(new Rack("RACK01", unitMap, new TestServers())), scheduler,
+            new FixedRateCadence(5, TimeUnit.MILLISECONDS));
+
+        try {
+            // WHEN
+            loop.start();
+            awaitTrue(() -> loop.getStats().getSweepsCompleted() >= 3);
+            loop.stop();
+
+            // THEN
+            long sweeps = loop.getStats().getSweepsCompleted();
+            Thread.sleep(30);
+            assertFalse(loop.isRunning());
+            assertTrue(loop.getStats().getSweepsCompleted() <= sweeps + 1, "swept after stop()");
+            assertEquals(0, loop.getStats().getSweepsFailed());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void start_sweepOverrunsInterval_countsMissedDeadlinesAndBackpressure() throws Exception {
+        // GIVEN
+        // Each sweep takes about 20ms, but the cadence asks for one every 2ms
+        Rack slowRack = new Rack("RACK01", unitMap, new TestServers()) {
+            @Override
+            public void fillHealth(HealthReport report) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.fillHealth(report);
+            }
+        };
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        MonitoringLoop loop = new MonitoringLoop(monitorFor(slowRack), scheduler,
+            new FixedRateCadence(2, TimeUnit.MILLISECONDS));
+
+        try {
+            // WHEN
+            loop.start();
+            awaitTrue(() -> loop.getStats().getSweepsCompleted() >= 2);
+            loop.stop();
+
+            // THEN
+            LoopStats stats = loop.getStats();
+            assertTrue(stats.getMissedDeadlines() > 0, "no missed deadlines: " + stats);
+            assertTrue(loop.isBackpressured());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void start_alreadyRunning_throwsIllegalStateException() {
+        // GIVEN
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        MonitoringLoop loop = new MonitoringLoop(monitorFor(new Rack("RACK01", unitMap, new TestServers())), scheduler,
+            new FixedRateCadence(1, TimeUnit.SECONDS));
+
+        try {
+            loop.start();
+
+            // WHEN + THEN
+            assertThrows(IllegalStateException.class, loop::start);
+        } finally {
+            loop.stop();
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void start_restartedDuringSweep_keepsOneScheduleChain() throws Exception {
+        // GIVEN
+        // The first sweep holds until the loop has been stopped and started again
+        CountDownLatch sweeping = new CountDownLatch(1);
+        CountDownLatch restarted = new CountDownLatch(1);
+        Rack blockingRack = new Rack("RACK01", unitMap, new TestServers()) {
+            @Override
+            public void fillHealth(HealthReport report) {
+                sweeping.countDown();
+                try {
+                    restarted.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.fillHealth(report);
+            }
+        };
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+        scheduler.setRemoveOnCancelPolicy(true);
+        MonitoringLoop loop = new MonitoringLoop(monitorFor(blockingRack), scheduler,
+            new FixedRateCadence(1, TimeUnit.HOURS));
+
+        try {
+            loop.start();
+            assertTrue(sweeping.await(5, TimeUnit.SECONDS), "never swept");
+
+            // WHEN
+            loop.stop();
+            loop.start();
+            restarted.countDown();
+            awaitTrue(() -> loop.getStats().getSweepsCompleted() >= 2 && !scheduler.getQueue().isEmpty());
+            Thread.sleep(30);
+
+            // THEN
+            assertEquals(1, scheduler.getQueue().size(), "the sweep from before the restart rescheduled itself");
+        } finally {
+            loop.stop();
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void start_oneServerFails_stillChecksTheRest() throws Exception {
+        // GIVEN
+        FixedHealthRack rack = new FixedHealthRack("RACK01", "SRV0001", "SRV0002");
+        rack.setAll(0.5);
+        RecordingWingnutClient wingnutClient = new RecordingWingnutClient();
+        wingnutClient.setFailFor("SRV0001");
+        RackMonitor rackMonitor = new RackMonitor(Collections.singleton(rack), wingnutClient,
+            new WarrantyClient(server -> Warranty.nullWarranty()), 0.9D, 0.8D);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        MonitoringLoop loop = new MonitoringLoop(rackMonitor, scheduler, new FixedRateCadence(1, TimeUnit.HOURS));
+
+        try {
+            // WHEN
+            loop.start();
+            awaitTrue(() -> loop.getStats().getServerFailures() >= 1);
+
+            // THEN
+            assertTrue(wingnutClient.getRequests().contains("REPLACE SRV0002"),
+                "the failure for SRV0001 cut the sweep short");
+            assertEquals(0, loop.getStats().getSweepsFailed(), "a failed server shouldn't fail the sweep");
+            assertTrue(loop.isBackpressured(), "a failed dependency should back the loop off");
+        } finally {
+            loop.stop();
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void start_serverAlwaysFails_stillAdaptsTheInterval() throws Exception {
+        // GIVEN
+        // SRV0001 needs replacing but has no warranty, so it fails every sweep
+        FixedHealthRack rack = new FixedHealthRack("RACK01", "SRV0001", "SRV0002");
+        rack.set("SRV0001", 0.5);
+        RackMonitor rackMonitor = new RackMonitor(Collections.singleton(rack), new RecordingWingnutClient(),
+            new WarrantyClient(server -> {
+                throw new WarrantyNotFoundException("no warranty for " + server);
+            }), 0.9D, 0.8D);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        // One watched server calls for the 5ms minimum; a stuck cadence would wait an hour
+        MonitoringLoop loop = new MonitoringLoop(rackMonitor, scheduler,
+            new AdaptiveCadence(0.95D, 1, 5, TimeUnit.HOURS.toMillis(1), TimeUnit.MILLISECONDS));
+
+        try {
+            // WHEN
+            loop.start();
+            awaitTrue(() -> loop.getStats().getSweepsCompleted() >= 3);
+
+            // THEN
+            LoopStats stats = loop.getStats();
+            assertEquals(0, stats.getSweepsFailed(), "a failed server shouldn't fail the sweep");
+            assertTrue(stats.getServerFailures() >= 3, "every sweep should count its failed server: " + stats);
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(5), stats.getIntervalNanos());
+        } finally {
+            loop.stop();
+            scheduler.shutdownNow();
+        }
+    }
+
+    private RackMonitor monitorFor(Rack rack) {
+        return new RackMonitor(Collections.singleton(rack), new WingnutClient(), new WarrantyClient(new TestServers()),
+            0.9D, 0.8D);
+    }
+
+    private void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.amazon.ata.mocking.rackmonitor.shard;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutClient;
+import com.amazon.ata.mocking.rackmonitor.incidents.ConcurrentIncidentStore;
+import com.amazon.ata.mocking.rackmonitor.incidents.IncidentStore;
+import com.amazon.ata.mocking.rackmonitor.simulation.TestServers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LocalShardCoordinatorTest {
+    static final int RACKS = 100;
+    Set<Rack> racks;
+    LocalShardCoordinator coordinator;
+    IncidentStore incidents;
+    AtomicInteger replacements;
+    WingnutClient wingnutClient;
+    List<MonitorShard> shards;
+
+    @BeforeEach
+    void setUp() {
+        // Every rack has one unhealthy test server
+        racks = new HashSet<>();
+        for (int n = 0; n < RACKS; n++) {
+            racks.add(new Rack(String.format("RACK%03d", n), Collections.singletonMap(new Server("TEST0001"), 1),
+                new TestServers()));
+        }
+        coordinator = new LocalShardCoordinator(racks, 64);
+        incidents = new ConcurrentIncidentStore();
+        replacements = new AtomicInteger();
+        wingnutClient = new WingnutClient() {
+            @Override
+            public void requestReplacement(Rack rack, int unit, Warranty warranty) {
+                replacements.incrementAndGet();
+            }
+        };
+        shards = new ArrayList<>();
+        for (String shardId : new String[] {"a", "b", "c"}) {
+            MonitorShard shard = newShard(shardId);
+            shards.add(shard);
+            coordinator.join(shard);
+        }
+    }
+
+    @Test
+    public void join_threeShards_everyRackOwnedByExactlyOneShard() {
+        // GIVEN
+        Set<Rack> owned = new HashSet<>();
+        int total = 0;
+
+        // WHEN
+        for (MonitorShard shard : shards) {
+            assertFalse(shard.getAssignedRacks().isEmpty(), shard + " owns nothing");
+            owned.addAll(shard.getAssignedRacks());
+            total += shard.getAssignedRacks().size();
+        }
+
+        // THEN
+        assertEquals(racks, owned);
+        assertEquals(RACKS, total);
+        for (MonitorShard shard : shards) {
+            for (Rack rack : shard.getAssignedRacks()) {
+                assertEquals(shard.getShardId(), coordinator.ownerOf(rack));
+            }
+        }
+    }
+
+    @Test
+    public void join_newShard_movesOnlyRacksToTheNewShard() {
+        // GIVEN
+        Map<Rack, String> before = new HashMap<>();
+        for (Rack rack : racks) {
+            before.put(rack, coordinator.ownerOf(rack));
+        }
+
+        // WHEN
+        MonitorShard newShard = newShard("d");
+        coordinator.join(newShard);
+
+        // THEN
+        assertFalse(newShard.getAssignedRacks().isEmpty());
+        for (Rack rack : racks) {
+            String owner = coordinator.ownerOf(rack);
+            assertTrue(owner.equals(before.get(rack)) || owner.equals("d"), rack + " moved to " + owner);
+        }
+        assertEquals(4, coordinator.getAssignments().size());
+    }
+
+    @Test
+    public void leave_afterSweeping_handsOffRacksWithoutRepeatRequests() throws Exception {
+        // GIVEN
+        for (MonitorShard shard : shards) {
+            shard.getRackMonitor().monitorRacks();
+        }
+        assertEquals(RACKS, replacements.get());
+
+        // WHEN
+        coordinator.leave("b");
+        for (MonitorShard shard : shards) {
+            shard.getRackMonitor().monitorRacks();
+        }
+
+        // THEN
+        assertTrue(shards.get(1).getAssignedRacks().isEmpty());
+        assertEquals(RACKS, shards.get(0).getAssignedRacks().size() + shards.get(2).getAssignedRacks().size());
+        assertEquals(RACKS, replacements.get());
+    }
+
+    @Test
+    public void leave_lastShard_noRackHasAnOwner() {
+        // WHEN
+        coordinator.leave("a");
+        coordinator.leave("b");
+        coordinator.leave("c");
+
+        // THEN
+        for (MonitorShard shard : shards) {
+            assertTrue(shard.getAssignedRacks().isEmpty());
+        }
+        assertNull(coordinator.ownerOf(racks.iterator().next()));
+    }
+
+    @Test
+    public void join_duplicateShardId_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> coordinator.join(newShard("a")));
+    }
+
+    private MonitorShard newShard(String shardId) {
+        return new MonitorShard(shardId, wingnutClient, new WarrantyClient(new TestServers()), 0.9D, 0.8D, incidents);
+    }
+}
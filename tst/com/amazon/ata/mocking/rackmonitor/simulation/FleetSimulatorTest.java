@@ -0,0 +1,132 @@
+package com.amazon.ata.mocking.rackmonitor.simulation;
+
+import com.amazon.ata.mocking.rackmonitor.HealthReport;
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyNotFoundException;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FleetSimulatorTest {
+
+    @Test
+    public void generate_sameSeed_buildsTheSameFleetWithTheSameHealth() {
+        // GIVEN
+        Set<Rack> first = new FleetSimulator(7L, 0.1).generate(20, 30);
+        Set<Rack> second = new FleetSimulator(7L, 0.1).generate(20, 30);
+
+        // WHEN
+        List<Double> firstHealth = healthOf(first);
+        List<Double> secondHealth = healthOf(second);
+
+        // THEN
+        assertEquals(600, firstHealth.size());
+        assertEquals(firstHealth, secondHealth, "The same seed should give the same health!");
+        Iterator<Rack> racks = second.iterator();
+        for (Rack rack : first) {
+            assertEquals(rack.getRackId(), racks.next().getRackId());
+        }
+    }
+
+    @Test
+    public void getHealth_idsWithTheSameStringHashCode_differ() {
+        // GIVEN
+        FleetSimulator simulator = new FleetSimulator(7L, 0.0);
+        Server first = new Server("SIMAa");
+        Server second = new Server("SIMBB");
+        assertEquals(first.getServerId().hashCode(), second.getServerId().hashCode());
+
+        // WHEN
+        double firstHealth = simulator.getHealth(first);
+        double secondHealth = simulator.getHealth(second);
+
+        // THEN
+        assertNotEquals(firstHealth, secondHealth, "Servers should be hashed by their whole ID!");
+    }
+
+    @Test
+    public void getHealth_acrossFleet_isUniformlyDistributed() {
+        // GIVEN
+        FleetSimulator simulator = new FleetSimulator(7L, 0.0);
+        int servers = 100_000;
+
+        // WHEN
+        int below = 0;
+        for (int n = 0; n < servers; n++) {
+            if (simulator.getHealth(new Server(String.format("SIM%010d", n))) < 0.25) {
+                below++;
+            }
+        }
+
+        // THEN
+        assertEquals(0.25, (double) below / servers, 0.01, "A quarter of the fleet should be below 0.25!");
+    }
+
+    @Test
+    public void advance_newRound_changesHealthButNotWarranties() throws Exception {
+        // GIVEN
+        FleetSimulator simulator = new FleetSimulator(7L, 0.0);
+        Server server = new Server("SIM0000000042");
+        double before = simulator.getHealth(server);
+        String warrantyBefore = simulator.getWarranty(server).toString();
+
+        // WHEN
+        simulator.advance();
+
+        // THEN
+        assertNotEquals(before, simulator.getHealth(server), "A new round should re-roll health!");
+        assertEquals(warrantyBefore, simulator.getWarranty(server).toString());
+        assertEquals(1, simulator.getRound());
+    }
+
+    @Test
+    public void getWarrantyForServer_unwarrantiedShare_throwsForAboutThatShare() {
+        // GIVEN
+        WarrantyClient warrantyClient = new FleetSimulator(7L, 0.2).warrantyClient();
+        int servers = 10_000;
+
+        // WHEN
+        int unwarrantied = 0;
+        for (int n = 0; n < servers; n++) {
+            try {
+                warrantyClient.getWarrantyForServer(new Server(String.format("SIM%010d", n)));
+            } catch (WarrantyNotFoundException e) {
+                unwarrantied++;
+            }
+        }
+
+        // THEN
+        assertEquals(0.2, (double) unwarrantied / servers, 0.02, "About a fifth should have no warranty!");
+    }
+
+    @Test
+    public void constructor_ratioAboveOne_throwsIllegalArgumentException() {
+        // GIVEN
+        // An impossible share of servers
+
+        // WHEN and THEN
+        assertThrows(IllegalArgumentException.class, () -> new FleetSimulator(7L, 1.5));
+    }
+
+    private List<Double> healthOf(Set<Rack> fleet) {
+        List<Double> health = new ArrayList<>();
+        HealthReport report = new HealthReport();
+        for (Rack rack : fleet) {
+            rack.fillHealth(report);
+            for (int unit = 0; unit < report.getUnitCount(); unit++) {
+                health.add(report.getHealth(unit));
+            }
+        }
+        return health;
+    }
+}
@@ -0,0 +1,143 @@
+package com.amazon.ata.mocking.rackmonitor.smoothing;
+
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HealthSmootherTest {
+    HealthSmoother smoother;
+
+    @BeforeEach
+    void setUp() {
+        smoother = new HealthSmoother(0.9, 0.8);
+    }
+
+    @Test
+    public void update_disabled_comparesEachReadingDirectly() {
+        // GIVEN
+        // A smoother that hasn't been configured
+
+        // WHEN
+        RequestAction healthy = smoother.update("SRV01", 0.95);
+        RequestAction shaky = smoother.update("SRV01", 0.85);
+        RequestAction unhealthy = smoother.update("SRV01", 0.5);
+
+        // THEN
+        assertNull(healthy);
+        assertEquals(RequestAction.INSPECT, shaky);
+        assertEquals(RequestAction.REPLACE, unhealthy);
+        assertEquals(0, smoother.getServerCount());
+    }
+
+    @Test
+    public void update_singleDip_doesNotFire() {
+        // GIVEN
+        smoother.configure(1.0, 0.0, 3);
+
+        // WHEN
+        RequestAction afterDip = smoother.update("SRV01", 0.5);
+        RequestAction afterRecovery = smoother.update("SRV01", 0.95);
+
+        // THEN
+        assertNull(afterDip);
+        assertNull(afterRecovery);
+    }
+
+    @Test
+    public void update_sustainedCrossing_firesAfterConfirmReadings() {
+        // GIVEN
+        smoother.configure(1.0, 0.0, 3);
+
+        // WHEN
+        List<RequestAction> actions = new ArrayList<>();
+        for (int n = 0; n < 3; n++) {
+            actions.add(smoother.update("SRV01", 0.85));
+        }
+
+        // THEN
+        assertNull(actions.get(0));
+        assertNull(actions.get(1));
+        assertEquals(RequestAction.INSPECT, actions.get(2));
+        assertEquals(RequestAction.INSPECT, smoother.getLevel("SRV01"));
+    }
+
+    @Test
+    public void update_hoveringAroundThreshold_staysAtLevelWithinBand() {
+        // GIVEN
+        smoother.configure(1.0, 0.05, 1);
+        smoother.update("SRV01", 0.89);
+
+        // WHEN
+        RequestAction justAbove = smoother.update("SRV01", 0.91);
+        RequestAction justBelow = smoother.update("SRV01", 0.89);
+        RequestAction clearOfBand = smoother.update("SRV01", 0.96);
+
+        // THEN
+        assertEquals(RequestAction.INSPECT, justAbove);
+        assertEquals(RequestAction.INSPECT, justBelow);
+        assertNull(clearOfBand);
+    }
+
+    @Test
+    public void update_noisyReadings_averagesThem() {
+        // GIVEN
+        smoother.configure(0.5, 0.0, 1);
+
+        // WHEN
+        smoother.update("SRV01", 1.0);
+        RequestAction afterOneBadReading = smoother.update("SRV01", 0.6);
+        RequestAction afterSecondBadReading = smoother.update("SRV01", 0.6);
+
+        // THEN
+        // 0.8, then 0.7
+        assertEquals(0.7, smoother.getSmoothedHealth("SRV01"), 1e-6);
+        assertEquals(RequestAction.INSPECT, afterOneBadReading);
+        assertEquals(RequestAction.REPLACE, afterSecondBadReading);
+    }
+
+    @Test
+    public void update_manyServersFromManyThreads_losesNoReadings() throws Exception {
+        // GIVEN
+        // With alpha 1.0 and no confirmation, a Server's average is its last reading
+        smoother.configure(1.0, 0.0, 1);
+        int servers = 10_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int n = 0; n < servers; n++) {
+                    smoother.update("SRV" + n, 0.5);
+                }
+            });
+            threads.add(thread);
+        }
+
+        // WHEN
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // THEN
+        assertEquals(servers, smoother.getServerCount());
+        for (int n = 0; n < servers; n++) {
+            assertEquals(RequestAction.REPLACE, smoother.getLevel("SRV" + n));
+        }
+        assertTrue(Double.isNaN(smoother.getSmoothedHealth("UNKNOWN")));
+    }
+
+    @Test
+    public void configure_alphaOutOfRange_throwsIllegalArgumentException() {
+        // WHEN + THEN
+        assertThrows(IllegalArgumentException.class, () -> smoother.configure(0.0, 0.0, 1));
+        assertThrows(IllegalArgumentException.class, () -> smoother.configure(0.5, -0.1, 1));
+    }
+}
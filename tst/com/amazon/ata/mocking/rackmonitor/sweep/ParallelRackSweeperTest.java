@@ -0,0 +1,124 @@
+package com.amazon.ata.mocking.rackmonitor.sweep;
+
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RackMonitor;
+import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutClient;
+import com.amazon.ata.mocking.rackmonitor.clients.wingnut.WingnutServiceException;
+import com.amazon.ata.mocking.rackmonitor.exceptions.RackMonitorDependencyException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class ParallelRackSweeperTest {
+    ParallelRackSweeper sweeper;
+    ExecutorService executor;
+    @Mock
+    WingnutClient wingnutClient;
+    @Mock
+    WarrantyClient warrantyClient;
+    @Mock
+    Rack rack1;
+    @Mock
+    Rack rack2;
+    Server server1 = new Server("TEST0001");
+    Server server2 = new Server("TEST0002");
+    Map<Server, Double> rack1Health = new HashMap<>();
+    Map<Server, Double> rack2Health = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        initMocks(this);
+        rack1Health.put(server1, 0.5D);
+        rack2Health.put(server2, 0.5D);
+        when(rack1.getUnitForServer(server1)).thenReturn(1);
+        when(rack2.getUnitForServer(server2)).thenReturn(2);
+        when(warrantyClient.getWarrantyForServer(server1)).thenReturn(Warranty.nullWarranty());
+        when(warrantyClient.getWarrantyForServer(server2)).thenReturn(Warranty.nullWarranty());
+
+        RackMonitor rackMonitor = new RackMonitor(new HashSet<>(Arrays.asList(rack1, rack2)),
+            wingnutClient, warrantyClient, 0.9D, 0.8D);
+        executor = Executors.newFixedThreadPool(2);
+        sweeper = new ParallelRackSweeper(rackMonitor, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void sweep_withUnhealthyServerInEachRack_replacesEveryServer() throws Exception {
+        // GIVEN
+        // Each rack has a single unhealthy server
+        when(rack1.getHealth()).thenReturn(rack1Health);
+        when(rack2.getHealth()).thenReturn(rack2Health);
+
+        // WHEN
+        SweepReport report = sweeper.sweep();
+
+        // THEN
+        verify(wingnutClient).requestReplacement(rack1, 1, Warranty.nullWarranty());
+        verify(wingnutClient).requestReplacement(rack2, 2, Warranty.nullWarranty());
+        assertFalse(report.hasFailures(), "A clean sweep should report no failures!");
+        assertEquals(2, report.getServersChecked());
+        assertEquals(2, report.getRackLatencyNanos().size(), "Every rack should report its latency!");
+    }
+
+    @Test
+    public void sweep_withWingnutFailureInOneRack_recordsFailureAndSweepsOtherRacks() throws Exception {
+        // GIVEN
+        // Wingnut fails for the server in the first rack only
+        when(rack1.getHealth()).thenReturn(rack1Health);
+        when(rack2.getHealth()).thenReturn(rack2Health);
+        doThrow(WingnutServiceException.class)
+            .when(wingnutClient).requestReplacement(rack1, 1, Warranty.nullWarranty());
+
+        // WHEN
+        SweepReport report = sweeper.sweep();
+
+        // THEN
+        verify(wingnutClient).requestReplacement(rack2, 2, Warranty.nullWarranty());
+        assertEquals(1, report.getFailures().size(), "The Wingnut failure should be reported!");
+        SweepFailure failure = report.getFailures().get(0);
+        assertEquals(server1, failure.getServer());
+        assertTrue(failure.getException() instanceof RackMonitorDependencyException,
+            "A Wingnut failure should be reported as a dependency failure!");
+    }
+
+    @Test
+    public void sweep_withRackHealthFailure_recordsRackFailure() throws Exception {
+        // GIVEN
+        // The first rack can't report its health
+        when(rack1.getHealth()).thenThrow(IllegalStateException.class);
+        when(rack2.getHealth()).thenReturn(rack2Health);
+
+        // WHEN
+        SweepReport report = sweeper.sweep();
+
+        // THEN
+        verify(wingnutClient).requestReplacement(rack2, 2, Warranty.nullWarranty());
+        assertEquals(1, report.getFailures().size(), "The rack failure should be reported!");
+        assertNull(report.getFailures().get(0).getServer(), "A rack failure has no server!");
+    }
+}
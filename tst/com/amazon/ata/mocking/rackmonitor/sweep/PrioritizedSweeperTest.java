@@ -0,0 +1,128 @@
+package com.amazon.ata.mocking.rackmonitor.sweep;
+
+import com.amazon.ata.mocking.rackmonitor.FixedHealthRack;
+import com.amazon.ata.mocking.rackmonitor.Rack;
+import com.amazon.ata.mocking.rackmonitor.RackMonitor;
+import com.amazon.ata.mocking.rackmonitor.RecordingWingnutClient;
+import com.amazon.ata.mocking.rackmonitor.RequestAction;
+import com.amazon.ata.mocking.rackmonitor.Server;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.Warranty;
+import com.amazon.ata.mocking.rackmonitor.clients.warranty.WarrantyClient;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrioritizedSweeperTest {
+    ExecutorService executor;
+    RecordingWingnutClient wingnutClient = new RecordingWingnutClient();
+    WarrantyClient warrantyClient = new WarrantyClient(server -> Warranty.nullWarranty());
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void sweep_oneWorker_filesReplacementsFirstThenLowestHealth() throws Exception {
+        // GIVEN
+        FixedHealthRack rack = new FixedHealthRack("RACK01", "SHAKY01", "DEAD01", "HEALTHY", "SHAKY02", "DEAD02");
+        rack.set("SHAKY01", 0.85);
+        rack.set("DEAD01", 0.1);
+        rack.set("HEALTHY", 0.95);
+        rack.set("SHAKY02", 0.82);
+        rack.set("DEAD02", 0.7);
+        PrioritizedSweeper sweeper = new PrioritizedSweeper(monitorOf(rack), executor, 1);
+
+        // WHEN
+        List<SweepFailure> failures = sweeper.sweep();
+
+        // THEN
+        assertTrue(failures.isEmpty());
+        assertEquals(Arrays.asList("REPLACE DEAD01", "REPLACE DEAD02", "INSPECT SHAKY02", "INSPECT SHAKY01"),
+            wingnutClient.getRequests());
+    }
+
+    @Test
+    public void sweep_weightedRack_isHandledAheadOfEquallyHealthyRack() throws Exception {
+        // GIVEN
+        FixedHealthRack ordinary = new FixedHealthRack("RACK01", "ORDINARY");
+        ordinary.set("ORDINARY", 0.5);
+        FixedHealthRack critical = new FixedHealthRack("RACK02", "CRITICAL");
+        critical.set("CRITICAL", 0.6);
+        PrioritizedSweeper sweeper = new PrioritizedSweeper(monitorOf(ordinary, critical), executor, 1,
+            rack -> rack == critical ? 2.0 : 1.0);
+
+        // WHEN
+        sweeper.sweep();
+
+        // THEN
+        assertEquals(Arrays.asList("REPLACE CRITICAL", "REPLACE ORDINARY"), wingnutClient.getRequests());
+    }
+
+    @Test
+    public void sweep_wingnutFailsForOneServer_reportsItAndFilesTheRest() throws Exception {
+        // GIVEN
+        FixedHealthRack rack = new FixedHealthRack("RACK01", "DEAD01", "DEAD02");
+        rack.set("DEAD01", 0.1);
+        rack.set("DEAD02", 0.2);
+        wingnutClient.setFailFor("DEAD01");
+        PrioritizedSweeper sweeper = new PrioritizedSweeper(monitorOf(rack), executor, 1);
+
+        // WHEN
+        List<SweepFailure> failures = sweeper.sweep();
+
+        // THEN
+        assertEquals(1, failures.size());
+        assertEquals(new Server("DEAD01"), failures.get(0).getServer());
+        assertEquals(Collections.singletonList("REPLACE DEAD02"), wingnutClient.getRequests());
+    }
+
+    @Test
+    public void severityOf_anyReplacement_ranksAheadOfAnyInspection() {
+        // GIVEN
+        double healthiestReplacement = PrioritizedSweeper.severityOf(RequestAction.REPLACE, 0.79, 1.0);
+        double sickestInspection = PrioritizedSweeper.severityOf(RequestAction.INSPECT, 0.0, 1.0);
+
+        // WHEN
+        double unweightedRack = PrioritizedSweeper.severityOf(RequestAction.INSPECT, 0.85, 0.0);
+
+        // THEN
+        assertTrue(healthiestReplacement < sickestInspection);
+        assertEquals(1.0, unweightedRack);
+    }
+
+    @Test
+    public void severityOf_downweightedReplacement_stillRanksAheadOfSickestInspection() {
+        // GIVEN
+        double sickestInspection = PrioritizedSweeper.severityOf(RequestAction.INSPECT, 0.0, 1.0);
+
+        // WHEN
+        double downweighted = PrioritizedSweeper.severityOf(RequestAction.REPLACE, 0.74, 0.5);
+        double unweightedRack = PrioritizedSweeper.severityOf(RequestAction.REPLACE, 0.74, 0.0);
+
+        // THEN
+        assertTrue(downweighted < sickestInspection, "A REPLACE should never tie an INSPECT!");
+        assertTrue(unweightedRack < sickestInspection);
+        assertTrue(PrioritizedSweeper.severityOf(RequestAction.REPLACE, 0.1, 1.0) < downweighted);
+    }
+
+    private RackMonitor monitorOf(Rack... racks) {
+        return new RackMonitor(new HashSet<>(Arrays.asList(racks)), wingnutClient, warrantyClient, 0.9D, 0.8D);
+    }
+}
@@ -0,0 +1,99 @@
+package com.amazon.ata.mocking.rackmonitor.sweep;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SeverityQueueTest {
+
+    @Test
+    public void poll_mixedSeverities_returnsMostSevereFirst() {
+        // GIVEN
+        SeverityQueue<String> queue = new SeverityQueue<>(64);
+        queue.offer("mild", 0.9);
+        queue.offer("worst", 0.0);
+        queue.offer("bad", 0.3);
+
+        // WHEN
+        String first = queue.poll();
+        String second = queue.poll();
+        String third = queue.poll();
+
+        // THEN
+        assertEquals("worst", first);
+        assertEquals("bad", second);
+        assertEquals("mild", third);
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void poll_sameSeverity_returnsInOfferOrder() {
+        // GIVEN
+        SeverityQueue<Integer> queue = new SeverityQueue<>(64);
+        for (int n = 0; n < 5; n++) {
+            queue.offer(n, 0.5);
+        }
+
+        // WHEN
+        List<Integer> polled = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            polled.add(queue.poll());
+        }
+
+        // THEN
+        assertEquals(List.of(0, 1, 2, 3, 4), polled);
+    }
+
+    @Test
+    public void offer_outOfRangeSeverity_isClamped() {
+        // GIVEN
+        SeverityQueue<String> queue = new SeverityQueue<>(64);
+
+        // WHEN
+        queue.offer("nan", Double.NaN);
+        queue.offer("above", 7.0);
+        queue.offer("below", -3.0);
+
+        // THEN
+        assertEquals(3, queue.size());
+        assertEquals("below", queue.poll());
+        assertEquals("nan", queue.poll());
+        assertEquals("above", queue.poll());
+    }
+
+    @Test
+    public void poll_manyItems_matchesSortedOrderToWithinABucket() {
+        // GIVEN
+        int buckets = 1024;
+        SeverityQueue<Double> queue = new SeverityQueue<>(buckets);
+        Random random = new Random(19);
+        List<Double> severities = new ArrayList<>();
+        for (int n = 0; n < 200_000; n++) {
+            double severity = random.nextDouble();
+            severities.add(severity);
+            queue.offer(severity, severity);
+        }
+        Collections.sort(severities);
+
+        // WHEN
+        List<Double> polled = new ArrayList<>();
+        Double next;
+        while ((next = queue.poll()) != null) {
+            polled.add(next);
+        }
+
+        // THEN
+        assertEquals(severities.size(), polled.size());
+        for (int n = 0; n < polled.size(); n++) {
+            assertEquals(severities.get(n), polled.get(n), 1.0 / buckets);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.amazon.ata.mocking.rackmonitor.telemetry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HealthScorerTest {
+    // Nominal at 40C and 200W, failed at 90C and 400W, rated for 1000 hours, all weighted equally
+    HealthScorer scorer = new HealthScorer(40, 90, 200, 400, 1000, 1, 1, 1);
+
+    @Test
+    public void score_newServerAtNominal_isPerfectlyHealthy() {
+        // GIVEN
+        // A scorer
+
+        // WHEN
+        double health = scorer.score(35, 150, 0);
+
+        // THEN
+        assertEquals(1.0, health, 1e-9);
+    }
+
+    @Test
+    public void score_betweenNominalAndMax_fallsLinearly() {
+        // GIVEN
+        // Halfway to the maximum temperature, at nominal power, halfway through its life
+
+        // WHEN
+        double health = scorer.score(65, 200, 500);
+
+        // THEN
+        assertEquals((0.5 + 1.0 + 0.5) / 3, health, 1e-9);
+    }
+
+    @Test
+    public void score_beyondEveryMaximum_isZero() {
+        // GIVEN
+        // A scorer
+
+        // WHEN
+        double health = scorer.score(120, 900, 5000);
+
+        // THEN
+        assertEquals(0.0, health, 1e-9);
+    }
+
+    @Test
+    public void score_withNoTelemetry_isNaN() {
+        // GIVEN
+        // No samples, so the means are zero divided by zero
+        double noMean = 0.0 / 0;
+
+        // WHEN
+        double health = scorer.score(noMean, noMean, 0);
+
+        // THEN
+        assertTrue(Double.isNaN(health), "A server with no telemetry should have no health!");
+    }
+
+    @Test
+    public void constructor_maxNotAboveNominal_throwsIllegalArgumentException() {
+        // GIVEN
+        // A maximum temperature below the nominal one
+
+        // WHEN and THEN
+        assertThrows(IllegalArgumentException.class,
+            () -> new HealthScorer(40, 30, 200, 400, 1000, 1, 1, 1));
+    }
+}
@@ -0,0 +1,102 @@
+package com.amazon.ata.mocking.rackmonitor.telemetry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RackTelemetryTest {
+    // Only temperature counts, so health tracks the mean temperature: 1.0 at 0C, 0.0 at 100C
+    HealthScorer temperatureOnly = new HealthScorer(0, 100, 0, 1, 1, 1, 0, 0);
+    RackTelemetry telemetry;
+
+    @BeforeEach
+    void setUp() {
+        telemetry = new RackTelemetry(3, 4);
+    }
+
+    @Test
+    public void score_partialWindow_averagesSamplesSoFar() {
+        // GIVEN
+        telemetry.record(0, 20, 0, 0);
+        telemetry.record(0, 40, 0, 0);
+
+        // WHEN
+        double health = telemetry.score(temperatureOnly, 0);
+
+        // THEN
+        assertEquals(0.7, health, 1e-6);
+        assertEquals(2, telemetry.getSampleCount(0));
+    }
+
+    @Test
+    public void record_fullWindow_dropsOldestSample() {
+        // GIVEN
+        telemetry.record(1, 90, 0, 0);
+        for (int n = 0; n < 4; n++) {
+            telemetry.record(1, 10, 0, 0);
+        }
+
+        // WHEN
+        double health = telemetry.score(temperatureOnly, 1);
+
+        // THEN
+        assertEquals(0.9, health, 1e-6);
+        assertEquals(4, telemetry.getSampleCount(1));
+    }
+
+    @Test
+    public void score_wholeRack_scoresEachUnitAndLeavesSilentUnitsNaN() {
+        // GIVEN
+        telemetry.record(0, 30, 0, 0);
+        telemetry.record(2, 80, 0, 0);
+        double[] health = new double[3];
+
+        // WHEN
+        telemetry.score(temperatureOnly, health);
+
+        // THEN
+        assertEquals(0.7, health[0], 1e-6);
+        assertTrue(Double.isNaN(health[1]), "A unit with no telemetry should have no health!");
+        assertEquals(0.2, health[2], 1e-6);
+    }
+
+    @Test
+    public void score_manyLaps_matchesLatestWindow() {
+        // GIVEN
+        for (int n = 0; n < 1001; n++) {
+            telemetry.record(0, n % 100, 0, 0);
+        }
+
+        // WHEN
+        double health = telemetry.score(temperatureOnly, 0);
+
+        // THEN
+        // The last four samples were 97, 98, 99 and 0
+        assertEquals(1 - (97 + 98 + 99 + 0) / 4.0 / 100, health, 1e-6);
+    }
+
+    @Test
+    public void clear_forgetsEverySample() {
+        // GIVEN
+        telemetry.record(0, 30, 0, 0);
+
+        // WHEN
+        telemetry.clear();
+
+        // THEN
+        assertEquals(0, telemetry.getSampleCount(0));
+        assertTrue(Double.isNaN(telemetry.score(temperatureOnly, 0)), "A cleared unit should have no health!");
+    }
+
+    @Test
+    public void record_unitOutsideRack_throwsIndexOutOfBoundsException() {
+        // GIVEN
+        // A 3-unit rack
+
+        // WHEN and THEN
+        assertThrows(IndexOutOfBoundsException.class, () -> telemetry.record(3, 30, 0, 0));
+    }
+}